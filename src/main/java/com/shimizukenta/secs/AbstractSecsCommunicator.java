@@ -1,16 +1,19 @@
 package com.shimizukenta.secs;
 
 import java.io.IOException;
+import java.nio.channels.AsynchronousChannelGroup;
 import java.util.Collection;
 import java.util.Objects;
 import java.util.Optional;
 import java.util.concurrent.BlockingQueue;
 import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
 import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.TimeoutException;
 
@@ -26,16 +29,38 @@ import com.shimizukenta.secs.sml.SmlMessage;
  */
 public abstract class AbstractSecsCommunicator implements SecsCommunicator {
 	
-	private final ExecutorService execServ = Executors.newCachedThreadPool(r -> {
-		Thread th = new Thread(r);
-		th.setDaemon(true);
-		return th;
-	});
-	
+	private final ExecutorService execServ;
+	
+	/**
+	 * ExecutorService getter.
+	 * 
+	 * <p>
+	 * Tasks are cancelled on close, also if executor is shared by config.<br />
+	 * </p>
+	 * 
+	 * @return executor of this communicator
+	 */
 	protected ExecutorService executorService() {
 		return execServ;
 	}
 	
+	private static ExecutorService createExecutorService(AbstractSecsCommunicatorConfig config) {
+		
+		final ExecutorService shared = config.executorService().orElse(null);
+		
+		if ( shared == null ) {
+			
+			return new SecsCommunicatorExecutorService(
+					Executors.newCachedThreadPool(
+							config.threadFactory().orElseGet(() -> SecsThreadFactories.daemon("SecsCommunicator-"))),
+					false);
+			
+		} else {
+			
+			return new SecsCommunicatorExecutorService(shared, true);
+		}
+	}
+	
 	protected static Runnable createLoopTask(InterruptableRunnable task) {
 		return new Runnable() {
 			@Override
@@ -55,14 +80,53 @@ public abstract class AbstractSecsCommunicator implements SecsCommunicator {
 		execServ.execute(createLoopTask(r));
 	}
 	
+	/**
+	 * Execute tasks, and returns result of first completed.
+	 * 
+	 * @param <T>
+	 * @param tasks
+	 * @return result of first completed task
+	 * @throws InterruptedException if interrupted or communicator closed
+	 * @throws ExecutionException
+	 */
 	protected <T> T executeInvokeAny(Collection<? extends Callable<T>> tasks)
 			throws InterruptedException, ExecutionException{
-		return execServ.invokeAny(tasks);
+		try {
+			return execServ.invokeAny(tasks);
+		}
+		catch ( RejectedExecutionException e ) {
+			throw new InterruptedException("Communicator closed");
+		}
 	}
 	
+	/**
+	 * Execute tasks, and returns result of first completed.
+	 * 
+	 * @param <T>
+	 * @param tasks
+	 * @param timeout
+	 * @return result of first completed task
+	 * @throws InterruptedException if interrupted or communicator closed
+	 * @throws ExecutionException
+	 * @throws TimeoutException
+	 */
 	protected <T> T executeInvokeAny(Collection<? extends Callable<T>> tasks, ReadOnlyTimeProperty timeout)
 			throws InterruptedException, ExecutionException, TimeoutException {
-		return execServ.invokeAny(tasks, timeout.getMilliSeconds(), TimeUnit.MILLISECONDS);
+		try {
+			return execServ.invokeAny(tasks, timeout.getMilliSeconds(), TimeUnit.MILLISECONDS);
+		}
+		catch ( RejectedExecutionException e ) {
+			throw new InterruptedException("Communicator closed");
+		}
+	}
+	
+	/**
+	 * AsynchronousChannelGroup getter.
+	 * 
+	 * @return channel-group of config, {@code null} if system-wide default group
+	 */
+	protected AsynchronousChannelGroup channelGroup() {
+		return this.config.channelGroup().orElse(null);
 	}
 	
 	
@@ -76,6 +140,7 @@ public abstract class AbstractSecsCommunicator implements SecsCommunicator {
 		
 		this.config = config;
 		this.gem = Gem.newInstance(this, config.gem());
+		this.execServ = createExecutorService(config);
 		
 		opened = false;
 		closed = false;
@@ -111,11 +176,8 @@ public abstract class AbstractSecsCommunicator implements SecsCommunicator {
 			this.opened = true;
 		}
 		
-		executeLogQueueTask();
+		executeNotifyQueueTask();
 		executeMsgRecvQueueTask();
-		executeTrySendMsgPassThroughQueueTask();
-		executeSendedMsgPassThroughQueueTask();
-		executeRecvMsgPassThroughQueueTask();
 	}
 	
 	@Override
@@ -199,6 +261,54 @@ public abstract class AbstractSecsCommunicator implements SecsCommunicator {
 		return send(primary, sml.getStream(), sml.getFunction(), sml.wbit(), sml.secs2());
 	}
 	
+	/**
+	 * Execute blocking-send in executor-service, prototype of async-send.
+	 * 
+	 * @param <T>
+	 * @param task
+	 * @return future of task result
+	 */
+	protected <T> CompletableFuture<T> executeSendAsync(Callable<T> task) {
+		
+		final CompletableFuture<T> f = new CompletableFuture<>();
+		
+		try {
+			execServ.execute(() -> {
+				try {
+					f.complete(task.call());
+				}
+				catch ( Throwable t ) {
+					f.completeExceptionally(t);
+				}
+			});
+		}
+		catch ( RejectedExecutionException e ) {
+			f.completeExceptionally(e);
+		}
+		
+		return f;
+	}
+	
+	@Override
+	public CompletableFuture<Optional<SecsMessage>> sendAsync(int strm, int func, boolean wbit, Secs2 secs2) {
+		return executeSendAsync(() -> send(strm, func, wbit, secs2));
+	}
+	
+	@Override
+	public CompletableFuture<Optional<SecsMessage>> sendAsync(SecsMessage primary, int strm, int func, boolean wbit, Secs2 secs2) {
+		return executeSendAsync(() -> send(primary, strm, func, wbit, secs2));
+	}
+	
+	@Override
+	public CompletableFuture<Optional<SecsMessage>> sendAsync(SmlMessage sml) {
+		return sendAsync(sml.getStream(), sml.getFunction(), sml.wbit(), sml.secs2());
+	}
+	
+	@Override
+	public CompletableFuture<Optional<SecsMessage>> sendAsync(SecsMessage primary, SmlMessage sml) {
+		return sendAsync(primary, sml.getStream(), sml.getFunction(), sml.wbit(), sml.secs2());
+	}
+	
 	
 	/* Secs-Message Receive Listener */
 	private final Collection<SecsMessageReceiveListener> msgRecvListeners = new CopyOnWriteArrayList<>();
@@ -244,18 +354,16 @@ public abstract class AbstractSecsCommunicator implements SecsCommunicator {
 		return logListeners.remove(Objects.requireNonNull(l));
 	}
 	
-	private final BlockingQueue<SecsLog> logQueue = new LinkedBlockingQueue<>();
+	/* Logs and Pass-through messages, notified in order by one task */
+	private final BlockingQueue<Runnable> notifyQueue = new LinkedBlockingQueue<>();
 	
-	private void executeLogQueueTask() {
+	private void executeNotifyQueueTask() {
 		
 		this.executorService().execute(() -> {
 			
 			try {
 				for ( ;; ) {
-					final SecsLog log = logQueue.take();
-					logListeners.forEach(l -> {
-						l.received(log);
-					});
+					notifyQueue.take().run();
 				}
 			}
 			catch ( InterruptedException ignore ) {
@@ -264,13 +372,11 @@ public abstract class AbstractSecsCommunicator implements SecsCommunicator {
 			try {
 				for ( ;; ) {
 					
-					final SecsLog log = logQueue.poll(100L, TimeUnit.MILLISECONDS);
-					if ( log == null ) {
+					final Runnable r = notifyQueue.poll(100L, TimeUnit.MILLISECONDS);
+					if ( r == null ) {
 						break;
 					}
-					logListeners.forEach(l -> {
-						l.received(log);
-					});
+					r.run();
 				}
 			}
 			catch ( InterruptedException ignore ) {
@@ -279,7 +385,11 @@ public abstract class AbstractSecsCommunicator implements SecsCommunicator {
 	}
 	
 	protected final boolean offerLogQueue(AbstractSecsLog log) {
-		return logQueue.offer(log);
+		return notifyQueue.offer(() -> {
+			logListeners.forEach(l -> {
+				l.received(log);
+			});
+		});
 	}
 	
 	protected void notifyLog(AbstractSecsLog log) {
@@ -327,19 +437,12 @@ public abstract class AbstractSecsCommunicator implements SecsCommunicator {
 		return trySendMsgPassThroughListeners.remove(Objects.requireNonNull(l));
 	}
 	
-	private BlockingQueue<SecsMessage> trySendMsgPassThroughQueue = new LinkedBlockingQueue<>();
-	
-	private void executeTrySendMsgPassThroughQueueTask() {
-		executeLoopTask(() -> {
-			SecsMessage msg = trySendMsgPassThroughQueue.take();
+	protected final boolean offerTrySendMsgPassThroughQueue(SecsMessage msg) {
+		return notifyQueue.offer(() -> {
 			trySendMsgPassThroughListeners.forEach(l -> {l.passThrough(msg);});
 		});
 	}
 	
-	protected final boolean offerTrySendMsgPassThroughQueue(SecsMessage msg) {
-		return trySendMsgPassThroughQueue.offer(msg);
-	}
-	
 	protected void notifyTrySendMessagePassThrough(SecsMessage msg) {
 		offerTrySendMsgPassThroughQueue(msg);
 	}
@@ -358,19 +461,12 @@ public abstract class AbstractSecsCommunicator implements SecsCommunicator {
 		return sendedMsgPassThroughListeners.remove(Objects.requireNonNull(l));
 	}
 	
-	private final BlockingQueue<SecsMessage> sendedMsgPassThroughQueue = new LinkedBlockingQueue<>();
-	
-	private void executeSendedMsgPassThroughQueueTask() {
-		executeLoopTask(() -> {
-			SecsMessage msg = sendedMsgPassThroughQueue.take();
+	protected final boolean offerSendedMsgPassThroughQueue(SecsMessage msg) {
+		return notifyQueue.offer(() -> {
 			sendedMsgPassThroughListeners.forEach(l -> {l.passThrough(msg);});
 		});
 	}
 	
-	protected final boolean offerSendedMsgPassThroughQueue(SecsMessage msg) {
-		return sendedMsgPassThroughQueue.offer(msg);
-	}
-	
 	protected void notifySendedMessagePassThrough(SecsMessage msg) {
 		offerSendedMsgPassThroughQueue(msg);
 	}
@@ -389,19 +485,12 @@ public abstract class AbstractSecsCommunicator implements SecsCommunicator {
 		return recvMsgPassThroughListeners.remove(Objects.requireNonNull(l));
 	}
 	
-	private final BlockingQueue<SecsMessage> recvMsgPassThroughQueue = new LinkedBlockingQueue<>();
-	
-	private void executeRecvMsgPassThroughQueueTask() {
-		executeLoopTask(() -> {
-			SecsMessage msg = recvMsgPassThroughQueue.take();
+	protected final boolean offerRecvMsgPassThroughQueue(SecsMessage msg) {
+		return notifyQueue.offer(() -> {
 			recvMsgPassThroughListeners.forEach(l -> {l.passThrough(msg);});
 		});
 	}
 	
-	protected final boolean offerRecvMsgPassThroughQueue(SecsMessage msg) {
-		return recvMsgPassThroughQueue.offer(msg);
-	}
-	
 	protected void notifyReceiveMessagePassThrough(SecsMessage msg) {
 		offerRecvMsgPassThroughQueue(msg);
 	}
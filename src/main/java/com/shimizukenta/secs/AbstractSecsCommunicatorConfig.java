@@ -1,7 +1,11 @@
 package com.shimizukenta.secs;
 
 import java.io.Serializable;
+import java.nio.channels.AsynchronousChannelGroup;
 import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ThreadFactory;
 
 import com.shimizukenta.secs.gem.AbstractGemConfig;
 
@@ -13,7 +17,10 @@ import com.shimizukenta.secs.gem.AbstractGemConfig;
  * To set is-equip, {@link #isEquip(boolean)}<br />
  * To set timeouts, {@link #timeout()}<br />
  * To set gem config, {@link #gem()}<br />
- * To set log-subject-header, {@link #logSubjectHeader(CharSequence)}
+ * To set log-subject-header, {@link #logSubjectHeader(CharSequence)}<br />
+ * To share executor between communicators, {@link #executorService(ExecutorService)}<br />
+ * To set thread-factory, {@link #threadFactory(ThreadFactory)}<br />
+ * To share channel-group between communicators, {@link #channelGroup(AsynchronousChannelGroup)}
  * </p>
  * 
  * @author kenta-shimizu
@@ -33,6 +40,10 @@ public abstract class AbstractSecsCommunicatorConfig implements Serializable {
 	
 	private final StringProperty logSubjectHeader = StringProperty.newInstance("");
 	
+	private transient ExecutorService executorService;
+	private transient ThreadFactory threadFactory;
+	private transient AsynchronousChannelGroup channelGroup;
+	
 	public AbstractSecsCommunicatorConfig() {
 		/* Nothing */
 	}
@@ -109,4 +120,89 @@ public abstract class AbstractSecsCommunicatorConfig implements Serializable {
 		return logSubjectHeader;
 	}
 	
+	/**
+	 * Shared ExecutorService setter.
+	 * 
+	 * <p>
+	 * If setted, communicator runs tasks on this executor, and does not shutdown it on close.<br />
+	 * Communicator runs some long-running tasks while opened,
+	 * bounded executor must have enough threads for all communicators.<br />
+	 * Not setted if {@code null}, communicator creates own executor. Default is {@code null}.<br />
+	 * Not serialized.<br />
+	 * </p>
+	 * 
+	 * @param executor shared executor, or {@code null}
+	 */
+	public void executorService(ExecutorService executor) {
+		synchronized ( this ) {
+			this.executorService = executor;
+		}
+	}
+	
+	/**
+	 * Shared ExecutorService getter.
+	 * 
+	 * @return shared executor if setted
+	 */
+	public Optional<ExecutorService> executorService() {
+		synchronized ( this ) {
+			return Optional.ofNullable(this.executorService);
+		}
+	}
+	
+	/**
+	 * ThreadFactory setter.
+	 * 
+	 * <p>
+	 * Used to create own executor, if shared ExecutorService not setted.<br />
+	 * To use virtual-threads, {@link SecsThreadFactories#virtualOrDaemon(CharSequence)}<br />
+	 * Default is daemon-threads if {@code null}. Not serialized.<br />
+	 * </p>
+	 * 
+	 * @param factory thread-factory, or {@code null}
+	 */
+	public void threadFactory(ThreadFactory factory) {
+		synchronized ( this ) {
+			this.threadFactory = factory;
+		}
+	}
+	
+	/**
+	 * ThreadFactory getter.
+	 * 
+	 * @return thread-factory if setted
+	 */
+	public Optional<ThreadFactory> threadFactory() {
+		synchronized ( this ) {
+			return Optional.ofNullable(this.threadFactory);
+		}
+	}
+	
+	/**
+	 * Shared AsynchronousChannelGroup setter.
+	 * 
+	 * <p>
+	 * Channels of communicator are opened in this group.<br />
+	 * Default is system-wide default group if {@code null}. Not serialized.<br />
+	 * </p>
+	 * 
+	 * @param group channel-group, or {@code null}
+	 */
+	public void channelGroup(AsynchronousChannelGroup group) {
+		synchronized ( this ) {
+			this.channelGroup = group;
+		}
+	}
+	
+	/**
+	 * Shared AsynchronousChannelGroup getter.
+	 * 
+	 * @return channel-group if setted
+	 */
+	public Optional<AsynchronousChannelGroup> channelGroup() {
+		synchronized ( this ) {
+			return Optional.ofNullable(this.channelGroup);
+		}
+	}
+	
 }
@@ -1,6 +1,8 @@
 package com.shimizukenta.secs;
 
+import java.io.IOException;
 import java.io.Serializable;
+import java.io.UncheckedIOException;
 
 public abstract class AbstractSecsMessage implements SecsMessage, Serializable {
 	
@@ -9,12 +11,10 @@ public abstract class AbstractSecsMessage implements SecsMessage, Serializable {
 	private final Object sync = new Object();
 	private Integer systemBytesKey;
 	private String toHeaderBytesString;
-	private String toJson;
 	
 	protected AbstractSecsMessage() {
 		this.systemBytesKey = null;
 		this.toHeaderBytesString = null;
-		this.toJson = null;
 	}
 	
 	/**
@@ -76,23 +76,60 @@ public abstract class AbstractSecsMessage implements SecsMessage, Serializable {
 		return deviceId();
 	}
 
+	@Override
+	public String toString() {
+		
+		final StringBuilder sb = new StringBuilder();
+		
+		try {
+			writeTo(sb);
+		}
+		catch ( IOException e ) {
+			throw new UncheckedIOException(e);
+		}
+		
+		return sb.toString();
+	}
+	
+	/**
+	 * Write Header-bytes and SML-String to appendable, same as {@link #toString()}.
+	 * 
+	 * <p>
+	 * SECS-II is written directly, without building whole String.<br />
+	 * </p>
+	 * 
+	 * @param appendable
+	 * @throws IOException
+	 */
+	abstract public void writeTo(Appendable appendable) throws IOException;
+	
 	@Override
 	public String toJson() {
 		
-		synchronized ( sync ) {
-			
-			if ( this.toJson == null ) {
-				
-				this.toJson = "{\"strm\":" + getStream()
-				+ ",\"func\":" + getFunction()
-				+ ",\"wbit\":" + (wbit() ? "true" : "false")
-				+ ",\"deviceId\":" + deviceId()
-				+ ",\"systemBytes\":"+ systemBytesKey().toString()
-				+ ",\"secs2\":"+ secs2().toJson()
-				+ "}";
-			}
-			
-			return this.toJson;
+		final StringBuilder sb = new StringBuilder();
+		
+		try {
+			writeJson(sb);
+		}
+		catch ( IOException e ) {
+			throw new UncheckedIOException(e);
 		}
+		
+		return sb.toString();
+	}
+	
+	@Override
+	public void writeJson(Appendable appendable) throws IOException {
+		
+		appendable.append("{\"strm\":").append(String.valueOf(getStream()))
+		.append(",\"func\":").append(String.valueOf(getFunction()))
+		.append(",\"wbit\":").append(wbit() ? "true" : "false")
+		.append(",\"deviceId\":").append(String.valueOf(deviceId()))
+		.append(",\"systemBytes\":").append(systemBytesKey().toString())
+		.append(",\"secs2\":");
+		
+		secs2().writeJson(appendable);
+		
+		appendable.append('}');
 	}
 }
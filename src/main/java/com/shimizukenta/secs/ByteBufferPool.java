@@ -0,0 +1,150 @@
+package com.shimizukenta.secs;
+
+import java.nio.Buffer;
+import java.nio.ByteBuffer;
+import java.util.Collection;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * This class is pool of direct ByteBuffers for sending and receiving bytes.
+ * 
+ * <p>
+ * Capacity is rounded up to power of 2, from 256 bytes to 1 MiB.<br />
+ * Buffers larger than 64 KiB are pooled only a few.<br />
+ * Larger buffer is allocated each time and is not pooled.<br />
+ * </p>
+ * 
+ * @author kenta-shimizu
+ *
+ */
+public final class ByteBufferPool {
+	
+	private static final int MIN_SHIFT = 8;
+	private static final int MAX_SHIFT = 20;
+	private static final int LARGE_SHIFT = 16;
+	private static final int MAX_POOLED_PER_CLASS = 32;
+	private static final int MAX_POOLED_PER_LARGE_CLASS = 4;
+	
+	private final Queue<ByteBuffer>[] pools;
+	private final AtomicInteger[] counts;
+	private final int[] limits;
+	
+	@SuppressWarnings("unchecked")
+	private ByteBufferPool() {
+		
+		int m = MAX_SHIFT - MIN_SHIFT + 1;
+		
+		this.pools = (Queue<ByteBuffer>[])new Queue<?>[m];
+		this.counts = new AtomicInteger[m];
+		this.limits = new int[m];
+		
+		for ( int i = 0; i < m; ++i ) {
+			this.pools[i] = new ConcurrentLinkedQueue<>();
+			this.counts[i] = new AtomicInteger(0);
+			this.limits[i] = (i + MIN_SHIFT) > LARGE_SHIFT ? MAX_POOLED_PER_LARGE_CLASS : MAX_POOLED_PER_CLASS;
+		}
+	}
+	
+	private static class SingletonHolder {
+		private static final ByteBufferPool inst = new ByteBufferPool();
+	}
+	
+	public static ByteBufferPool getInstance() {
+		return SingletonHolder.inst;
+	}
+	
+	/**
+	 * Maximum capacity of pooled buffer.
+	 * 
+	 * @return max pooled capacity
+	 */
+	public int maxPooledCapacity() {
+		return 1 << MAX_SHIFT;
+	}
+	
+	private static int classIndex(int capacity) {
+		
+		if ( capacity <= (1 << MIN_SHIFT) ) {
+			return 0;
+		}
+		
+		int shift = 32 - Integer.numberOfLeadingZeros(capacity - 1);
+		return shift - MIN_SHIFT;
+	}
+	
+	/**
+	 * Returns cleared direct buffer, capacity is larger than or equals to {@code minCapacity}.
+	 * 
+	 * @param minCapacity
+	 * @return cleared direct buffer
+	 */
+	public ByteBuffer acquire(int minCapacity) {
+		
+		if ( minCapacity < 0 ) {
+			throw new IllegalArgumentException("capacity is >=0");
+		}
+		
+		int i = classIndex(minCapacity);
+		
+		if ( i >= this.pools.length ) {
+			return ByteBuffer.allocateDirect(minCapacity);
+		}
+		
+		ByteBuffer buffer = this.pools[i].poll();
+		
+		if ( buffer == null ) {
+			
+			return ByteBuffer.allocateDirect(1 << (i + MIN_SHIFT));
+			
+		} else {
+			
+			this.counts[i].decrementAndGet();
+			((Buffer)buffer).clear();
+			return buffer;
+		}
+	}
+	
+	/**
+	 * Returns buffer to pool.
+	 * 
+	 * <p>
+	 * Buffer which is not acquired from this pool is ignored.<br />
+	 * Buffer must not be used after release.<br />
+	 * </p>
+	 * 
+	 * @param buffer
+	 */
+	public void release(ByteBuffer buffer) {
+		
+		if ( buffer == null || ! buffer.isDirect() || buffer.isReadOnly() ) {
+			return;
+		}
+		
+		int capacity = buffer.capacity();
+		
+		if ( capacity < (1 << MIN_SHIFT) || capacity > (1 << MAX_SHIFT) || Integer.bitCount(capacity) != 1 ) {
+			return;
+		}
+		
+		int i = classIndex(capacity);
+		
+		if ( this.counts[i].incrementAndGet() > this.limits[i] ) {
+			this.counts[i].decrementAndGet();
+			return;
+		}
+		
+		this.pools[i].offer(buffer);
+	}
+	
+	/**
+	 * Returns buffers to pool.
+	 * 
+	 * @param buffers
+	 */
+	public void release(Collection<? extends ByteBuffer> buffers) {
+		buffers.forEach(this::release);
+	}
+	
+}
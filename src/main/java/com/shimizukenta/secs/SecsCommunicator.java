@@ -3,6 +3,7 @@ package com.shimizukenta.secs;
 import java.io.Closeable;
 import java.io.IOException;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
 
 import com.shimizukenta.secs.hsmsss.HsmsSsCommunicator;
 import com.shimizukenta.secs.hsmsss.HsmsSsCommunicatorConfig;
@@ -256,6 +257,58 @@ public interface SecsCommunicator extends Closeable {
 			, SecsException
 			, InterruptedException;
 	
+	/**
+	 * Send Primary-Message and receive Reply-Message asynchronously.
+	 * 
+	 * <p>
+	 * Not blocking until Reply-Message received.<br />
+	 * Future completes exceptionally with SecsSendMessageException if send failed,
+	 * SecsWaitReplyMessageException if receive message failed, e.g. Timeout-T3.<br />
+	 * Future completes on executor of communicator, never on reading thread or timer thread.
+	 * Non-async dependent stages run on that executor thread, use {@code *Async} stages for long tasks.<br />
+	 * </p>
+	 * 
+	 * @param strm SECS-II-Stream-Number
+	 * @param func SECS-II-Function-Number
+	 * @param wbit SECS-II-WBit, set {@code true} if w-bit is 1
+	 * @param secs2 SECS-II-data, Not accept {@code null}
+	 * @return future of Reply-Message if exist
+	 */
+	public CompletableFuture<Optional<SecsMessage>> sendAsync(int strm, int func, boolean wbit, Secs2 secs2);
+	
+	/**
+	 * Send Reply-Message asynchronously.
+	 * 
+	 * <p>
+	 * Future completes when sended.<br />
+	 * </p>
+	 * 
+	 * @param primary Primary-Message
+	 * @param strm SECS-II-Stream-Number
+	 * @param func SECS-II-Function-Number
+	 * @param wbit SECS-II-WBit, set {@code false}
+	 * @param secs2 SECS-II-data, Not accept {@code null}
+	 * @return future of {@code Optional.empty()}
+	 */
+	public CompletableFuture<Optional<SecsMessage>> sendAsync(SecsMessage primary, int strm, int func, boolean wbit, Secs2 secs2);
+	
+	/**
+	 * Send Primary-Message by SML and receive Reply-Message asynchronously.
+	 * 
+	 * @param sml
+	 * @return future of Reply-Message if exist
+	 */
+	public CompletableFuture<Optional<SecsMessage>> sendAsync(SmlMessage sml);
+	
+	/**
+	 * Send Reply-Message by SML asynchronously.
+	 * 
+	 * @param primary Primary-Message
+	 * @param sml
+	 * @return future of {@code Optional.empty()}
+	 */
+	public CompletableFuture<Optional<SecsMessage>> sendAsync(SecsMessage primary, SmlMessage sml);
+	
 	
 	/* Secs-Message Receive Listener */
 	
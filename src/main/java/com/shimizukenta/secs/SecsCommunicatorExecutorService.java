@@ -0,0 +1,165 @@
+package com.shimizukenta.secs;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.AbstractExecutorService;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * This class is ExecutorService of one communicator, on own or shared executor.
+ * 
+ * <p>
+ * Tasks are tracked, {@link #shutdownNow()} cancels only tasks of this communicator.<br />
+ * Exception thrown by executed task is passed to UncaughtExceptionHandler of running thread.<br />
+ * Shared executor is not shutdown.<br />
+ * </p>
+ * 
+ * @author kenta-shimizu
+ *
+ */
+final class SecsCommunicatorExecutorService extends AbstractExecutorService {
+	
+	private final ExecutorService executor;
+	private final boolean shared;
+	private final Set<TrackedTask> tasks = ConcurrentHashMap.newKeySet();
+	private volatile boolean shutdown;
+	
+	SecsCommunicatorExecutorService(ExecutorService executor, boolean shared) {
+		this.executor = executor;
+		this.shared = shared;
+		this.shutdown = false;
+	}
+	
+	private class TrackedTask extends FutureTask<Void> {
+		
+		private TrackedTask(Runnable r) {
+			super(r, null);
+		}
+		
+		@Override
+		protected void done() {
+			
+			synchronized ( tasks ) {
+				tasks.remove(this);
+				tasks.notifyAll();
+			}
+			
+			if ( this.isCancelled() ) {
+				return;
+			}
+			
+			/* report exception as plain executor, not swallowed */
+			try {
+				this.get();
+			}
+			catch ( ExecutionException e ) {
+				final Thread th = Thread.currentThread();
+				th.getUncaughtExceptionHandler().uncaughtException(th, e.getCause());
+			}
+			catch ( InterruptedException ignore ) {
+			}
+		}
+	}
+	
+	@Override
+	public void execute(Runnable command) {
+		
+		final TrackedTask t = new TrackedTask(command);
+		
+		synchronized ( this.tasks ) {
+			
+			if ( this.shutdown ) {
+				throw new RejectedExecutionException("Communicator closed");
+			}
+			
+			this.tasks.add(t);
+		}
+		
+		try {
+			this.executor.execute(t);
+		}
+		catch ( RejectedExecutionException e ) {
+			t.cancel(false);
+			throw e;
+		}
+	}
+	
+	@Override
+	public void shutdown() {
+		
+		synchronized ( this.tasks ) {
+			this.shutdown = true;
+		}
+		
+		if ( ! this.shared ) {
+			this.executor.shutdown();
+		}
+	}
+	
+	@Override
+	public List<Runnable> shutdownNow() {
+		
+		final List<TrackedTask> tt;
+		
+		synchronized ( this.tasks ) {
+			this.shutdown = true;
+			tt = new ArrayList<>(this.tasks);
+		}
+		
+		tt.forEach(t -> {t.cancel(true);});
+		
+		if ( ! this.shared ) {
+			this.executor.shutdownNow();
+		}
+		
+		return new ArrayList<>();
+	}
+	
+	@Override
+	public boolean isShutdown() {
+		return this.shutdown;
+	}
+	
+	@Override
+	public boolean isTerminated() {
+		
+		if ( this.shutdown && this.tasks.isEmpty() ) {
+			return this.shared || this.executor.isTerminated();
+		}
+		
+		return false;
+	}
+	
+	@Override
+	public boolean awaitTermination(long timeout, TimeUnit unit) throws InterruptedException {
+		
+		final long deadline = System.nanoTime() + unit.toNanos(timeout);
+		
+		synchronized ( this.tasks ) {
+			
+			while ( ! this.tasks.isEmpty() ) {
+				
+				long r = deadline - System.nanoTime();
+				
+				if ( r <= 0L ) {
+					return false;
+				}
+				
+				TimeUnit.NANOSECONDS.timedWait(this.tasks, r);
+			}
+		}
+		
+		if ( this.shared ) {
+			return true;
+		}
+		
+		return this.executor.awaitTermination(Math.max(deadline - System.nanoTime(), 0L), TimeUnit.NANOSECONDS);
+	}
+	
+}
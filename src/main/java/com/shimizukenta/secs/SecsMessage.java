@@ -1,5 +1,7 @@
 package com.shimizukenta.secs;
 
+import java.io.IOException;
+
 import com.shimizukenta.secs.secs2.Secs2;
 
 /**
@@ -80,4 +82,12 @@ public interface SecsMessage {
 	 * @return json
 	 */
 	public String toJson();
+	
+	/**
+	 * Write JSON-string to appendable, same as {@link #toJson()}.
+	 * 
+	 * @param appendable
+	 * @throws IOException
+	 */
+	public void writeJson(Appendable appendable) throws IOException;
 }
@@ -0,0 +1,104 @@
+package com.shimizukenta.secs;
+
+import java.lang.reflect.Method;
+import java.util.Objects;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * This class is factory of ThreadFactory for communicators.
+ * 
+ * <p>
+ * To use virtual-threads if running on JDK 21 or later, {@link #virtualOrDaemon(CharSequence)}<br />
+ * Virtual-threads are created by reflection, this library is still compiled for Java 8.<br />
+ * </p>
+ * 
+ * @author kenta-shimizu
+ *
+ */
+public final class SecsThreadFactories {
+	
+	private SecsThreadFactories() {
+		/* Nothing */
+	}
+	
+	/**
+	 * Returns daemon-threads factory.
+	 * 
+	 * @param namePrefix thread-name prefix
+	 * @return daemon-threads factory
+	 */
+	public static ThreadFactory daemon(CharSequence namePrefix) {
+		
+		final String prefix = Objects.requireNonNull(namePrefix).toString();
+		final AtomicLong count = new AtomicLong(0L);
+		
+		return r -> {
+			Thread th = new Thread(r, prefix + count.getAndIncrement());
+			th.setDaemon(true);
+			return th;
+		};
+	}
+	
+	/**
+	 * Returns {@code true} if virtual-threads is supported.
+	 * 
+	 * @return {@code true} if virtual-threads is supported
+	 */
+	public static boolean isVirtualThreadSupported() {
+		return VirtualHolder.factory != null;
+	}
+	
+	/**
+	 * Returns virtual-threads factory.
+	 * 
+	 * @return virtual-threads factory
+	 * @throws UnsupportedOperationException if virtual-threads not supported
+	 */
+	public static ThreadFactory virtual() {
+		
+		final ThreadFactory f = VirtualHolder.factory;
+		
+		if ( f == null ) {
+			throw new UnsupportedOperationException("Virtual-threads not supported");
+		}
+		
+		return f;
+	}
+	
+	/**
+	 * Returns virtual-threads factory if supported, otherwise daemon-threads factory.
+	 * 
+	 * @param namePrefix thread-name prefix of daemon-threads
+	 * @return threads factory
+	 */
+	public static ThreadFactory virtualOrDaemon(CharSequence namePrefix) {
+		
+		final ThreadFactory f = VirtualHolder.factory;
+		
+		if ( f == null ) {
+			return daemon(namePrefix);
+		} else {
+			return f;
+		}
+	}
+	
+	private static class VirtualHolder {
+		
+		private static final ThreadFactory factory = create();
+		
+		private static ThreadFactory create() {
+			
+			try {
+				Method ofVirtual = Thread.class.getMethod("ofVirtual");
+				Object builder = ofVirtual.invoke(null);
+				Method factory = Class.forName("java.lang.Thread$Builder").getMethod("factory");
+				return (ThreadFactory)(factory.invoke(builder));
+			}
+			catch ( ReflectiveOperationException | RuntimeException e ) {
+				return null;
+			}
+		}
+	}
+	
+}
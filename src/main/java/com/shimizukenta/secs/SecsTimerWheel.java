@@ -0,0 +1,337 @@
+package com.shimizukenta.secs;
+
+import java.util.Objects;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * This class is hashed-wheel timer shared by communicators.
+ * 
+ * <p>
+ * Schedule and cancel are O(1), and one daemon thread drives all timers.<br />
+ * Resolution is {@value #TICK_MILLIS} milli-seconds.<br />
+ * Expired task is run on timer thread, task should not block.<br />
+ * Timer thread is started at first schedule.<br />
+ * </p>
+ * 
+ * @author kenta-shimizu
+ *
+ */
+public final class SecsTimerWheel {
+	
+	private static final long TICK_MILLIS = 10L;
+	private static final int WHEEL_SIZE = 512;
+	private static final int MASK = WHEEL_SIZE - 1;
+	
+	private final Bucket[] wheel;
+	private final Queue<Entry> pendings = new ConcurrentLinkedQueue<>();
+	private final Queue<Entry> cancelleds = new ConcurrentLinkedQueue<>();
+	private final Object syncStart = new Object();
+	
+	private Thread worker;
+	private long startNanos;
+	private long tick;
+	
+	private SecsTimerWheel() {
+		
+		this.wheel = new Bucket[WHEEL_SIZE];
+		
+		for ( int i = 0; i < WHEEL_SIZE; ++i ) {
+			this.wheel[i] = new Bucket();
+		}
+		
+		this.worker = null;
+		this.tick = 0L;
+	}
+	
+	private static class SingletonHolder {
+		private static final SecsTimerWheel inst = new SecsTimerWheel();
+	}
+	
+	public static SecsTimerWheel getInstance() {
+		return SingletonHolder.inst;
+	}
+	
+	/**
+	 * Timer handle.
+	 * 
+	 */
+	public static interface Timer {
+		
+		/**
+		 * Cancel timer.
+		 * 
+		 * @return {@code true} if cancelled before expired
+		 */
+		public boolean cancel();
+		
+		/**
+		 * Returns {@code true} if expired.
+		 * 
+		 * @return {@code true} if expired
+		 */
+		public boolean isExpired();
+		
+		/**
+		 * Returns {@code true} if cancelled.
+		 * 
+		 * @return {@code true} if cancelled
+		 */
+		public boolean isCancelled();
+	}
+	
+	/**
+	 * Schedule task.
+	 * 
+	 * @param task run on timer thread when expired
+	 * @param delay
+	 * @param unit
+	 * @return timer handle
+	 */
+	public Timer schedule(Runnable task, long delay, TimeUnit unit) {
+		
+		Objects.requireNonNull(task);
+		
+		this.startIfNotStarted();
+		
+		final long deadline = System.nanoTime() - this.startNanos + unit.toNanos(Math.max(delay, 0L));
+		final Entry e = new Entry(task, deadline);
+		this.pendings.add(e);
+		return e;
+	}
+	
+	/**
+	 * Schedule task.
+	 * 
+	 * @param task run on timer thread when expired
+	 * @param timeout
+	 * @return timer handle
+	 */
+	public Timer schedule(Runnable task, ReadOnlyTimeProperty timeout) {
+		return this.schedule(task, timeout.getMilliSeconds(), TimeUnit.MILLISECONDS);
+	}
+	
+	private void startIfNotStarted() {
+		
+		synchronized ( this.syncStart ) {
+			
+			if ( this.worker == null ) {
+				
+				this.startNanos = System.nanoTime();
+				
+				final Thread th = new Thread(this::work, "SecsTimerWheel");
+				th.setDaemon(true);
+				this.worker = th;
+				th.start();
+			}
+		}
+	}
+	
+	private void work() {
+		
+		final long tickNanos = TimeUnit.MILLISECONDS.toNanos(TICK_MILLIS);
+		
+		for ( ;; ) {
+			
+			final long deadline = tickNanos * (this.tick + 1L);
+			
+			for ( ;; ) {
+				
+				long sleepMillis = (deadline - (System.nanoTime() - this.startNanos) + 999999L) / 1000000L;
+				
+				if ( sleepMillis <= 0L ) {
+					break;
+				}
+				
+				try {
+					Thread.sleep(sleepMillis);
+				}
+				catch ( InterruptedException ignore ) {
+				}
+			}
+			
+			this.removeCancelleds();
+			this.transferPendings(tickNanos);
+			this.wheel[(int)(this.tick & MASK)].expire(deadline);
+			this.tick += 1L;
+		}
+	}
+	
+	private void removeCancelleds() {
+		for ( ;; ) {
+			final Entry e = this.cancelleds.poll();
+			if ( e == null ) {
+				return;
+			}
+			if ( e.bucket != null ) {
+				e.bucket.remove(e);
+			}
+		}
+	}
+	
+	private void transferPendings(long tickNanos) {
+		
+		/* limit per tick, not to starve expiring */
+		for ( int i = 0; i < 100000; ++i ) {
+			
+			final Entry e = this.pendings.poll();
+			
+			if ( e == null ) {
+				return;
+			}
+			
+			if ( e.state.get() != Entry.INIT ) {
+				continue;
+			}
+			
+			final long calculated = e.deadline / tickNanos;
+			final long ticks = Math.max(calculated, this.tick);
+			
+			e.remainingRounds = (calculated - this.tick) / WHEEL_SIZE;
+			this.wheel[(int)(ticks & MASK)].add(e);
+		}
+	}
+	
+	private final class Entry implements Timer {
+		
+		private static final int INIT = 0;
+		private static final int CANCELLED = 1;
+		private static final int EXPIRED = 2;
+		
+		private final Runnable task;
+		private final long deadline;
+		private final AtomicInteger state = new AtomicInteger(INIT);
+		
+		/* worker thread only */
+		private long remainingRounds;
+		private Bucket bucket;
+		private Entry prev;
+		private Entry next;
+		
+		private Entry(Runnable task, long deadline) {
+			this.task = task;
+			this.deadline = deadline;
+		}
+		
+		@Override
+		public boolean cancel() {
+			
+			if ( this.state.compareAndSet(INIT, CANCELLED) ) {
+				cancelleds.add(this);
+				return true;
+			}
+			
+			return false;
+		}
+		
+		@Override
+		public boolean isExpired() {
+			return this.state.get() == EXPIRED;
+		}
+		
+		@Override
+		public boolean isCancelled() {
+			return this.state.get() == CANCELLED;
+		}
+		
+		private void expire() {
+			
+			if ( this.state.compareAndSet(INIT, EXPIRED) ) {
+				
+				try {
+					this.task.run();
+				}
+				catch ( Throwable ignore ) {
+				}
+			}
+		}
+	}
+	
+	private final class Bucket {
+		
+		private Entry head;
+		private Entry tail;
+		
+		private Bucket() {
+			this.head = null;
+			this.tail = null;
+		}
+		
+		private void add(Entry e) {
+			
+			e.bucket = this;
+			
+			if ( this.head == null ) {
+				this.head = e;
+				this.tail = e;
+			} else {
+				this.tail.next = e;
+				e.prev = this.tail;
+				this.tail = e;
+			}
+		}
+		
+		private Entry remove(Entry e) {
+			
+			final Entry next = e.next;
+			
+			if ( e.prev != null ) {
+				e.prev.next = next;
+			}
+			
+			if ( e.next != null ) {
+				e.next.prev = e.prev;
+			}
+			
+			if ( e == this.head ) {
+				if ( e == this.tail ) {
+					this.tail = null;
+					this.head = null;
+				} else {
+					this.head = next;
+				}
+			} else if ( e == this.tail ) {
+				this.tail = e.prev;
+			}
+			
+			e.prev = null;
+			e.next = null;
+			e.bucket = null;
+			
+			return next;
+		}
+		
+		private void expire(long deadline) {
+			
+			Entry e = this.head;
+			
+			while ( e != null ) {
+				
+				if ( e.remainingRounds <= 0L ) {
+					
+					final Entry next = this.remove(e);
+					
+					if ( e.deadline <= deadline ) {
+						e.expire();
+					} else {
+						pendings.add(e);
+					}
+					
+					e = next;
+					
+				} else if ( e.isCancelled() ) {
+					
+					e = this.remove(e);
+					
+				} else {
+					
+					e.remainingRounds -= 1L;
+					e = e.next;
+				}
+			}
+		}
+	}
+	
+}
@@ -0,0 +1,58 @@
+package com.shimizukenta.secs;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.IntPredicate;
+
+/**
+ * This class is allocator of System-Bytes.
+ * 
+ * <p>
+ * Allocates from low {@code bits} of counter, skips {@code 0} and values still in flight.<br />
+ * </p>
+ * 
+ * @author kenta-shimizu
+ *
+ */
+public class SystemBytesAllocator {
+	
+	private final AtomicInteger counter = new AtomicInteger(0);
+	private final int mask;
+	
+	/**
+	 * Constructor.
+	 * 
+	 * @param bits available bits of System-Bytes, {@code 1 <= bits <= 32}
+	 */
+	public SystemBytesAllocator(int bits) {
+		
+		if ( bits < 1 || bits > 32 ) {
+			throw new IllegalArgumentException("bits is 1-32");
+		}
+		
+		this.mask = (bits == 32) ? -1 : ((1 << bits) - 1);
+	}
+	
+	/**
+	 * Returns next System-Bytes value.
+	 * 
+	 * @param inFlight returns {@code true} if value is still in flight
+	 * @return System-Bytes value, not {@code 0}
+	 * @throws IllegalStateException if all values are in flight
+	 */
+	public int allocate(IntPredicate inFlight) {
+		
+		final long m = ((long)(this.mask)) & 0x00000000FFFFFFFFL;
+		
+		for ( long i = 0L; i <= m; ++i ) {
+			
+			int n = this.counter.incrementAndGet() & this.mask;
+			
+			if ( n != 0 && ! inFlight.test(n) ) {
+				return n;
+			}
+		}
+		
+		throw new IllegalStateException("All System-Bytes are in flight");
+	}
+	
+}
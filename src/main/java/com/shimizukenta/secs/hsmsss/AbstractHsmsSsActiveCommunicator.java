@@ -10,6 +10,7 @@ import java.util.Collection;
 import java.util.Objects;
 import java.util.concurrent.Callable;
 import java.util.concurrent.ExecutionException;
+import java.util.concurrent.RejectedExecutionException;
 
 import com.shimizukenta.secs.SecsException;
 
@@ -54,7 +55,7 @@ public abstract class AbstractHsmsSsActiveCommunicator extends AbstractHsmsSsCom
 	protected void activeCircuit() throws InterruptedException {
 		
 		try (
-				AsynchronousSocketChannel channel = AsynchronousSocketChannel.open();
+				AsynchronousSocketChannel channel = AsynchronousSocketChannel.open(channelGroup());
 				) {
 			
 			final SocketAddress socketAddr = hsmsSsConfig().socketAddress().getSocketAddress();
@@ -67,8 +68,22 @@ public abstract class AbstractHsmsSsActiveCommunicator extends AbstractHsmsSsCom
 					@Override
 					public void completed(Void none, Void attachment) {
 						
+						/* not to block channel-group thread while connected */
+						try {
+							executorService().execute(this::connected);
+						}
+						catch ( RejectedExecutionException e ) {
+							synchronized ( channel ) {
+								channel.notifyAll();
+							}
+						}
+					}
+					
+					private void connected() {
+						
 						SocketAddress local = null;
 						SocketAddress remote = null;
+						boolean async = false;
 						
 						try {
 							local = channel.getLocalAddress();
@@ -76,7 +91,19 @@ public abstract class AbstractHsmsSsActiveCommunicator extends AbstractHsmsSsCom
 							
 							notifyLog(HsmsSsConnectionLog.connected(local, remote));
 							
-							completionAction(channel);
+							if ( hsmsSsConfig().asyncReading().booleanValue() ) {
+								
+								final SocketAddress l = local;
+								final SocketAddress r = remote;
+								
+								async = completionAsyncAction(channel, () -> {
+									closeConnectedChannel(channel, l, r);
+								});
+								
+							} else {
+								
+								completionAction(channel);
+							}
 						}
 						catch ( IOException e ) {
 							notifyLog(e);
@@ -85,17 +112,9 @@ public abstract class AbstractHsmsSsActiveCommunicator extends AbstractHsmsSsCom
 						}
 						finally {
 							
-							try {
-								channel.shutdownOutput();
-							}
-							catch (IOException giveup) {
+							if ( ! async ) {
+								closeConnectedChannel(channel, local, remote);
 							}
-							
-							synchronized ( channel ) {
-								channel.notifyAll();
-							}
-							
-							notifyLog(HsmsSsConnectionLog.closed(local, remote));
 						}
 					}
 					
@@ -125,6 +144,55 @@ public abstract class AbstractHsmsSsActiveCommunicator extends AbstractHsmsSsCom
 		}
 	}
 	
+	/**
+	 * Shutdown output and notify to activeCircuit, channel is closed by activeCircuit.
+	 * 
+	 * @param channel
+	 * @param local
+	 * @param remote
+	 */
+	private void closeConnectedChannel(AsynchronousSocketChannel channel, SocketAddress local, SocketAddress remote) {
+		
+		try {
+			channel.shutdownOutput();
+		}
+		catch (IOException giveup) {
+		}
+		
+		synchronized ( channel ) {
+			channel.notifyAll();
+		}
+		
+		notifyLog(HsmsSsConnectionLog.closed(local, remote));
+	}
+	
+	/**
+	 * Select by async-reading, and start async-dispatching if selected.
+	 * 
+	 * @param channel
+	 * @param closeAction called once when selected connection terminated
+	 * @return {@code true} if async-dispatching started
+	 * @throws InterruptedException
+	 */
+	private boolean completionAsyncAction(AsynchronousSocketChannel channel, Runnable closeAction) throws InterruptedException {
+		
+		final ActiveInnerConnection conn = new ActiveInnerConnection(channel);
+		
+		conn.startAsyncReading();
+		
+		if ( ! conn.selectRequest() ) {
+			return false;
+		}
+		
+		if ( ! conn.selected() ) {
+			conn.selectedTerminated();
+			return false;
+		}
+		
+		conn.startAsyncDispatching(closeAction);
+		return true;
+	}
+	
 	private void completionAction(AsynchronousSocketChannel channel) throws InterruptedException {
 		
 		final ActiveInnerConnection conn = new ActiveInnerConnection(channel);
@@ -171,6 +239,35 @@ public abstract class AbstractHsmsSsActiveCommunicator extends AbstractHsmsSsCom
 		
 		protected void mainTask() throws InterruptedException {
 			
+			if ( ! this.selectRequest() ) {
+				return;
+			}
+			
+			try {
+				
+				if ( ! this.selected() ) {
+					return;
+				}
+				
+				this.receivingMsgTask();
+			}
+			catch ( SecsException e ) {
+				notifyLog(e);
+			}
+			finally {
+				this.selectedTerminated();
+			}
+			
+		}
+		
+		/**
+		 * Send SELECT.req.
+		 * 
+		 * @return {@code true} if SELECT.rsp is SUCCESS or ACTIVED
+		 * @throws InterruptedException
+		 */
+		protected boolean selectRequest() throws InterruptedException {
+			
 			notifyHsmsSsCommunicateStateChange(HsmsSsCommunicateState.NOT_SELECTED);
 			
 			try {
@@ -182,105 +279,106 @@ public abstract class AbstractHsmsSsActiveCommunicator extends AbstractHsmsSsCom
 				case SUCCESS:
 				case ACTIVED: {
 					
-					/* to next Loop */
-					break;
+					return true;
 				}
 				default: {
-					return;
+					return false;
 				}
 				}
 			}
 			catch ( SecsException e ) {
 				notifyLog(e);
-				return;
+				return false;
 			}
+		}
+		
+		/**
+		 * Add selected connection, and start linktesting.
+		 * 
+		 * @return {@code false} if already selected other connection
+		 */
+		protected boolean selected() {
 			
-			try {
+			if ( ! addSelectedConnection(this) ) {
+				return false;
+			}
+			
+			notifyHsmsSsCommunicateStateChange(HsmsSsCommunicateState.SELECTED);
 				
-				if ( ! addSelectedConnection(this) ) {
+			this.startLinktesting();
+				
+			return true;
+		}
+				
+		protected void selectedTerminated() {
+			this.stopLinktesting();
+			notifyHsmsSsCommunicateStateChange(HsmsSsCommunicateState.NOT_CONNECTED);
+			removeSelectedConnection(this);
+		}
+		
+		protected void receivingMsgTask() throws InterruptedException, SecsException {
+			
+			for ( ;; ) {
+				
+				if ( ! this.receivingMessage(this.takeReceiveMessage()) ) {
 					return;
 				}
+			}
+		}
+		
+		/**
+		 * Handle message while selected.
+		 * 
+		 * @param msg
+		 * @return {@code false} if separated
+		 * @throws InterruptedException
+		 * @throws SecsException
+		 */
+		protected boolean receivingMessage(HsmsSsMessage msg) throws InterruptedException, SecsException {
+			
+			switch ( HsmsSsMessageType.get(msg) ) {
+			case DATA: {
 				
-				notifyHsmsSsCommunicateStateChange(HsmsSsCommunicateState.SELECTED);
-				
-				final Collection<Callable<Void>> tasks = Arrays.asList(
-						() -> {
-							try {
-								this.linktesting();
-							}
-							catch ( InterruptedException ignore ) {
-							}
-							return null;
-						},
-						() -> {
-							try {
-								this.receivingMsgTask();
-							}
-							catch ( InterruptedException ignore ) {
-							}
-							catch ( SecsException e ) {
-								notifyLog(e);
-							}
-							return null;
-						});
+				notifyReceiveMessage(msg);
+				break;
+			}
+			case SELECT_REQ: {
 				
-				executeInvokeAny(tasks);
+				send(createRejectRequest(msg, HsmsSsMessageRejectReason.NOT_SUPPORT_TYPE_S));
+				break;
 			}
-			catch ( ExecutionException e ) {
+			case LINKTEST_REQ: {
 				
-				Throwable t = e.getCause();
+				send(createLinktestResponse(msg));
+				break;
+			}
+			case SEPARATE_REQ: {
 				
-				if ( t instanceof RuntimeException ) {
-					throw (RuntimeException)t;
-				}
+				return false;
+				/* break; */
+			}
+			case SELECT_RSP:
+			case DESELECT_REQ:
+			case DESELECT_RSP:
+			case LINKTEST_RSP:
+			case REJECT_REQ:
+			default: {
 				
-				notifyLog(t);
+				/* ignore */
 			}
-			finally {
-				notifyHsmsSsCommunicateStateChange(HsmsSsCommunicateState.NOT_CONNECTED);
-				removeSelectedConnection(this);
 			}
 			
+			return true;
 		}
 		
-		protected void receivingMsgTask() throws InterruptedException, SecsException {
-			
-			for ( ;; ) {
-				
-				final HsmsSsMessage msg = this.takeReceiveMessage();
-				
-				switch ( HsmsSsMessageType.get(msg) ) {
-				case DATA: {
-					
-					notifyReceiveMessage(msg);
-					break;
-				}
-				case SELECT_REQ: {
-					
-					send(createRejectRequest(msg, HsmsSsMessageRejectReason.NOT_SUPPORT_TYPE_S));
-					break;
-				}
-				case LINKTEST_REQ: {
-					
-					send(createLinktestResponse(msg));
-					break;
-				}
-				case SEPARATE_REQ: {
-					
-					return;
-					/* break; */
-				}
-				case SELECT_RSP:
-				case DESELECT_REQ:
-				case DESELECT_RSP:
-				case LINKTEST_RSP:
-				case REJECT_REQ:
-				default: {
-					
-					/* ignore */
-				}
-				}
-			}
+		@Override
+		protected boolean asyncReceived(HsmsSsMessage msg) throws SecsException, InterruptedException {
+			return this.receivingMessage(msg);
+		}
+		
+		@Override
+		protected void asyncTerminated() {
+			this.selectedTerminated();
 		}
 	}
 	
@@ -1,33 +1,50 @@
 package com.shimizukenta.secs.hsmsss;
 
 import java.io.IOException;
+import java.net.SocketAddress;
 import java.nio.Buffer;
 import java.nio.ByteBuffer;
 import java.nio.channels.AsynchronousSocketChannel;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.CompletionHandler;
+import java.nio.channels.InterruptedByTimeoutException;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 import java.util.Optional;
+import java.util.Queue;
+import java.util.Set;
 import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.Future;
 import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.TimeoutException;
-import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Supplier;
 
 import com.shimizukenta.secs.AbstractSecsCommunicator;
 import com.shimizukenta.secs.AbstractSecsWaitReplyMessageExceptionLog;
 import com.shimizukenta.secs.ByteArrayProperty;
+import com.shimizukenta.secs.ByteBufferPool;
 import com.shimizukenta.secs.Property;
 import com.shimizukenta.secs.PropertyChangeListener;
 import com.shimizukenta.secs.ReadOnlyTimeProperty;
 import com.shimizukenta.secs.SecsException;
 import com.shimizukenta.secs.SecsMessage;
 import com.shimizukenta.secs.SecsSendMessageException;
+import com.shimizukenta.secs.SecsTimerWheel;
 import com.shimizukenta.secs.SecsWaitReplyMessageException;
+import com.shimizukenta.secs.SystemBytesAllocator;
 import com.shimizukenta.secs.secs2.Secs2;
 import com.shimizukenta.secs.secs2.Secs2BuildException;
-import com.shimizukenta.secs.secs2.Secs2BytesPack;
-import com.shimizukenta.secs.secs2.Secs2BytesPackBuilder;
+import com.shimizukenta.secs.secs2.Secs2ByteBufferPackBuilder;
+import com.shimizukenta.secs.secs2.Secs2BytesEncoder;
 import com.shimizukenta.secs.secs2.Secs2BytesParser;
 import com.shimizukenta.secs.secs2.Secs2Exception;
 
@@ -91,8 +108,13 @@ public abstract class AbstractHsmsSsCommunicator extends AbstractSecsCommunicato
 		}
 		
 		super.close();
+		
+		/* async-dispatching connections have no thread to interrupt */
+		this.asyncConnections.forEach(AbstractInnerConnection::terminateAsyncDispatching);
 	}
 	
+	private final Set<AbstractInnerConnection> asyncConnections = ConcurrentHashMap.newKeySet();
+	
 	private final Object syncSelectedConnection = new Object();
 	
 	protected boolean addSelectedConnection(AbstractInnerConnection c) {
@@ -145,34 +167,89 @@ public abstract class AbstractHsmsSsCommunicator extends AbstractSecsCommunicato
 	}
 	
 	
-	private final AtomicInteger autoNumber = new AtomicInteger();
-	
-	private int autoNumber() {
-		return autoNumber.incrementAndGet();
-	}
+	private final SystemBytesAllocator hostSystemBytesAllocator = new SystemBytesAllocator(32);
+	private final SystemBytesAllocator equipSystemBytesAllocator = new SystemBytesAllocator(16);
+	private final Set<Integer> outstandingSystemBytes = ConcurrentHashMap.newKeySet();
 	
 	protected byte[] systemBytes() {
 		
-		byte[] bs = new byte[4];
+		final int key;
 		
 		if ( hsmsSsConfig().isEquip().booleanValue() ) {
 			
 			byte[] xs = sessionIdBytes.get();
-			bs[0] = xs[0];
-			bs[1] = xs[1];
+			
+			final int prefix = (((int)(xs[0]) << 24) & 0xFF000000)
+					| (((int)(xs[1]) << 16) & 0x00FF0000);
+			
+			key = prefix | equipSystemBytesAllocator.allocate(n -> outstandingSystemBytes.contains(Integer.valueOf(prefix | n)));
 			
 		} else {
 			
-			bs[0] = (byte)0;
-			bs[1] = (byte)0;
+			key = hostSystemBytesAllocator.allocate(n -> outstandingSystemBytes.contains(Integer.valueOf(n)));
 		}
 		
-		int n = autoNumber();
-		
-		bs[2] = (byte)(n >> 8);
-		bs[3] = (byte)n;
+		return new byte[] {
+				(byte)(key >> 24),
+				(byte)(key >> 16),
+				(byte)(key >>  8),
+				(byte)(key      )
+		};
+	}
+	
+	private final Object syncOutstandingTransactions = new Object();
+	private int outstandingTransactions = 0;
+	
+	/**
+	 * Acquire outstanding transaction, blocking or fail-fast if full.
+	 * 
+	 * @param primaryMsg
+	 * @param blocking {@code false} if fail-fast regardless of config, e.g. sendAsync
+	 * @throws HsmsSsOutstandingTransactionsFullException
+	 * @throws InterruptedException
+	 */
+	private void acquireOutstandingTransaction(HsmsSsMessage primaryMsg, boolean blocking)
+			throws HsmsSsOutstandingTransactionsFullException, InterruptedException {
 		
-		return bs;
+		synchronized ( this.syncOutstandingTransactions ) {
+			
+			int max = hsmsSsConfig().maxOutstandingTransactions().intValue();
+			
+			if ( max > 0 && this.outstandingTransactions >= max ) {
+				
+				if ( ! blocking || hsmsSsConfig().failFastIfOutstandingTransactionsFull().booleanValue() ) {
+					throw new HsmsSsOutstandingTransactionsFullException(primaryMsg);
+				}
+				
+				final long limit = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(hsmsSsConfig().timeout().t3().getMilliSeconds());
+				
+				for ( ;; ) {
+					
+					long remaining = limit - System.nanoTime();
+					
+					if ( remaining <= 0L ) {
+						throw new HsmsSsOutstandingTransactionsFullException(primaryMsg);
+					}
+					
+					TimeUnit.NANOSECONDS.timedWait(this.syncOutstandingTransactions, remaining);
+					
+					max = hsmsSsConfig().maxOutstandingTransactions().intValue();
+					
+					if ( max <= 0 || this.outstandingTransactions < max ) {
+						break;
+					}
+				}
+			}
+			
+			++ this.outstandingTransactions;
+		}
+	}
+	
+	private void releaseOutstandingTransaction() {
+		synchronized ( this.syncOutstandingTransactions ) {
+			-- this.outstandingTransactions;
+			this.syncOutstandingTransactions.notifyAll();
+		}
 	}
 	
 	@Override
@@ -180,7 +257,28 @@ public abstract class AbstractHsmsSsCommunicator extends AbstractSecsCommunicato
 			throws SecsSendMessageException, SecsWaitReplyMessageException, SecsException,
 			InterruptedException {
 		
-		final AbstractInnerConnection c = this.getSelectedConnection();
+		return send(this.getSelectedConnection(), msg);
+	}
+	
+	@Override
+	public CompletableFuture<Optional<HsmsSsMessage>> sendAsync(HsmsSsMessage msg) {
+		return sendAsync(this.getSelectedConnection(), msg);
+	}
+	
+	/**
+	 * Send message on connection.
+	 * 
+	 * @param c connection, throws HsmsSsNotConnectedException if {@code null}
+	 * @param msg
+	 * @return Reply-Message if exist
+	 * @throws SecsSendMessageException
+	 * @throws SecsWaitReplyMessageException
+	 * @throws SecsException
+	 * @throws InterruptedException
+	 */
+	protected Optional<HsmsSsMessage> send(AbstractInnerConnection c, HsmsSsMessage msg)
+			throws SecsSendMessageException, SecsWaitReplyMessageException, SecsException,
+			InterruptedException {
 		
 		if ( c == null ) {
 			
@@ -207,13 +305,81 @@ public abstract class AbstractHsmsSsCommunicator extends AbstractSecsCommunicato
 		}
 	}
 	
+	/**
+	 * Send message on connection asynchronously.
+	 * 
+	 * @param c connection, future completes exceptionally by HsmsSsNotConnectedException if {@code null}
+	 * @param msg
+	 * @return future of Reply-Message if exist
+	 */
+	protected CompletableFuture<Optional<HsmsSsMessage>> sendAsync(AbstractInnerConnection c, HsmsSsMessage msg) {
+		
+		if ( c == null ) {
+			
+			final CompletableFuture<Optional<HsmsSsMessage>> f = new CompletableFuture<>();
+			f.completeExceptionally(new HsmsSsNotConnectedException(msg));
+			return f;
+			
+		} else {
+			
+			return c.sendAsync(msg).whenComplete((r, t) -> {
+				
+				if ( t == null ) {
+					return;
+				}
+				
+				final Throwable e = (t instanceof CompletionException && t.getCause() != null) ? t.getCause() : t;
+				
+				if ( e instanceof SecsWaitReplyMessageException ) {
+					
+					notifyLog(new AbstractSecsWaitReplyMessageExceptionLog((SecsWaitReplyMessageException)e) {
+						
+						private static final long serialVersionUID = 2813346327406512063L;
+					});
+					
+				} else if ( e instanceof SecsException ) {
+					
+					notifyLog(e);
+				}
+			});
+		}
+	}
+	
 	@Override
 	public Optional<SecsMessage> send(int strm, int func, boolean wbit, Secs2 secs2)
 			throws SecsSendMessageException, SecsWaitReplyMessageException, SecsException
 			, InterruptedException {
 		
+		return send(createDataMessage(strm, func, wbit, secs2)).map(msg -> (SecsMessage)msg);
+	}
+	
+	@Override
+	public Optional<SecsMessage> send(SecsMessage primary, int strm, int func, boolean wbit, Secs2 secs2)
+			throws SecsSendMessageException, SecsWaitReplyMessageException, SecsException
+			, InterruptedException {
+		
+		return send(createReplyDataMessage(primary, strm, func, wbit, secs2)).map(msg -> (SecsMessage)msg);
+	}
+	
+	@Override
+	public CompletableFuture<Optional<SecsMessage>> sendAsync(int strm, int func, boolean wbit, Secs2 secs2) {
+		return sendAsync(createDataMessage(strm, func, wbit, secs2))
+				.thenApply(op -> op.map(msg -> (SecsMessage)msg));
+	}
+	
+	@Override
+	public CompletableFuture<Optional<SecsMessage>> sendAsync(SecsMessage primary, int strm, int func, boolean wbit, Secs2 secs2) {
+		return sendAsync(createReplyDataMessage(primary, strm, func, wbit, secs2))
+				.thenApply(op -> op.map(msg -> (SecsMessage)msg));
+	}
+	
+	private HsmsSsMessage createDataMessage(int strm, int func, boolean wbit, Secs2 secs2) {
+		return createDataMessage(sessionIdBytes.get(), strm, func, wbit, secs2);
+	}
+	
+	protected HsmsSsMessage createDataMessage(byte[] xs, int strm, int func, boolean wbit, Secs2 secs2) {
+		
 		HsmsSsMessageType mt = HsmsSsMessageType.DATA;
-		byte[] xs = sessionIdBytes.get();
 		byte[] sysbytes = systemBytes();
 		
 		byte[] head = new byte[] {
@@ -233,18 +399,18 @@ public abstract class AbstractHsmsSsCommunicator extends AbstractSecsCommunicato
 			head[2] |= 0x80;
 		}
 		
-		return send(new HsmsSsMessage(head, secs2)).map(msg -> (SecsMessage)msg);
+		return createHsmsSsMessage(head, secs2);
 	}
-
-	@Override
-	public Optional<SecsMessage> send(SecsMessage primary, int strm, int func, boolean wbit, Secs2 secs2)
-			throws SecsSendMessageException, SecsWaitReplyMessageException, SecsException
-			, InterruptedException {
+	
+	private HsmsSsMessage createReplyDataMessage(SecsMessage primary, int strm, int func, boolean wbit, Secs2 secs2) {
+		return createReplyDataMessage(sessionIdBytes.get(), primary, strm, func, wbit, secs2);
+	}
+	
+	protected HsmsSsMessage createReplyDataMessage(byte[] xs, SecsMessage primary, int strm, int func, boolean wbit, Secs2 secs2) {
 		
 		byte[] pri = primary.header10Bytes();
 		
 		HsmsSsMessageType mt = HsmsSsMessageType.DATA;
-		byte[] xs = sessionIdBytes.get();
 		
 		byte[] head = new byte[] {
 				xs[0],
@@ -263,7 +429,7 @@ public abstract class AbstractHsmsSsCommunicator extends AbstractSecsCommunicato
 			head[2] |= 0x80;
 		}
 		
-		return send(createHsmsSsMessage(head, secs2)).map(msg -> (SecsMessage)msg);
+		return createHsmsSsMessage(head, secs2);
 	}
 	
 	@Override
@@ -398,26 +564,87 @@ public abstract class AbstractHsmsSsCommunicator extends AbstractSecsCommunicato
 	
 	private static final long MAX_BUFFER_SIZE = 256L * 256L;
 	private static final byte[] emptyBytes = new byte[] {0x0, 0x0, 0x0, 0x0};
-	private static final long bodyBufferSize = 1024L;
+	private static final int sendBufferInitialSize = 1024;
+	private static final int maxCoalescingFrames = 64;
+	private static final HsmsSsMessage readingTerminated = new HsmsSsMessage(new byte[10], Secs2.empty());
+	
+	private static final CompletionHandler<Long, CompletableFuture<Long>> writeHandler
+			= new CompletionHandler<Long, CompletableFuture<Long>>() {
+		
+		@Override
+		public void completed(Long result, CompletableFuture<Long> f) {
+			f.complete(result);
+		}
+		
+		@Override
+		public void failed(Throwable t, CompletableFuture<Long> f) {
+			f.completeExceptionally(t);
+		}
+	};
 	
 	protected abstract class AbstractInnerConnection {
 		
 		private final AsynchronousSocketChannel channel;
-		private boolean linktestResetted;
+		private volatile boolean linktestResetted;
 		
 		protected AbstractInnerConnection(AsynchronousSocketChannel channel) {
 			this.channel = channel;
 			this.linktestResetted = false;
 		}
 		
+		/**
+		 * Remote SocketAddress getter.
+		 * 
+		 * @return remote SocketAddress, {@code null} if get failed
+		 */
+		protected SocketAddress remoteSocketAddress() {
+			try {
+				return this.channel.getRemoteAddress();
+			}
+			catch ( IOException e ) {
+				return null;
+			}
+		}
+		
 		private final BlockingQueue<HsmsSsMessage> recvMsgQueue = new LinkedBlockingQueue<>();
 		
-		protected HsmsSsMessage takeReceiveMessage() throws InterruptedException {
-			return this.recvMsgQueue.take();
+		/**
+		 * Take received message.
+		 * 
+		 * @return received message
+		 * @throws HsmsSsDetectTerminateException if async-reading terminated
+		 * @throws InterruptedException
+		 */
+		protected HsmsSsMessage takeReceiveMessage() throws HsmsSsDetectTerminateException, InterruptedException {
+			
+			final HsmsSsMessage msg = this.recvMsgQueue.take();
+			
+			if ( msg == readingTerminated ) {
+				this.recvMsgQueue.offer(msg);
+				throw new HsmsSsDetectTerminateException();
+			}
+			
+			return msg;
 		}
 		
-		protected HsmsSsMessage pollReceiveMessage(ReadOnlyTimeProperty timeout) throws InterruptedException {
-			return timeout.poll(this.recvMsgQueue);
+		/**
+		 * Poll received message.
+		 * 
+		 * @param timeout
+		 * @return received message, {@code null} if timeout
+		 * @throws HsmsSsDetectTerminateException if async-reading terminated
+		 * @throws InterruptedException
+		 */
+		protected HsmsSsMessage pollReceiveMessage(ReadOnlyTimeProperty timeout) throws HsmsSsDetectTerminateException, InterruptedException {
+			
+			final HsmsSsMessage msg = timeout.poll(this.recvMsgQueue);
+			
+			if ( msg == readingTerminated ) {
+				this.recvMsgQueue.offer(msg);
+				throw new HsmsSsDetectTerminateException();
+			}
+			
+			return msg;
 		}
 		
 		private final HsmsSsReplyMessageManager replyMgr = new HsmsSsReplyMessageManager();
@@ -426,29 +653,128 @@ public abstract class AbstractHsmsSsCommunicator extends AbstractSecsCommunicato
 				throws SecsSendMessageException, SecsWaitReplyMessageException,
 				SecsException, InterruptedException {
 			
-			switch ( HsmsSsMessageType.get(msg) ) {
-			case SELECT_REQ:
-			case LINKTEST_REQ: {
+			final CompletableFuture<HsmsSsMessage> f = this.sendAndEntryReply(msg, true);
+			
+			if ( f == null ) {
+				return Optional.empty();
+			}
+			
+			try {
+				return Optional.of(f.get());
+			}
+			catch ( InterruptedException e ) {
+				this.replyMgr.exit(msg);
+				throw e;
+			}
+			catch ( ExecutionException e ) {
 				
-				try {
-					this.replyMgr.entry(msg);
-					
-					this.innerSend(msg);
-					
-					final HsmsSsMessage r = replyMgr.reply(
-							msg,
-							hsmsSsConfig().timeout().t6()
-							).orElse(null);
-					
-					if ( r == null ) {
-						throw new HsmsSsTimeoutT6Exception(msg);
+				Throwable t = e.getCause();
+				
+				if ( t instanceof SecsException ) {
+					throw (SecsException)t;
+				}
+				
+				if ( t instanceof RuntimeException ) {
+					throw (RuntimeException)t;
+				}
+				
+				throw new HsmsSsSendMessageException(msg, t);
+			}
+		}
+		
+		/**
+		 * Send message, and returns future of Reply-Message.
+		 * 
+		 * <p>
+		 * Sending bytes is in this thread, not blocking until Reply-Message received.<br />
+		 * Future completes exceptionally if send failed or Timeout-T3 or T6.<br />
+		 * Future of Reply-Message is completed on executor, not on reading thread or timer thread.<br />
+		 * If outstanding transactions full, future completes exceptionally immediately
+		 * by HsmsSsOutstandingTransactionsFullException, not blocking.<br />
+		 * </p>
+		 * 
+		 * @param msg
+		 * @return future of Reply-Message if exist
+		 */
+		protected CompletableFuture<Optional<HsmsSsMessage>> sendAsync(HsmsSsMessage msg) {
+			
+			try {
+				final CompletableFuture<HsmsSsMessage> f = this.sendAndEntryReply(msg, false);
+				
+				if ( f == null ) {
+					return CompletableFuture.completedFuture(Optional.empty());
+				} else {
+					return completeOnExecutor(f);
+				}
+			}
+			catch ( SecsException | RuntimeException e ) {
+				
+				final CompletableFuture<Optional<HsmsSsMessage>> f = new CompletableFuture<>();
+				f.completeExceptionally(e);
+				return f;
+			}
+			catch ( InterruptedException e ) {
+				
+				Thread.currentThread().interrupt();
+				
+				final CompletableFuture<Optional<HsmsSsMessage>> f = new CompletableFuture<>();
+				f.completeExceptionally(new HsmsSsSendMessageException(msg, e));
+				return f;
+			}
+		}
+		
+		/**
+		 * Returns future completed on executor, dependent stages do not run on reading thread or timer thread.
+		 * 
+		 * <p>
+		 * If executor is already shutdown, completes in completing thread.<br />
+		 * </p>
+		 * 
+		 * @param f future of Reply-Message
+		 * @return future of Reply-Message
+		 */
+		private CompletableFuture<Optional<HsmsSsMessage>> completeOnExecutor(CompletableFuture<HsmsSsMessage> f) {
+			
+			final CompletableFuture<Optional<HsmsSsMessage>> r = new CompletableFuture<>();
+			
+			f.whenComplete((v, t) -> {
+				
+				final Runnable task = () -> {
+					if ( t == null ) {
+						r.complete(Optional.of(v));
 					} else {
-						return Optional.of(r);
+						r.completeExceptionally(t);
 					}
+				};
+				
+				try {
+					executorService().execute(task);
 				}
-				finally {
-					this.replyMgr.exit(msg);
+				catch ( RejectedExecutionException e ) {
+					task.run();
 				}
+			});
+			
+			return r;
+		}
+		
+		/**
+		 * Returns {@code null} if Reply-Message not exist.
+		 * 
+		 * @param msg
+		 * @param blocking {@code true} if blocking while outstanding transactions full
+		 */
+		private CompletableFuture<HsmsSsMessage> sendAndEntryReply(HsmsSsMessage msg, boolean blocking)
+				throws SecsException, InterruptedException {
+			
+			switch ( HsmsSsMessageType.get(msg) ) {
+			case SELECT_REQ:
+			case LINKTEST_REQ: {
+				
+				return sendAndEntryReply(
+						msg,
+						hsmsSsConfig().timeout().t6(),
+						() -> new HsmsSsTimeoutT6Exception(msg));
 				
 				/* break; */
 			}
@@ -456,30 +782,30 @@ public abstract class AbstractHsmsSsCommunicator extends AbstractSecsCommunicato
 				
 				if ( msg.wbit() ) {
 					
+					acquireOutstandingTransaction(msg, blocking);
+					
 					try {
-						replyMgr.entry(msg);
 						
-						this.innerSend(msg);
-						
-						final HsmsSsMessage r = replyMgr.reply(
+						final CompletableFuture<HsmsSsMessage> f = sendAndEntryReply(
 								msg,
-								hsmsSsConfig().timeout().t3()
-								).orElse(null);
+								hsmsSsConfig().timeout().t3(),
+								() -> new HsmsSsTimeoutT3Exception(msg));
 						
-						if ( r == null ) {
-							throw new HsmsSsTimeoutT3Exception(msg);
-						} else {
-							return Optional.of(r);
-						}
+						f.whenComplete((r, t) -> {
+							releaseOutstandingTransaction();
+						});
+						
+						return f;
 					}
-					finally {
-						replyMgr.exit(msg);
+					catch ( SecsException | InterruptedException | RuntimeException e ) {
+						releaseOutstandingTransaction();
+						throw e;
 					}
 					
 				} else {
 					
 					this.innerSend(msg);
-					return Optional.empty();
+					return null;
 				}
 				
 				/* break */
@@ -487,9 +813,37 @@ public abstract class AbstractHsmsSsCommunicator extends AbstractSecsCommunicato
 			default: {
 				
 				this.innerSend(msg);
-				return Optional.empty();
+				return null;
+			}
+			}
+		}
+		
+		private CompletableFuture<HsmsSsMessage> sendAndEntryReply(
+				HsmsSsMessage msg,
+				ReadOnlyTimeProperty timeout,
+				Supplier<? extends SecsException> timeoutException)
+						throws SecsException, InterruptedException {
+			
+			final Integer key = msg.systemBytesKey();
+			final CompletableFuture<HsmsSsMessage> f = this.replyMgr.entry(msg);
+			
+			outstandingSystemBytes.add(key);
+			
+			f.whenComplete((r, t) -> {
+				outstandingSystemBytes.remove(key);
+			});
+			
+			try {
+				this.innerSend(msg);
 			}
+			catch ( SecsException | InterruptedException | RuntimeException e ) {
+				this.replyMgr.exit(msg);
+				throw e;
 			}
+			
+			this.replyMgr.timeout(f, timeout, timeoutException);
+			
+			return f;
 		}
 		
 		protected long prototypeMaxBufferSize() {
@@ -499,69 +853,63 @@ public abstract class AbstractHsmsSsCommunicator extends AbstractSecsCommunicato
 		private void innerSend(HsmsSsMessage msg)
 				throws SecsSendMessageException, SecsException,InterruptedException {
 			
+			final ByteBufferPool pool = ByteBufferPool.getInstance();
+			
+			ByteBuffer[] buffers = new ByteBuffer[0];
+			
+			boolean releasable = true;
+			
 			try {
 				notifyLog(new HsmsSsTrySendMessageLog(msg));
 				
-				final Secs2BytesPack pack = Secs2BytesPackBuilder.build(1024, msg.secs2());
+				final long len = 10L + Secs2BytesEncoder.getInstance().encodedLength(msg.secs2());
 				
-				long len = pack.size() + 10L;
-				
-				if ((len > 0x00000000FFFFFFFFL) || (len < 10L)) {
+				if ( len > 0x00000000FFFFFFFFL ) {
 					throw new HsmsSsTooBigSendMessageException(msg);
 				}
 				
-				notifyTrySendMessagePassThrough(msg);
-				
-				long bufferSize = len + 4L;
-				
-				if ( bufferSize > this.prototypeMaxBufferSize() ) {
-					
-					final List<ByteBuffer> buffers = new ArrayList<>();
-					{
-						ByteBuffer buffer = ByteBuffer.allocate(14);
-						
-						buffer.put((byte)(len >> 24));
-						buffer.put((byte)(len >> 16));
-						buffer.put((byte)(len >>  8));
-						buffer.put((byte)(len      ));
-						buffer.put(msg.header10Bytes());
-						
-						((Buffer)buffer).flip();
-						buffers.add(buffer);
-					}
+				if ( (len + 4L) <= (long)(pool.maxPooledCapacity()) ) {
 					
-					for (byte[] bs : pack.getBytes()) {
-						ByteBuffer buffer = ByteBuffer.allocate(bs.length);
-						buffer.put(bs);
-						
-						((Buffer)buffer).flip();
-						buffers.add(buffer);
-					}
+					/* exact size, one buffer */
+					final ByteBuffer buffer = pool.acquire((int)(len + 4L));
+					buffers = new ByteBuffer[] {buffer};
 					
-					synchronized ( this.channel ) {
-						for ( ByteBuffer buffer : buffers ) {
-							innerSend(buffer);
-						}
-					}
+					buffer.putInt((int)len);
+					buffer.put(msg.header10Bytes());
+					Secs2BytesEncoder.getInstance().encode(msg.secs2(), buffer);
+					((Buffer)buffer).flip();
 					
 				} else {
 					
-					ByteBuffer buffer = ByteBuffer.allocate((int)bufferSize);
-					
-					buffer.put((byte)(len >> 24));
-					buffer.put((byte)(len >> 16));
-					buffer.put((byte)(len >>  8));
-					buffer.put((byte)(len      ));
-					buffer.put(msg.header10Bytes());
+					final Secs2ByteBufferPackBuilder bb = new Secs2ByteBufferPackBuilder(
+							pool::acquire,
+							sendBufferInitialSize,
+							(int)(this.prototypeMaxBufferSize()));
 					
-					for (byte[] bs : pack.getBytes()) {
-						buffer.put(bs);
+					try {
+						bb.putBytes(emptyBytes);
+						bb.putBytes(msg.header10Bytes());
+						bb.putSecs2(msg.secs2());
+					}
+					finally {
+						buffers = bb.getBuffers().toArray(new ByteBuffer[0]);
 					}
 					
-					((Buffer)buffer).flip();
+					buffers[0].putInt(0, (int)len);
+				}
+				
+				notifyTrySendMessagePassThrough(msg);
+				
+				if ( hsmsSsConfig().writeCoalescing().booleanValue() ) {
+					
+					/* buffers are released by writer */
+					releasable = false;
+					coalescingSend(buffers);
+					
+				} else {
 					
 					synchronized ( this.channel ) {
-						innerSend(buffer);
+						innerSend(buffers);
 					}
 				}
 				
@@ -582,43 +930,189 @@ public abstract class AbstractHsmsSsCommunicator extends AbstractSecsCommunicato
 			catch ( Secs2BuildException | HsmsSsDetectTerminateException e ) {
 				throw new HsmsSsSendMessageException(msg, e);
 			}
+			finally {
+				
+				if ( releasable ) {
+					pool.release(Arrays.asList(buffers));
+				}
+			}
 		}
 		
-		private void innerSend(ByteBuffer buffer)
-				throws ExecutionException, HsmsSsDetectTerminateException, InterruptedException {
+		private final Queue<SendFrame> sendFrameQueue = new ConcurrentLinkedQueue<>();
+		private final AtomicBoolean frameWriting = new AtomicBoolean(false);
+		
+		/**
+		 * Enqueue frame, and wait until written.
+		 * 
+		 * <p>
+		 * The thread which get writer-flag drains queue, writes frames by one gathering write.<br />
+		 * </p>
+		 * 
+		 * @param buffers
+		 * @throws ExecutionException
+		 * @throws InterruptedException
+		 */
+		private void coalescingSend(ByteBuffer[] buffers)
+				throws ExecutionException, InterruptedException {
 			
-			while ( buffer.hasRemaining() ) {
-				
-				final Future<Integer> f = this.channel.write(buffer);
+			final SendFrame frame = new SendFrame(buffers);
+			
+			this.sendFrameQueue.offer(frame);
+			
+			this.drainSendFrames();
+			
+			frame.written.get();
+		}
+		
+		private void drainSendFrames() {
+			
+			final ByteBufferPool pool = ByteBufferPool.getInstance();
+			final List<SendFrame> frames = new ArrayList<>();
+			final List<ByteBuffer> buffers = new ArrayList<>();
+			
+			while ( ! this.sendFrameQueue.isEmpty() && this.frameWriting.compareAndSet(false, true) ) {
 				
 				try {
-					int w = f.get().intValue();
 					
-					if ( w <= 0 ) {
-						throw new HsmsSsDetectTerminateException();
+					frames.clear();
+					buffers.clear();
+					
+					for ( ;; ) {
+						
+						final SendFrame frame = this.sendFrameQueue.poll();
+						
+						if ( frame == null ) {
+							break;
+						}
+						
+						frames.add(frame);
+						
+						for ( ByteBuffer bf : frame.buffers ) {
+							buffers.add(bf);
+						}
+						
+						if ( frames.size() >= maxCoalescingFrames ) {
+							break;
+						}
+					}
+					
+					try {
+						
+						synchronized ( this.channel ) {
+							innerSend(buffers.toArray(new ByteBuffer[0]));
+						}
+						
+						frames.forEach(f -> {f.written.complete(null);});
+					}
+					catch ( ExecutionException e ) {
+						frames.forEach(f -> {f.written.completeExceptionally(e.getCause());});
+					}
+					catch ( HsmsSsDetectTerminateException | RuntimeException e ) {
+						frames.forEach(f -> {f.written.completeExceptionally(e);});
+					}
+					catch ( InterruptedException e ) {
+						frames.forEach(f -> {f.written.completeExceptionally(e);});
+						Thread.currentThread().interrupt();
+					}
+					finally {
+						pool.release(buffers);
 					}
 				}
-				catch ( InterruptedException e ) {
-					f.cancel(true);
-					throw e;
+				finally {
+					this.frameWriting.set(false);
 				}
 			}
 		}
 		
-		protected void reading() throws InterruptedException {
+		private class SendFrame {
 			
-			final ByteBuffer lenBf = ByteBuffer.allocate(8);
-			final ByteBuffer headBf = ByteBuffer.allocate(10);
-			final byte[] headbs = new byte[10];
-			final List<byte[]> bodybss = new ArrayList<>();
-
-			try {
-				
-				for ( ;; ) {
+			private final ByteBuffer[] buffers;
+			private final CompletableFuture<Void> written;
+			
+			private SendFrame(ByteBuffer[] buffers) {
+				this.buffers = buffers;
+				this.written = new CompletableFuture<>();
+			}
+		}
+		
+		/**
+		 * Gathering write, blocking until all buffers are written.
+		 * 
+		 * @param buffers
+		 * @throws ExecutionException
+		 * @throws HsmsSsDetectTerminateException
+		 * @throws InterruptedException
+		 */
+		private void innerSend(ByteBuffer[] buffers)
+				throws ExecutionException, HsmsSsDetectTerminateException, InterruptedException {
+			
+			for ( int offset = 0, m = buffers.length; offset < m; ) {
+				
+				if ( ! buffers[offset].hasRemaining() ) {
+					++ offset;
+					continue;
+				}
+				
+				final CompletableFuture<Long> f = new CompletableFuture<>();
+				
+				this.channel.write(buffers, offset, (m - offset), 0L, TimeUnit.MILLISECONDS, f, writeHandler);
+				
+				try {
+					long w = f.get().longValue();
+					
+					if ( w <= 0L ) {
+						throw new HsmsSsDetectTerminateException();
+					}
+				}
+				catch ( InterruptedException e ) {
+					
+					/* close channel as cancel, and wait until write ends, buffers are releasable */
+					try {
+						this.channel.close();
+					}
+					catch ( IOException giveup ) {
+					}
+					
+					awaitUninterruptibly(f);
+					throw e;
+				}
+			}
+		}
+		
+		/**
+		 * Wait until future done, caller rethrows InterruptedException.
+		 * 
+		 * @param f
+		 */
+		private void awaitUninterruptibly(CompletableFuture<?> f) {
+			
+			for ( ;; ) {
+				
+				try {
+					f.get();
+					return;
+				}
+				catch ( InterruptedException ignore ) {
+				}
+				catch ( ExecutionException giveup ) {
+					return;
+				}
+			}
+		}
+		
+		protected void reading() throws InterruptedException {
+			
+			final ByteBuffer lenBf = ByteBuffer.allocate(8);
+			final ByteBuffer headBf = ByteBuffer.allocate(10);
+			final byte[] headbs = new byte[10];
+			final ByteBufferPool pool = ByteBufferPool.getInstance();
+			
+			try {
+				
+				for ( ;; ) {
 					
 					((Buffer)lenBf).clear();
 					((Buffer)headBf).clear();
-					bodybss.clear();
 					
 					lenBf.put(emptyBytes);
 					
@@ -641,45 +1135,65 @@ public abstract class AbstractHsmsSsCommunicator extends AbstractSecsCommunicato
 					
 					this.resetLinktesting();
 					
-					while ( len > 0L ) {
+					if ( isSpillToFile(len) ) {
 						
-						final ByteBuffer buffer = ByteBuffer.allocate(
-								(int)((len > bodyBufferSize) ? bodyBufferSize : len)); 
+						((Buffer)headBf).flip();
+						headBf.get(headbs);
 						
-						len -= bodyBufferSize;
-						
-						while ( buffer.hasRemaining() ) {
-							readToBuffer(channel, buffer);
+						try (
+								HsmsSsSpillFile spill = HsmsSsSpillFile.create(len);
+								) {
+							
+							while ( spill.hasRemaining() ) {
+								
+								final ByteBuffer chunk = spill.chunk();
+								
+								while ( chunk.hasRemaining() ) {
+									readToBuffer(channel, chunk);
+									this.resetLinktesting();
+								}
+								
+								spill.writeChunk();
+							}
+							
+							receivedLazy(headbs, spill.mapAndClose());
+						}
+						catch ( IOException e ) {
+							throw new HsmsSsDetectTerminateException(e);
+						}
+						catch ( Secs2Exception e ) {
+							notifyLog(e);
 						}
 						
-						this.resetLinktesting();
-						
-						((Buffer)buffer).flip();
-						byte[] bs = new byte[buffer.remaining()];
-						buffer.get(bs);
-						
-						bodybss.add(bs);
+						continue;
+					}
+					
+					/* body in memory is not over 2 GiB, larger body needs spill-to-file */
+					if ( len > (long)(Integer.MAX_VALUE) ) {
+						throw new HsmsSsDetectTerminateException("Body size over: " + len);
 					}
 					
-					((Buffer)headBf).flip();
-					headBf.get(headbs);
+					final ByteBuffer bodyBf = acquireBodyBuffer(pool, (int)len);
 					
 					try {
-						HsmsSsMessage msg = new HsmsSsMessage(
-								headbs,
-								Secs2BytesParser.getInstance().parse(bodybss));
 						
-						notifyReceiveMessagePassThrough(msg);
-						notifyLog(new HsmsSsReceiveMessageLog(msg));
-						
-						HsmsSsMessage r = replyMgr.put(msg).orElse(null);
-						if ( r != null ) {
-							this.recvMsgQueue.put(r);
+						while ( bodyBf.hasRemaining() ) {
+							readToBuffer(channel, bodyBf);
+							this.resetLinktesting();
 						}
+						
+						((Buffer)bodyBf).flip();
+						((Buffer)headBf).flip();
+						headBf.get(headbs);
+						
+						received(headbs, bodyBf);
 					}
 					catch ( Secs2Exception e ) {
 						notifyLog(e);
 					}
+					finally {
+						pool.release(bodyBf);
+					}
 				}
 			}
 			catch ( HsmsSsDetectTerminateException | HsmsSsTimeoutT8Exception e ) {
@@ -697,6 +1211,431 @@ public abstract class AbstractHsmsSsCommunicator extends AbstractSecsCommunicato
 			}
 		}
 		
+		/**
+		 * Create received message, prototype-pattern.
+		 * 
+		 * @param header
+		 * @param body
+		 * @return received message
+		 */
+		protected HsmsSsMessage createReceivedMessage(byte[] header, Secs2 body) {
+			return new HsmsSsMessage(header, body);
+		}
+		
+		private boolean isSpillToFile(long bodySize) {
+			long threshold = hsmsSsConfig().spillToFileThreshold().longValue();
+			return threshold >= 0L && bodySize > threshold;
+		}
+		
+		private void received(byte[] headbs, ByteBuffer bodyBf) throws Secs2Exception {
+			
+			if ( hsmsSsConfig().lazyParsing().booleanValue() ) {
+				
+				/* body buffer is pooled, view needs own bytes */
+				final byte[] bs = new byte[bodyBf.remaining()];
+				bodyBf.get(bs);
+				
+				received(headbs, Secs2BytesParser.getInstance().parseLazy(ByteBuffer.wrap(bs)));
+				
+			} else {
+				
+				received(headbs, Secs2BytesParser.getInstance().parse(bodyBf));
+			}
+		}
+		
+		private void receivedLazy(byte[] headbs, ByteBuffer[] mappedBfs) throws Secs2Exception {
+			received(headbs, Secs2BytesParser.getInstance().parseLazy(mappedBfs));
+		}
+		
+		private void received(byte[] headbs, Secs2 body) {
+			
+			HsmsSsMessage msg = createReceivedMessage(headbs, body);
+			
+			notifyReceiveMessagePassThrough(msg);
+			notifyLog(new HsmsSsReceiveMessageLog(msg));
+			
+			HsmsSsMessage r = replyMgr.put(msg).orElse(null);
+			if ( r != null ) {
+				this.offerReceiveMessage(r);
+			}
+		}
+		
+		private void offerReceiveMessage(HsmsSsMessage msg) {
+			
+			this.recvMsgQueue.offer(msg);
+			
+			if ( this.asyncDispatching ) {
+				this.dispatchReceiveMessages();
+			}
+		}
+		
+		/**
+		 * Start async-reading.
+		 * 
+		 * <p>
+		 * Not blocking, reading by chained CompletionHandler callbacks on channel-group.<br />
+		 * T8-Timeout is read-timeout of channel.<br />
+		 * If reading terminated, {@link #takeReceiveMessage()} throws HsmsSsDetectTerminateException.<br />
+		 * </p>
+		 */
+		protected void startAsyncReading() {
+			new AsyncReadingHandler().readHead();
+		}
+		
+		private void terminateAsyncReading() {
+			this.detectTerminate();
+		}
+		
+		/**
+		 * Terminate receiving.
+		 * 
+		 * <p>
+		 * After this, {@link #takeReceiveMessage()} throws HsmsSsDetectTerminateException.<br />
+		 * </p>
+		 */
+		protected void detectTerminate() {
+			this.offerReceiveMessage(readingTerminated);
+		}
+		
+		private volatile boolean asyncDispatching = false;
+		private final AtomicBoolean dispatching = new AtomicBoolean(false);
+		private final AtomicBoolean dispatchTerminated = new AtomicBoolean(false);
+		private Runnable closeAction;
+		
+		/**
+		 * Start dispatching received messages to {@link #asyncReceived(HsmsSsMessage)}.
+		 * 
+		 * <p>
+		 * Not blocking, messages are handled in received order by short tasks of executor,
+		 * no thread is parked per connection while no message.<br />
+		 * Messages already received are dispatched.<br />
+		 * When terminated, {@link #asyncTerminated()} and closeAction are called once.<br />
+		 * </p>
+		 * 
+		 * @param closeAction close channel
+		 */
+		protected void startAsyncDispatching(Runnable closeAction) {
+			
+			this.closeAction = closeAction;
+			this.asyncDispatching = true;
+			
+			asyncConnections.add(this);
+			
+			if ( isClosed() ) {
+				this.terminateAsyncDispatching();
+				return;
+			}
+			
+			this.dispatchReceiveMessages();
+		}
+		
+		/**
+		 * Handle received message while async-dispatching.
+		 * 
+		 * @param msg
+		 * @return {@code false} if connection terminated
+		 * @throws SecsException
+		 * @throws InterruptedException
+		 */
+		protected boolean asyncReceived(HsmsSsMessage msg) throws SecsException, InterruptedException {
+			return true;
+		}
+		
+		/**
+		 * Called once when async-dispatching terminated, before closeAction.
+		 *
+		 */
+		protected void asyncTerminated() {
+			/* Nothing */
+		}
+		
+		private void terminateAsyncDispatching() {
+			
+			if ( this.dispatchTerminated.compareAndSet(false, true) ) {
+				
+				asyncConnections.remove(this);
+				
+				try {
+					this.asyncTerminated();
+				}
+				finally {
+					this.closeAction.run();
+				}
+			}
+		}
+		
+		private void dispatchReceiveMessages() {
+			
+			if ( this.dispatchTerminated.get() ) {
+				return;
+			}
+			
+			if ( this.dispatching.compareAndSet(false, true) ) {
+				
+				try {
+					executorService().execute(this::drainReceiveMessages);
+				}
+				catch ( RejectedExecutionException e ) {
+					
+					/* communicator closed */
+					this.dispatching.set(false);
+					this.terminateAsyncDispatching();
+				}
+			}
+		}
+		
+		private void drainReceiveMessages() {
+			
+			try {
+				
+				for ( HsmsSsMessage msg; (msg = this.recvMsgQueue.poll()) != null; ) {
+					
+					if ( msg == readingTerminated ) {
+						this.terminateAsyncDispatching();
+						return;
+					}
+					
+					try {
+						
+						if ( ! this.asyncReceived(msg) ) {
+							this.terminateAsyncDispatching();
+							return;
+						}
+					}
+					catch ( SecsException e ) {
+						notifyLog(e);
+						this.terminateAsyncDispatching();
+						return;
+					}
+					catch ( InterruptedException e ) {
+						this.terminateAsyncDispatching();
+						Thread.currentThread().interrupt();
+						return;
+					}
+					catch ( RuntimeException e ) {
+						this.terminateAsyncDispatching();
+						throw e;
+					}
+				}
+			}
+			finally {
+				this.dispatching.set(false);
+			}
+			
+			/* offered while finishing */
+			if ( ! this.recvMsgQueue.isEmpty() ) {
+				this.dispatchReceiveMessages();
+			}
+		}
+		
+		private class AsyncReadingHandler implements CompletionHandler<Integer, ByteBuffer> {
+			
+			private final ByteBufferPool pool = ByteBufferPool.getInstance();
+			
+			/* 4 bytes length and 10 bytes header */
+			private final ByteBuffer headBf = ByteBuffer.allocate(14);
+			private final byte[] headbs = new byte[10];
+			
+			/* not null while spilling body to file */
+			private HsmsSsSpillFile spill;
+			
+			private AsyncReadingHandler() {
+				/* Nothing */
+			}
+			
+			private void readHead() {
+				
+				if ( this.headBf.position() == 0 ) {
+					channel.read(this.headBf, this.headBf, this);
+				} else {
+					read(this.headBf);
+				}
+			}
+			
+			private void read(ByteBuffer buffer) {
+				
+				final long t8 = hsmsSsConfig().timeout().t8().getMilliSeconds();
+				
+				channel.read(buffer, t8, TimeUnit.MILLISECONDS, buffer, this);
+			}
+			
+			@Override
+			public void completed(Integer result, ByteBuffer buffer) {
+				
+				if ( result.intValue() < 0 ) {
+					release(buffer);
+					terminateAsyncReading();
+					return;
+				}
+				
+				resetLinktesting();
+				
+				if ( buffer.hasRemaining() ) {
+					
+					if ( buffer == this.headBf ) {
+						readHead();
+					} else {
+						read(buffer);
+					}
+					
+					return;
+				}
+				
+				if ( this.spill != null ) {
+					
+					try {
+						
+						this.spill.writeChunk();
+						
+						if ( this.spill.hasRemaining() ) {
+							read(this.spill.chunk());
+							return;
+						}
+						
+						final ByteBuffer[] mappedBfs = this.spill.mapAndClose();
+						this.spill = null;
+						
+						receivedLazy(this.headbs, mappedBfs);
+					}
+					catch ( IOException e ) {
+						notifyLog(e);
+						closeSpill();
+						terminateAsyncReading();
+						return;
+					}
+					catch ( Secs2Exception e ) {
+						notifyLog(e);
+					}
+					catch ( RuntimeException e ) {
+						closeSpill();
+						terminateAsyncReading();
+						throw e;
+					}
+					
+					readHead();
+					return;
+				}
+				
+				if ( buffer == this.headBf ) {
+					
+					((Buffer)this.headBf).flip();
+					long len = ((long)(this.headBf.getInt()) & 0x00000000FFFFFFFFL) - 10L;
+					this.headBf.get(this.headbs);
+					((Buffer)this.headBf).clear();
+					
+					if ( len < 0L ) {
+						readHead();
+						return;
+					}
+					
+					if ( isSpillToFile(len) ) {
+						
+						try {
+							this.spill = HsmsSsSpillFile.create(len);
+						}
+						catch ( IOException e ) {
+							notifyLog(e);
+							terminateAsyncReading();
+							return;
+						}
+						
+						read(this.spill.chunk());
+						return;
+					}
+					
+					/* body in memory is not over 2 GiB, larger body needs spill-to-file */
+					if ( len > (long)(Integer.MAX_VALUE) ) {
+						notifyLog(new HsmsSsDetectTerminateException("Body size over: " + len));
+						terminateAsyncReading();
+						return;
+					}
+					
+					final ByteBuffer bodyBf = acquireBodyBuffer(this.pool, (int)len);
+					
+					if ( bodyBf.hasRemaining() ) {
+						read(bodyBf);
+						return;
+					}
+					
+					buffer = bodyBf;
+				}
+				
+				try {
+					((Buffer)buffer).flip();
+					received(this.headbs, buffer);
+				}
+				catch ( Secs2Exception e ) {
+					notifyLog(e);
+				}
+				catch ( RuntimeException e ) {
+					release(buffer);
+					terminateAsyncReading();
+					throw e;
+				}
+				
+				release(buffer);
+				readHead();
+			}
+			
+			@Override
+			public void failed(Throwable t, ByteBuffer buffer) {
+				
+				release(buffer);
+				
+				if ( t instanceof InterruptedByTimeoutException ) {
+					
+					notifyLog(new HsmsSsTimeoutT8Exception(t));
+					
+				} else if ( ! (t instanceof ClosedChannelException) ) {
+					
+					notifyLog(t);
+				}
+				
+				terminateAsyncReading();
+			}
+			
+			private void release(ByteBuffer buffer) {
+				
+				if ( this.spill != null ) {
+					
+					/* buffer is chunk of spill */
+					closeSpill();
+					
+				} else if ( buffer != this.headBf ) {
+					
+					this.pool.release(buffer);
+				}
+			}
+			
+			private void closeSpill() {
+				
+				if ( this.spill != null ) {
+					
+					try {
+						this.spill.close();
+					}
+					catch ( IOException ignore ) {
+					}
+					
+					this.spill = null;
+				}
+			}
+		}
+		
+		private ByteBuffer acquireBodyBuffer(ByteBufferPool pool, int size) {
+			
+			if ( size > pool.maxPooledCapacity() ) {
+				
+				return ByteBuffer.allocate(size);
+				
+			} else {
+				
+				ByteBuffer buffer = pool.acquire(size);
+				((Buffer)buffer).limit(size);
+				return buffer;
+			}
+		}
+		
 		private int readToBuffer(AsynchronousSocketChannel channel, ByteBuffer buffer)
 				throws HsmsSsDetectTerminateException, HsmsSsTimeoutT8Exception, ExecutionException, InterruptedException {
 			
@@ -743,64 +1682,130 @@ public abstract class AbstractHsmsSsCommunicator extends AbstractSecsCommunicato
 		}
 		
 		private final Object syncLinktesting = new Object();
+		private SecsTimerWheel.Timer linktestTimer;
+		private PropertyChangeListener<Number> linktestLstnr;
 		
-		protected void linktesting() throws InterruptedException {
-			
-			final ReadOnlyTimeProperty tpLinktest = hsmsSsConfig().linktest();
+		/**
+		 * Start linktest cycle.
+		 * 
+		 * <p>
+		 * Not blocking, cycle is driven by {@link SecsTimerWheel}.<br />
+		 * Cycle is restarted if received bytes or linktest-property changed.<br />
+		 * If linktest failed, {@link #takeReceiveMessage()} throws HsmsSsDetectTerminateException.<br />
+		 * </p>
+		 */
+		protected void startLinktesting() {
 			
 			final PropertyChangeListener<Number> lstnr = (Number n) -> {
-				synchronized ( this.syncLinktesting ) {
-					this.linktestResetted = true;
-					this.syncLinktesting.notifyAll();
-				}
+				scheduleLinktest();
 			};
 			
-			try {
+			synchronized ( this.syncLinktesting ) {
+				this.linktestLstnr = lstnr;
+			}
+			
+			hsmsSsConfig().linktest().addChangeListener(lstnr);
+		}
+		
+		/**
+		 * Stop linktest cycle.
+		 * 
+		 */
+		protected void stopLinktesting() {
+			
+			final PropertyChangeListener<Number> lstnr;
+			
+			synchronized ( this.syncLinktesting ) {
 				
-				tpLinktest.addChangeListener(lstnr);
+				lstnr = this.linktestLstnr;
+				this.linktestLstnr = null;
 				
-				for ( ;; ) {
+				if ( this.linktestTimer != null ) {
+					this.linktestTimer.cancel();
+					this.linktestTimer = null;
+				}
+			}
+			
+			if ( lstnr != null ) {
+				hsmsSsConfig().linktest().removeChangeListener(lstnr);
+			}
+		}
+		
+		/**
+		 * Schedule next linktest.
+		 * 
+		 * <p>
+		 * Read linktest-time before lock syncLinktesting,<br />
+		 * because property calls listeners in own lock.<br />
+		 * </p>
+		 */
+		private void scheduleLinktest() {
+			
+			final long millis = hsmsSsConfig().linktest().getMilliSeconds();
+			
+			synchronized ( this.syncLinktesting ) {
+				
+				if ( this.linktestTimer != null ) {
+					this.linktestTimer.cancel();
+					this.linktestTimer = null;
+				}
+				
+				if ( this.linktestLstnr == null ) {
+					return;
+				}
+				
+				if ( millis >= 0L ) {
+					this.linktestResetted = false;
+					this.linktestTimer = SecsTimerWheel.getInstance().schedule(this::linktestExpired, millis, TimeUnit.MILLISECONDS);
+				}
+			}
+		}
+		
+		private void linktestExpired() {
+			
+			synchronized ( this.syncLinktesting ) {
+				
+				if ( this.linktestLstnr == null ) {
+					return;
+				}
+			}
+			
+			if ( this.linktestResetted ) {
+				this.scheduleLinktest();
+				return;
+			}
+			
+			try {
+				executorService().execute(() -> {
 					
-					synchronized ( this.syncLinktesting ) {
+					this.sendAsync(AbstractHsmsSsCommunicator.this.createLinktestRequest())
+					.whenComplete((op, t) -> {
 						
-						if ( tpLinktest.geZero() ) {
-							tpLinktest.wait(this.syncLinktesting);
+						if ( t == null
+								&& op.map(HsmsSsMessageType::get)
+								.filter(type -> type == HsmsSsMessageType.LINKTEST_RSP)
+								.isPresent() ) {
+							
+							this.scheduleLinktest();
+							
 						} else {
-							this.syncLinktesting.wait();
+							
+							if ( t != null ) {
+								notifyLog((t instanceof CompletionException && t.getCause() != null) ? t.getCause() : t);
+							}
+							
+							this.detectTerminate();
 						}
-						
-						if ( this.linktestResetted ) {
-							this.linktestResetted = false;
-							continue;
-						}
-					}
-					
-					if ( this.send(AbstractHsmsSsCommunicator.this.createLinktestRequest())
-							.map(HsmsSsMessageType::get)
-							.filter(t -> t == HsmsSsMessageType.LINKTEST_RSP)
-							.isPresent()) {
-						
-						continue;
-						
-					} else {
-						
-						return;
-					}
-				}
-			}
-			catch ( SecsException e ) {
-				notifyLog(e);
-				return;
+					});
+				});
 			}
-			finally {
-				tpLinktest.removeChangeListener(lstnr);
+			catch ( RejectedExecutionException ignore ) {
+				/* communicator closed */
 			}
 		}
 		
 		private void resetLinktesting() {
-			synchronized ( this.syncLinktesting ) {
-				this.linktestResetted = true;
-			}
+			this.linktestResetted = true;
 		}
 		
 	}
@@ -0,0 +1,402 @@
+package com.shimizukenta.secs.hsmsss;
+
+import java.io.IOException;
+import java.net.SocketAddress;
+import java.nio.channels.AsynchronousSocketChannel;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.LinkedBlockingQueue;
+
+import com.shimizukenta.secs.SecsException;
+import com.shimizukenta.secs.SecsMessage;
+import com.shimizukenta.secs.SecsMessageReceiveListener;
+import com.shimizukenta.secs.SecsSendMessageException;
+import com.shimizukenta.secs.SecsWaitReplyMessageException;
+import com.shimizukenta.secs.secs2.Secs2;
+
+/**
+ * This abstract class is implementation of HSMS-SS Passive Communicator which serves many sessions on one port.
+ * 
+ * <p>
+ * This class is called from {@link HsmsSsMultiSessionPassiveCommunicator#newInstance(HsmsSsCommunicatorConfig)}<br />
+ * By default, each session uses a reading thread and a message-handling thread.<br />
+ * If {@link HsmsSsCommunicatorConfig#asyncReading(boolean)} is {@code true}, sessions use no dedicated thread,
+ * reading and dispatching run as short tasks of shared executor.<br />
+ * Received messages of all sessions are notified from one thread of this communicator.<br />
+ * </p>
+ * 
+ * @author kenta-shimizu
+ *
+ */
+public abstract class AbstractHsmsSsMultiSessionPassiveCommunicator extends AbstractHsmsSsPassiveCommunicator
+		implements HsmsSsMultiSessionPassiveCommunicator {
+	
+	private final Map<SocketAddress, SessionInnerConnection> sessions = new ConcurrentHashMap<>();
+	
+	public AbstractHsmsSsMultiSessionPassiveCommunicator(HsmsSsCommunicatorConfig config) {
+		super(Objects.requireNonNull(config));
+	}
+	
+	@Override
+	public void open() throws IOException {
+		super.open();
+		
+		executeLoopTask(() -> {
+			final SessionStateEvent ev = this.sessionStateQueue.take();
+			this.sessionStateListeners.forEach(l -> {
+				l.changed(ev.session, ev.selected);
+			});
+		});
+		
+		executeLoopTask(() -> {
+			final HsmsSsSessionMessage msg = this.sessionMsgRecvQueue.take();
+			final HsmsSsSession s = msg.session();
+			if ( s instanceof SessionInnerConnection.InnerSession ) {
+				((SessionInnerConnection.InnerSession)s).notifyReceiveMessage(msg);
+			}
+		});
+	}
+	
+	@Override
+	protected PassiveInnerConnection createPassiveInnerConnection(AsynchronousSocketChannel channel) {
+		return new SessionInnerConnection(channel);
+	}
+	
+	@Override
+	protected boolean addSelectedConnection(AbstractInnerConnection c) {
+		
+		if ( c instanceof SessionInnerConnection ) {
+			
+			final SessionInnerConnection sc = (SessionInnerConnection)c;
+			final SocketAddress remote = sc.remote;
+			
+			if ( remote != null && this.sessions.putIfAbsent(remote, sc) == null ) {
+				this.sessionStateQueue.offer(new SessionStateEvent(sc.session, true));
+				return true;
+			}
+		}
+		
+		return false;
+	}
+	
+	@Override
+	protected boolean removeSelectedConnection(AbstractInnerConnection c) {
+		
+		if ( c instanceof SessionInnerConnection ) {
+			
+			final SessionInnerConnection sc = (SessionInnerConnection)c;
+			
+			if ( sc.remote != null && this.sessions.remove(sc.remote, sc) ) {
+				this.sessionStateQueue.offer(new SessionStateEvent(sc.session, false));
+				notifyHsmsSsCommunicateStateChange(HsmsSsCommunicateState.NOT_CONNECTED);
+				return true;
+			}
+		}
+		
+		return false;
+	}
+	
+	/**
+	 * Returns session if only one session selected, otherwise {@code null}.
+	 * 
+	 */
+	@Override
+	protected AbstractInnerConnection getSelectedConnection() {
+		
+		final Collection<SessionInnerConnection> cc = this.sessions.values();
+		
+		if ( cc.size() == 1 ) {
+			for ( SessionInnerConnection c : cc ) {
+				return c;
+			}
+		}
+		
+		return null;
+	}
+	
+	/**
+	 * State is SELECTED if at least one session selected, otherwise NOT_CONNECTED.
+	 * 
+	 */
+	@Override
+	protected void notifyHsmsSsCommunicateStateChange(HsmsSsCommunicateState state) {
+		super.notifyHsmsSsCommunicateStateChange(
+				this.sessions.isEmpty()
+				? HsmsSsCommunicateState.NOT_CONNECTED
+				: HsmsSsCommunicateState.SELECTED);
+	}
+	
+	@Override
+	public Collection<HsmsSsSession> sessions() {
+		
+		final Collection<HsmsSsSession> ss = new ArrayList<>();
+		
+		this.sessions.values().forEach(c -> {
+			ss.add(c.session);
+		});
+		
+		return Collections.unmodifiableCollection(ss);
+	}
+	
+	@Override
+	public Optional<HsmsSsSession> session(SocketAddress remote) {
+		return Optional.ofNullable(this.sessions.get(remote)).map(c -> c.session);
+	}
+	
+	private SessionInnerConnection sessionConnection(SecsMessage primary) {
+		
+		if ( primary instanceof HsmsSsSessionMessage ) {
+			
+			final HsmsSsSession s = ((HsmsSsSessionMessage)primary).session();
+			
+			if ( s instanceof SessionInnerConnection.InnerSession ) {
+				return ((SessionInnerConnection.InnerSession)s).connection();
+			}
+		}
+		
+		return null;
+	}
+	
+	private static byte[] sessionIdBytes(SecsMessage primary) {
+		byte[] pri = primary.header10Bytes();
+		return new byte[] {pri[0], pri[1]};
+	}
+	
+	@Override
+	public Optional<SecsMessage> send(SecsMessage primary, int strm, int func, boolean wbit, Secs2 secs2)
+			throws SecsSendMessageException, SecsWaitReplyMessageException, SecsException,
+			InterruptedException {
+		
+		final SessionInnerConnection c = sessionConnection(primary);
+		
+		if ( c == null ) {
+			return super.send(primary, strm, func, wbit, secs2);
+		}
+		
+		return send(c, createReplyDataMessage(sessionIdBytes(primary), primary, strm, func, wbit, secs2))
+				.map(msg -> (SecsMessage)msg);
+	}
+	
+	@Override
+	public CompletableFuture<Optional<SecsMessage>> sendAsync(SecsMessage primary, int strm, int func, boolean wbit, Secs2 secs2) {
+		
+		final SessionInnerConnection c = sessionConnection(primary);
+		
+		if ( c == null ) {
+			return super.sendAsync(primary, strm, func, wbit, secs2);
+		}
+		
+		return sendAsync(c, createReplyDataMessage(sessionIdBytes(primary), primary, strm, func, wbit, secs2))
+				.thenApply(op -> op.map(msg -> (SecsMessage)msg));
+	}
+	
+	@Override
+	public Optional<SecsMessage> send(SocketAddress remote, int strm, int func, boolean wbit, Secs2 secs2)
+			throws SecsSendMessageException, SecsWaitReplyMessageException, SecsException,
+			InterruptedException {
+		
+		final SessionInnerConnection c = this.sessions.get(Objects.requireNonNull(remote));
+		
+		if ( c == null ) {
+			throw new HsmsSsNotConnectedException("Session not selected: " + remote);
+		}
+		
+		return c.session.send(strm, func, wbit, secs2);
+	}
+	
+	@Override
+	public CompletableFuture<Optional<SecsMessage>> sendAsync(SocketAddress remote, int strm, int func, boolean wbit, Secs2 secs2) {
+		
+		final SessionInnerConnection c = this.sessions.get(Objects.requireNonNull(remote));
+		
+		if ( c == null ) {
+			final CompletableFuture<Optional<SecsMessage>> f = new CompletableFuture<>();
+			f.completeExceptionally(new HsmsSsNotConnectedException("Session not selected: " + remote));
+			return f;
+		}
+		
+		return c.session.sendAsync(strm, func, wbit, secs2);
+	}
+	
+	
+	/* Session state change */
+	private final Collection<HsmsSsSessionStateChangeListener> sessionStateListeners = new CopyOnWriteArrayList<>();
+	private final BlockingQueue<SessionStateEvent> sessionStateQueue = new LinkedBlockingQueue<>();
+	
+	@Override
+	public boolean addSessionStateChangeListener(HsmsSsSessionStateChangeListener l) {
+		return this.sessionStateListeners.add(Objects.requireNonNull(l));
+	}
+	
+	@Override
+	public boolean removeSessionStateChangeListener(HsmsSsSessionStateChangeListener l) {
+		return this.sessionStateListeners.remove(Objects.requireNonNull(l));
+	}
+	
+	private static class SessionStateEvent {
+		
+		private final HsmsSsSession session;
+		private final boolean selected;
+		
+		private SessionStateEvent(HsmsSsSession session, boolean selected) {
+			this.session = session;
+			this.selected = selected;
+		}
+	}
+	
+	
+	/* Session message receive */
+	private final BlockingQueue<HsmsSsSessionMessage> sessionMsgRecvQueue = new LinkedBlockingQueue<>();
+	
+	@Override
+	protected void notifyReceiveMessage(SecsMessage msg) {
+		super.notifyReceiveMessage(msg);
+		
+		if ( msg instanceof HsmsSsSessionMessage ) {
+			this.sessionMsgRecvQueue.offer((HsmsSsSessionMessage)msg);
+		}
+	}
+	
+	
+	protected class SessionInnerConnection extends PassiveInnerConnection {
+		
+		private final SocketAddress remote;
+		private final InnerSession session;
+		private volatile byte[] sessionIdBytes;
+		
+		protected SessionInnerConnection(AsynchronousSocketChannel channel) {
+			super(channel);
+			
+			this.remote = remoteSocketAddress();
+			this.session = new InnerSession();
+			
+			int v = hsmsSsConfig().sessionId().intValue();
+			this.sessionIdBytes = new byte[] {(byte)(v >> 8), (byte)v};
+		}
+		
+		@Override
+		protected HsmsSsMessage createReceivedMessage(byte[] header, Secs2 body) {
+			
+			final HsmsSsSessionMessage msg = new HsmsSsSessionMessage(header, body, this.session);
+			
+			if ( HsmsSsMessageType.get(msg) == HsmsSsMessageType.DATA ) {
+				this.sessionIdBytes = new byte[] {header[0], header[1]};
+			}
+			
+			return msg;
+		}
+		
+		protected class InnerSession implements HsmsSsSession {
+			
+			private final Collection<SecsMessageReceiveListener> msgRecvListeners = new CopyOnWriteArrayList<>();
+			
+			private InnerSession() {
+				/* Nothing */
+			}
+			
+			private SessionInnerConnection connection() {
+				return SessionInnerConnection.this;
+			}
+			
+			@Override
+			public SocketAddress remoteSocketAddress() {
+				return remote;
+			}
+			
+			@Override
+			public int sessionId() {
+				byte[] bs = sessionIdBytes;
+				return ((((int)(bs[0])) << 8) & 0xFF00) | (((int)(bs[1])) & 0x00FF);
+			}
+			
+			@Override
+			public boolean isSelected() {
+				return remote != null && sessions.get(remote) == SessionInnerConnection.this;
+			}
+			
+			@Override
+			public Optional<SecsMessage> send(int strm, int func, boolean wbit, Secs2 secs2)
+					throws SecsSendMessageException, SecsWaitReplyMessageException, SecsException,
+					InterruptedException {
+				
+				return AbstractHsmsSsMultiSessionPassiveCommunicator.this.send(
+						SessionInnerConnection.this,
+						createDataMessage(sessionIdBytes, strm, func, wbit, secs2))
+						.map(msg -> (SecsMessage)msg);
+			}
+			
+			@Override
+			public Optional<SecsMessage> send(SecsMessage primary, int strm, int func, boolean wbit, Secs2 secs2)
+					throws SecsSendMessageException, SecsWaitReplyMessageException, SecsException,
+					InterruptedException {
+				
+				return AbstractHsmsSsMultiSessionPassiveCommunicator.this.send(
+						SessionInnerConnection.this,
+						createReplyDataMessage(sessionIdBytes(primary), primary, strm, func, wbit, secs2))
+						.map(msg -> (SecsMessage)msg);
+			}
+			
+			@Override
+			public Optional<HsmsSsMessage> send(HsmsSsMessage msg)
+					throws SecsSendMessageException, SecsWaitReplyMessageException, SecsException,
+					InterruptedException {
+				
+				return AbstractHsmsSsMultiSessionPassiveCommunicator.this.send(SessionInnerConnection.this, msg);
+			}
+			
+			@Override
+			public CompletableFuture<Optional<SecsMessage>> sendAsync(int strm, int func, boolean wbit, Secs2 secs2) {
+				
+				return AbstractHsmsSsMultiSessionPassiveCommunicator.this.sendAsync(
+						SessionInnerConnection.this,
+						createDataMessage(sessionIdBytes, strm, func, wbit, secs2))
+						.thenApply(op -> op.map(msg -> (SecsMessage)msg));
+			}
+			
+			@Override
+			public CompletableFuture<Optional<HsmsSsMessage>> sendAsync(HsmsSsMessage msg) {
+				return AbstractHsmsSsMultiSessionPassiveCommunicator.this.sendAsync(SessionInnerConnection.this, msg);
+			}
+			
+			@Override
+			public boolean linktest() throws InterruptedException {
+				try {
+					return send(createLinktestRequest()).isPresent();
+				}
+				catch ( SecsException e ) {
+					return false;
+				}
+			}
+			
+			@Override
+			public boolean addSecsMessageReceiveListener(SecsMessageReceiveListener l) {
+				return this.msgRecvListeners.add(Objects.requireNonNull(l));
+			}
+			
+			@Override
+			public boolean removeSecsMessageReceiveListener(SecsMessageReceiveListener l) {
+				return this.msgRecvListeners.remove(Objects.requireNonNull(l));
+			}
+			
+			private void notifyReceiveMessage(SecsMessage msg) {
+				this.msgRecvListeners.forEach(l -> {
+					l.received(msg);
+				});
+			}
+			
+			@Override
+			public String toString() {
+				return "HsmsSsSession{" + remote + "}";
+			}
+		}
+	}
+	
+}
@@ -12,9 +12,11 @@ import java.util.Collection;
 import java.util.Objects;
 import java.util.concurrent.Callable;
 import java.util.concurrent.ExecutionException;
-import java.util.concurrent.TimeoutException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 import com.shimizukenta.secs.SecsException;
+import com.shimizukenta.secs.SecsTimerWheel;
 
 /**
  * This abstract class is implementation of HSMS-SS-Passive Communicator(SEMI-E37.1).
@@ -99,7 +101,7 @@ public abstract class AbstractHsmsSsPassiveCommunicator extends AbstractHsmsSsCo
 	protected void passiveOpen() throws IOException {
 		
 		synchronized ( this ) {
-			this.server = AsynchronousServerSocketChannel.open();
+			this.server = AsynchronousServerSocketChannel.open(channelGroup());
 		}
 		
 		final SocketAddress socketAddr = hsmsSsConfig().socketAddress().getSocketAddress();
@@ -115,43 +117,28 @@ public abstract class AbstractHsmsSsPassiveCommunicator extends AbstractHsmsSsCo
 			
 			@Override
 			public void completed(AsynchronousSocketChannel channel, Void attachment) {
-				server.accept(attachment, this);
 				
-				SocketAddress local = null;
-				SocketAddress remote = null;
+				server.accept(attachment, this);
 				
+				/* not to block channel-group thread while connected */
 				try {
-					local = channel.getLocalAddress();
-					remote = channel.getRemoteAddress();
-					
-					notifyLog(HsmsSsConnectionLog.accepted(local, remote));
-					
-					completedAction(channel);
-				}
-				catch ( IOException e ) {
-					notifyLog(e);
-				}
-				catch ( InterruptedException ignore ) {
+					executorService().execute(() -> {
+						accepted(channel);
+					});
 				}
-				finally {
-					
-					try {
-						channel.shutdownOutput();
-					}
-					catch ( IOException ignore ) {
-					}
-					
+				catch ( RejectedExecutionException e ) {
 					try {
 						channel.close();
 					}
-					catch ( IOException e ) {
-						notifyLog(e);
+					catch ( IOException giveup ) {
 					}
-					
-					notifyLog(HsmsSsConnectionLog.closed(local, remote));
 				}
 			}
 			
+			private void accepted(AsynchronousSocketChannel channel) {
+				acceptedAction(channel);
+			}
+			
 			@Override
 			public void failed(Throwable t, Void attachment) {
 				
@@ -162,11 +149,105 @@ public abstract class AbstractHsmsSsPassiveCommunicator extends AbstractHsmsSsCo
 		});
 	}
 	
+	/**
+	 * Create connection, prototype-pattern.
+	 * 
+	 * @param channel
+	 * @return PassiveInnerConnection
+	 */
+	protected PassiveInnerConnection createPassiveInnerConnection(AsynchronousSocketChannel channel) {
+		return new PassiveInnerConnection(channel);
+	}
+	
+	/**
+	 * Run accepted connection, and close channel when connection terminated.
+	 * 
+	 * <p>
+	 * If async-reading, returns without waiting terminate,
+	 * channel is closed by connection.<br />
+	 * </p>
+	 * 
+	 * @param channel
+	 */
+	protected void acceptedAction(AsynchronousSocketChannel channel) {
+		
+		SocketAddress local = null;
+		SocketAddress remote = null;
+		boolean async = false;
+		
+		try {
+			local = channel.getLocalAddress();
+			remote = channel.getRemoteAddress();
+			
+			notifyLog(HsmsSsConnectionLog.accepted(local, remote));
+			
+			if ( hsmsSsConfig().asyncReading().booleanValue() ) {
+				
+				final SocketAddress l = local;
+				final SocketAddress r = remote;
+				
+				completedAsyncAction(channel, () -> {
+					closeAcceptedChannel(channel, l, r);
+				});
+				
+				async = true;
+				
+			} else {
+				
+				completedAction(channel);
+			}
+		}
+		catch ( IOException e ) {
+			notifyLog(e);
+		}
+		catch ( InterruptedException ignore ) {
+		}
+		finally {
+			
+			if ( ! async ) {
+				closeAcceptedChannel(channel, local, remote);
+			}
+		}
+	}
+	
+	private void closeAcceptedChannel(AsynchronousSocketChannel channel, SocketAddress local, SocketAddress remote) {
+		
+		try {
+			channel.shutdownOutput();
+		}
+		catch ( IOException ignore ) {
+		}
+		
+		try {
+			channel.close();
+		}
+		catch ( IOException e ) {
+			notifyLog(e);
+		}
+		
+		notifyLog(HsmsSsConnectionLog.closed(local, remote));
+	}
+	
+	/**
+	 * Start connection by async-reading and async-dispatching, not blocking.
+	 * 
+	 * @param channel
+	 * @param closeAction called once when connection terminated
+	 */
+	protected void completedAsyncAction(AsynchronousSocketChannel channel, Runnable closeAction) {
+		
+		final PassiveInnerConnection conn = createPassiveInnerConnection(channel);
+		
+		conn.startT7Timer();
+		conn.startAsyncDispatching(closeAction);
+		conn.startAsyncReading();
+	}
+	
 	protected void completedAction(AsynchronousSocketChannel channel) throws InterruptedException {
 		
 		try {
-			final PassiveInnerConnection conn = new PassiveInnerConnection(channel);
-
+			final PassiveInnerConnection conn = createPassiveInnerConnection(channel);
+			
 			final Collection<Callable<Void>> tasks = Arrays.asList(
 					() -> {
 						try {
@@ -211,90 +292,57 @@ public abstract class AbstractHsmsSsPassiveCommunicator extends AbstractHsmsSsCo
 			try {
 				
 				{
-					final Collection<Callable<Boolean>> tasks = Arrays.asList(
-							() -> {
-								try {
-									return connectTask();
-								}
-								catch ( InterruptedException ignore ) {
-								}
-								
-								return Boolean.FALSE;
-							}
-							);
+					/* T7-Timeout, detect terminate if not selected */
+					final AtomicBoolean selecting = new AtomicBoolean(true);
+					
+					final SecsTimerWheel.Timer t7Timer = SecsTimerWheel.getInstance().schedule(() -> {
+						if ( selecting.compareAndSet(true, false) ) {
+							detectTerminate();
+						}
+					}, hsmsSsConfig().timeout().t7());
 					
 					try {
-						boolean f = executeInvokeAny(
-								tasks,
-								hsmsSsConfig().timeout().t7()
-								).booleanValue();
+						boolean f = connectTask().booleanValue();
 						
-						if ( f ) {
+						if ( f && selecting.compareAndSet(true, false) ) {
 							
 							/* SELECTED */
 							notifyHsmsSsCommunicateStateChange(HsmsSsCommunicateState.SELECTED);
 							
 						} else {
 							
+							if ( t7Timer.isExpired() ) {
+								notifyLog(new HsmsSsTimeoutT7Exception());
+							}
+							
 							return;
 						}
 					}
-					catch ( TimeoutException e ) {
-						notifyLog(new HsmsSsTimeoutT7Exception(e));
-						return;
-					}
-					catch ( ExecutionException e ) {
-						
-						Throwable t = e.getCause();
+					catch ( SecsException e ) {
 						
-						if ( t instanceof RuntimeException ) {
-							throw (RuntimeException)t;
+						if ( t7Timer.isExpired() ) {
+							notifyLog(new HsmsSsTimeoutT7Exception());
+						} else {
+							notifyLog(e);
 						}
 						
-						notifyLog(t);
 						return;
 					}
+					finally {
+						t7Timer.cancel();
+					}
 				}
 				
-				{
-					final Collection<Callable<Void>> tasks = Arrays.asList(
-							() -> {
-								try {
-									selectedTask();
-								}
-								catch ( InterruptedException ignore ) {
-								}
-								catch ( SecsException e ) {
-									notifyLog(e);
-								}
-								return null;
-							},
-							() -> {
-								try {
-									linktesting();
-								}
-								catch ( InterruptedException ignore ) {
-								}
-								return null;
-							}
-							);
-					
-					try {
-						executeInvokeAny(tasks);
-					}
-					catch ( ExecutionException e ) {
-						
-						Throwable t = e.getCause();
-						
-						if ( t instanceof RuntimeException ) {
-							throw (RuntimeException)t;
-						}
-						
-						notifyLog(t);
-					}
+				try {
+					startLinktesting();
+					selectedTask();
+				}
+				catch ( SecsException e ) {
+					notifyLog(e);
 				}
 			}
 			finally {
+				stopLinktesting();
 				notifyHsmsSsCommunicateStateChange(HsmsSsCommunicateState.NOT_CONNECTED);
 				removeSelectedConnection(this);
 			}
@@ -304,120 +352,207 @@ public abstract class AbstractHsmsSsPassiveCommunicator extends AbstractHsmsSsCo
 			
 			for ( ;; ) {
 				
-				final HsmsSsMessage msg = this.takeReceiveMessage();
+				final Boolean f = connectMessage(this.takeReceiveMessage());
 				
-				switch ( HsmsSsMessageType.get(msg) ) {
-				case DATA: {
-					
-					send(createRejectRequest(msg, HsmsSsMessageRejectReason.NOT_SELECTED));
-					break;
+				if ( f != null ) {
+					return f;
 				}
-				case SELECT_REQ: {
-					
-					boolean f = addSelectedConnection(this);
-					
-					if ( f /* success */) {
-						
-						send(createSelectResponse(msg, HsmsSsMessageSelectStatus.SUCCESS));
-						
-						return Boolean.TRUE;
-						
-					} else {
-						
-						send(createSelectResponse(msg, HsmsSsMessageSelectStatus.ALREADY_USED));
-					}
-					
-					break;
-				}
-				case LINKTEST_REQ: {
+			}
+		}
+		
+		/**
+		 * Handle message while not selected.
+		 * 
+		 * @param msg
+		 * @return {@code TRUE} if selected, {@code FALSE} if separated, {@code null} if continue
+		 * @throws InterruptedException
+		 * @throws SecsException
+		 */
+		protected Boolean connectMessage(HsmsSsMessage msg) throws InterruptedException, SecsException {
+			
+			switch ( HsmsSsMessageType.get(msg) ) {
+			case DATA: {
+				
+				send(createRejectRequest(msg, HsmsSsMessageRejectReason.NOT_SELECTED));
+				break;
+			}
+			case SELECT_REQ: {
+				
+				boolean f = addSelectedConnection(this);
+				
+				if ( f /* success */) {
 					
-					send(createLinktestResponse(msg));
-					break;
-				}
-				case SEPARATE_REQ: {
+					send(createSelectResponse(msg, HsmsSsMessageSelectStatus.SUCCESS));
 					
-					return Boolean.FALSE;
-					/* break; */
-				}
-				case SELECT_RSP:
-				case DESELECT_RSP:
-				case LINKTEST_RSP:
-				case REJECT_REQ: {
+					return Boolean.TRUE;
 					
-					send(createRejectRequest(msg, HsmsSsMessageRejectReason.TRANSACTION_NOT_OPEN));
-					break;
-				}
-				case DESELECT_REQ:
-				default: {
+				} else {
 					
-					if ( HsmsSsMessageType.supportSType(msg) ) {
-						
-						if ( ! HsmsSsMessageType.supportPType(msg) ) {
-							
-							send(createRejectRequest(msg, HsmsSsMessageRejectReason.NOT_SUPPORT_TYPE_P));
-						}
-						
-					} else {
-						
-						send(createRejectRequest(msg, HsmsSsMessageRejectReason.NOT_SUPPORT_TYPE_S));
-					}
-				}
+					send(createSelectResponse(msg, HsmsSsMessageSelectStatus.ALREADY_USED));
 				}
+				
+				break;
+			}
+			case LINKTEST_REQ: {
+				
+				send(createLinktestResponse(msg));
+				break;
+			}
+			case SEPARATE_REQ: {
+				
+				return Boolean.FALSE;
+				/* break; */
+			}
+			case SELECT_RSP:
+			case DESELECT_RSP:
+			case LINKTEST_RSP:
+			case REJECT_REQ: {
+				
+				send(createRejectRequest(msg, HsmsSsMessageRejectReason.TRANSACTION_NOT_OPEN));
+				break;
 			}
+			case DESELECT_REQ:
+			default: {
+				
+				rejectIfNotSupport(msg);
+			}
+			}
+			
+			return null;
 		}
 		
 		protected void selectedTask() throws InterruptedException, SecsException {
 			
 			for ( ;; ) {
 				
-				final HsmsSsMessage msg = this.takeReceiveMessage();
-				
-				switch ( HsmsSsMessageType.get(msg) ) {
-				case DATA: {
-					
-					notifyReceiveMessage(msg);
-					break;
-				}
-				case SELECT_REQ: {
-					
-					send(createSelectResponse(msg, HsmsSsMessageSelectStatus.ACTIVED));
-					break;
-				}
-				case LINKTEST_REQ: {
-					
-					send(createLinktestResponse(msg));
-					break;
-				}
-				case SEPARATE_REQ: {
-					
+				if ( ! selectedMessage(this.takeReceiveMessage()) ) {
 					return;
-					/* break; */
 				}
-				case SELECT_RSP:
-				case DESELECT_RSP:
-				case LINKTEST_RSP:
-				case REJECT_REQ: {
+			}
+		}
+		
+		/**
+		 * Handle message while selected.
+		 * 
+		 * @param msg
+		 * @return {@code false} if separated
+		 * @throws InterruptedException
+		 * @throws SecsException
+		 */
+		protected boolean selectedMessage(HsmsSsMessage msg) throws InterruptedException, SecsException {
+			
+			switch ( HsmsSsMessageType.get(msg) ) {
+			case DATA: {
+				
+				notifyReceiveMessage(msg);
+				break;
+			}
+			case SELECT_REQ: {
+				
+				send(createSelectResponse(msg, HsmsSsMessageSelectStatus.ACTIVED));
+				break;
+			}
+			case LINKTEST_REQ: {
+				
+				send(createLinktestResponse(msg));
+				break;
+			}
+			case SEPARATE_REQ: {
+				
+				return false;
+				/* break; */
+			}
+			case SELECT_RSP:
+			case DESELECT_RSP:
+			case LINKTEST_RSP:
+			case REJECT_REQ: {
+				
+				send(createRejectRequest(msg, HsmsSsMessageRejectReason.TRANSACTION_NOT_OPEN));
+				break;
+			}
+			case DESELECT_REQ:
+			default: {
+				
+				rejectIfNotSupport(msg);
+			}
+			}
+			
+			return true;
+		}
+		
+		private void rejectIfNotSupport(HsmsSsMessage msg) throws InterruptedException, SecsException {
+			
+			if ( HsmsSsMessageType.supportSType(msg) ) {
+				
+				if ( ! HsmsSsMessageType.supportPType(msg) ) {
 					
-					send(createRejectRequest(msg, HsmsSsMessageRejectReason.TRANSACTION_NOT_OPEN));
-					break;
+					send(createRejectRequest(msg, HsmsSsMessageRejectReason.NOT_SUPPORT_TYPE_P));
 				}
-				case DESELECT_REQ:
-				default: {
-					
-					if ( HsmsSsMessageType.supportSType(msg) ) {
-						
-						if ( ! HsmsSsMessageType.supportPType(msg) ) {
-							
-							send(createRejectRequest(msg, HsmsSsMessageRejectReason.NOT_SUPPORT_TYPE_P));
-						}
-						
-					} else {
-						
-						send(createRejectRequest(msg, HsmsSsMessageRejectReason.NOT_SUPPORT_TYPE_S));
-					}
+				
+			} else {
+				
+				send(createRejectRequest(msg, HsmsSsMessageRejectReason.NOT_SUPPORT_TYPE_S));
+			}
+		}
+		
+		/* async-dispatching */
+		private final AtomicBoolean asyncSelecting = new AtomicBoolean(true);
+		private volatile boolean asyncSelected = false;
+		private SecsTimerWheel.Timer asyncT7Timer;
+		
+		private void startT7Timer() {
+			
+			/* T7-Timeout, detect terminate if not selected */
+			this.asyncT7Timer = SecsTimerWheel.getInstance().schedule(() -> {
+				if ( this.asyncSelecting.compareAndSet(true, false) ) {
+					detectTerminate();
 				}
+			}, hsmsSsConfig().timeout().t7());
+		}
+		
+		@Override
+		protected boolean asyncReceived(HsmsSsMessage msg) throws SecsException, InterruptedException {
+			
+			if ( this.asyncSelected ) {
+				return selectedMessage(msg);
+			}
+			
+			final Boolean f = connectMessage(msg);
+			
+			if ( f == null ) {
+				return true;
+			}
+			
+			if ( f.booleanValue() && this.asyncSelecting.compareAndSet(true, false) ) {
+				
+				this.asyncT7Timer.cancel();
+				
+				/* SELECTED */
+				notifyHsmsSsCommunicateStateChange(HsmsSsCommunicateState.SELECTED);
+				
+				this.asyncSelected = true;
+				startLinktesting();
+				return true;
+			}
+			
+			return false;
+		}
+		
+		@Override
+		protected void asyncTerminated() {
+			
+			if ( this.asyncT7Timer != null ) {
+				
+				this.asyncT7Timer.cancel();
+				
+				if ( ! this.asyncSelected && this.asyncT7Timer.isExpired() ) {
+					notifyLog(new HsmsSsTimeoutT7Exception());
 				}
 			}
+			
+			stopLinktesting();
+			notifyHsmsSsCommunicateStateChange(HsmsSsCommunicateState.NOT_CONNECTED);
+			removeSelectedConnection(this);
 		}
 	}
 	
@@ -7,6 +7,7 @@ import java.nio.channels.AsynchronousServerSocketChannel;
 import java.nio.channels.AsynchronousSocketChannel;
 import java.nio.channels.ClosedChannelException;
 import java.nio.channels.CompletionHandler;
+import java.util.concurrent.RejectedExecutionException;
 
 import com.shimizukenta.secs.ReadOnlyTimeProperty;
 
@@ -53,7 +54,7 @@ public abstract class AbstractHsmsSsRebindPassiveCommunicator extends AbstractHs
 	private void passiveBind() throws InterruptedException {
 		
 		try (
-				AsynchronousServerSocketChannel server = AsynchronousServerSocketChannel.open();
+				AsynchronousServerSocketChannel server = AsynchronousServerSocketChannel.open(channelGroup());
 				) {
 			
 			final SocketAddress socketAddr = hsmsSsConfig().socketAddress().getSocketAddress();
@@ -69,44 +70,28 @@ public abstract class AbstractHsmsSsRebindPassiveCommunicator extends AbstractHs
 
 				@Override
 				public void completed(AsynchronousSocketChannel channel, Void attachment) {
-					server.accept(attachment, this);
-					
 					
-					SocketAddress local = null;
-					SocketAddress remote = null;
+					server.accept(attachment, this);
 					
+					/* not to block channel-group thread while connected */
 					try {
-						local = channel.getLocalAddress();
-						remote = channel.getRemoteAddress();
-						
-						notifyLog(HsmsSsConnectionLog.accepted(local, remote));
-						
-						completedAction(channel);
-					}
-					catch ( IOException e ) {
-						notifyLog(e);
-					}
-					catch ( InterruptedException ignore ) {
+						executorService().execute(() -> {
+							accepted(channel);
+						});
 					}
-					finally {
-						
-						try {
-							channel.shutdownOutput();
-						}
-						catch ( IOException ignore ) {
-						}
-						
+					catch ( RejectedExecutionException e ) {
 						try {
 							channel.close();
 						}
-						catch ( IOException e ) {
-							notifyLog(e);
+						catch ( IOException giveup ) {
 						}
-						
-						notifyLog(HsmsSsConnectionLog.closed(local, remote));
 					}
 				}
 				
+				private void accepted(AsynchronousSocketChannel channel) {
+					acceptedAction(channel);
+				}
+				
 				@Override
 				public void failed(Throwable t, Void attachment) {
 					
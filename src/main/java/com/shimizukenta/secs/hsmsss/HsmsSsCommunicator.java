@@ -2,6 +2,7 @@ package com.shimizukenta.secs.hsmsss;
 
 import java.io.IOException;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
 
 import com.shimizukenta.secs.SecsCommunicator;
 import com.shimizukenta.secs.SecsException;
@@ -117,6 +118,20 @@ public interface HsmsSsCommunicator extends SecsCommunicator {
 			throws SecsSendMessageException, SecsWaitReplyMessageException, SecsException,
 			InterruptedException;
 	
+	/**
+	 * Send HSMS-SS-Message and receive Reply-Message asynchronously.
+	 * 
+	 * <p>
+	 * Not blocking until Reply-HsmsSsMessage received.<br />
+	 * Future completes exceptionally if send failed or reply-timeout.<br />
+	 * Future completes on executor of communicator, not on reading thread or timer thread.<br />
+	 * </p>
+	 * 
+	 * @param msg
+	 * @return future of Reply-HsmsSsMessage if exist
+	 */
+	public CompletableFuture<Optional<HsmsSsMessage>> sendAsync(HsmsSsMessage msg);
+	
 	/**
 	 * Create header-only HsmsSsMessage.
 	 * 
@@ -4,7 +4,10 @@ import java.net.SocketAddress;
 import java.util.Objects;
 
 import com.shimizukenta.secs.AbstractSecsCommunicatorConfig;
+import com.shimizukenta.secs.BooleanProperty;
+import com.shimizukenta.secs.NumberProperty;
 import com.shimizukenta.secs.Property;
+import com.shimizukenta.secs.ReadOnlyBooleanProperty;
 import com.shimizukenta.secs.ReadOnlyNumberProperty;
 import com.shimizukenta.secs.ReadOnlyProperty;
 import com.shimizukenta.secs.ReadOnlySocketAddressProperty;
@@ -32,6 +35,12 @@ public class HsmsSsCommunicatorConfig extends AbstractSecsCommunicatorConfig {
 	private final SocketAddressProperty sockAddr = SocketAddressProperty.newInstance(null);
 	private final TimeProperty linktest = TimeProperty.newInstance(-1.0F);
 	private final TimeProperty rebindIfPassive = TimeProperty.newInstance(10.0F);
+	private final BooleanProperty asyncReading = BooleanProperty.newInstance(false);
+	private final BooleanProperty writeCoalescing = BooleanProperty.newInstance(false);
+	private final NumberProperty maxOutstandingTransactions = NumberProperty.newInstance(-1);
+	private final BooleanProperty failFastIfOutstandingTransactionsFull = BooleanProperty.newInstance(false);
+	private final NumberProperty spillToFileThreshold = NumberProperty.newInstance(-1L);
+	private final BooleanProperty lazyParsing = BooleanProperty.newInstance(false);
 	
 	public HsmsSsCommunicatorConfig() {
 		super();
@@ -149,4 +158,177 @@ public class HsmsSsCommunicatorConfig extends AbstractSecsCommunicatorConfig {
 		return rebindIfPassive;
 	}
 	
+	/**
+	 * Async-reading setter.
+	 * 
+	 * <p>
+	 * If {@code true}, reading bytes from channel by CompletionHandler callbacks,
+	 * and received messages are dispatched by short tasks of executor in received order,
+	 * no thread is blocked per connection.<br />
+	 * Only Active-protocol keeps one thread per communicator waiting for reconnect,
+	 * and SELECT.req is sent by blocking it until SELECT.rsp.<br />
+	 * Default is {@code false}.<br />
+	 * </p>
+	 * 
+	 * @param f set {@code true} if async-reading
+	 */
+	public void asyncReading(boolean f) {
+		this.asyncReading.set(f);
+	}
+	
+	/**
+	 * Async-reading getter.
+	 * 
+	 * @return {@code true} if async-reading
+	 */
+	public ReadOnlyBooleanProperty asyncReading() {
+		return asyncReading;
+	}
+	
+	/**
+	 * Write-coalescing setter.
+	 * 
+	 * <p>
+	 * If {@code true}, sending messages are queued per connection,
+	 * and pending messages are written by one gathering write.<br />
+	 * Default is {@code false}.<br />
+	 * </p>
+	 * 
+	 * @param f set {@code true} if write-coalescing
+	 */
+	public void writeCoalescing(boolean f) {
+		this.writeCoalescing.set(f);
+	}
+	
+	/**
+	 * Write-coalescing getter.
+	 * 
+	 * @return {@code true} if write-coalescing
+	 */
+	public ReadOnlyBooleanProperty writeCoalescing() {
+		return writeCoalescing;
+	}
+	
+	/**
+	 * Set not limit outstanding transactions.
+	 * 
+	 */
+	public void notLimitOutstandingTransactions() {
+		this.maxOutstandingTransactions.set(-1);
+	}
+	
+	/**
+	 * Max outstanding transactions setter.
+	 * 
+	 * <p>
+	 * Limit of W-Bit Primary-Messages waiting Reply-Message.<br />
+	 * If reached, sending is blocked until T3-Timeout, or failed immediately if
+	 * {@link #failFastIfOutstandingTransactionsFull(boolean)} is {@code true}.<br />
+	 * sendAsync is never blocked, future fails immediately if reached.<br />
+	 * </p>
+	 * 
+	 * @param v max outstanding transactions. value is {@code > 0}
+	 */
+	public void maxOutstandingTransactions(int v) {
+		if ( v <= 0 ) {
+			throw new IllegalArgumentException("maxOutstandingTransactions value is > 0");
+		}
+		this.maxOutstandingTransactions.set(v);
+	}
+	
+	/**
+	 * Max outstanding transactions getter.
+	 * 
+	 * @return max outstanding transactions. Not limit if {@code <= 0}
+	 */
+	public ReadOnlyNumberProperty maxOutstandingTransactions() {
+		return maxOutstandingTransactions;
+	}
+	
+	/**
+	 * Fail-fast setter, if outstanding transactions full.
+	 * 
+	 * <p>
+	 * If {@code true}, throws HsmsSsOutstandingTransactionsFullException immediately.<br />
+	 * If {@code false}, blocking until transaction completed. Default is {@code false}.<br />
+	 * sendAsync always fails fast.<br />
+	 * </p>
+	 * 
+	 * @param f set {@code true} if fail-fast
+	 */
+	public void failFastIfOutstandingTransactionsFull(boolean f) {
+		this.failFastIfOutstandingTransactionsFull.set(f);
+	}
+	
+	/**
+	 * Fail-fast getter.
+	 * 
+	 * @return {@code true} if fail-fast
+	 */
+	public ReadOnlyBooleanProperty failFastIfOutstandingTransactionsFull() {
+		return failFastIfOutstandingTransactionsFull;
+	}
+	
+	/**
+	 * Set not spill received body to file.
+	 * 
+	 */
+	public void notSpillToFile() {
+		this.spillToFileThreshold.set(-1L);
+	}
+	
+	/**
+	 * Spill-to-file threshold setter.
+	 * 
+	 * <p>
+	 * If received body is larger than threshold, body is streamed to temporary file
+	 * and memory-mapped, not read to heap.<br />
+	 * SECS-II of received message is lazy view over mapped file, parsed at first access.<br />
+	 * Body over 2 GiB is received only if spilled.<br />
+	 * Default is not spill.<br />
+	 * </p>
+	 * 
+	 * @param bytes threshold body bytes. value is {@code >= 0}
+	 */
+	public void spillToFileThreshold(long bytes) {
+		if ( bytes < 0L ) {
+			throw new IllegalArgumentException("spillToFileThreshold value is >= 0");
+		}
+		this.spillToFileThreshold.set(bytes);
+	}
+	
+	/**
+	 * Spill-to-file threshold getter.
+	 * 
+	 * @return threshold body bytes. Not spill if {@code < 0}
+	 */
+	public ReadOnlyNumberProperty spillToFileThreshold() {
+		return spillToFileThreshold;
+	}
+	
+	/**
+	 * Lazy-parsing setter.
+	 * 
+	 * <p>
+	 * If {@code true}, SECS-II of received message is lazy view over received bytes.<br />
+	 * List items are indexed and values are decoded at first access,
+	 * not whole tree is built at receiving.<br />
+	 * Default is {@code false}.<br />
+	 * </p>
+	 * 
+	 * @param f set {@code true} if lazy-parsing
+	 */
+	public void lazyParsing(boolean f) {
+		this.lazyParsing.set(f);
+	}
+	
+	/**
+	 * Lazy-parsing getter.
+	 * 
+	 * @return {@code true} if lazy-parsing
+	 */
+	public ReadOnlyBooleanProperty lazyParsing() {
+		return lazyParsing;
+	}
+	
 }
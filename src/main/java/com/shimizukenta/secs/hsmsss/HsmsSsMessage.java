@@ -1,10 +1,12 @@
 package com.shimizukenta.secs.hsmsss;
 
+import java.io.IOException;
 import java.util.Arrays;
 import java.util.Objects;
 
 import com.shimizukenta.secs.AbstractSecsMessage;
 import com.shimizukenta.secs.secs2.Secs2;
+import com.shimizukenta.secs.secs2.Secs2Item;
 
 /**
  * This class is implementation of HSMS-SS-Message.
@@ -88,38 +90,38 @@ public class HsmsSsMessage extends AbstractSecsMessage {
 	private static final String BR = System.lineSeparator();
 	
 	@Override
-	public String toString() {
+	public void writeTo(Appendable appendable) throws IOException {
 		
-		StringBuilder sb = new StringBuilder(toHeaderBytesString());
+		appendable.append(toHeaderBytesString());
 		
 		if ( dataMessage() ) {
 			
-			sb.append(BR)
-			.append("S").append(getStream())
-			.append("F").append(getFunction());
+			appendable.append(BR)
+			.append("S").append(String.valueOf(getStream()))
+			.append("F").append(String.valueOf(getFunction()));
 			
 			if (wbit()) {
-				sb.append(" W");
+				appendable.append(" W");
 			}
 			
-			String body = secs2().toString();
+			final Secs2 body = secs2();
 			
-			if ( ! body.isEmpty() ) {
-				sb.append(BR).append(body);
+			/* empty body is written as empty string */
+			if ( body.secs2Item() != Secs2Item.UNDEFINED ) {
+				appendable.append(BR);
+				body.writeSml(appendable);
 			}
 			
-			sb.append(".");
+			appendable.append(".");
 		}
-		
-		return sb.toString();
 	}
 
 	@Override
-	public String toJson() {
+	public void writeJson(Appendable appendable) throws IOException {
 		
 		if ( dataMessage() ) {
 			
-			return super.toJson();
+			super.writeJson(appendable);
 			
 		} else {
 			
@@ -130,11 +132,11 @@ public class HsmsSsMessage extends AbstractSecsMessage {
 			int p = ((int)(head[2])) & 0x000000FF;
 			int s = ((int)(head[3])) & 0x000000FF;
 			
-			return "{\"messageType\":" + type
-					+ ",\"p\":" + p
-					+ ",\"s\":" + s
-					+ ",\"systemBytes\":"+ systemBytesKey().toString()
-					+ "}";
+			appendable.append("{\"messageType\":").append(String.valueOf(type))
+			.append(",\"p\":").append(String.valueOf(p))
+			.append(",\"s\":").append(String.valueOf(s))
+			.append(",\"systemBytes\":").append(systemBytesKey().toString())
+			.append("}");
 		}
 	}
 
@@ -0,0 +1,137 @@
+package com.shimizukenta.secs.hsmsss;
+
+import java.io.IOException;
+import java.net.SocketAddress;
+import java.util.Collection;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+
+import com.shimizukenta.secs.SecsException;
+import com.shimizukenta.secs.SecsMessage;
+import com.shimizukenta.secs.SecsSendMessageException;
+import com.shimizukenta.secs.SecsWaitReplyMessageException;
+import com.shimizukenta.secs.secs2.Secs2;
+
+/**
+ * This interface is HSMS-SS Passive Communicator which serves many sessions on one port.
+ * 
+ * <p>
+ * Each accepted and selected connection is {@link HsmsSsSession}, keyed by remote SocketAddress.<br />
+ * All sessions share one executor and channel-group.<br />
+ * Received Primary-Message is {@link HsmsSsSessionMessage}, and Reply-Message by
+ * {@link #send(SecsMessage, int, int, boolean, Secs2)} is sent to the session received it.<br />
+ * To send Primary-Message, {@link #send(SocketAddress, int, int, boolean, Secs2)}
+ * or {@link HsmsSsSession#send(int, int, boolean, Secs2)}.<br />
+ * {@link #send(int, int, boolean, Secs2)} is available only if one session is selected.<br />
+ * Communicatable if at least one session is selected.<br />
+ * </p>
+ * 
+ * @author kenta-shimizu
+ *
+ */
+public interface HsmsSsMultiSessionPassiveCommunicator extends HsmsSsCommunicator {
+	
+	/**
+	 * Create new instance.
+	 * 
+	 * @param config, protocol is PASSIVE
+	 * @return new instance
+	 */
+	public static HsmsSsMultiSessionPassiveCommunicator newInstance(HsmsSsCommunicatorConfig config) {
+		return new AbstractHsmsSsMultiSessionPassiveCommunicator(config) {};
+	}
+	
+	/**
+	 * Create new instance and {@link #open()}.
+	 * 
+	 * @param config, protocol is PASSIVE
+	 * @return new instance
+	 * @throws IOException
+	 */
+	public static HsmsSsMultiSessionPassiveCommunicator open(HsmsSsCommunicatorConfig config) throws IOException {
+		
+		final HsmsSsMultiSessionPassiveCommunicator inst = newInstance(config);
+		
+		try {
+			inst.open();
+		}
+		catch ( IOException e ) {
+			
+			try {
+				inst.close();
+			}
+			catch ( IOException giveup ) {
+			}
+			
+			throw e;
+		}
+		
+		return inst;
+	}
+	
+	/**
+	 * Returns selected sessions.
+	 * 
+	 * @return selected sessions
+	 */
+	public Collection<HsmsSsSession> sessions();
+	
+	/**
+	 * Returns selected session of remote SocketAddress.
+	 * 
+	 * @param remote
+	 * @return session if selected
+	 */
+	public Optional<HsmsSsSession> session(SocketAddress remote);
+	
+	/**
+	 * Send Primary-Message to session of remote SocketAddress and receive Reply-Message.
+	 * 
+	 * <p>
+	 * Blocking-method.<br />
+	 * </p>
+	 * 
+	 * @param remote remote SocketAddress of session
+	 * @param strm SECS-II-Stream-Number
+	 * @param func SECS-II-Function-Number
+	 * @param wbit SECS-II-WBit, set {@code true} if w-bit is 1
+	 * @param secs2 SECS-II-data, Not accept {@code null}
+	 * @return Reply-Message if exist
+	 * @throws SecsSendMessageException
+	 * @throws SecsWaitReplyMessageException
+	 * @throws SecsException
+	 * @throws InterruptedException
+	 */
+	public Optional<SecsMessage> send(SocketAddress remote, int strm, int func, boolean wbit, Secs2 secs2)
+			throws SecsSendMessageException, SecsWaitReplyMessageException, SecsException,
+			InterruptedException;
+	
+	/**
+	 * Send Primary-Message to session of remote SocketAddress asynchronously.
+	 * 
+	 * @param remote remote SocketAddress of session
+	 * @param strm SECS-II-Stream-Number
+	 * @param func SECS-II-Function-Number
+	 * @param wbit SECS-II-WBit, set {@code true} if w-bit is 1
+	 * @param secs2 SECS-II-data, Not accept {@code null}
+	 * @return future of Reply-Message if exist
+	 */
+	public CompletableFuture<Optional<SecsMessage>> sendAsync(SocketAddress remote, int strm, int func, boolean wbit, Secs2 secs2);
+	
+	/**
+	 * Add Listener to catch session selected or deselected.
+	 * 
+	 * @param lstnr Not accept {@code null}
+	 * @return {@code true} if add success
+	 */
+	public boolean addSessionStateChangeListener(HsmsSsSessionStateChangeListener lstnr);
+	
+	/**
+	 * Remove Listener.
+	 * 
+	 * @param lstnr Not accept {@code null}
+	 * @return {@code true} if remove success
+	 */
+	public boolean removeSessionStateChangeListener(HsmsSsSessionStateChangeListener lstnr);
+	
+}
@@ -0,0 +1,38 @@
+package com.shimizukenta.secs.hsmsss;
+
+/**
+ * This exception is thrown when outstanding transactions reached
+ * {@link HsmsSsCommunicatorConfig#maxOutstandingTransactions(int)}.
+ * 
+ * @author kenta-shimizu
+ *
+ */
+public class HsmsSsOutstandingTransactionsFullException extends HsmsSsSendMessageException {
+	
+	private static final long serialVersionUID = 2618095737561263117L;
+
+	public HsmsSsOutstandingTransactionsFullException() {
+		super();
+	}
+
+	public HsmsSsOutstandingTransactionsFullException(String message) {
+		super(message);
+	}
+
+	public HsmsSsOutstandingTransactionsFullException(Throwable cause) {
+		super(cause);
+	}
+
+	public HsmsSsOutstandingTransactionsFullException(String message, Throwable cause) {
+		super(message, cause);
+	}
+
+	public HsmsSsOutstandingTransactionsFullException(HsmsSsMessage msg) {
+		super(msg);
+	}
+
+	public HsmsSsOutstandingTransactionsFullException(HsmsSsMessage msg, Throwable cause) {
+		super(msg, cause);
+	}
+
+}
@@ -1,73 +1,113 @@
 package com.shimizukenta.secs.hsmsss;
 
-import java.util.HashMap;
 import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
 
 import com.shimizukenta.secs.ReadOnlyTimeProperty;
+import com.shimizukenta.secs.SecsTimerWheel;
 
+/**
+ * This class is correlation of Primary-Message and Reply-Message by system-bytes.
+ * 
+ * <p>
+ * Each entry is CompletableFuture, completed when Reply-Message received.<br />
+ * Entry is removed when future completed.<br />
+ * </p>
+ * 
+ * @author kenta-shimizu
+ *
+ */
 public class HsmsSsReplyMessageManager {
 	
-	private final Map<Integer, Pack> packMap = new HashMap<>();
+	private final Map<Integer, CompletableFuture<HsmsSsMessage>> futureMap = new ConcurrentHashMap<>();
 	
 	public HsmsSsReplyMessageManager() {
 		/* Nothing */
 	}
 	
 	public void clear() {
-		synchronized ( this ) {
-			this.packMap.clear();
-		}
+		this.futureMap.values().forEach(f -> {f.cancel(false);});
+		this.futureMap.clear();
 	}
 	
-	public void entry(HsmsSsMessage primaryMsg) {
-		synchronized ( this ) {
-			this.packMap.put(primaryMsg.systemBytesKey(), new Pack());
-		}
+	/**
+	 * Entry Primary-Message before send.
+	 * 
+	 * @param primaryMsg
+	 * @return future of Reply-Message
+	 */
+	public CompletableFuture<HsmsSsMessage> entry(HsmsSsMessage primaryMsg) {
+		
+		final Integer key = primaryMsg.systemBytesKey();
+		final CompletableFuture<HsmsSsMessage> f = new CompletableFuture<>();
+		
+		this.futureMap.put(key, f);
+		
+		f.whenComplete((r, t) -> {
+			this.futureMap.remove(key, f);
+		});
+		
+		return f;
 	}
 	
+	/**
+	 * Remove entry, and cancel future if not completed.
+	 * 
+	 * @param primaryMsg
+	 */
 	public void exit(HsmsSsMessage primaryMsg) {
-		synchronized ( this ) {
-			this.packMap.remove(primaryMsg.systemBytesKey());
-		}
-	}
-	
-	private Pack getPack(HsmsSsMessage msg) {
-		synchronized ( this ) {
-			return getPack(msg.systemBytesKey());
+		
+		final CompletableFuture<HsmsSsMessage> f = this.futureMap.remove(primaryMsg.systemBytesKey());
+		
+		if ( f != null ) {
+			f.cancel(false);
 		}
 	}
 	
-	private Pack getPack(Integer key) {
-		synchronized ( this ) {
-			return this.packMap.get(key);
+	/**
+	 * Start timer of future.
+	 * 
+	 * <p>
+	 * If not completed in timeout, future is completed exceptionally by {@code exception}.<br />
+	 * Timer is on shared {@link SecsTimerWheel}, and cancelled when future completed.<br />
+	 * </p>
+	 * 
+	 * @param f future of Reply-Message
+	 * @param timeout
+	 * @param exception
+	 */
+	public void timeout(CompletableFuture<HsmsSsMessage> f, ReadOnlyTimeProperty timeout, Supplier<? extends Throwable> exception) {
+		
+		if ( f.isDone() ) {
+			return;
 		}
+		
+		final SecsTimerWheel.Timer timer = SecsTimerWheel.getInstance().schedule(() -> {
+			f.completeExceptionally(exception.get());
+		}, timeout);
+		
+		f.whenComplete((r, t) -> {
+			timer.cancel();
+		});
 	}
 	
 	public Optional<HsmsSsMessage> reply(HsmsSsMessage primaryMsg, long timeout, TimeUnit unit) throws InterruptedException {
 		
-		final Pack p = getPack(primaryMsg);
-		
-		if ( p != null ) {
+		final CompletableFuture<HsmsSsMessage> f = this.futureMap.get(primaryMsg.systemBytesKey());
 		
-			synchronized ( p ) {
-				
-				{
-					HsmsSsMessage r = p.replyMsg();
-					if ( r != null ) {
-						return Optional.of(r);
-					}
-				}
-				
-				unit.timedWait(p, timeout);
-				
-				{
-					HsmsSsMessage r = p.replyMsg();
-					if ( r != null ) {
-						return Optional.of(r);
-					}
-				}
+		if ( f != null ) {
+			
+			try {
+				return Optional.of(f.get(timeout, unit));
+			}
+			catch ( TimeoutException | ExecutionException | CancellationException ignore ) {
 			}
 		}
 		
@@ -86,43 +126,16 @@ public class HsmsSsReplyMessageManager {
 	 */
 	public Optional<HsmsSsMessage> put(HsmsSsMessage msg) {
 		
-		final Pack p = getPack(msg);
+		final CompletableFuture<HsmsSsMessage> f = this.futureMap.get(msg.systemBytesKey());
 		
-		if ( p == null ) {
+		if ( f != null && f.complete(msg) ) {
 			
-			return Optional.of(msg);
+			return Optional.empty();
 			
 		} else {
 			
-			synchronized ( p ) {
-				
-				p.putReplyMsg(msg);
-				p.notifyAll();
-				
-				return Optional.empty();
-			}
+			return Optional.of(msg);
 		}
 	}
 	
-	private static class Pack {
-		
-		private HsmsSsMessage replyMsg;
-		
-		public Pack() {
-			this.replyMsg = null;
-		}
-		
-		public void putReplyMsg(HsmsSsMessage msg) {
-			synchronized ( this ) {
-				this.replyMsg = msg;
-				this.notifyAll();
-			}
-		}
-		
-		public HsmsSsMessage replyMsg() {
-			synchronized ( this ) {
-				return this.replyMsg;
-			}
-		}
-	}
 }
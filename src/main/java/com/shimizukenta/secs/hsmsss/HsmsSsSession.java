@@ -0,0 +1,147 @@
+package com.shimizukenta.secs.hsmsss;
+
+import java.net.SocketAddress;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+
+import com.shimizukenta.secs.SecsException;
+import com.shimizukenta.secs.SecsMessage;
+import com.shimizukenta.secs.SecsMessageReceiveListener;
+import com.shimizukenta.secs.SecsSendMessageException;
+import com.shimizukenta.secs.SecsWaitReplyMessageException;
+import com.shimizukenta.secs.secs2.Secs2;
+
+/**
+ * This interface is selected session of {@link HsmsSsMultiSessionPassiveCommunicator}.
+ * 
+ * <p>
+ * Session is available until deselected, notified by {@link HsmsSsSessionStateChangeListener}.<br />
+ * </p>
+ * 
+ * @author kenta-shimizu
+ *
+ */
+public interface HsmsSsSession {
+	
+	/**
+	 * Remote SocketAddress getter.
+	 * 
+	 * @return remote SocketAddress of this session
+	 */
+	public SocketAddress remoteSocketAddress();
+	
+	/**
+	 * Session-ID getter.
+	 * 
+	 * <p>
+	 * Session-ID of last received Data-Message, config Session-ID if not received yet.<br />
+	 * </p>
+	 * 
+	 * @return Session-ID
+	 */
+	public int sessionId();
+	
+	/**
+	 * Returns {@code true} if selected.
+	 * 
+	 * @return {@code true} if selected
+	 */
+	public boolean isSelected();
+	
+	/**
+	 * Send Primary-Message to this session and receive Reply-Message.
+	 * 
+	 * <p>
+	 * Blocking-method.<br />
+	 * </p>
+	 * 
+	 * @param strm SECS-II-Stream-Number
+	 * @param func SECS-II-Function-Number
+	 * @param wbit SECS-II-WBit, set {@code true} if w-bit is 1
+	 * @param secs2 SECS-II-data, Not accept {@code null}
+	 * @return Reply-Message if exist
+	 * @throws SecsSendMessageException
+	 * @throws SecsWaitReplyMessageException
+	 * @throws SecsException
+	 * @throws InterruptedException
+	 */
+	public Optional<SecsMessage> send(int strm, int func, boolean wbit, Secs2 secs2)
+			throws SecsSendMessageException, SecsWaitReplyMessageException, SecsException,
+			InterruptedException;
+	
+	/**
+	 * Send Reply-Message to this session.
+	 * 
+	 * @param primary Primary-Message
+	 * @param strm SECS-II-Stream-Number
+	 * @param func SECS-II-Function-Number
+	 * @param wbit SECS-II-WBit, set {@code false}
+	 * @param secs2 SECS-II-data, Not accept {@code null}
+	 * @return {@code Optional.empty()}
+	 * @throws SecsSendMessageException
+	 * @throws SecsWaitReplyMessageException
+	 * @throws SecsException
+	 * @throws InterruptedException
+	 */
+	public Optional<SecsMessage> send(SecsMessage primary, int strm, int func, boolean wbit, Secs2 secs2)
+			throws SecsSendMessageException, SecsWaitReplyMessageException, SecsException,
+			InterruptedException;
+	
+	/**
+	 * Send HSMS-SS-Message to this session and receive Reply-Message if exist.
+	 * 
+	 * @param msg
+	 * @return Reply-Message if exist
+	 * @throws SecsSendMessageException
+	 * @throws SecsWaitReplyMessageException
+	 * @throws SecsException
+	 * @throws InterruptedException
+	 */
+	public Optional<HsmsSsMessage> send(HsmsSsMessage msg)
+			throws SecsSendMessageException, SecsWaitReplyMessageException, SecsException,
+			InterruptedException;
+	
+	/**
+	 * Send Primary-Message to this session and receive Reply-Message asynchronously.
+	 * 
+	 * @param strm SECS-II-Stream-Number
+	 * @param func SECS-II-Function-Number
+	 * @param wbit SECS-II-WBit, set {@code true} if w-bit is 1
+	 * @param secs2 SECS-II-data, Not accept {@code null}
+	 * @return future of Reply-Message if exist
+	 */
+	public CompletableFuture<Optional<SecsMessage>> sendAsync(int strm, int func, boolean wbit, Secs2 secs2);
+	
+	/**
+	 * Send HSMS-SS-Message to this session asynchronously.
+	 * 
+	 * @param msg
+	 * @return future of Reply-Message if exist
+	 */
+	public CompletableFuture<Optional<HsmsSsMessage>> sendAsync(HsmsSsMessage msg);
+	
+	/**
+	 * Linktest to this session.
+	 * 
+	 * @return {@code true} if success
+	 * @throws InterruptedException
+	 */
+	public boolean linktest() throws InterruptedException;
+	
+	/**
+	 * Add Listener to receive Primary-Message from this session.
+	 * 
+	 * @param lstnr Not accept {@code null}
+	 * @return {@code true} if add success
+	 */
+	public boolean addSecsMessageReceiveListener(SecsMessageReceiveListener lstnr);
+	
+	/**
+	 * Remove Listener.
+	 * 
+	 * @param lstnr Not accept {@code null}
+	 * @return {@code true} if remove success
+	 */
+	public boolean removeSecsMessageReceiveListener(SecsMessageReceiveListener lstnr);
+	
+}
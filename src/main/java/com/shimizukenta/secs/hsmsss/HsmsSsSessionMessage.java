@@ -0,0 +1,36 @@
+package com.shimizukenta.secs.hsmsss;
+
+import com.shimizukenta.secs.secs2.Secs2;
+
+/**
+ * This class is HSMS-SS-Message received from session of {@link HsmsSsMultiSessionPassiveCommunicator}.
+ * 
+ * <p>
+ * Reply-Message by {@link com.shimizukenta.secs.SecsCommunicator#send(com.shimizukenta.secs.SecsMessage, int, int, boolean, Secs2)}
+ * is sent to the session received this message.<br />
+ * </p>
+ * 
+ * @author kenta-shimizu
+ *
+ */
+public class HsmsSsSessionMessage extends HsmsSsMessage {
+	
+	private static final long serialVersionUID = 4361280471622395946L;
+	
+	private final transient HsmsSsSession session;
+	
+	protected HsmsSsSessionMessage(byte[] head, Secs2 body, HsmsSsSession session) {
+		super(head, body);
+		this.session = session;
+	}
+	
+	/**
+	 * Received session getter.
+	 * 
+	 * @return session received this message, {@code null} if deserialized
+	 */
+	public HsmsSsSession session() {
+		return this.session;
+	}
+	
+}
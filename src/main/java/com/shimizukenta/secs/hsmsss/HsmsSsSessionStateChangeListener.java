@@ -0,0 +1,30 @@
+package com.shimizukenta.secs.hsmsss;
+
+import java.util.EventListener;
+
+/**
+ * Session selected or deselected Listener.
+ * 
+ * <p>
+ * This interface is called in
+ * {@link HsmsSsMultiSessionPassiveCommunicator#addSessionStateChangeListener(HsmsSsSessionStateChangeListener)}<br />
+ * </p>
+ * 
+ * @author kenta-shimizu
+ *
+ */
+public interface HsmsSsSessionStateChangeListener extends EventListener {
+	
+	/**
+	 * Session state changed.
+	 * 
+	 * <p>
+	 * Blocking-method.<br />
+	 * pass through quickly.<br />
+	 * </p>
+	 * 
+	 * @param session
+	 * @param selected {@code true} if selected, {@code false} if deselected
+	 */
+	public void changed(HsmsSsSession session, boolean selected);
+}
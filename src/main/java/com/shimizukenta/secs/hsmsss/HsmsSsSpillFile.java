@@ -0,0 +1,164 @@
+package com.shimizukenta.secs.hsmsss;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.Buffer;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+import com.shimizukenta.secs.ByteBufferPool;
+
+/**
+ * This class is temporary file of received large body.
+ * 
+ * <p>
+ * Body is written by chunks, and memory-mapped by windows after all bytes written.<br />
+ * Window is not over 2 GiB, body over 2 GiB is mapped to several windows.<br />
+ * File is deleted on close, mapped buffer is available after closed.<br />
+ * </p>
+ * 
+ * @author kenta-shimizu
+ *
+ */
+final class HsmsSsSpillFile implements Closeable {
+	
+	private static final int CHUNK_SIZE = 64 * 1024;
+	private static final int WINDOW_SIZE = Integer.MAX_VALUE;
+	
+	private final ByteBufferPool pool = ByteBufferPool.getInstance();
+	private final FileChannel channel;
+	private final long size;
+	private final int windowSize;
+	private long written;
+	private ByteBuffer chunk;
+	
+	private HsmsSsSpillFile(FileChannel channel, long size, int windowSize) {
+		this.channel = channel;
+		this.size = size;
+		this.windowSize = windowSize;
+		this.written = 0L;
+		this.chunk = null;
+	}
+	
+	/**
+	 * Create temporary file.
+	 * 
+	 * @param size body size
+	 * @return spill file
+	 * @throws IOException
+	 */
+	static HsmsSsSpillFile create(long size) throws IOException {
+		return create(size, WINDOW_SIZE);
+	}
+	
+	/**
+	 * Create temporary file.
+	 * 
+	 * @param size body size
+	 * @param windowSize max size of mapped window
+	 * @return spill file
+	 * @throws IOException
+	 */
+	static HsmsSsSpillFile create(long size, int windowSize) throws IOException {
+		
+		if ( windowSize <= 0 ) {
+			throw new IllegalArgumentException("windowSize: " + windowSize);
+		}
+		
+		final Path path = Files.createTempFile("hsmsss-body-", ".tmp");
+		
+		try {
+			return new HsmsSsSpillFile(
+					FileChannel.open(path,
+							StandardOpenOption.READ,
+							StandardOpenOption.WRITE,
+							StandardOpenOption.DELETE_ON_CLOSE),
+					size,
+					windowSize);
+		}
+		catch ( IOException e ) {
+			Files.deleteIfExists(path);
+			throw e;
+		}
+	}
+	
+	/**
+	 * Returns chunk buffer to read next bytes.
+	 * 
+	 * @return chunk buffer, limit is not over body size
+	 */
+	ByteBuffer chunk() {
+		
+		if ( this.chunk == null ) {
+			this.chunk = this.pool.acquire(CHUNK_SIZE);
+		}
+		
+		long r = this.size - this.written;
+		
+		((Buffer)this.chunk).clear();
+		((Buffer)this.chunk).limit((int)Math.min((long)(this.chunk.capacity()), r));
+		
+		return this.chunk;
+	}
+	
+	/**
+	 * Write read bytes of chunk to file.
+	 * 
+	 * @throws IOException
+	 */
+	void writeChunk() throws IOException {
+		
+		((Buffer)this.chunk).flip();
+		
+		while ( this.chunk.hasRemaining() ) {
+			this.written += (long)(this.channel.write(this.chunk));
+		}
+	}
+	
+	/**
+	 * Returns {@code true} if has bytes not written yet.
+	 * 
+	 * @return {@code true} if has bytes not written yet
+	 */
+	boolean hasRemaining() {
+		return this.written < this.size;
+	}
+	
+	/**
+	 * Map file by windows, and close.
+	 * 
+	 * @return read-only mapped windows in order, at least one window
+	 * @throws IOException
+	 */
+	ByteBuffer[] mapAndClose() throws IOException {
+		try {
+			final int n = (int)Math.max(1L, (this.size + this.windowSize - 1L) / this.windowSize);
+			final ByteBuffer[] windows = new ByteBuffer[n];
+			
+			for ( int i = 0; i < n; ++i ) {
+				final long pos = (long)i * this.windowSize;
+				windows[i] = this.channel.map(FileChannel.MapMode.READ_ONLY, pos, Math.min((long)(this.windowSize), this.size - pos));
+			}
+			
+			return windows;
+		}
+		finally {
+			this.close();
+		}
+	}
+	
+	@Override
+	public void close() throws IOException {
+		
+		if ( this.chunk != null ) {
+			this.pool.release(this.chunk);
+			this.chunk = null;
+		}
+		
+		this.channel.close();
+	}
+	
+}
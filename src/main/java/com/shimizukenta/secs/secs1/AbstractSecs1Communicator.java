@@ -1,9 +1,12 @@
 package com.shimizukenta.secs.secs1;
 
 import java.io.IOException;
-import java.util.LinkedList;
+import java.nio.ByteBuffer;
+import java.util.List;
 import java.util.Optional;
-import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.TimeUnit;
+
+import javax.management.JMException;
 
 import com.shimizukenta.secs.AbstractSecsCommunicator;
 import com.shimizukenta.secs.AbstractSecsWaitReplyMessageExceptionLog;
@@ -12,6 +15,7 @@ import com.shimizukenta.secs.SecsException;
 import com.shimizukenta.secs.SecsMessage;
 import com.shimizukenta.secs.SecsSendMessageException;
 import com.shimizukenta.secs.SecsWaitReplyMessageException;
+import com.shimizukenta.secs.SystemBytesAllocator;
 import com.shimizukenta.secs.secs2.Secs2;
 import com.shimizukenta.secs.secs2.Secs2Exception;
 
@@ -34,6 +38,7 @@ public abstract class AbstractSecs1Communicator extends AbstractSecsCommunicator
 	private final ByteAndSecs1MessageQueue circuitQueue = new ByteAndSecs1MessageQueue();
 	private final Secs1SendMessageManager sendMgr = new Secs1SendMessageManager();
 	private final Secs1ReplyMessageManager replyMgr = new Secs1ReplyMessageManager();
+	private final Secs1CircuitMetrics metrics = new Secs1CircuitMetrics();
 	
 	public AbstractSecs1Communicator(Secs1CommunicatorConfig config) {
 		super(config);
@@ -54,6 +59,11 @@ public abstract class AbstractSecs1Communicator extends AbstractSecsCommunicator
 		return secs1Config;
 	}
 	
+	@Override
+	public Secs1CircuitMetrics circuitMetrics() {
+		return metrics;
+	}
+	
 	@Override
 	public void open() throws IOException {
 		super.open();
@@ -71,6 +81,13 @@ public abstract class AbstractSecs1Communicator extends AbstractSecsCommunicator
 				return;
 			}
 			
+			try {
+				this.metrics.unregisterMBean();
+			}
+			catch ( JMException e ) {
+				this.notifyLog(e);
+			}
+			
 			super.close();
 		}
 	}
@@ -83,6 +100,10 @@ public abstract class AbstractSecs1Communicator extends AbstractSecsCommunicator
 		this.circuitQueue.putBytes(bs);
 	}
 	
+	protected void putBytes(ByteBuffer buffer) throws InterruptedException {
+		this.circuitQueue.putBytes(buffer);
+	}
+	
 	
 	abstract protected void sendBytes(byte[] bs) throws SecsSendMessageException, SecsException, InterruptedException;
 	
@@ -161,7 +182,7 @@ public abstract class AbstractSecs1Communicator extends AbstractSecsCommunicator
 		return new Secs1Message(header, body);
 	}
 	
-	private final AtomicInteger autoNumber = new AtomicInteger();
+	private final SystemBytesAllocator systemBytesAllocator = new SystemBytesAllocator(16);
 	
 	@Override
 	public Optional<SecsMessage> send(int strm, int func, boolean wbit, Secs2 secs2)
@@ -170,7 +191,12 @@ public abstract class AbstractSecs1Communicator extends AbstractSecsCommunicator
 		
 		byte[] devids = deviceIdBytes.get();
 		boolean rbit = secs1Config().isEquip().booleanValue();
-		int num = autoNumber.incrementAndGet();
+		
+		final int prefix = rbit
+				? ((((int)(devids[0]) << 24) & 0xFF000000) | (((int)(devids[1]) << 16) & 0x00FF0000))
+				: 0;
+		
+		int num = systemBytesAllocator.allocate(n -> replyMgr.contains(Integer.valueOf(prefix | n)));
 		
 		byte[] head = new byte[] {
 				devids[0],
@@ -234,7 +260,7 @@ public abstract class AbstractSecs1Communicator extends AbstractSecsCommunicator
 	
 	private void entryCircuit() throws InterruptedException {
 		
-		ByteOrSecs1Message v = this.circuitQueue.takeByteOrSecs1Message();
+		final ByteOrSecs1Message v = this.takeByteOrSecs1Message();
 		
 		final Secs1MessageBlockPack pack = v.message();
 		
@@ -258,18 +284,24 @@ public abstract class AbstractSecs1Communicator extends AbstractSecsCommunicator
 					
 					this.sendByte(ENQ);
 					
+					final long enqNanos = System.nanoTime();
+					
 					for ( ;; ) {
 						
 						Byte b = this.circuitQueue.pollByte(this.secs1Config().timeout().t2());
 						
 						if ( b == null ) {
 							
+							this.metrics.t2Timeout();
+							this.metrics.retry();
 							this.notifyLog(Secs1RetryCircuitControlLog.newInstance(retry));
 							retry += 1;
 							break;
 							
 						} else if ( b.byteValue() == ENQ && ! this.secs1Config().isMaster().booleanValue() ) {
-								
+							
+							this.metrics.enqContention();
+							
 							try {
 								this.receiveCircuit();
 							}
@@ -281,12 +313,20 @@ public abstract class AbstractSecs1Communicator extends AbstractSecsCommunicator
 							pack.reset();
 							break;
 							
+						} else if ( b.byteValue() == ENQ ) {
+							
+							/* Master ignores ENQ of Slave, wait EOT */
+							this.metrics.enqContention();
+							
 						} else if ( b.byteValue() == EOT ) {
 							
+							this.metrics.eotReceived(enqNanos);
+							
 							if ( this.sendCircuit(pack.present()) ) {
 								
 								if ( pack.ebit() ) {
 									
+									this.metrics.messageSended();
 									this.sendMgr.putSended(pack.message());
 									this.offerSendedMsgPassThroughQueue(pack.message());
 									this.notifyLog(new Secs1SendedMessageLog(pack.message()));
@@ -302,6 +342,7 @@ public abstract class AbstractSecs1Communicator extends AbstractSecsCommunicator
 								
 							} else {
 								
+								this.metrics.retry();
 								this.notifyLog(Secs1RetryCircuitControlLog.newInstance(retry));
 								retry += 1;
 								break;
@@ -310,6 +351,7 @@ public abstract class AbstractSecs1Communicator extends AbstractSecsCommunicator
 					}
 				}
 				
+				this.metrics.retryOver();
 				this.sendMgr.putException(pack.message(), new Secs1RetryOverException());
 				
 			}
@@ -320,6 +362,32 @@ public abstract class AbstractSecs1Communicator extends AbstractSecsCommunicator
 		}
 	}
 	
+	/**
+	 * Take byte or message, remove T4 expired reassembling blocks while waiting.
+	 * 
+	 * @return byte or message
+	 * @throws InterruptedException
+	 */
+	private ByteOrSecs1Message takeByteOrSecs1Message() throws InterruptedException {
+		
+		for ( ;; ) {
+			
+			this.removeT4ExpiredBlocks();
+			
+			final long nanos = this.cacheBlocks.nanosToNextExpiry();
+			
+			if ( nanos < 0L ) {
+				return this.circuitQueue.takeByteOrSecs1Message();
+			}
+			
+			final ByteOrSecs1Message v = this.circuitQueue.pollByteOrSecs1Message(nanos, TimeUnit.NANOSECONDS);
+			
+			if ( v != null ) {
+				return v;
+			}
+		}
+	}
+	
 	/**
 	 * Secs1MessageBlock sender, Returns true if send success and receive ACK.
 	 * 
@@ -336,40 +404,116 @@ public abstract class AbstractSecs1Communicator extends AbstractSecsCommunicator
 		
 		this.sendBytes(block.getBytes());
 		
+		final long blockNanos = System.nanoTime();
+		
 		Byte b = this.circuitQueue.pollByte(this.secs1Config().timeout().t2());
 		
 		if ( b == null ) {
 			
+			this.metrics.t2Timeout();
 			this.notifyLog(Secs1TimeoutT2AckCircuitControlLog.newInstance(block));
 			return false;
 			
 		} else if ( b.byteValue() == ACK ) {
 			
+			this.metrics.ackReceived(blockNanos);
 			this.notifyLog(new Secs1SendedMessageBlockLog(block));
 			return true;
 			
 		} else {
 			
+			this.metrics.notAckReceived();
 			this.notifyLog(Secs1NotReceiveAckCircuitControlLog.newInstance(block, b));
 			return false;
 		}
 	}
 	
-	private final LinkedList<Secs1MessageBlock> cacheBlocks = new LinkedList<>();
+	private final Secs1MessageBlockCache cacheBlocks = new Secs1MessageBlockCache();
 	
+	/**
+	 * Receive one block after ENQ.
+	 * 
+	 * <p>
+	 * Blocks are reassembled by Device-ID and System-Bytes, interleaved messages are kept.<br />
+	 * Next block is received from entry circuit,
+	 * T4 expired blocks are removed while waiting there.<br />
+	 * </p>
+	 * 
+	 * @throws SecsException
+	 * @throws InterruptedException
+	 */
 	private void receiveCircuit() throws SecsException, InterruptedException {
 		
+		this.removeT4ExpiredBlocks();
+		
+		final Secs1MessageBlock block = this.receiveBlock();
+		
+		if ( block == null ) {
+			return;
+		}
+		
+		if (block.deviceId() != this.secs1Config().deviceId().intValue()) {
+			return;
+		}
+		
+		final long t4Nanos = TimeUnit.MILLISECONDS.toNanos(this.secs1Config().timeout().t4().getMilliSeconds());
+		
+		final List<Secs1MessageBlock> blocks = this.cacheBlocks.put(block, t4Nanos);
+		
+		if ( blocks != null ) {
+			
+			try {
+				Secs1Message s1msg = Secs1MessageBlockConverter.toSecs1Message(blocks);
+				
+				this.metrics.messageReceived();
+				
+				this.replyMgr.put(s1msg).ifPresent(m -> {
+					this.offerMsgRecvQueue(m);
+				});
+				
+				this.offerRecvMsgPassThroughQueue(s1msg);
+				this.notifyLog(new Secs1ReceiveMessageLog(s1msg));
+				
+			}
+			catch ( Secs2Exception e ) {
+				this.notifyLog(e);
+			}
+			
+		} else if ( ! block.ebit() ) {
+			
+			this.replyMgr.resetTimer(block);
+		}
+	}
+	
+	private void removeT4ExpiredBlocks() {
+		for ( Secs1MessageBlock block : this.cacheBlocks.removeExpired() ) {
+			this.metrics.t4Timeout();
+			this.notifyLog(Secs1TimeoutT4CircuitControlLog.newInstance(block));
+		}
+	}
+	
+	/**
+	 * Receive one block after ENQ, Returns block if sum-check passed.
+	 * 
+	 * @return block if received and ACK sended, otherwise {@code null}
+	 * @throws SecsException
+	 * @throws InterruptedException
+	 */
+	private Secs1MessageBlock receiveBlock() throws SecsException, InterruptedException {
+		
 		this.sendByte(EOT);
 		
 		byte[] bs = new byte[257];
 		
 		{
-			int r = this.circuitQueue.pollBytes(bs, 0, 1, this.secs1Config().timeout().t2());
+			int r = this.circuitQueue.read(bs, 0, 1, this.secs1Config().timeout().t2());
 			
 			if ( r <= 0 ) {
 				this.sendByte(NAK);
+				this.metrics.t2Timeout();
+				this.metrics.nakSended();
 				this.notifyLog(Secs1TimeoutT2LengthByteCircuitColtrolLog.newInstance());
-				return;
+				return null;
 			}
 		}
 		
@@ -379,18 +523,21 @@ public abstract class AbstractSecs1Communicator extends AbstractSecsCommunicator
 			if ( len < 10 || len > 254 ) {
 				this.circuitQueue.garbageBytes(this.secs1Config().timeout().t1());
 				this.sendByte(NAK);
+				this.metrics.nakSended();
 				this.notifyLog(Secs1IllegalLengthByteCircuitControlLog.newInstance(len));
-				return;
+				return null;
 			}
 			
 			for (int pos = 1, m = (len + 3); pos < m;) {
 				
-				int r = this.circuitQueue.pollBytes(bs, pos, m, this.secs1Config().timeout().t1());
+				int r = this.circuitQueue.read(bs, pos, (m - pos), this.secs1Config().timeout().t1());
 				
 				if ( r <= 0 ) {
 					this.sendByte(NAK);
+					this.metrics.t1Timeout();
+					this.metrics.nakSended();
 					this.notifyLog(Secs1TimeoutT1CircuitControlLog.newInstance(pos));
-					return;
+					return null;
 				}
 				
 				pos += r;
@@ -407,76 +554,16 @@ public abstract class AbstractSecs1Communicator extends AbstractSecsCommunicator
 			
 			this.circuitQueue.garbageBytes(this.secs1Config().timeout().t1());
 			this.sendByte(NAK);
+			this.metrics.sumCheckMismatch();
+			this.metrics.nakSended();
 			this.notifyLog(Secs1SumCheckMismatchCirsuitControlLog.newInstance());
-			return;
+			return null;
 		}
 		
+		this.metrics.blockReceived();
 		this.notifyLog(new Secs1ReceiveMessageBlockLog(block));
 		
-		if (block.deviceId() != this.secs1Config().deviceId().intValue()) {
-			return;
-		}
-		
-		if ( this.cacheBlocks.isEmpty() ) {
-			
-			this.cacheBlocks.add(block);
-			
-		} else {
-			
-			Secs1MessageBlock prev = this.cacheBlocks.getLast();
-			
-			if ( prev.sameSystemBytes(block) ) {
-				
-				if ( prev.isNextBlock(block) ) {
-					this.cacheBlocks.add(block);
-				}
-				
-			} else {
-				
-				this.cacheBlocks.clear();
-				this.cacheBlocks.add(block);
-			}
-		}
-		
-		if ( block.ebit() ) {
-			
-			try {
-				Secs1Message s1msg = Secs1MessageBlockConverter.toSecs1Message(this.cacheBlocks);
-				
-				this.replyMgr.put(s1msg).ifPresent(m -> {
-					this.offerMsgRecvQueue(m);
-				});
-				
-				this.offerRecvMsgPassThroughQueue(s1msg);
-				this.notifyLog(new Secs1ReceiveMessageLog(s1msg));
-				
-			}
-			catch ( Secs2Exception e ) {
-				this.notifyLog(e);
-			}
-			finally {
-				this.cacheBlocks.clear();
-			}
-			
-		} else {
-			
-			this.replyMgr.resetTimer(block);
-			
-			Byte b = this.circuitQueue.pollByte(this.secs1Config().timeout().t4());
-			
-			if ( b == null ) {
-				
-				this.notifyLog(Secs1TimeoutT4CircuitControlLog.newInstance(block));
-				
-			} else if ( b.byteValue() == ENQ ) {
-				
-				this.receiveCircuit();
-				
-			} else {
-				
-				this.notifyLog(Secs1NotReceiveNextBlockEnqCircuitControlLog.newInstance(block, b));
-			}
-		}
+		return block;
 	}
 	
 }
@@ -1,42 +1,138 @@
 package com.shimizukenta.secs.secs1;
 
+import java.nio.ByteBuffer;
 import java.util.LinkedList;
 import java.util.Queue;
-import java.util.concurrent.BlockingQueue;
-import java.util.concurrent.LinkedBlockingQueue;
 import java.util.concurrent.TimeUnit;
 
 import com.shimizukenta.secs.ReadOnlyTimeProperty;
 
+/**
+ * This class is circuit queue of received bytes and send messages.
+ * 
+ * <p>
+ * Received bytes are stored in primitive ring buffer, put and read in bulk.<br />
+ * Waiters wait on single monitor, notified by put bytes or message.<br />
+ * </p>
+ * 
+ * @author kenta-shimizu
+ *
+ */
 public final class ByteAndSecs1MessageQueue {
 	
+	private static final int DEFAULT_CAPACITY = 1024;
+	
 	private final Object sync = new Object();
-	private final BlockingQueue<Byte> bb = new LinkedBlockingQueue<>();
 	private final Queue<Secs1MessageBlockPack> mm = new LinkedList<>();
 	
+	private byte[] ring = new byte[DEFAULT_CAPACITY];
+	private int head;
+	private int count;
+	
 	public ByteAndSecs1MessageQueue() {
 		/* Nothing */
 	}
 	
 	public void clear() {
 		synchronized ( sync ) {
-			bb.clear();
+			head = 0;
+			count = 0;
 			mm.clear();
 		}
 	}
 	
+	/**
+	 * Grow ring if remaining capacity less than size, keep ring order.
+	 * 
+	 * @param size
+	 */
+	private void ensureCapacity(int size) {
+		
+		final int need = count + size;
+		
+		if ( need <= ring.length ) {
+			return;
+		}
+		
+		int cap = ring.length;
+		while ( cap < need ) {
+			cap <<= 1;
+		}
+		
+		final byte[] nr = new byte[cap];
+		final int first = Math.min(count, ring.length - head);
+		System.arraycopy(ring, head, nr, 0, first);
+		System.arraycopy(ring, 0, nr, first, count - first);
+		
+		ring = nr;
+		head = 0;
+	}
+	
 	public void putByte(byte b) throws InterruptedException {
 		synchronized ( sync ) {
-			bb.add(b);
+			ensureCapacity(1);
+			ring[(head + count) % ring.length] = b;
+			count += 1;
 			sync.notifyAll();
 		}
 	}
 	
 	public void putBytes(byte[] bs) throws InterruptedException {
+		putBytes(bs, 0, bs.length);
+	}
+	
+	/**
+	 * Put bytes in bulk.
+	 * 
+	 * @param bs
+	 * @param off start position
+	 * @param len size of bytes
+	 * @throws InterruptedException
+	 */
+	public void putBytes(byte[] bs, int off, int len) throws InterruptedException {
+		
+		if ( len <= 0 ) {
+			return;
+		}
+		
 		synchronized ( sync ) {
-			for ( byte b : bs ) {
-				bb.add(b);
-			}
+			
+			ensureCapacity(len);
+			
+			final int tail = (head + count) % ring.length;
+			final int first = Math.min(len, ring.length - tail);
+			System.arraycopy(bs, off, ring, tail, first);
+			System.arraycopy(bs, off + first, ring, 0, len - first);
+			count += len;
+			
+			sync.notifyAll();
+		}
+	}
+	
+	/**
+	 * Put remaining bytes of buffer in bulk.
+	 * 
+	 * @param buffer
+	 * @throws InterruptedException
+	 */
+	public void putBytes(ByteBuffer buffer) throws InterruptedException {
+		
+		final int len = buffer.remaining();
+		
+		if ( len <= 0 ) {
+			return;
+		}
+		
+		synchronized ( sync ) {
+			
+			ensureCapacity(len);
+			
+			final int tail = (head + count) % ring.length;
+			final int first = Math.min(len, ring.length - tail);
+			buffer.get(ring, tail, first);
+			buffer.get(ring, 0, len - first);
+			count += len;
+			
 			sync.notifyAll();
 		}
 	}
@@ -69,50 +165,165 @@ public final class ByteAndSecs1MessageQueue {
 		}
 	}
 	
+	/**
+	 * Returns message or byte, or {@code null} if timeout.
+	 * 
+	 * @param timeout
+	 * @param unit
+	 * @return message or byte, or {@code null} if timeout
+	 * @throws InterruptedException
+	 */
+	public ByteOrSecs1Message pollByteOrSecs1Message(long timeout, TimeUnit unit) throws InterruptedException {
+		
+		final long deadline = System.nanoTime() + unit.toNanos(timeout);
+		
+		synchronized ( sync ) {
+			
+			for ( ;; ) {
+				
+				Secs1MessageBlockPack msgPack = mm.poll();
+				if ( msgPack != null ) {
+					return new ByteOrSecs1Message(null, msgPack);
+				}
+				
+				Byte b = pollHead();
+				if ( b != null ) {
+					return new ByteOrSecs1Message(b, null);
+				}
+				
+				final long nanos = deadline - System.nanoTime();
+				
+				if ( nanos <= 0L ) {
+					return null;
+				}
+				
+				TimeUnit.NANOSECONDS.timedWait(sync, nanos);
+			}
+		}
+	}
+	
+	/**
+	 * Returns head byte, or {@code null} if empty. Must be called in sync.
+	 * 
+	 * @return head byte, or {@code null} if empty
+	 */
+	private Byte pollHead() {
+		
+		if ( count == 0 ) {
+			return null;
+		}
+		
+		final byte b = ring[head];
+		head = (head + 1) % ring.length;
+		count -= 1;
+		
+		return Byte.valueOf(b);
+	}
+	
+	/**
+	 * Wait until bytes exist or timeout. Must be called in sync.
+	 * 
+	 * @param timeout
+	 * @param unit
+	 * @return {@code true} if bytes exist
+	 * @throws InterruptedException
+	 */
+	private boolean awaitBytes(long timeout, TimeUnit unit) throws InterruptedException {
+		
+		if ( count > 0 ) {
+			return true;
+		}
+		
+		final long deadline = System.nanoTime() + unit.toNanos(timeout);
+		
+		for ( ;; ) {
+			
+			final long nanos = deadline - System.nanoTime();
+			
+			if ( nanos <= 0L ) {
+				return false;
+			}
+			
+			TimeUnit.NANOSECONDS.timedWait(sync, nanos);
+			
+			if ( count > 0 ) {
+				return true;
+			}
+		}
+	}
+	
 	public Byte pollByte() {
-		return bb.poll();
+		synchronized ( sync ) {
+			return pollHead();
+		}
 	}
 	
 	public Byte pollByte(long timeout, TimeUnit unit) throws InterruptedException {
-		return bb.poll(timeout, unit);
+		synchronized ( sync ) {
+			if ( awaitBytes(timeout, unit) ) {
+				return pollHead();
+			} else {
+				return null;
+			}
+		}
 	}
 	
 	public Byte pollByte(ReadOnlyTimeProperty v) throws InterruptedException {
-		return v.poll(bb);
+		return pollByte(v.getMilliSeconds(), TimeUnit.MILLISECONDS);
 	}
 	
 	/**
-	 * input to bytes.
+	 * Read bytes in bulk.
+	 * 
+	 * <p>
+	 * Wait until at least one byte is received or timeout,
+	 * and read all available bytes up to len.<br />
+	 * </p>
 	 * 
 	 * @param bs
-	 * @param pos start position
+	 * @param off start position
 	 * @param len size of limit
 	 * @param timeout
 	 * @param unit
-	 * @return size of inputs
+	 * @return size of read bytes, 0 if timeout
 	 * @throws InterruptedException
 	 */
-	public int pollBytes(byte[] bs, int pos, int len, long timeout, TimeUnit unit) throws InterruptedException {
+	public int read(byte[] bs, int off, int len, long timeout, TimeUnit unit) throws InterruptedException {
 		
-		int r = 0;
+		if ( len <= 0 ) {
+			return 0;
+		}
 		
-		for ( int i = pos; i < len; ++i ) {
-			
-			Byte b = bb.poll(timeout, unit);
+		synchronized ( sync ) {
 			
-			if ( b == null ) {
-				
-				break;
-				
-			} else {
-				
-				bs[i] = b.byteValue();
+			if ( ! awaitBytes(timeout, unit) ) {
+				return 0;
 			}
 			
-			++ r;
+			final int r = Math.min(len, count);
+			final int first = Math.min(r, ring.length - head);
+			System.arraycopy(ring, head, bs, off, first);
+			System.arraycopy(ring, 0, bs, off + first, r - first);
+			
+			head = (head + r) % ring.length;
+			count -= r;
+			
+			return r;
 		}
-		
-		return r;
+	}
+	
+	/**
+	 * Read bytes in bulk.
+	 * 
+	 * @param bs
+	 * @param off start position
+	 * @param len size of limit
+	 * @param timeout ReadOnlyTimeProperty
+	 * @return size of read bytes, 0 if timeout
+	 * @throws InterruptedException
+	 */
+	public int read(byte[] bs, int off, int len, ReadOnlyTimeProperty timeout) throws InterruptedException {
+		return read(bs, off, len, timeout.getMilliSeconds(), TimeUnit.MILLISECONDS);
 	}
 	
 	/**
@@ -120,7 +331,22 @@ public final class ByteAndSecs1MessageQueue {
 	 * 
 	 * @param bs
 	 * @param pos start position
-	 * @param len size of limit
+	 * @param len end position
+	 * @param timeout
+	 * @param unit
+	 * @return size of inputs
+	 * @throws InterruptedException
+	 */
+	public int pollBytes(byte[] bs, int pos, int len, long timeout, TimeUnit unit) throws InterruptedException {
+		return read(bs, pos, len - pos, timeout, unit);
+	}
+	
+	/**
+	 * input to bytes.
+	 * 
+	 * @param bs
+	 * @param pos start position
+	 * @param len end position
 	 * @param timeout ReadOnlyTimeProperty
 	 * @return size of inputs
 	 * @throws InterruptedException
@@ -130,11 +356,13 @@ public final class ByteAndSecs1MessageQueue {
 	}
 	
 	public void garbageBytes(long timeout, TimeUnit unit) throws InterruptedException {
-		this.bb.clear();
-		for ( ;; ) {
-			Byte b = bb.poll(timeout, unit);
-			if ( b == null ) {
-				return;
+		synchronized ( sync ) {
+			for ( ;; ) {
+				head = 0;
+				count = 0;
+				if ( ! awaitBytes(timeout, unit) ) {
+					return;
+				}
 			}
 		}
 	}
@@ -0,0 +1,334 @@
+package com.shimizukenta.secs.secs1;
+
+import java.lang.management.ManagementFactory;
+import java.util.concurrent.atomic.LongAdder;
+
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+/**
+ * This class is counters and latency histograms of SECS-I circuit.
+ * 
+ * <p>
+ * Counters are LongAdder, cheap enough to be always on.<br />
+ * ENQ-to-EOT is from ENQ sended to EOT received, Block-to-ACK is from block sended to ACK received.<br />
+ * To read from JMX, {@link #registerMBean(String)}<br />
+ * </p>
+ * 
+ * @author kenta-shimizu
+ *
+ */
+public final class Secs1CircuitMetrics implements Secs1CircuitMetricsMXBean {
+	
+	private static final String DOMAIN = "com.shimizukenta.secs.secs1";
+	
+	private final LongAdder messagesSended = new LongAdder();
+	private final LongAdder messagesReceived = new LongAdder();
+	private final LongAdder blocksSended = new LongAdder();
+	private final LongAdder blocksReceived = new LongAdder();
+	private final LongAdder enqContentions = new LongAdder();
+	private final LongAdder retries = new LongAdder();
+	private final LongAdder retryOvers = new LongAdder();
+	private final LongAdder naksSended = new LongAdder();
+	private final LongAdder notAcksReceived = new LongAdder();
+	private final LongAdder sumCheckMismatches = new LongAdder();
+	private final LongAdder t1Timeouts = new LongAdder();
+	private final LongAdder t2Timeouts = new LongAdder();
+	private final LongAdder t4Timeouts = new LongAdder();
+	
+	private final Secs1LatencyHistogram enqToEot = new Secs1LatencyHistogram();
+	private final Secs1LatencyHistogram blockToAck = new Secs1LatencyHistogram();
+	
+	private ObjectName objectName;
+	
+	Secs1CircuitMetrics() {
+		this.objectName = null;
+	}
+	
+	void messageSended() {
+		messagesSended.increment();
+	}
+	
+	void messageReceived() {
+		messagesReceived.increment();
+	}
+	
+	void blockReceived() {
+		blocksReceived.increment();
+	}
+	
+	void enqContention() {
+		enqContentions.increment();
+	}
+	
+	void retry() {
+		retries.increment();
+	}
+	
+	void retryOver() {
+		retryOvers.increment();
+	}
+	
+	void nakSended() {
+		naksSended.increment();
+	}
+	
+	void notAckReceived() {
+		notAcksReceived.increment();
+	}
+	
+	void sumCheckMismatch() {
+		sumCheckMismatches.increment();
+	}
+	
+	void t1Timeout() {
+		t1Timeouts.increment();
+	}
+	
+	void t2Timeout() {
+		t2Timeouts.increment();
+	}
+	
+	void t4Timeout() {
+		t4Timeouts.increment();
+	}
+	
+	void eotReceived(long enqNanos) {
+		enqToEot.record(System.nanoTime() - enqNanos);
+	}
+	
+	void ackReceived(long blockNanos) {
+		blocksSended.increment();
+		blockToAck.record(System.nanoTime() - blockNanos);
+	}
+	
+	/**
+	 * Returns ENQ-to-EOT latency histogram.
+	 * 
+	 * @return ENQ-to-EOT latency histogram
+	 */
+	public Secs1LatencyHistogram enqToEotLatency() {
+		return enqToEot;
+	}
+	
+	/**
+	 * Returns Block-to-ACK latency histogram.
+	 * 
+	 * @return Block-to-ACK latency histogram
+	 */
+	public Secs1LatencyHistogram blockToAckLatency() {
+		return blockToAck;
+	}
+	
+	@Override
+	public long getMessagesSended() {
+		return messagesSended.sum();
+	}
+	
+	@Override
+	public long getMessagesReceived() {
+		return messagesReceived.sum();
+	}
+	
+	@Override
+	public long getBlocksSended() {
+		return blocksSended.sum();
+	}
+	
+	@Override
+	public long getBlocksReceived() {
+		return blocksReceived.sum();
+	}
+	
+	@Override
+	public long getEnqContentions() {
+		return enqContentions.sum();
+	}
+	
+	@Override
+	public long getRetries() {
+		return retries.sum();
+	}
+	
+	@Override
+	public long getRetryOvers() {
+		return retryOvers.sum();
+	}
+	
+	@Override
+	public long getNaksSended() {
+		return naksSended.sum();
+	}
+	
+	@Override
+	public long getNotAcksReceived() {
+		return notAcksReceived.sum();
+	}
+	
+	@Override
+	public long getSumCheckMismatches() {
+		return sumCheckMismatches.sum();
+	}
+	
+	@Override
+	public long getT1Timeouts() {
+		return t1Timeouts.sum();
+	}
+	
+	@Override
+	public long getT2Timeouts() {
+		return t2Timeouts.sum();
+	}
+	
+	@Override
+	public long getT4Timeouts() {
+		return t4Timeouts.sum();
+	}
+	
+	@Override
+	public long getEnqToEotCount() {
+		return enqToEot.count();
+	}
+	
+	@Override
+	public double getEnqToEotMeanMicros() {
+		return enqToEot.meanMicros();
+	}
+	
+	@Override
+	public long getEnqToEotP50Micros() {
+		return enqToEot.percentileMicros(50.0D);
+	}
+	
+	@Override
+	public long getEnqToEotP99Micros() {
+		return enqToEot.percentileMicros(99.0D);
+	}
+	
+	@Override
+	public long getEnqToEotMaxMicros() {
+		return enqToEot.maxMicros();
+	}
+	
+	@Override
+	public long getBlockToAckCount() {
+		return blockToAck.count();
+	}
+	
+	@Override
+	public double getBlockToAckMeanMicros() {
+		return blockToAck.meanMicros();
+	}
+	
+	@Override
+	public long getBlockToAckP50Micros() {
+		return blockToAck.percentileMicros(50.0D);
+	}
+	
+	@Override
+	public long getBlockToAckP99Micros() {
+		return blockToAck.percentileMicros(99.0D);
+	}
+	
+	@Override
+	public long getBlockToAckMaxMicros() {
+		return blockToAck.maxMicros();
+	}
+	
+	@Override
+	public void reset() {
+		messagesSended.reset();
+		messagesReceived.reset();
+		blocksSended.reset();
+		blocksReceived.reset();
+		enqContentions.reset();
+		retries.reset();
+		retryOvers.reset();
+		naksSended.reset();
+		notAcksReceived.reset();
+		sumCheckMismatches.reset();
+		t1Timeouts.reset();
+		t2Timeouts.reset();
+		t4Timeouts.reset();
+		enqToEot.reset();
+		blockToAck.reset();
+	}
+	
+	/**
+	 * Register to platform MBeanServer.
+	 * 
+	 * <p>
+	 * ObjectName is "com.shimizukenta.secs.secs1:type=Secs1CircuitMetrics,name=" and quoted name.<br />
+	 * Unregistered when Communicator closed.<br />
+	 * </p>
+	 * 
+	 * @param name
+	 * @return registered ObjectName
+	 * @throws JMException
+	 */
+	public ObjectName registerMBean(String name) throws JMException {
+		
+		final ObjectName on = new ObjectName(DOMAIN + ":type=Secs1CircuitMetrics,name=" + ObjectName.quote(name));
+		
+		synchronized ( this ) {
+			
+			if ( this.objectName != null ) {
+				throw new IllegalStateException("Already registered: " + this.objectName);
+			}
+			
+			ManagementFactory.getPlatformMBeanServer().registerMBean(this, on);
+			this.objectName = on;
+		}
+		
+		return on;
+	}
+	
+	/**
+	 * Unregister from platform MBeanServer, do nothing if not registered.
+	 * 
+	 * @throws JMException
+	 */
+	public void unregisterMBean() throws JMException {
+		
+		synchronized ( this ) {
+			
+			if ( this.objectName != null ) {
+				
+				final MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+				
+				try {
+					if ( server.isRegistered(this.objectName) ) {
+						server.unregisterMBean(this.objectName);
+					}
+				}
+				finally {
+					this.objectName = null;
+				}
+			}
+		}
+	}
+	
+	@Override
+	public String toString() {
+		return new StringBuilder()
+				.append("messages sended=").append(getMessagesSended())
+				.append(", received=").append(getMessagesReceived())
+				.append(", blocks sended=").append(getBlocksSended())
+				.append(", received=").append(getBlocksReceived())
+				.append(", ENQ contentions=").append(getEnqContentions())
+				.append(", retries=").append(getRetries())
+				.append(", retry-overs=").append(getRetryOvers())
+				.append(", NAK sended=").append(getNaksSended())
+				.append(", not-ACK received=").append(getNotAcksReceived())
+				.append(", sum-check mismatches=").append(getSumCheckMismatches())
+				.append(", T1=").append(getT1Timeouts())
+				.append(", T2=").append(getT2Timeouts())
+				.append(", T4=").append(getT4Timeouts())
+				.append(", ENQ-to-EOT [").append(enqToEot)
+				.append("], Block-to-ACK [").append(blockToAck)
+				.append("]")
+				.toString();
+	}
+	
+}
@@ -0,0 +1,46 @@
+package com.shimizukenta.secs.secs1;
+
+/**
+ * This interface is JMX view of SECS-I circuit metrics.
+ * 
+ * <p>
+ * Latency attributes are micro-seconds.<br />
+ * </p>
+ * 
+ * @author kenta-shimizu
+ *
+ */
+public interface Secs1CircuitMetricsMXBean {
+	
+	public long getMessagesSended();
+	public long getMessagesReceived();
+	public long getBlocksSended();
+	public long getBlocksReceived();
+	public long getEnqContentions();
+	public long getRetries();
+	public long getRetryOvers();
+	public long getNaksSended();
+	public long getNotAcksReceived();
+	public long getSumCheckMismatches();
+	public long getT1Timeouts();
+	public long getT2Timeouts();
+	public long getT4Timeouts();
+	
+	public long getEnqToEotCount();
+	public double getEnqToEotMeanMicros();
+	public long getEnqToEotP50Micros();
+	public long getEnqToEotP99Micros();
+	public long getEnqToEotMaxMicros();
+	
+	public long getBlockToAckCount();
+	public double getBlockToAckMeanMicros();
+	public long getBlockToAckP50Micros();
+	public long getBlockToAckP99Micros();
+	public long getBlockToAckMaxMicros();
+	
+	/**
+	 * Reset all counters and histograms.
+	 */
+	public void reset();
+	
+}
@@ -54,5 +54,12 @@ public interface Secs1Communicator extends SecsCommunicator {
 			SecsWaitReplyMessageException,
 			SecsException,
 			InterruptedException;
+	
+	/**
+	 * Returns circuit counters and latency histograms.
+	 * 
+	 * @return circuit metrics
+	 */
+	public Secs1CircuitMetrics circuitMetrics();
 
 }
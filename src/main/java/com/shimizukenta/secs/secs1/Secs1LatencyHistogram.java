@@ -0,0 +1,139 @@
+package com.shimizukenta.secs.secs1;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * This class is latency histogram of SECS-I circuit.
+ * 
+ * <p>
+ * Buckets are power of 2 micro-seconds, record is lock-free and not allocate.<br />
+ * Percentile is upper bound of bucket, not exceeding max.<br />
+ * </p>
+ * 
+ * @author kenta-shimizu
+ *
+ */
+public final class Secs1LatencyHistogram {
+	
+	private static final int BUCKETS = 40;
+	
+	private final AtomicLongArray buckets = new AtomicLongArray(BUCKETS);
+	private final LongAdder count = new LongAdder();
+	private final LongAdder sumMicros = new LongAdder();
+	private final LongAccumulator maxMicros = new LongAccumulator(Math::max, 0L);
+	
+	Secs1LatencyHistogram() {
+		/* Nothing */
+	}
+	
+	private static int bucket(long micros) {
+		final int i = 64 - Long.numberOfLeadingZeros(micros);
+		return i < BUCKETS ? i : (BUCKETS - 1);
+	}
+	
+	/**
+	 * Record latency.
+	 * 
+	 * @param nanos latency nano-seconds
+	 */
+	void record(long nanos) {
+		
+		final long micros = nanos > 0L ? (nanos / 1000L) : 0L;
+		
+		buckets.incrementAndGet(bucket(micros));
+		count.increment();
+		sumMicros.add(micros);
+		maxMicros.accumulate(micros);
+	}
+	
+	public long count() {
+		return count.sum();
+	}
+	
+	/**
+	 * Returns mean micro-seconds, 0 if not recorded.
+	 * 
+	 * @return mean micro-seconds
+	 */
+	public double meanMicros() {
+		final long n = count.sum();
+		return n > 0L ? ((double)sumMicros.sum() / (double)n) : 0.0D;
+	}
+	
+	/**
+	 * Returns max micro-seconds, 0 if not recorded.
+	 * 
+	 * @return max micro-seconds
+	 */
+	public long maxMicros() {
+		return maxMicros.get();
+	}
+	
+	/**
+	 * Returns percentile micro-seconds, 0 if not recorded.
+	 * 
+	 * @param percent {@code 0.0 < percent <= 100.0}
+	 * @return percentile micro-seconds
+	 */
+	public long percentileMicros(double percent) {
+		
+		if ( percent <= 0.0D || percent > 100.0D ) {
+			throw new IllegalArgumentException("percent is 0.0 < percent <= 100.0");
+		}
+		
+		final long[] cc = new long[BUCKETS];
+		long n = 0L;
+		
+		for ( int i = 0; i < BUCKETS; ++i ) {
+			cc[i] = buckets.get(i);
+			n += cc[i];
+		}
+		
+		if ( n == 0L ) {
+			return 0L;
+		}
+		
+		final long rank = Math.max(1L, (long)Math.ceil((double)n * percent / 100.0D));
+		final long max = maxMicros.get();
+		long acc = 0L;
+		
+		for ( int i = 0; i < BUCKETS; ++i ) {
+			
+			acc += cc[i];
+			
+			if ( acc >= rank ) {
+				
+				/* last bucket is not bounded */
+				if ( i == BUCKETS - 1 ) {
+					return max;
+				}
+				
+				final long upper = i == 0 ? 0L : ((1L << i) - 1L);
+				return Math.min(upper, max);
+			}
+		}
+		
+		return max;
+	}
+	
+	void reset() {
+		for ( int i = 0; i < BUCKETS; ++i ) {
+			buckets.set(i, 0L);
+		}
+		count.reset();
+		sumMicros.reset();
+		maxMicros.reset();
+	}
+	
+	@Override
+	public String toString() {
+		return "count=" + count()
+				+ ", mean=" + String.format("%.1f", meanMicros()) + "us"
+				+ ", p50=" + percentileMicros(50.0D) + "us"
+				+ ", p99=" + percentileMicros(99.0D) + "us"
+				+ ", max=" + maxMicros() + "us";
+	}
+	
+}
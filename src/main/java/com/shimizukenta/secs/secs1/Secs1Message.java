@@ -1,11 +1,13 @@
 package com.shimizukenta.secs.secs1;
 
+import java.io.IOException;
 import java.util.Arrays;
 import java.util.List;
 import java.util.Objects;
 
 import com.shimizukenta.secs.AbstractSecsMessage;
 import com.shimizukenta.secs.secs2.Secs2;
+import com.shimizukenta.secs.secs2.Secs2Item;
 
 
 /**
@@ -87,22 +89,24 @@ public class Secs1Message extends AbstractSecsMessage {
 	private static final String BR = System.lineSeparator();
 	
 	@Override
-	public String toString() {
+	public void writeTo(Appendable appendable) throws IOException {
 		
-		StringBuilder sb = new StringBuilder(toHeaderBytesString())
-				.append(BR)
-				.append("S").append(getStream()).append("F").append(getFunction());
+		appendable.append(toHeaderBytesString())
+		.append(BR)
+		.append("S").append(String.valueOf(getStream()))
+		.append("F").append(String.valueOf(getFunction()));
 		
 		if (wbit()) {
-			sb.append(" W");
+			appendable.append(" W");
 		}
 		
-		String ss = body.toString();
-		if ( ss.length() > 0 ) {
-			sb.append(BR).append(ss);
+		/* empty body is written as empty string */
+		if ( body.secs2Item() != Secs2Item.UNDEFINED ) {
+			appendable.append(BR);
+			body.writeSml(appendable);
 		}
 		
-		return sb.append(".").toString();
+		appendable.append(".");
 	}
 	
 	public List<Secs1MessageBlock> toBlocks() throws Secs1SendMessageException {
@@ -1,6 +1,7 @@
 package com.shimizukenta.secs.secs1;
 
 import java.io.Serializable;
+import java.nio.ByteBuffer;
 import java.util.Arrays;
 
 public class Secs1MessageBlock implements Serializable {
@@ -18,6 +19,25 @@ public class Secs1MessageBlock implements Serializable {
 		this.bytes = Arrays.copyOf(bytes, this.length + 3);
 	}
 	
+	private Secs1MessageBlock(int length, byte[] bytes) {
+		this.length = length;
+		this.bytes = bytes;
+	}
+	
+	/**
+	 * Returns block of frame bytes, bytes are not copied.
+	 * 
+	 * <p>
+	 * Frame must be length byte + length + 2 checksum bytes, and must not be modified after.<br />
+	 * </p>
+	 * 
+	 * @param frame
+	 * @return block
+	 */
+	static Secs1MessageBlock wrap(byte[] frame) {
+		return new Secs1MessageBlock((((int)frame[0]) & 0x000000FF), frame);
+	}
+	
 	public int deviceId() {
 		return (((int)(bytes[1]) << 8) & 0x00007F00) | (bytes[2] & 0x000000FF);
 	}
@@ -39,6 +59,24 @@ public class Secs1MessageBlock implements Serializable {
 		return Arrays.copyOf(bytes, bytes.length);
 	}
 	
+	/**
+	 * Returns header 10 bytes.
+	 * 
+	 * @return header 10 bytes
+	 */
+	byte[] header10Bytes() {
+		return Arrays.copyOfRange(bytes, 1, 11);
+	}
+	
+	/**
+	 * Returns read-only view of body bytes, bytes are not copied.
+	 * 
+	 * @return read-only view of body bytes
+	 */
+	ByteBuffer bodyBuffer() {
+		return ByteBuffer.wrap(bytes, 11, this.length - 10).asReadOnlyBuffer();
+	}
+	
 	public Integer systemBytesKey() {
 		int i = ((int)(bytes[7]) << 24) & 0xFF000000;
 		i |= ((int)(bytes[8]) << 16) & 0x00FF0000;
@@ -0,0 +1,144 @@
+package com.shimizukenta.secs.secs1;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * This class is reassembly cache of received blocks, keyed by Device-ID and System-Bytes.
+ * 
+ * <p>
+ * Blocks of interleaved messages are reassembled separately.<br />
+ * Each entry has own T4 deadline, reset by each next block.<br />
+ * Only circuit thread accesses, not synchronized.<br />
+ * </p>
+ * 
+ * @author kenta-shimizu
+ *
+ */
+final class Secs1MessageBlockCache {
+	
+	private final Map<Long, Entry> entries = new HashMap<>();
+	
+	Secs1MessageBlockCache() {
+		/* Nothing */
+	}
+	
+	private static Long key(Secs1MessageBlock block) {
+		return Long.valueOf((((long)block.deviceId()) << 32) | (((long)block.systemBytesKey().intValue()) & 0xFFFFFFFFL));
+	}
+	
+	public void clear() {
+		entries.clear();
+	}
+	
+	/**
+	 * Put received block, returns blocks of message if completed.
+	 * 
+	 * <p>
+	 * First block starts new entry, same key entry is discarded.<br />
+	 * Duplicated or out of sequence block is ignored.<br />
+	 * </p>
+	 * 
+	 * @param block
+	 * @param t4Nanos T4 timeout nano-seconds
+	 * @return blocks of message if completed, otherwise {@code null}
+	 */
+	public List<Secs1MessageBlock> put(Secs1MessageBlock block, long t4Nanos) {
+		
+		final Long key = key(block);
+		
+		if ( block.isFirst() ) {
+			
+			if ( block.ebit() ) {
+				entries.remove(key);
+				return Collections.singletonList(block);
+			}
+			
+			entries.put(key, new Entry(block, System.nanoTime() + t4Nanos));
+			return null;
+		}
+		
+		final Entry entry = entries.get(key);
+		
+		if ( entry == null || ! entry.last().isNextBlock(block) ) {
+			return null;
+		}
+		
+		entry.blocks.add(block);
+		
+		if ( block.ebit() ) {
+			entries.remove(key);
+			return entry.blocks;
+		}
+		
+		entry.deadline = System.nanoTime() + t4Nanos;
+		return null;
+	}
+	
+	/**
+	 * Returns nano-seconds until nearest T4 deadline, 0 if expired, or -1 if empty.
+	 * 
+	 * @return nano-seconds until nearest T4 deadline, 0 if expired, or -1 if empty
+	 */
+	public long nanosToNextExpiry() {
+		
+		if ( entries.isEmpty() ) {
+			return -1L;
+		}
+		
+		final long now = System.nanoTime();
+		long min = Long.MAX_VALUE;
+		
+		for ( Entry entry : entries.values() ) {
+			long n = entry.deadline - now;
+			if ( n < min ) {
+				min = n;
+			}
+		}
+		
+		return min > 0L ? min : 0L;
+	}
+	
+	/**
+	 * Remove T4 expired entries, returns last block of each.
+	 * 
+	 * @return last blocks of expired entries
+	 */
+	public List<Secs1MessageBlock> removeExpired() {
+		
+		final List<Secs1MessageBlock> expired = new ArrayList<>();
+		final long now = System.nanoTime();
+		
+		for ( Iterator<Entry> iter = entries.values().iterator(); iter.hasNext(); ) {
+			
+			final Entry entry = iter.next();
+			
+			if ( (entry.deadline - now) <= 0L ) {
+				expired.add(entry.last());
+				iter.remove();
+			}
+		}
+		
+		return expired;
+	}
+	
+	private static final class Entry {
+		
+		private final List<Secs1MessageBlock> blocks = new ArrayList<>();
+		private long deadline;
+		
+		private Entry(Secs1MessageBlock first, long deadline) {
+			this.blocks.add(first);
+			this.deadline = deadline;
+		}
+		
+		private Secs1MessageBlock last() {
+			return this.blocks.get(this.blocks.size() - 1);
+		}
+	}
+	
+}
@@ -1,18 +1,31 @@
 package com.shimizukenta.secs.secs1;
 
+import java.nio.ByteBuffer;
 import java.util.ArrayList;
-import java.util.Arrays;
 import java.util.List;
-import java.util.stream.Collectors;
 
 import com.shimizukenta.secs.secs2.Secs2;
 import com.shimizukenta.secs.secs2.Secs2BuildException;
+import com.shimizukenta.secs.secs2.Secs2BytesEncoder;
 import com.shimizukenta.secs.secs2.Secs2BytesPackBuilder;
 import com.shimizukenta.secs.secs2.Secs2BytesParser;
 import com.shimizukenta.secs.secs2.Secs2Exception;
 
+/**
+ * This class is converter between Secs1Message and blocks.
+ * 
+ * <p>
+ * SECS-II is encoded directly into block frames, checksum is computed while writing.<br />
+ * Received blocks are parsed across block bodies, bodies are not copied or concatenated.<br />
+ * </p>
+ * 
+ * @author kenta-shimizu
+ *
+ */
 public class Secs1MessageBlockConverter {
 	
+	private static final int BODY_SIZE = 244;
+	
 	private Secs1MessageBlockConverter() {
 		/* Nothing */
 	}
@@ -37,92 +50,213 @@ public class Secs1MessageBlockConverter {
 	private List<Secs1MessageBlock> _toBlocks(Secs1Message msg) throws Secs1SendMessageException {
 		
 		try {
-			final List<Secs1MessageBlock> blocks = new ArrayList<>();
-			
 			byte[] head = msg.header10Bytes();
 			
 			if ( head.length != 10 ) {
 				throw new IllegalArgumentException("head not 10 bytes");
 			}
 			
-			final List<byte[]> ll = Secs2BytesPackBuilder.build(244, msg.secs2()).getBytes();
+			final long len = Secs2BytesEncoder.getInstance().encodedLength(msg.secs2());
+			final long blockCount = len == 0L ? 1L : ((len + (long)(BODY_SIZE) - 1L) / (long)(BODY_SIZE));
 			
-			if ( ll.size() > 0x7FFE) {
+			if ( blockCount > 0x7FFEL ) {
 				throw new Secs1TooBigSendMessageException(msg);
 			}
 			
-			int blockNum = Secs1MessageBlock.ONE;
-			int m = ll.size() - 1;
-			
-			for ( int i = 0; i < m; ++i ) {
-				blocks.add(buildBlock(head, ll.get(i), false, blockNum));
-				++ blockNum;
-			}
+			final BlockFrameBuilder builder = new BlockFrameBuilder(head, (int)len, (int)blockCount);
 			
-			blocks.add(buildBlock(head, ll.get(m), true, blockNum));
+			builder.build(msg.secs2());
 			
-			return blocks;
+			return builder.blocks;
 		}
 		catch (Secs2BuildException e) {
 			throw new Secs1SendMessageException(msg, e);
 		}
 	}
 	
-	private Secs1MessageBlock buildBlock(byte[] head, byte[] body, boolean ebit, int blockNumber) {
+	private Secs1Message _toSecs1Message(List<Secs1MessageBlock> blocks) throws Secs2Exception {
 		
-		int len = head.length + body.length;
+		byte[] head = blocks.get(blocks.size() - 1).header10Bytes();
 		
-		int sum = 0;
+		final ByteBuffer[] buffers = new ByteBuffer[blocks.size()];
 		
-		byte[] bs = new byte[len + 3];
+		for ( int i = 0, m = buffers.length; i < m; ++i ) {
+			buffers[i] = blocks.get(i).bodyBuffer();
+		}
 		
-		bs[0] = (byte)len;
-		bs[1] = head[0];
-		bs[2] = head[1];
-		bs[3] = head[2];
-		bs[4] = head[3];
+		Secs2 body = Secs2BytesParser.getInstance().parse(buffers);
 		
-		bs[5] = (byte)(blockNumber >> 8);
-		if ( ebit ) {
-			bs[5] |= (byte)0x80;
-		}
+		return new Secs1Message(head, body);
+	}
+	
+	/**
+	 * Builder of block frames, SECS-II bytes are put directly into frame.
+	 * 
+	 * <p>
+	 * Frame is length byte, header 10 bytes, body and checksum 2 bytes.<br />
+	 * </p>
+	 *
+	 */
+	private static class BlockFrameBuilder extends Secs2BytesPackBuilder {
 		
-		bs[6] = (byte)blockNumber;
+		private final byte[] head;
+		private final int blockCount;
+		private final List<Secs1MessageBlock> blocks;
 		
-		bs[7] = head[6];
-		bs[8] = head[7];
-		bs[9] = head[8];
-		bs[10] = head[9];
+		private int remaining;
+		private int blockNumber;
+		private byte[] frame;
+		private int pos;
+		private int end;
+		private int sum;
 		
-		int pos = 1;
-		for (; pos < 11; ++pos) {
-			sum += (int)(bs[pos]) & 0xFF;
+		private BlockFrameBuilder(byte[] head, int length, int blockCount) {
+			super();
+			this.head = head;
+			this.blockCount = blockCount;
+			this.blocks = new ArrayList<>(blockCount);
+			this.remaining = length;
+			this.blockNumber = Secs1MessageBlock.ONE - 1;
+			this.frame = null;
 		}
 		
-		for (int i = 0, m = body.length; i < m; ++pos, ++i) {
-			byte b = body[i];
-			bs[pos] = b;
-			sum += ((int)b) & 0xFF;
+		private void build(Secs2 secs2) throws Secs2BuildException {
+			
+			nextFrame();
+			
+			if ( this.pos < this.end ) {
+				this.putSecs2(secs2);
+			}
+			
+			if ( this.pos != this.end || this.blockNumber != this.blockCount ) {
+				throw new Secs2BuildException("encoded length not matched");
+			}
+		}
+		
+		private void nextFrame() {
+			
+			final int n = Math.min(this.remaining, BODY_SIZE);
+			this.remaining -= n;
+			this.blockNumber += 1;
+			
+			final byte[] bs = new byte[n + 13];
+			
+			bs[0] = (byte)(n + 10);
+			bs[1] = head[0];
+			bs[2] = head[1];
+			bs[3] = head[2];
+			bs[4] = head[3];
+			
+			bs[5] = (byte)(this.blockNumber >> 8);
+			if ( this.remaining == 0 ) {
+				bs[5] |= (byte)0x80;
+			}
+			
+			bs[6] = (byte)this.blockNumber;
+			
+			bs[7] = head[6];
+			bs[8] = head[7];
+			bs[9] = head[8];
+			bs[10] = head[9];
+			
+			int s = 0;
+			for ( int i = 1; i < 11; ++i ) {
+				s += (int)(bs[i]) & 0xFF;
+			}
+			
+			this.frame = bs;
+			this.pos = 11;
+			this.end = n + 11;
+			this.sum = s;
+			
+			if ( n == 0 ) {
+				closeFrame();
+			}
 		}
 		
-		bs[pos] = (byte)(sum >> 8);
-		bs[pos + 1] = (byte)sum;
+		private void closeFrame() {
+			
+			this.frame[this.end] = (byte)(this.sum >> 8);
+			this.frame[this.end + 1] = (byte)this.sum;
+			
+			this.blocks.add(Secs1MessageBlock.wrap(this.frame));
+		}
 		
-		return new Secs1MessageBlock(bs);
-	}
-	
-	private Secs1Message _toSecs1Message(List<Secs1MessageBlock> blocks) throws Secs2Exception {
+		/**
+		 * Returns writable size of present frame, goes to next frame if full.
+		 * 
+		 * @return writable size of present frame
+		 */
+		private int writable() {
+			
+			if ( this.pos >= this.end ) {
+				
+				if ( this.remaining <= 0 ) {
+					throw new IllegalStateException("over encoded length");
+				}
+				
+				nextFrame();
+			}
+			
+			return this.end - this.pos;
+		}
 		
-		byte[] head = Arrays.copyOfRange(blocks.get(blocks.size() - 1).getBytes(), 1, 11);
+		private void written(int n) {
+			
+			this.pos += n;
+			
+			if ( this.pos == this.end ) {
+				closeFrame();
+			}
+		}
 		
-		List<byte[]> bss = blocks.stream()
-				.map(Secs1MessageBlock::getBytes)
-				.map(bs -> Arrays.copyOfRange(bs, 11, bs.length - 2))
-				.collect(Collectors.toList());
+		@Override
+		protected void put(byte b) {
+			
+			writable();
+			
+			this.frame[this.pos] = b;
+			this.sum += ((int)b) & 0xFF;
+			
+			written(1);
+		}
 		
-		Secs2 body = Secs2BytesParser.getInstance().parse(bss);
+		@Override
+		protected void put(byte[] bs, int offset, int length) {
+			
+			for ( int i = offset, m = offset + length; i < m; ) {
+				
+				final int n = Math.min(writable(), m - i);
+				final int p = this.pos;
+				
+				System.arraycopy(bs, i, this.frame, p, n);
+				
+				for ( int k = p, km = p + n; k < km; ++k ) {
+					this.sum += ((int)(this.frame[k])) & 0xFF;
+				}
+				
+				i += n;
+				written(n);
+			}
+		}
 		
-		return new Secs1Message(head, body);
+		@Override
+		protected void put(ByteBuffer buffer) {
+			
+			while ( buffer.hasRemaining() ) {
+				
+				final int n = Math.min(writable(), buffer.remaining());
+				final int p = this.pos;
+				
+				buffer.get(this.frame, p, n);
+				
+				for ( int k = p, km = p + n; k < km; ++k ) {
+					this.sum += ((int)(this.frame[k])) & 0xFF;
+				}
+				
+				written(n);
+			}
+		}
 	}
 	
 }
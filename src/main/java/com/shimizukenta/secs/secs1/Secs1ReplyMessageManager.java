@@ -33,6 +33,18 @@ public final class Secs1ReplyMessageManager {
 		}
 	}
 	
+	/**
+	 * Returns {@code true} if Primary-Message of System-Bytes is waiting Reply-Message.
+	 * 
+	 * @param systemBytesKey
+	 * @return {@code true} if in flight
+	 */
+	public boolean contains(Integer systemBytesKey) {
+		synchronized ( packMap ) {
+			return packMap.containsKey(systemBytesKey);
+		}
+	}
+	
 	private Pack getPack(Secs1Message msg) {
 		synchronized ( packMap ) {
 			return getPack(msg.systemBytesKey());
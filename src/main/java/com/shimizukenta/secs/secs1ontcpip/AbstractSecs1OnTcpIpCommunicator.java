@@ -15,6 +15,7 @@ import java.util.Objects;
 import java.util.concurrent.Callable;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
 
 import com.shimizukenta.secs.SecsException;
 import com.shimizukenta.secs.SecsSendMessageException;
@@ -58,7 +59,7 @@ public abstract class AbstractSecs1OnTcpIpCommunicator extends AbstractSecs1Comm
 	private void connect() throws InterruptedException {
 		
 		try (
-				AsynchronousSocketChannel channel = AsynchronousSocketChannel.open();
+				AsynchronousSocketChannel channel = AsynchronousSocketChannel.open(channelGroup());
 				) {
 			
 			SocketAddress socketAddr = secs1OnTcpIpConfig.socketAddress().getSocketAddress();
@@ -70,6 +71,19 @@ public abstract class AbstractSecs1OnTcpIpCommunicator extends AbstractSecs1Comm
 				@Override
 				public void completed(Void none, Void attachment) {
 					
+					/* not to block channel-group thread while connected */
+					try {
+						executorService().execute(this::connected);
+					}
+					catch ( RejectedExecutionException e ) {
+						synchronized ( channel ) {
+							channel.notifyAll();
+						}
+					}
+				}
+				
+				private void connected() {
+					
 					SocketAddress local = null;
 					SocketAddress remote = null;
 					
@@ -166,11 +180,7 @@ public abstract class AbstractSecs1OnTcpIpCommunicator extends AbstractSecs1Comm
 					
 					((Buffer)buffer).flip();
 					
-					byte[] bs = new byte[buffer.remaining()];
-					
-					buffer.get(bs);
-					
-					putBytes(bs);
+					putBytes(buffer);
 				}
 				catch ( InterruptedException e ) {
 					f.cancel(true);
@@ -16,6 +16,7 @@ import java.util.Objects;
 import java.util.concurrent.Callable;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
 
 import com.shimizukenta.secs.SecsException;
 import com.shimizukenta.secs.SecsSendMessageException;
@@ -52,7 +53,7 @@ public abstract class AbstractSecs1OnTcpIpReceiverCommunicator extends AbstractS
 	private void bind() throws InterruptedException {
 		
 		try (
-				AsynchronousServerSocketChannel server = AsynchronousServerSocketChannel.open();
+				AsynchronousServerSocketChannel server = AsynchronousServerSocketChannel.open(channelGroup());
 				) {
 			
 			SocketAddress gLocal = config.socketAddress().getSocketAddress();
@@ -72,6 +73,23 @@ public abstract class AbstractSecs1OnTcpIpReceiverCommunicator extends AbstractS
 					
 					server.accept(attachment, this);
 					
+					/* not to block channel-group thread while connected */
+					try {
+						executorService().execute(() -> {
+							accepted(channel);
+						});
+					}
+					catch ( RejectedExecutionException e ) {
+						try {
+							channel.close();
+						}
+						catch ( IOException giveup ) {
+						}
+					}
+				}
+				
+				private void accepted(AsynchronousSocketChannel channel) {
+					
 					SocketAddress pLocal = null;
 					SocketAddress remote = null;
 					
@@ -175,11 +193,7 @@ public abstract class AbstractSecs1OnTcpIpReceiverCommunicator extends AbstractS
 					
 					((Buffer)buffer).flip();
 					
-					byte[] bs = new byte[buffer.remaining()];
-					
-					buffer.get(bs);
-					
-					putBytes(bs);
+					putBytes(buffer);
 				}
 				catch ( InterruptedException e ) {
 					f.cancel(true);
@@ -1,11 +1,13 @@
 package com.shimizukenta.secs.secs2;
 
+import java.io.IOException;
 import java.io.Serializable;
+import java.io.UncheckedIOException;
 import java.math.BigInteger;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.Iterator;
-import java.util.LinkedList;
-import java.util.stream.IntStream;
 import java.util.stream.Stream;
 
 public abstract class AbstractSecs2 implements Secs2, Serializable {
@@ -25,42 +27,161 @@ public abstract class AbstractSecs2 implements Secs2, Serializable {
 	
 	protected void putHeaderBytesToBytesPack(Secs2BytesPackBuilder builder, int length) throws Secs2BuildException {
 		
+		final int n = headerBytesLength(length);
+		
+		builder.put((byte)(secs2Item().code() | (n - 1)));
+		
+		for ( int i = n - 2; i >= 0; --i ) {
+			builder.put((byte)(length >> (i * 8)));
+		}
+	}
+	
+	/**
+	 * Returns header bytes length, item-type byte and length bytes.
+	 * 
+	 * @param length
+	 * @return header bytes length
+	 * @throws Secs2LengthByteOutOfRangeException
+	 */
+	protected static int headerBytesLength(int length) throws Secs2LengthByteOutOfRangeException {
+		
 		if ( length > 0xFFFFFF || length < 0 ) {
 			throw new Secs2LengthByteOutOfRangeException("length: " + length);
 		}
 		
-		byte b = secs2Item().code();
-		
 		if ( length > 0xFFFF ) {
-			
-			builder.put(new byte[] {
-					(byte)(b | 0x3),
-					(byte)(length >> 16),
-					(byte)(length >> 8),
-					(byte)(length)
-			});
-			
-		} else if ( length > 0xFF) {
-			
-			builder.put(new byte[] {
-					(byte)(b | 0x2),
-					(byte)(length >> 8),
-					(byte)(length)
-			});
-			
+			return 4;
+		} else if ( length > 0xFF ) {
+			return 3;
 		} else {
+			return 2;
+		}
+	}
+	
+	private transient long encodedLength;
+	
+	/**
+	 * Returns encoded bytes length, header and body.
+	 * 
+	 * <p>
+	 * Length is cached.<br />
+	 * </p>
+	 * 
+	 * @return encoded bytes length
+	 * @throws Secs2BuildException
+	 */
+	protected long encodedLength() throws Secs2BuildException {
+		
+		long len = this.encodedLength;
+		
+		if ( len == 0L ) {
+			len = calcEncodedLength();
+			this.encodedLength = len;
+		}
+		
+		return len;
+	}
+	
+	protected long calcEncodedLength() throws Secs2BuildException {
+		
+		final byte[] body = bodyBytes();
+		
+		if ( body == null ) {
 			
-			builder.put(new byte[] {
-					(byte)(b | 0x1),
-					(byte)(length)
-			});
+			/* subclass which only puts bytes-pack */
+			final CountingBuilder builder = new CountingBuilder();
+			this.putBytesPack(builder);
+			return builder.count;
 		}
+		
+		final int n = body.length;
+		return (long)(headerBytesLength(n) + n);
 	}
 	
-	private static LinkedList<Integer> createLinkedList(int... indices) {
-		LinkedList<Integer> ll = new LinkedList<>();
-		IntStream.of(indices).boxed().forEach(ll::add);
-		return ll;
+	/**
+	 * Write encoded bytes to buffer.
+	 * 
+	 * <p>
+	 * Buffer must have {@link #encodedLength()} remaining.<br />
+	 * </p>
+	 * 
+	 * @param buffer
+	 * @throws Secs2BuildException
+	 */
+	protected void encode(ByteBuffer buffer) throws Secs2BuildException {
+		
+		final byte[] body = bodyBytes();
+		
+		if ( body == null ) {
+			
+			/* subclass which only puts bytes-pack */
+			this.putBytesPack(new ByteBufferBuilder(buffer));
+			return;
+		}
+		
+		encodeHeader(buffer, body.length);
+		buffer.put(body);
+	}
+	
+	private static class CountingBuilder extends Secs2BytesPackBuilder {
+		
+		private long count;
+		
+		private CountingBuilder() {
+			super();
+			this.count = 0L;
+		}
+		
+		@Override
+		protected void put(byte b) {
+			++ this.count;
+		}
+		
+		@Override
+		protected void put(byte[] bs, int offset, int length) {
+			this.count += (long)length;
+		}
+		
+		@Override
+		protected void put(ByteBuffer buffer) {
+			this.count += (long)(buffer.remaining());
+		}
+	}
+	
+	private static class ByteBufferBuilder extends Secs2BytesPackBuilder {
+		
+		private final ByteBuffer buffer;
+		
+		private ByteBufferBuilder(ByteBuffer buffer) {
+			super();
+			this.buffer = buffer;
+		}
+		
+		@Override
+		protected void put(byte b) {
+			this.buffer.put(b);
+		}
+		
+		@Override
+		protected void put(byte[] bs, int offset, int length) {
+			this.buffer.put(bs, offset, length);
+		}
+		
+		@Override
+		protected void put(ByteBuffer src) {
+			this.buffer.put(src);
+		}
+	}
+	
+	protected void encodeHeader(ByteBuffer buffer, int length) throws Secs2BuildException {
+		
+		final int n = headerBytesLength(length);
+		
+		buffer.put((byte)(secs2Item().code() | (n - 1)));
+		
+		for ( int i = n - 2; i >= 0; --i ) {
+			buffer.put((byte)(length >> (i * 8)));
+		}
 	}
 	
 	@Override
@@ -85,20 +206,51 @@ public abstract class AbstractSecs2 implements Secs2, Serializable {
 	
 	@Override
 	public final Secs2 get(int... indices) throws Secs2Exception {
-		return get(createLinkedList(indices));
+		return get(indices, indices.length);
 	}
 	
-	protected AbstractSecs2 get(LinkedList<Integer> list) throws Secs2Exception {
-		if ( list.isEmpty() ) {
-			return this;
-		} else {
-			throw new Secs2IrregalDataFormatException("Not Secs2List");
+	/**
+	 * Returns item of list.
+	 * 
+	 * @param index
+	 * @return item of list
+	 * @throws Secs2Exception if not list or index out of bounds
+	 */
+	protected AbstractSecs2 getItem(int index) throws Secs2Exception {
+		throw new Secs2IrregalDataFormatException("Not Secs2List");
+	}
+	
+	/**
+	 * Returns item of path, first {@code length} indices.
+	 * 
+	 * @param indices
+	 * @param length
+	 * @return item of path
+	 * @throws Secs2Exception
+	 */
+	protected final AbstractSecs2 get(int[] indices, int length) throws Secs2Exception {
+		
+		AbstractSecs2 ss = this;
+		
+		for ( int i = 0; i < length; ++i ) {
+			ss = ss.getItem(indices[i]);
+		}
+		
+		return ss;
+	}
+	
+	private static int lastIndex(int[] indices) throws Secs2IndexOutOfBoundsException {
+		
+		if ( indices.length == 0 ) {
+			throw new Secs2IndexOutOfBoundsException("indices is empty");
 		}
+		
+		return indices[indices.length - 1];
 	}
 	
 	@Override
 	public final String getAscii(int... indices) throws Secs2Exception {
-		return get(indices).getAscii();
+		return get(indices, indices.length).getAscii();
 	}
 	
 	@Override
@@ -108,9 +260,7 @@ public abstract class AbstractSecs2 implements Secs2, Serializable {
 	
 	@Override
 	public final byte getByte(int... indices) throws Secs2Exception {
-		LinkedList<Integer> list = createLinkedList(indices);
-		int lastIndex = list.removeLast();
-		return get(list).getByte(lastIndex);
+		return get(indices, indices.length - 1).getByte(lastIndex(indices));
 	}
 	
 	protected byte getByte(int index) throws Secs2Exception {
@@ -119,9 +269,7 @@ public abstract class AbstractSecs2 implements Secs2, Serializable {
 	
 	@Override
 	public final boolean getBoolean(int... indices) throws Secs2Exception {
-		LinkedList<Integer> list = createLinkedList(indices);
-		int lastIndex = list.removeLast();
-		return get(list).getBoolean(lastIndex);
+		return get(indices, indices.length - 1).getBoolean(lastIndex(indices));
 	}
 	
 	protected boolean getBoolean(int index) throws Secs2Exception {
@@ -130,9 +278,7 @@ public abstract class AbstractSecs2 implements Secs2, Serializable {
 	
 	@Override
 	public final int getInt(int... indices) throws Secs2Exception {
-		LinkedList<Integer> list = createLinkedList(indices);
-		int lastIndex = list.removeLast();
-		return get(list).getInt(lastIndex);
+		return get(indices, indices.length - 1).getInt(lastIndex(indices));
 	}
 	
 	protected int getInt(int index) throws Secs2Exception {
@@ -141,9 +287,7 @@ public abstract class AbstractSecs2 implements Secs2, Serializable {
 	
 	@Override
 	public final long getLong(int... indices) throws Secs2Exception {
-		LinkedList<Integer> list = createLinkedList(indices);
-		int lastIndex = list.removeLast();
-		return get(list).getLong(lastIndex);
+		return get(indices, indices.length - 1).getLong(lastIndex(indices));
 	}
 	
 	protected long getLong(int index) throws Secs2Exception {
@@ -152,9 +296,7 @@ public abstract class AbstractSecs2 implements Secs2, Serializable {
 	
 	@Override
 	public final BigInteger getBigInteger(int... indices) throws Secs2Exception {
-		LinkedList<Integer> list = createLinkedList(indices);
-		int lastIndex = list.removeLast();
-		return get(list).getBigInteger(lastIndex);
+		return get(indices, indices.length - 1).getBigInteger(lastIndex(indices));
 	}
 	
 	protected BigInteger getBigInteger(int index) throws Secs2Exception {
@@ -163,9 +305,7 @@ public abstract class AbstractSecs2 implements Secs2, Serializable {
 	
 	@Override
 	public final float getFloat(int... indices) throws Secs2Exception {
-		LinkedList<Integer> list = createLinkedList(indices);
-		int lastIndex = list.removeLast();
-		return get(list).getFloat(lastIndex);
+		return get(indices, indices.length - 1).getFloat(lastIndex(indices));
 	}
 	
 	protected float getFloat(int index) throws Secs2Exception {
@@ -174,52 +314,244 @@ public abstract class AbstractSecs2 implements Secs2, Serializable {
 	
 	@Override
 	public final double getDouble(int... indices) throws Secs2Exception {
-		LinkedList<Integer> list = createLinkedList(indices);
-		int lastIndex = list.removeLast();
-		return get(list).getDouble(lastIndex);
+		return get(indices, indices.length - 1).getDouble(lastIndex(indices));
 	}
 	
 	protected double getDouble(int index) throws Secs2Exception {
 		throw new Secs2IrregalDataFormatException("Not Secs2Double");
 	}
 	
+	@Override
+	public final int[] getInts(int... indices) throws Secs2Exception {
+		return get(indices, indices.length).getInts();
+	}
+	
+	@Override
+	public int[] getInts() throws Secs2Exception {
+		throw new Secs2IrregalDataFormatException("Not Secs2Number");
+	}
+	
+	@Override
+	public final long[] getLongs(int... indices) throws Secs2Exception {
+		return get(indices, indices.length).getLongs();
+	}
+	
+	@Override
+	public long[] getLongs() throws Secs2Exception {
+		throw new Secs2IrregalDataFormatException("Not Secs2Number");
+	}
+	
+	@Override
+	public final double[] getDoubles(int... indices) throws Secs2Exception {
+		return get(indices, indices.length).getDoubles();
+	}
+	
+	@Override
+	public double[] getDoubles() throws Secs2Exception {
+		throw new Secs2IrregalDataFormatException("Not Secs2Number");
+	}
+	
 	@Override
 	public String toString() {
 		
-		return new StringBuilder("<")
-				.append(secs2Item().symbol())
-				.append(" [")
-				.append(toStringSize())
-				.append("] ")
-				.append(toStringValue())
-				.append(">")
-				.toString();
+		final StringBuilder sb = new StringBuilder();
+		
+		try {
+			writeSml(sb);
+		}
+		catch ( IOException e ) {
+			throw new UncheckedIOException(e);
+		}
+		
+		return sb.toString();
+	}
+	
+	@Override
+	public void writeSml(Appendable appendable) throws IOException {
+		writeSml(appendable, 0);
+	}
+	
+	/**
+	 * Write SML-String with indent level.
+	 * 
+	 * @param appendable
+	 * @param level indent level
+	 * @throws IOException
+	 */
+	protected void writeSml(Appendable appendable, int level) throws IOException {
+		
+		appendIndent(appendable, level);
+		
+		appendable.append('<')
+		.append(secs2Item().symbol())
+		.append(" [")
+		.append(String.valueOf(toStringSize()))
+		.append("] ");
+		
+		writeSmlValue(appendable);
+		
+		appendable.append('>');
+	}
+	
+	private static final String INDENT = "  ";
+	
+	protected static void appendIndent(Appendable appendable, int level) throws IOException {
+		for ( int i = 0; i < level; ++i ) {
+			appendable.append(INDENT);
+		}
 	}
 	
 	protected int toStringSize() {
 		return size();
 	}
 	
-	protected abstract String toStringValue();
-	
+	/**
+	 * Write values of SML-String.
+	 * 
+	 * @param appendable
+	 * @throws IOException
+	 */
+	abstract protected void writeSmlValue(Appendable appendable) throws IOException;
 	
 	@Override
 	public String toJson() {
-		return "{\"f\":\"" + secs2Item().symbol() +  "\",\"v\":" + toJsonValue() + "}";
+		
+		final StringBuilder sb = new StringBuilder();
+		
+		try {
+			writeJson(sb);
+		}
+		catch ( IOException e ) {
+			throw new UncheckedIOException(e);
+		}
+		
+		return sb.toString();
+	}
+	
+	@Override
+	public void writeJson(Appendable appendable) throws IOException {
+		
+		appendable.append("{\"f\":\"")
+		.append(secs2Item().symbol())
+		.append("\",\"v\":");
+		
+		writeJsonValue(appendable);
+		
+		appendable.append('}');
 	}
 	
-	abstract protected String toJsonValue();
+	/**
+	 * Write value of JSON-String.
+	 * 
+	 * @param appendable
+	 * @throws IOException
+	 */
+	abstract protected void writeJsonValue(Appendable appendable) throws IOException;
+	
+	/**
+	 * Returns encoded body bytes, for encoding and structural equality.
+	 * 
+	 * <p>
+	 * Returned bytes must not be modified.<br />
+	 * Returns {@code null} if body is not fixed, for example list or dynamic value.
+	 * Encoding falls back to {@link #putBytesPack(Secs2BytesPackBuilder)}.<br />
+	 * </p>
+	 * 
+	 * @return encoded body bytes, or {@code null}
+	 */
+	protected byte[] bodyBytes() {
+		return null;
+	}
+	
+	/**
+	 * Returns item to compare structure.
+	 * 
+	 * <p>
+	 * Override if this item is a view of another item.<br />
+	 * </p>
+	 * 
+	 * @return item to compare structure
+	 */
+	protected AbstractSecs2 structure() {
+		return this;
+	}
+	
+	/**
+	 * Returns {@code true} if value equals, item-type is already checked.
+	 * 
+	 * @param other
+	 * @return {@code true} if value equals
+	 */
+	protected boolean equalsValue(AbstractSecs2 other) {
+		
+		final byte[] a = bodyBytes();
+		final byte[] b = other.bodyBytes();
+		
+		if ( a == null || b == null ) {
+			return false;
+		}
+		
+		return Arrays.equals(a, b);
+	}
+	
+	protected int hashValue() {
+		return Arrays.hashCode(bodyBytes());
+	}
+	
+	private transient int hash;
 	
 	@Override
 	public int hashCode() {
-		return toJson().hashCode();
+		
+		final AbstractSecs2 ss = structure();
+		
+		if ( ss != this ) {
+			return ss.hashCode();
+		}
+		
+		int h = this.hash;
+		
+		if ( h == 0 ) {
+			
+			h = 31 * secs2Item().code() + hashValue();
+			
+			if ( h == 0 ) {
+				h = 1;
+			}
+			
+			this.hash = h;
+		}
+		
+		return h;
 	}
 	
 	@Override
 	public boolean equals(Object o) {
-		if (o != null && (o instanceof AbstractSecs2)) {
-			return ((AbstractSecs2)o).toJson().equals(toJson());
+		
+		if ( this == o ) {
+			return true;
 		}
+		
+		if ( o != null && (o instanceof AbstractSecs2) ) {
+			
+			final AbstractSecs2 a = structure();
+			final AbstractSecs2 b = ((AbstractSecs2)o).structure();
+			
+			if ( a == b ) {
+				return true;
+			}
+			
+			if ( a.secs2Item() != b.secs2Item() ) {
+				return false;
+			}
+			
+			if ( a.hash != 0 && b.hash != 0 && a.hash != b.hash ) {
+				return false;
+			}
+			
+			return a.equalsValue(b);
+		}
+		
 		return false;
 	}
 	
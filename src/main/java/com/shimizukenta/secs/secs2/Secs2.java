@@ -1,5 +1,6 @@
 package com.shimizukenta.secs.secs2;
 
+import java.io.IOException;
 import java.math.BigInteger;
 import java.util.List;
 import java.util.stream.Stream;
@@ -55,6 +56,30 @@ public interface Secs2 extends Iterable<Secs2> {
 	 */
 	public String toJson();
 	
+	/**
+	 * Write SML-String to appendable, same as {@link #toString()}.
+	 * 
+	 * <p>
+	 * Written directly, without building whole String.<br />
+	 * </p>
+	 * 
+	 * @param appendable
+	 * @throws IOException
+	 */
+	public void writeSml(Appendable appendable) throws IOException;
+	
+	/**
+	 * Write JSON-String to appendable, same as {@link #toJson()}.
+	 * 
+	 * <p>
+	 * Written directly, without building whole String.<br />
+	 * </p>
+	 * 
+	 * @param appendable
+	 * @throws IOException
+	 */
+	public void writeJson(Appendable appendable) throws IOException;
+	
 	/**
 	 * return this
 	 * 
@@ -160,6 +185,60 @@ public interface Secs2 extends Iterable<Secs2> {
 	 * @throws Secs2Exception if parse failed
 	 */
 	public double getDouble( int... indices1 ) throws Secs2Exception;
+	
+	/**
+	 * Returns all Numeric-values of nested item by indices,
+	 * Available if type is "I1","I2","I4","I8","F4","F8","U1","U2","U4","U8"
+	 * 
+	 * @param indices
+	 * @return (int)values
+	 * @throws Secs2Exception if parse failed
+	 */
+	public int[] getInts( int... indices ) throws Secs2Exception;
+	
+	/**
+	 * Returns all Numeric-values, {@code getInts()} is same as {@code getInts(new int[0])}
+	 * 
+	 * @return (int)values
+	 * @throws Secs2Exception if not numeric
+	 */
+	public int[] getInts() throws Secs2Exception;
+	
+	/**
+	 * Returns all Numeric-values of nested item by indices,
+	 * Available if type is "I1","I2","I4","I8","F4","F8","U1","U2","U4","U8"
+	 * 
+	 * @param indices
+	 * @return (long)values
+	 * @throws Secs2Exception if parse failed
+	 */
+	public long[] getLongs( int... indices ) throws Secs2Exception;
+	
+	/**
+	 * Returns all Numeric-values, {@code getLongs()} is same as {@code getLongs(new int[0])}
+	 * 
+	 * @return (long)values
+	 * @throws Secs2Exception if not numeric
+	 */
+	public long[] getLongs() throws Secs2Exception;
+	
+	/**
+	 * Returns all Numeric-values of nested item by indices,
+	 * Available if type is "I1","I2","I4","I8","F4","F8","U1","U2","U4","U8"
+	 * 
+	 * @param indices
+	 * @return (double)values
+	 * @throws Secs2Exception if parse failed
+	 */
+	public double[] getDoubles( int... indices ) throws Secs2Exception;
+	
+	/**
+	 * Returns all Numeric-values, {@code getDoubles()} is same as {@code getDoubles(new int[0])}
+	 * 
+	 * @return (double)values
+	 * @throws Secs2Exception if not numeric
+	 */
+	public double[] getDoubles() throws Secs2Exception;
 
 	
 	/* builder */
@@ -1,6 +1,5 @@
 package com.shimizukenta.secs.secs2;
 
-import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.nio.charset.Charset;
 import java.nio.charset.StandardCharsets;
@@ -38,6 +37,11 @@ public class Secs2Ascii extends AbstractSecs2 {
 		return ascii().length();
 	}
 	
+	@Override
+	protected byte[] bodyBytes() {
+		return bytes();
+	}
+	
 	@Override
 	protected void putBytesPack(Secs2BytesPackBuilder builder) throws Secs2BuildException {
 		putHeadAndBodyBytesToBytesPack(builder, bytes());
@@ -70,74 +74,64 @@ public class Secs2Ascii extends AbstractSecs2 {
 	}
 	
 	@Override
-	protected String toJsonValue() {
-		return "\"" + escapeJsonString(ascii()) + "\"";
-	}
-	
-	
-	private static final byte BACKSLASH = 0x5C;
-	private static final byte[] BS = new byte[]{BACKSLASH, 0x62};	/* \\b */
-	private static final byte[] HT = new byte[]{BACKSLASH, 0x74};	/* \\t */
-	private static final byte[] LF = new byte[]{BACKSLASH, 0x6E};	/* \\n */
-	private static final byte[] FF = new byte[]{BACKSLASH, 0x66};	/* \\f */
-	private static final byte[] CR = new byte[]{BACKSLASH, 0x72};	/* \\r */
-	
-	private static final String escapeJsonString(CharSequence cs) {
+	protected void writeJsonValue(Appendable appendable) throws IOException {
 		
-		try (
-				ByteArrayOutputStream strm = new ByteArrayOutputStream();
-				) {
-			
-			byte[] bb = cs.toString().getBytes(StandardCharsets.US_ASCII);
+		appendable.append('"');
+		
+		for ( byte b : bytes() ) {
 			
-			for (byte b : bb) {
+			if (b == 0x08 /* BS */) {
+				
+				appendable.append(BS);
+				
+			} else if (b == 0x09 /* HT */) {
+				
+				appendable.append(HT);
+				
+			} else if (b == 0x0A /* LF */) {
 				
-				if (b == 0x08 /* BS */) {
-					
-					strm.write(BS);
-					
-				} else if (b == 0x09 /* HT */) {
-					
-					strm.write(HT);
-					
-				} else if (b == 0x0A /* LF */) {
-					
-					strm.write(LF);
-					
-				} else if (b == 0x0C /* FF */) {
-					
-					strm.write(FF);
-					
-				} else if (b == 0x0D /* CR */) {
-					
-					strm.write(CR);
-					
-				} else if (
-						b == 0x22 /* " */
-						|| b == 0x2F /* / */
-						|| b == BACKSLASH /* \\ */
-						) {
-					
-					strm.write(BACKSLASH);
-					strm.write(b);
-					
-				} else {
-					
-					strm.write(b);
-				}
+				appendable.append(LF);
+				
+			} else if (b == 0x0C /* FF */) {
+				
+				appendable.append(FF);
+				
+			} else if (b == 0x0D /* CR */) {
+				
+				appendable.append(CR);
+				
+			} else if (
+					b == 0x22 /* " */
+					|| b == 0x2F /* / */
+					|| b == BACKSLASH /* \\ */
+					) {
+				
+				appendable.append((char)BACKSLASH);
+				appendable.append((char)b);
+				
+			} else if ( b < 0 ) {
+				
+				/* not ASCII */
+				appendable.append('?');
+				
+			} else {
+				
+				appendable.append((char)b);
 			}
-			
-			return new String(strm.toByteArray(), StandardCharsets.US_ASCII);
-		}
-		catch (IOException notHappen) {
-			notHappen.printStackTrace();
 		}
 		
-		return "";
+		appendable.append('"');
 	}
 	
+	private static final byte BACKSLASH = 0x5C;
+	private static final String BS = "\\b";
+	private static final String HT = "\\t";
+	private static final String LF = "\\n";
+	private static final String FF = "\\f";
+	private static final String CR = "\\r";
+	
 	@Override
-	protected String toStringValue() {
-		return "\"" + ascii() + "\"";
+	protected void writeSmlValue(Appendable appendable) throws IOException {
+		appendable.append('"').append(ascii()).append('"');
 	}
 }
@@ -1,86 +1,177 @@
 package com.shimizukenta.secs.secs2;
 
+import java.io.IOException;
 import java.math.BigInteger;
-import java.nio.ByteBuffer;
 import java.util.Arrays;
 import java.util.List;
 import java.util.Objects;
-import java.util.stream.Collectors;
-import java.util.stream.IntStream;
-import java.util.stream.LongStream;
-import java.util.stream.Stream;
 
+/**
+ * This abstract class is integer SECS-II item, I1, I2, I4, I8, U1, U2, U4, U8.
+ * 
+ * <p>
+ * Values are stored as encoded bytes, not as BigInteger.<br />
+ * </p>
+ * 
+ * @author kenta-shimizu
+ *
+ */
 abstract public class Secs2BigInteger extends Secs2Number<BigInteger> {
 	
 	private static final long serialVersionUID = 6007516711524334157L;
-
-	public Secs2BigInteger(int... values) {
-		super();
+	
+	protected Secs2BigInteger(Secs2Item item, int... values) {
+		super(toBytes(item, values));
+	}
+	
+	protected Secs2BigInteger(Secs2Item item, long... values) {
+		super(toBytes(item, values));
+	}
+	
+	protected Secs2BigInteger(Secs2Item item, BigInteger... values) {
+		super(toBytes(item, values));
+	}
+	
+	protected Secs2BigInteger(Secs2Item item, List<? extends Number> values) {
+		super(toBytes(item, values));
+	}
+	
+	protected Secs2BigInteger(byte[] bs) {
+		super(Arrays.copyOf(Objects.requireNonNull(bs), bs.length));
+	}
+	
+	private static byte[] toBytes(Secs2Item item, int[] values) {
 		
 		Objects.requireNonNull(values);
 		
-		this.values = IntStream.of(values)
-				.mapToObj(BigInteger::valueOf)
-				.collect(Collectors.toList());
+		final int n = item.size();
+		final byte[] bs = new byte[values.length * n];
+		
+		for ( int i = 0; i < values.length; ++i ) {
+			longToBytes(bs, i * n, n, values[i]);
+		}
+		
+		return bs;
 	}
 	
-	public Secs2BigInteger(long... values) {
-		super();
+	private static byte[] toBytes(Secs2Item item, long[] values) {
 		
 		Objects.requireNonNull(values);
 		
-		this.values = LongStream.of(values)
-				.mapToObj(BigInteger::valueOf)
-				.collect(Collectors.toList());
+		final int n = item.size();
+		final byte[] bs = new byte[values.length * n];
+		
+		for ( int i = 0; i < values.length; ++i ) {
+			longToBytes(bs, i * n, n, values[i]);
+		}
+		
+		return bs;
 	}
 	
-	public Secs2BigInteger(BigInteger... values) {
-		super();
+	private static byte[] toBytes(Secs2Item item, BigInteger[] values) {
 		
 		Objects.requireNonNull(values);
 		
-		this.values = Stream.of(values).collect(Collectors.toList());
+		final int n = item.size();
+		final byte[] bs = new byte[values.length * n];
+		
+		for ( int i = 0; i < values.length; ++i ) {
+			longToBytes(bs, i * n, n, values[i].longValue());
+		}
+		
+		return bs;
 	}
 	
-	public Secs2BigInteger(List<? extends Number> values) {
-		super();
+	private static byte[] toBytes(Secs2Item item, List<? extends Number> values) {
 		
 		Objects.requireNonNull(values);
 		
-		this.values = values.stream()
-				.map(v -> {
-					if ( v instanceof BigInteger ) {
-						return (BigInteger)v;
-					} else {
-						return BigInteger.valueOf(v.longValue());
-					}
-				})
-				.collect(Collectors.toList());
+		final int n = item.size();
+		final byte[] bs = new byte[values.size() * n];
+		
+		int i = 0;
+		for ( Number v : values ) {
+			longToBytes(bs, i * n, n, v.longValue());
+			++ i;
+		}
+		
+		return bs;
 	}
 	
-	protected Secs2BigInteger(byte[] bs) {
-		super();
+	private boolean unsigned() {
+		switch ( secs2Item() ) {
+		case UINT1:
+		case UINT2:
+		case UINT4:
+		case UINT8: {
+			return true;
+		}
+		default: {
+			return false;
+		}
+		}
+	}
+	
+	/* only UINT8 can be over Long.MAX_VALUE */
+	private boolean overLong(long v) {
+		return v < 0L && unsigned();
+	}
+	
+	@Override
+	protected long longValue(int index) throws Secs2Exception {
+		return bytesToLong(bytes(), offset(index), secs2Item().size(), unsigned());
+	}
+	
+	@Override
+	protected double doubleValue(int index) throws Secs2Exception {
+		
+		long v = longValue(index);
 		
-		Objects.requireNonNull(bs);
+		if ( overLong(v) ) {
+			return toUnsignedBigInteger(v).doubleValue();
+		}
 		
-		this.bytes = Arrays.copyOf(bs, bs.length);
+		return (double)v;
 	}
 	
 	@Override
-	protected BigInteger getBigInteger(int index) throws Secs2Exception {
+	protected float getFloat(int index) throws Secs2Exception {
 		
-		try {
-			return values().get(index);
+		long v = longValue(index);
+		
+		if ( overLong(v) ) {
+			return toUnsignedBigInteger(v).floatValue();
 		}
-		catch ( IndexOutOfBoundsException e ) {
-			throw new Secs2IndexOutOfBoundsException(e);
+		
+		return (float)v;
+	}
+	
+	@Override
+	protected BigInteger getBigInteger(int index) throws Secs2Exception {
+		
+		long v = longValue(index);
+		
+		if ( overLong(v) ) {
+			return toUnsignedBigInteger(v);
 		}
+		
+		return BigInteger.valueOf(v);
 	}
 	
-	protected BigInteger getBigInteger(ByteBuffer bf, boolean unsigned) {
-		byte[] val = new byte[secs2Item().size()];
-		bf.get(val);
-		return unsigned ? new BigInteger(1, val) : new BigInteger(val);
+	private static BigInteger toUnsignedBigInteger(long v) {
+		return new BigInteger(Long.toUnsignedString(v));
 	}
-
+	
+	@Override
+	protected void appendValue(Appendable appendable, int index) throws IOException {
+		
+		final long v = bytesToLong(bytes(), index * secs2Item().size(), secs2Item().size(), unsigned());
+		
+		if ( overLong(v) ) {
+			appendable.append(Long.toUnsignedString(v));
+		} else {
+			appendable.append(String.valueOf(v));
+		}
+	}
+	
 }
@@ -1,11 +1,9 @@
 package com.shimizukenta.secs.secs2;
 
-import java.nio.ByteBuffer;
+import java.io.IOException;
 import java.util.Arrays;
-import java.util.Collections;
 import java.util.List;
 import java.util.Objects;
-import java.util.stream.Collectors;
 
 public class Secs2Binary extends Secs2Number<Byte> {
 	
@@ -18,40 +16,46 @@ public class Secs2Binary extends Secs2Number<Byte> {
 	}
 	
 	public Secs2Binary(byte... bs) {
-		super();
-		
-		Objects.requireNonNull(bs);
-		
-		this.bytes = Arrays.copyOf(bs, bs.length);
+		super(Arrays.copyOf(Objects.requireNonNull(bs), bs.length));
 	}
 	
 	public Secs2Binary(List<Byte> values) {
-		super();
+		super(toBytes(values));
+	}
+	
+	private static byte[] toBytes(List<Byte> values) {
 		
 		Objects.requireNonNull(values);
 		
-		this.values = Collections.unmodifiableList(values);
+		final byte[] bs = new byte[values.size()];
+		
+		int i = 0;
+		for ( Byte b : values ) {
+			bs[i] = b.byteValue();
+			++ i;
+		}
+		
+		return bs;
 	}
 	
 	@Override
-	protected Byte byteBufferGetter(ByteBuffer bf) {
-		return bf.get();
+	protected byte getByte(int index) throws Secs2Exception {
+		return bytes()[offset(index)];
 	}
 	
 	@Override
-	protected void byteBufferPutter(ByteBuffer bf, Byte v) {
-		bf.put(v);
+	protected long longValue(int index) throws Secs2Exception {
+		return (long)getByte(index);
 	}
 	
 	@Override
-	protected byte getByte(int index) throws Secs2Exception {
-		
-		try {
-			return values().get(index).byteValue();
-		}
-		catch ( IndexOutOfBoundsException e ) {
-			throw new Secs2IndexOutOfBoundsException(e);
-		}
+	protected double doubleValue(int index) throws Secs2Exception {
+		return (double)getByte(index);
+	}
+	
+	@Override
+	protected void appendValue(Appendable appendable, int index) throws IOException {
+		appendable.append(String.valueOf(bytes()[index]));
 	}
 	
 	@Override
@@ -59,16 +63,21 @@ public class Secs2Binary extends Secs2Number<Byte> {
 		return secs2Item;
 	}
 	
+	private static final char[] HEX = "0123456789ABCDEF".toCharArray();
+	
 	@Override
-	protected String toStringValue() {
-		try {
-			return values().stream()
-					.map(b -> String.format("%02X", b))
-					.map(s -> ("0x" + s))
-					.collect(Collectors.joining(" "));
-		}
-		catch ( Secs2Exception e ) {
-			return "PARSE_FAILED";
+	protected void writeSmlValue(Appendable appendable) throws IOException {
+		
+		final byte[] bs = bytes();
+		
+		for ( int i = 0; i < bs.length; ++i ) {
+			
+			if ( i > 0 ) {
+				appendable.append(' ');
+			}
+			
+			int b = bs[i];
+			appendable.append('0').append('x').append(HEX[(b >> 4) & 0xF]).append(HEX[b & 0xF]);
 		}
 	}
 	
@@ -1,10 +1,10 @@
 package com.shimizukenta.secs.secs2;
 
+import java.io.IOException;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
 import java.util.Objects;
-import java.util.stream.Collectors;
 
 public class Secs2Boolean extends AbstractSecs2 {
 	
@@ -62,6 +62,54 @@ public class Secs2Boolean extends AbstractSecs2 {
 	}
 	
 	
+	@Override
+	protected byte[] bodyBytes() {
+		return bytes();
+	}
+	
+	/**
+	 * Compare by boolean value, not-zero byte is TRUE.
+	 * 
+	 * <p>
+	 * Received TRUE may be 0x01, not only 0xFF.<br />
+	 * </p>
+	 */
+	@Override
+	protected boolean equalsValue(AbstractSecs2 other) {
+		
+		if ( other instanceof Secs2Boolean ) {
+			
+			final byte[] a = bytes();
+			final byte[] b = ((Secs2Boolean)other).bytes();
+			
+			if ( a.length != b.length ) {
+				return false;
+			}
+			
+			for ( int i = 0; i < a.length; ++i ) {
+				if ( (a[i] != BYTE_FALSE) != (b[i] != BYTE_FALSE) ) {
+					return false;
+				}
+			}
+			
+			return true;
+		}
+		
+		return false;
+	}
+	
+	@Override
+	protected int hashValue() {
+		
+		int h = 1;
+		
+		for ( byte b : bytes() ) {
+			h = 31 * h + (b != BYTE_FALSE ? 1231 : 1237);
+		}
+		
+		return h;
+	}
+	
 	@Override
 	protected void putBytesPack(Secs2BytesPackBuilder builder) throws Secs2BuildException {
 		this.putHeadAndBodyBytesToBytesPack(builder, bytes());
@@ -113,19 +161,39 @@ public class Secs2Boolean extends AbstractSecs2 {
 	}
 	
 	@Override
-	protected String toJsonValue() {
+	protected void writeJsonValue(Appendable appendable) throws IOException {
 		
-		return bools().stream()
-				.map(f -> (f ? "true" : "false"))
-				.collect(Collectors.joining(",", "[", "]"));
+		appendable.append('[');
+		
+		boolean first = true;
+		
+		for ( Boolean f : bools() ) {
+			
+			if ( ! first ) {
+				appendable.append(',');
+			}
+			
+			appendable.append(f.booleanValue() ? "true" : "false");
+			first = false;
+		}
+		
+		appendable.append(']');
 	}
 	
 	@Override
-	protected String toStringValue() {
+	protected void writeSmlValue(Appendable appendable) throws IOException {
+		
+		boolean first = true;
 		
-		return bools().stream()
-				.map(b -> (b ? STRING_TRUE : STRING_FALSE))
-				.collect(Collectors.joining(" "));
+		for ( Boolean b : bools() ) {
+			
+			if ( ! first ) {
+				appendable.append(' ');
+			}
+			
+			appendable.append(b.booleanValue() ? STRING_TRUE : STRING_FALSE);
+			first = false;
+		}
 	}
 
 }
@@ -8,6 +8,7 @@ import java.util.List;
  * 
  * <p>
  * To get builder instance, {@link #getInstance()}.<br />
+ * Empty items and single-byte items (B, BOOLEAN, I1, U1) are shared immutable instances.<br />
  * </p>
  * 
  * @author kenta-shimizu
@@ -23,11 +24,6 @@ public class Secs2Builder {
 		private static Secs2Builder inst = new Secs2Builder();
 		
 		private static Secs2RawBytes rawEmpty = new Secs2RawBytes();
-		private static Secs2List listEmpty = new Secs2List();
-		private static Secs2Int4 i4empty = new Secs2Int4();
-		private static Secs2Int8 i8empty = new Secs2Int8();
-		private static Secs2Uint4 u4empty = new Secs2Uint4();
-		private static Secs2Uint8 u8empty = new Secs2Uint8();
 	}
 	
 	/**
@@ -83,7 +79,7 @@ public class Secs2Builder {
 	 * @return &lt;L[0] &gt;
 	 */
 	public Secs2List list() {
-		return SingletonHolder.listEmpty;
+		return Secs2Flyweight.LIST_EMPTY;
 	}
 	
 	/**
@@ -93,6 +89,11 @@ public class Secs2Builder {
 	 * @return &lt;L[n] values &gt;
 	 */
 	public Secs2List list(Secs2... values) {
+		
+		if ( values.length == 0 ) {
+			return Secs2Flyweight.LIST_EMPTY;
+		}
+		
 		return new Secs2List(values);
 	}
 	
@@ -103,6 +104,11 @@ public class Secs2Builder {
 	 * @return &lt;L[n] values &gt;
 	 */
 	public Secs2List list(List<? extends Secs2> values) {
+		
+		if ( values.isEmpty() ) {
+			return Secs2Flyweight.LIST_EMPTY;
+		}
+		
 		return new Secs2List(values);
 	}
 	
@@ -117,6 +123,11 @@ public class Secs2Builder {
 	 * @return &lt;A[n] cs &gt;
 	 */
 	public Secs2Ascii ascii(CharSequence cs) {
+		
+		if ( cs.length() == 0 ) {
+			return Secs2Flyweight.ASCII_EMPTY;
+		}
+		
 		return new Secs2Ascii(cs);
 	}
 	
@@ -126,7 +137,7 @@ public class Secs2Builder {
 	 * @return &lt;B[0] &gt;
 	 */
 	public Secs2Binary binary() {
-		return new Secs2Binary();
+		return Secs2Flyweight.BINARY_EMPTY;
 	}
 	
 	/**
@@ -135,6 +146,15 @@ public class Secs2Builder {
 	 * @return &lt;B[n] bs &gt;
 	 */
 	public Secs2Binary binary(byte... bs) {
+		
+		if ( bs.length == 0 ) {
+			return Secs2Flyweight.BINARY_EMPTY;
+		}
+		
+		if ( bs.length == 1 ) {
+			return Secs2Flyweight.binary(bs[0]);
+		}
+		
 		return new Secs2Binary(bs);
 	}
 	
@@ -144,6 +164,15 @@ public class Secs2Builder {
 	 * @return &lt;B[n] bs &gt;
 	 */
 	public Secs2Binary binary(List<Byte> bs) {
+		
+		if ( bs.isEmpty() ) {
+			return Secs2Flyweight.BINARY_EMPTY;
+		}
+		
+		if ( bs.size() == 1 ) {
+			return Secs2Flyweight.binary(bs.get(0).byteValue());
+		}
+		
 		return new Secs2Binary(bs);
 	}
 	
@@ -153,7 +182,7 @@ public class Secs2Builder {
 	 * @return &lt;BOOLEAN[0] &gt;
 	 */
 	public AbstractSecs2 bool() {
-		return new Secs2Boolean();
+		return Secs2Flyweight.BOOLEAN_EMPTY;
 	}
 	
 	/**
@@ -162,6 +191,15 @@ public class Secs2Builder {
 	 * @return &lt;BOOLEAN[n] bools &gt;
 	 */
 	public Secs2Boolean bool(boolean... bools) {
+		
+		if ( bools.length == 0 ) {
+			return Secs2Flyweight.BOOLEAN_EMPTY;
+		}
+		
+		if ( bools.length == 1 ) {
+			return Secs2Flyweight.bool(bools[0]);
+		}
+		
 		return new Secs2Boolean(bools);
 	}
 	
@@ -171,6 +209,15 @@ public class Secs2Builder {
 	 * @return &lt;BOOLEAN[n] bools &gt;
 	 */
 	public Secs2Boolean bool(List<Boolean> bools) {
+		
+		if ( bools.isEmpty() ) {
+			return Secs2Flyweight.BOOLEAN_EMPTY;
+		}
+		
+		if ( bools.size() == 1 ) {
+			return Secs2Flyweight.bool(bools.get(0).booleanValue());
+		}
+		
 		return new Secs2Boolean(bools);
 	}
 	
@@ -180,7 +227,7 @@ public class Secs2Builder {
 	 * @return &lt;I1[0] &gt;
 	 */
 	public Secs2Int1 int1() {
-		return new Secs2Int1();
+		return Secs2Flyweight.INT1_EMPTY;
 	}
 	
 	/**
@@ -189,6 +236,20 @@ public class Secs2Builder {
 	 * @return &lt;I1[n] values &gt;
 	 */
 	public Secs2Int1 int1(int... values) {
+		
+		if ( values.length == 0 ) {
+			return Secs2Flyweight.INT1_EMPTY;
+		}
+		
+		if ( values.length == 1 ) {
+			
+			final Secs2Int1 ss = Secs2Flyweight.int1(values[0]);
+			
+			if ( ss != null ) {
+				return ss;
+			}
+		}
+		
 		return new Secs2Int1(values);
 	}
 	
@@ -198,6 +259,20 @@ public class Secs2Builder {
 	 * @return &lt;I1[n] values &gt;
 	 */
 	public Secs2Int1 int1(long... values) {
+		
+		if ( values.length == 0 ) {
+			return Secs2Flyweight.INT1_EMPTY;
+		}
+		
+		if ( values.length == 1 ) {
+			
+			final Secs2Int1 ss = Secs2Flyweight.int1(values[0]);
+			
+			if ( ss != null ) {
+				return ss;
+			}
+		}
+		
 		return new Secs2Int1(values);
 	}
 	
@@ -225,7 +300,7 @@ public class Secs2Builder {
 	 * @return &lt;I2[0] &gt;
 	 */
 	public Secs2Int2 int2() {
-		return new Secs2Int2();
+		return Secs2Flyweight.INT2_EMPTY;
 	}
 	
 	/**
@@ -270,7 +345,7 @@ public class Secs2Builder {
 	 * @return &lt;I4[0] &gt;
 	 */
 	public Secs2Int4 int4() {
-		return SingletonHolder.i4empty;
+		return Secs2Flyweight.INT4_EMPTY;
 	}
 	
 	/**
@@ -315,7 +390,7 @@ public class Secs2Builder {
 	 * @return &lt;I8[0] &gt;
 	 */
 	public Secs2Int8 int8() {
-		return SingletonHolder.i8empty;
+		return Secs2Flyweight.INT8_EMPTY;
 	}
 	
 	/**
@@ -360,7 +435,7 @@ public class Secs2Builder {
 	 * @return &lt;U1[0] &gt;
 	 */
 	public Secs2Uint1 uint1() {
-		return new Secs2Uint1();
+		return Secs2Flyweight.UINT1_EMPTY;
 	}
 	
 	/**
@@ -369,6 +444,20 @@ public class Secs2Builder {
 	 * @return &lt;U1[n] values &gt;
 	 */
 	public Secs2Uint1 uint1(int... values) {
+		
+		if ( values.length == 0 ) {
+			return Secs2Flyweight.UINT1_EMPTY;
+		}
+		
+		if ( values.length == 1 ) {
+			
+			final Secs2Uint1 ss = Secs2Flyweight.uint1(values[0]);
+			
+			if ( ss != null ) {
+				return ss;
+			}
+		}
+		
 		return new Secs2Uint1(values);
 	}
 	
@@ -378,6 +467,20 @@ public class Secs2Builder {
 	 * @return &lt;U1[n] values &gt;
 	 */
 	public Secs2Uint1 uint1(long... values) {
+		
+		if ( values.length == 0 ) {
+			return Secs2Flyweight.UINT1_EMPTY;
+		}
+		
+		if ( values.length == 1 ) {
+			
+			final Secs2Uint1 ss = Secs2Flyweight.uint1(values[0]);
+			
+			if ( ss != null ) {
+				return ss;
+			}
+		}
+		
 		return new Secs2Uint1(values);
 	}
 	
@@ -405,7 +508,7 @@ public class Secs2Builder {
 	 * @return &lt;U2[0] &gt;
 	 */
 	public Secs2Uint2 uint2() {
-		return new Secs2Uint2();
+		return Secs2Flyweight.UINT2_EMPTY;
 	}
 	
 	/**
@@ -450,7 +553,7 @@ public class Secs2Builder {
 	 * @return &lt;U4[0] &gt;
 	 */
 	public Secs2Uint4 uint4() {
-		return SingletonHolder.u4empty;
+		return Secs2Flyweight.UINT4_EMPTY;
 	}
 	
 	/**
@@ -495,7 +598,7 @@ public class Secs2Builder {
 	 * @return &lt;U8[0] &gt;
 	 */
 	public Secs2Uint8 uint8() {
-		return SingletonHolder.u8empty;
+		return Secs2Flyweight.UINT8_EMPTY;
 	}
 	
 	/**
@@ -540,7 +643,7 @@ public class Secs2Builder {
 	 * @return &lt;F4[0] &gt;
 	 */
 	public Secs2Float4 float4() {
-		return new Secs2Float4();
+		return Secs2Flyweight.FLOAT4_EMPTY;
 	}
 	
 	/**
@@ -567,7 +670,7 @@ public class Secs2Builder {
 	 * @return &lt;F8[0] &gt;
 	 */
 	public Secs2Float8 float8() {
-		return new Secs2Float8();
+		return Secs2Flyweight.FLOAT8_EMPTY;
 	}
 	
 	/**
@@ -0,0 +1,144 @@
+package com.shimizukenta.secs.secs2;
+
+import java.nio.Buffer;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.function.IntFunction;
+
+/**
+ * This class is builder of SECS-II bytes to ByteBuffers.
+ * 
+ * <p>
+ * Buffers are acquired from {@code allocator}, size starts from {@code initialBufferSize}
+ * and doubles up to {@code maxBufferSize}.<br />
+ * Bytes are copied to buffers directly, no intermediate byte arrays.<br />
+ * </p>
+ * 
+ * @author kenta-shimizu
+ *
+ */
+public class Secs2ByteBufferPackBuilder extends Secs2BytesPackBuilder {
+	
+	private final IntFunction<ByteBuffer> allocator;
+	private final int maxBufferSize;
+	private final List<ByteBuffer> buffers = new ArrayList<>();
+	private ByteBuffer lastBuffer;
+	private int nextBufferSize;
+	private long size;
+	private boolean flipped;
+	
+	public Secs2ByteBufferPackBuilder(IntFunction<ByteBuffer> allocator, int initialBufferSize, int maxBufferSize) {
+		super();
+		
+		if ( initialBufferSize <= 0 || maxBufferSize < initialBufferSize ) {
+			throw new IllegalArgumentException("initialBufferSize: " + initialBufferSize + ", maxBufferSize: " + maxBufferSize);
+		}
+		
+		this.allocator = allocator;
+		this.maxBufferSize = maxBufferSize;
+		this.lastBuffer = null;
+		this.nextBufferSize = initialBufferSize;
+		this.size = 0L;
+		this.flipped = false;
+	}
+	
+	@Override
+	protected void put(byte b) {
+		nextBuffer().put(b);
+		++ this.size;
+	}
+	
+	@Override
+	protected void put(byte[] bs, int offset, int length) {
+		
+		for (int i = offset, m = offset + length; i < m; ) {
+			
+			final ByteBuffer buffer = nextBuffer();
+			int n = Math.min(buffer.remaining(), m - i);
+			buffer.put(bs, i, n);
+			i += n;
+			this.size += (long)n;
+		}
+	}
+	
+	@Override
+	protected void put(ByteBuffer src) {
+		
+		while ( src.hasRemaining() ) {
+			
+			final ByteBuffer buffer = nextBuffer();
+			int n = Math.min(buffer.remaining(), src.remaining());
+			
+			final ByteBuffer part = src.duplicate();
+			((Buffer)part).limit(part.position() + n);
+			buffer.put(part);
+			
+			((Buffer)src).position(src.position() + n);
+			this.size += (long)n;
+		}
+	}
+	
+	private ByteBuffer nextBuffer() {
+		
+		if ( this.flipped ) {
+			throw new IllegalStateException("already built");
+		}
+		
+		if ( this.lastBuffer == null || ! this.lastBuffer.hasRemaining() ) {
+			
+			this.lastBuffer = this.allocator.apply(this.nextBufferSize);
+			this.buffers.add(this.lastBuffer);
+			
+			if ( this.nextBufferSize < this.maxBufferSize ) {
+				this.nextBufferSize = Math.min(this.nextBufferSize * 2, this.maxBufferSize);
+			}
+		}
+		
+		return this.lastBuffer;
+	}
+	
+	/**
+	 * Put bytes, for example message length and header.
+	 * 
+	 * @param bs
+	 */
+	public void putBytes(byte[] bs) {
+		put(bs, 0, bs.length);
+	}
+	
+	@Override
+	public void putSecs2(Secs2 secs2) throws Secs2BuildException {
+		super.putSecs2(secs2);
+	}
+	
+	/**
+	 * Returns put bytes size.
+	 * 
+	 * @return bytes size
+	 */
+	public long size() {
+		return this.size;
+	}
+	
+	/**
+	 * Returns buffers flipped to ready for read or write to channel.
+	 * 
+	 * <p>
+	 * No more bytes can be put after this method.<br />
+	 * </p>
+	 * 
+	 * @return flipped buffers
+	 */
+	public List<ByteBuffer> getBuffers() {
+		
+		if ( ! this.flipped ) {
+			this.buffers.forEach(bf -> {((Buffer)bf).flip();});
+			this.flipped = true;
+		}
+		
+		return Collections.unmodifiableList(this.buffers);
+	}
+	
+}
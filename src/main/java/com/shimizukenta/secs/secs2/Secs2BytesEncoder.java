@@ -0,0 +1,94 @@
+package com.shimizukenta.secs.secs2;
+
+import java.nio.ByteBuffer;
+
+/**
+ * This class is encoder of SECS-II to ByteBuffer.
+ * 
+ * <p>
+ * Encoded length is computed first and cached in each item,
+ * then items are written in one pass to buffer.<br />
+ * No intermediate bytes are allocated.<br />
+ * </p>
+ * 
+ * @author kenta-shimizu
+ *
+ */
+public class Secs2BytesEncoder {
+	
+	private Secs2BytesEncoder() {
+		/* Nothing */
+	}
+	
+	private static class SingletonHolder {
+		private static final Secs2BytesEncoder inst = new Secs2BytesEncoder();
+	}
+	
+	public static Secs2BytesEncoder getInstance() {
+		return SingletonHolder.inst;
+	}
+	
+	private static AbstractSecs2 cast(Secs2 secs2) throws Secs2BuildException {
+		
+		if ( secs2 instanceof AbstractSecs2 ) {
+			return (AbstractSecs2)secs2;
+		} else {
+			throw new Secs2BuildException("cast failed");
+		}
+	}
+	
+	/**
+	 * Returns encoded bytes length.
+	 * 
+	 * @param secs2
+	 * @return encoded bytes length
+	 * @throws Secs2BuildException
+	 */
+	public long encodedLength(Secs2 secs2) throws Secs2BuildException {
+		return cast(secs2).encodedLength();
+	}
+	
+	/**
+	 * Write encoded bytes from buffer position.
+	 * 
+	 * <p>
+	 * Buffer may be heap or direct.<br />
+	 * </p>
+	 * 
+	 * @param secs2
+	 * @param buffer
+	 * @throws Secs2BuildException if buffer remaining is less than encoded length
+	 */
+	public void encode(Secs2 secs2, ByteBuffer buffer) throws Secs2BuildException {
+		
+		final AbstractSecs2 ss = cast(secs2);
+		final long len = ss.encodedLength();
+		
+		if ( (long)(buffer.remaining()) < len ) {
+			throw new Secs2BuildException("buffer remaining: " + buffer.remaining() + ", encoded length: " + len);
+		}
+		
+		ss.encode(buffer);
+	}
+	
+	/**
+	 * Returns encoded bytes.
+	 * 
+	 * @param secs2
+	 * @return encoded bytes
+	 * @throws Secs2BuildException
+	 */
+	public byte[] encode(Secs2 secs2) throws Secs2BuildException {
+		
+		final long len = encodedLength(secs2);
+		
+		if ( len > (long)(Integer.MAX_VALUE) ) {
+			throw new Secs2BuildException("encoded length: " + len);
+		}
+		
+		final byte[] bs = new byte[(int)len];
+		encode(secs2, ByteBuffer.wrap(bs));
+		return bs;
+	}
+	
+}
@@ -1,5 +1,7 @@
 package com.shimizukenta.secs.secs2;
 
+import java.nio.Buffer;
+import java.nio.ByteBuffer;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
@@ -17,52 +19,113 @@ public class Secs2BytesPackBuilder {
 		this.pos = 0;
 	}
 	
+	/**
+	 * Constructor for subclasses which put bytes to other destination.
+	 * 
+	 * <p>
+	 * Subclass must override {@link #put(byte[], int, int)}.<br />
+	 * </p>
+	 */
+	protected Secs2BytesPackBuilder() {
+		this.bytesSize = 0;
+		this.lastbs = null;
+		this.pos = 0;
+	}
+	
 	protected void put(byte b) {
-		put(new byte[] {b});
+		
+		if ( this.pos >= this.bytesSize ) {
+			this.bss.add(this.lastbs);
+			this.lastbs = new byte[this.bytesSize];
+			this.pos = 0;
+		}
+		
+		this.lastbs[this.pos] = b;
+		++ this.pos;
 	}
 	
 	protected void put(byte[] bs) {
+		put(bs, 0, bs.length);
+	}
+	
+	protected void put(byte[] bs, int offset, int length) {
 		
-		for (int i = 0, m = bs.length ; i < m; ) {
+		for (int i = offset, m = offset + length; i < m; ) {
+			
+			int r = this.bytesSize - this.pos;
+			int n = m - i;
 			
-			if ((m - i) > (this.bytesSize - pos)) {
+			if ( n > r ) {
 				
-				for ( ; pos < this.bytesSize; ++pos, ++i) {
-					this.lastbs[pos] = bs[i];
-				}
+				System.arraycopy(bs, i, this.lastbs, this.pos, r);
+				i += r;
 				
-				this.bss.add(Arrays.copyOf(this.lastbs, bytesSize));
+				this.bss.add(this.lastbs);
+				this.lastbs = new byte[this.bytesSize];
 				this.pos = 0;
 				
 			} else {
 				
-				for ( ; i < m; ++i, ++pos) {
-					this.lastbs[pos] = bs[i];
-				}
+				System.arraycopy(bs, i, this.lastbs, this.pos, n);
+				i += n;
+				this.pos += n;
 			}
 		}
 	}
 	
-	private List<byte[]> getBytes() {
-		List<byte[]> aa = new ArrayList<>();
-		aa.addAll(this.bss);
-		aa.add(Arrays.copyOf(this.lastbs, pos));
-		return aa;
+	/**
+	 * Put bytes from buffer position to limit.
+	 * 
+	 * @param buffer
+	 */
+	protected void put(ByteBuffer buffer) {
+		
+		if ( buffer.hasArray() ) {
+			
+			put(buffer.array(), buffer.arrayOffset() + buffer.position(), buffer.remaining());
+			((Buffer)buffer).position(buffer.limit());
+			
+		} else {
+			
+			final byte[] bs = new byte[Math.min(buffer.remaining(), 8192)];
+			
+			while ( buffer.hasRemaining() ) {
+				int n = Math.min(buffer.remaining(), bs.length);
+				buffer.get(bs, 0, n);
+				put(bs, 0, n);
+			}
+		}
 	}
 	
-	public static Secs2BytesPack build(int bytesSize, Secs2 secs2) throws Secs2BuildException {
-		
-		final Secs2BytesPackBuilder bb = new Secs2BytesPackBuilder(bytesSize);
+	/**
+	 * Put SECS-II bytes to this builder.
+	 * 
+	 * @param secs2
+	 * @throws Secs2BuildException
+	 */
+	protected void putSecs2(Secs2 secs2) throws Secs2BuildException {
 		
 		if ( secs2 instanceof AbstractSecs2 ) {
 			
-			((AbstractSecs2)secs2).putBytesPack(bb);
-			return new Secs2BytesPack(bb.getBytes());
+			((AbstractSecs2)secs2).putBytesPack(this);
 			
 		} else {
 			
 			throw new Secs2BuildException("cast failed");
 		}
 	}
+	
+	private List<byte[]> getBytes() {
+		List<byte[]> aa = new ArrayList<>(this.bss);
+		aa.add(Arrays.copyOf(this.lastbs, pos));
+		return aa;
+	}
+	
+	public static Secs2BytesPack build(int bytesSize, Secs2 secs2) throws Secs2BuildException {
+		
+		final Secs2BytesPackBuilder bb = new Secs2BytesPackBuilder(bytesSize);
+		bb.putSecs2(secs2);
+		return new Secs2BytesPack(bb.getBytes());
+	}
 
 }
@@ -1,5 +1,8 @@
 package com.shimizukenta.secs.secs2;
 
+import java.nio.Buffer;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.stream.Collectors;
@@ -18,8 +21,369 @@ public class Secs2BytesParser {
 	}
 	
 	public Secs2 parse(List<byte[]> bss) throws Secs2BytesParseException {
+		return parse(new BytesPack(bss));
+	}
+	
+	/**
+	 * Parse across buffers, each from position to limit.
+	 * 
+	 * <p>
+	 * Buffers are read in order as one sequence, not concatenated.<br />
+	 * Items copy own bytes, buffers can be reused after parsed.<br />
+	 * </p>
+	 * 
+	 * @param buffers
+	 * @return Secs2
+	 * @throws Secs2BytesParseException
+	 */
+	public Secs2 parse(ByteBuffer[] buffers) throws Secs2BytesParseException {
+		return parse(new ByteBuffersPack(buffers));
+	}
+	
+	/**
+	 * Parse from buffer position to limit.
+	 * 
+	 * <p>
+	 * Items copy own bytes, buffer can be reused after parsed.<br />
+	 * </p>
+	 * 
+	 * @param buffer
+	 * @return Secs2
+	 * @throws Secs2BytesParseException
+	 */
+	public Secs2 parse(ByteBuffer buffer) throws Secs2BytesParseException {
+		return parse(new ByteBufferPack(buffer));
+	}
+	
+	/**
+	 * Lazy parse from buffer position to limit.
+	 * 
+	 * <p>
+	 * Only structure is validated, items are parsed at first access.<br />
+	 * Buffer is shared, not copied. Buffer must not be modified or released after parsed.<br />
+	 * This is suitable for large body, for example memory-mapped file.<br />
+	 * </p>
+	 * 
+	 * @param buffer
+	 * @return Secs2 lazy view
+	 * @throws Secs2BytesParseException
+	 */
+	public Secs2 parseLazy(ByteBuffer buffer) throws Secs2BytesParseException {
+		
+		final ByteBuffer bf = buffer.slice();
+		
+		if ( bf.hasRemaining() ) {
+			
+			final ByteBuffer v = bf.duplicate();
+			
+			stpSkip(v);
+			
+			if ( v.hasRemaining() ) {
+				throw new Secs2BytesParseException("not reach end bytes");
+			}
+			
+			return new Secs2LazyBytes(bf.asReadOnlyBuffer());
+			
+		} else {
+			
+			return new Secs2RawBytes();
+		}
+	}
+	
+	/**
+	 * Lazy parse across buffers, each from position to limit.
+	 * 
+	 * <p>
+	 * Buffers are read in order as one sequence, for example memory-mapped windows of large file.<br />
+	 * Buffers are shared, not copied. Buffers must not be modified or released after parsed.<br />
+	 * Item in one buffer is view of buffer, item across buffers copies own bytes,
+	 * and LIST across buffers is built from items.<br />
+	 * </p>
+	 * 
+	 * @param buffers
+	 * @return Secs2 lazy view
+	 * @throws Secs2BytesParseException
+	 */
+	public Secs2 parseLazy(ByteBuffer[] buffers) throws Secs2BytesParseException {
+		
+		if ( buffers.length == 1 ) {
+			return parseLazy(buffers[0]);
+		}
+		
+		final ByteBuffer[] bfs = new ByteBuffer[buffers.length];
+		
+		for ( int i = 0; i < buffers.length; ++i ) {
+			bfs[i] = buffers[i].slice();
+		}
+		
+		final ByteBuffersPack pack = new ByteBuffersPack(bfs);
+		
+		if ( pack.hasRemaining() ) {
+			
+			final Secs2 ss = stpParseLazy(pack);
+			
+			if ( pack.hasRemaining() ) {
+				throw new Secs2BytesParseException("not reach end bytes");
+			}
+			
+			return ss;
+			
+		} else {
+			
+			return new Secs2RawBytes();
+		}
+	}
+	
+	private static Secs2 stpParseLazy(ByteBuffersPack pack) throws Secs2BytesParseException {
+		
+		final ByteBuffer bf = pack.present();
+		
+		if ( bf == null ) {
+			throw new Secs2BytesParseException("reach end bytes");
+		}
+		
+		/* item in present buffer */
+		final ByteBuffer v = bf.duplicate();
+		
+		try {
+			stpSkip(v);
+			
+			final ByteBuffer item = bf.duplicate();
+			((Buffer)item).limit(v.position());
+			((Buffer)bf).position(v.position());
+			
+			return new Secs2LazyBytes(item.slice().asReadOnlyBuffer());
+		}
+		catch ( Secs2BytesParseException e ) {
+			
+			if ( pack.remaining() == (long)(bf.remaining()) ) {
+				throw e;
+			}
+		}
+		
+		/* item across buffers */
+		final byte b = pack.get();
+		
+		final Secs2Item s2i = Secs2Item.get(b);
+		final int lengthBits = b & 0x03;
+		final byte[] head = new byte[1 + lengthBits];
+		head[0] = b;
+		
+		int size = 0;
+		
+		for ( int i = 1; i < head.length; ++i ) {
+			head[i] = pack.get();
+			size = (size << 8) | (((int)(head[i])) & 0x000000FF);
+		}
+		
+		if ( s2i == Secs2Item.LIST ) {
+			
+			final List<Secs2> items = new ArrayList<>();
+			
+			for ( int i = 0; i < size; ++i ) {
+				items.add(stpParseLazy(pack));
+			}
+			
+			return new Secs2List(items);
+			
+		} else if ( s2i == Secs2Item.UNDEFINED ) {
+			
+			throw new Secs2UnsupportedDataFormatException();
+			
+		} else {
+			
+			final ByteBuffer item = ByteBuffer.allocate(head.length + size);
+			item.put(head);
+			item.put(pack.get(size));
+			((Buffer)item).flip();
+			
+			return new Secs2LazyBytes(item.asReadOnlyBuffer());
+		}
+	}
+	
+	/**
+	 * Visit from buffer position to limit, without building Secs2 tree.
+	 * 
+	 * <p>
+	 * Buffer is shared, not copied. Buffer position is not changed.<br />
+	 * Callbacks are called while parsing,
+	 * if bytes are irregular, exception is thrown after callbacks of former items.<br />
+	 * </p>
+	 * 
+	 * @param buffer
+	 * @param visitor
+	 * @return {@code false} if terminated by visitor
+	 * @throws Secs2Exception
+	 */
+	public boolean visit(ByteBuffer buffer, Secs2Visitor visitor) throws Secs2Exception {
+		
+		final ByteBuffer bf = buffer.asReadOnlyBuffer().order(ByteOrder.BIG_ENDIAN);
+		
+		if ( ! bf.hasRemaining() ) {
+			return true;
+		}
+		
+		final Secs2VisitItem item = new Secs2VisitItem(bf);
+		
+		if ( stpVisit(bf, visitor, item) == Secs2VisitResult.TERMINATE ) {
+			return false;
+		}
+		
+		if ( bf.hasRemaining() ) {
+			throw new Secs2BytesParseException("not reach end bytes");
+		}
+		
+		return true;
+	}
+	
+	/**
+	 * Visit SECS-II, without building Secs2 tree.
+	 * 
+	 * <p>
+	 * Lazy view is visited from own bytes, others are encoded before visiting.<br />
+	 * </p>
+	 * 
+	 * @param secs2
+	 * @param visitor
+	 * @return {@code false} if terminated by visitor
+	 * @throws Secs2Exception
+	 */
+	public boolean visit(Secs2 secs2, Secs2Visitor visitor) throws Secs2Exception {
+		
+		if ( secs2 instanceof Secs2LazyBytes ) {
+			return visit(((Secs2LazyBytes)secs2).encodedBuffer(), visitor);
+		} else {
+			return visit(ByteBuffer.wrap(Secs2BytesEncoder.getInstance().encode(secs2)), visitor);
+		}
+	}
+	
+	private static Secs2VisitResult stpVisit(ByteBuffer buffer, Secs2Visitor visitor, Secs2VisitItem item)
+			throws Secs2Exception {
+		
+		if ( ! buffer.hasRemaining() ) {
+			throw new Secs2BytesParseException("reach end bytes");
+		}
+		
+		byte b = buffer.get();
+		
+		Secs2Item s2i = Secs2Item.get(b);
+		int lengthBits = b & 0x03;
+		
+		if ( buffer.remaining() < lengthBits ) {
+			throw new Secs2BytesParseException("reach end bytes");
+		}
+		
+		int size = 0;
+		
+		for ( int i = 0; i < lengthBits; ++i ) {
+			size = (size << 8) | (((int)(buffer.get())) & 0x000000FF);
+		}
+		
+		if ( s2i == Secs2Item.LIST ) {
+			
+			final Secs2VisitResult r = visitor.startList(size);
+			
+			if ( r == Secs2VisitResult.TERMINATE ) {
+				return r;
+			}
+			
+			if ( r == Secs2VisitResult.SKIP_SUBTREE || r == Secs2VisitResult.SKIP_SIBLINGS ) {
+				
+				for (int i = 0 ; i < size ; ++i) {
+					stpSkip(buffer);
+				}
+				
+				return r == Secs2VisitResult.SKIP_SIBLINGS ? r : Secs2VisitResult.CONTINUE;
+			}
+			
+			for (int i = 0 ; i < size ; ++i) {
+				
+				final Secs2VisitResult cr = stpVisit(buffer, visitor, item);
+				
+				if ( cr == Secs2VisitResult.TERMINATE ) {
+					return cr;
+				}
+				
+				if ( cr == Secs2VisitResult.SKIP_SIBLINGS ) {
+					
+					for (int j = i + 1 ; j < size ; ++j) {
+						stpSkip(buffer);
+					}
+					
+					break;
+				}
+			}
+			
+			return visitor.endList();
+			
+		} else if ( s2i == Secs2Item.UNDEFINED ) {
+			
+			throw new Secs2UnsupportedDataFormatException();
+			
+		} else {
+			
+			if ( size > buffer.remaining() ) {
+				throw new Secs2BytesParseException("reach end bytes");
+			}
+			
+			final int pos = buffer.position();
+			
+			((Buffer)buffer).position(pos + size);
+			
+			item.set(s2i, pos, size);
+			
+			return visitor.item(item);
+		}
+	}
+	
+	/**
+	 * Skip one item from buffer position, validating structure.
+	 * 
+	 * @param buffer
+	 * @throws Secs2BytesParseException
+	 */
+	static void stpSkip(ByteBuffer buffer) throws Secs2BytesParseException {
+		
+		if ( ! buffer.hasRemaining() ) {
+			throw new Secs2BytesParseException("reach end bytes");
+		}
+		
+		byte b = buffer.get();
+		
+		Secs2Item s2i = Secs2Item.get(b);
+		int lengthBits = b & 0x03;
 		
-		final BytesPack pack = new BytesPack(bss);
+		if ( buffer.remaining() < lengthBits ) {
+			throw new Secs2BytesParseException("reach end bytes");
+		}
+		
+		int size = 0;
+		
+		for ( int i = 0; i < lengthBits; ++i ) {
+			size = (size << 8) | (((int)(buffer.get())) & 0x000000FF);
+		}
+		
+		if ( s2i == Secs2Item.LIST ) {
+			
+			for (int i = 0 ; i < size ; ++i) {
+				stpSkip(buffer);
+			}
+			
+		} else if ( s2i == Secs2Item.UNDEFINED ) {
+			
+			throw new Secs2UnsupportedDataFormatException();
+			
+		} else {
+			
+			if ( size > buffer.remaining() ) {
+				throw new Secs2BytesParseException("reach end bytes");
+			}
+			
+			((Buffer)buffer).position(buffer.position() + size);
+		}
+	}
+	
+	private static Secs2 parse(AbstractBytesPack pack) throws Secs2BytesParseException {
 		
 		if ( pack.hasRemaining() ) {
 			
@@ -37,7 +401,7 @@ public class Secs2BytesParser {
 		}
 	}
 	
-	private static Secs2 stpParse(BytesPack pack) throws Secs2BytesParseException {
+	private static Secs2 stpParse(AbstractBytesPack pack) throws Secs2BytesParseException {
 		
 		byte b = pack.get();
 		
@@ -63,6 +427,10 @@ public class Secs2BytesParser {
 		
 		if ( s2i == Secs2Item.LIST ) {
 			
+			if ( size == 0 ) {
+				return Secs2Flyweight.LIST_EMPTY;
+			}
+			
 			List<Secs2> ll = new ArrayList<>();
 			
 			for (int i = 0 ; i < size ; ++i) {
@@ -75,6 +443,16 @@ public class Secs2BytesParser {
 			
 			byte[] bs = pack.get(size);
 			
+			/* shared instance of empty or single-byte item */
+			if ( size <= 1 ) {
+				
+				final Secs2 ss = Secs2Flyweight.parsed(s2i, bs);
+				
+				if ( ss != null ) {
+					return ss;
+				}
+			}
+			
 			switch ( s2i ) {
 			case ASCII: {
 				return new Secs2Ascii(bs);
@@ -143,7 +521,136 @@ public class Secs2BytesParser {
 		}
 	}
 	
-	private static class BytesPack {
+	private static abstract class AbstractBytesPack {
+		
+		abstract public boolean hasRemaining();
+		abstract public byte get() throws Secs2BytesParseException;
+		abstract public byte[] get(int size) throws Secs2BytesParseException;
+	}
+	
+	private static class ByteBufferPack extends AbstractBytesPack {
+		
+		private final ByteBuffer buffer;
+		
+		private ByteBufferPack(ByteBuffer buffer) {
+			this.buffer = buffer;
+		}
+		
+		@Override
+		public boolean hasRemaining() {
+			return this.buffer.hasRemaining();
+		}
+		
+		@Override
+		public byte get() throws Secs2BytesParseException {
+			
+			if ( this.buffer.hasRemaining() ) {
+				return this.buffer.get();
+			}
+			
+			throw new Secs2BytesParseException("reach end bytes");
+		}
+		
+		@Override
+		public byte[] get(int size) throws Secs2BytesParseException {
+			
+			if ( size > this.buffer.remaining() ) {
+				throw new Secs2BytesParseException("reach end bytes");
+			}
+			
+			byte[] bs = new byte[size];
+			this.buffer.get(bs);
+			return bs;
+		}
+	}
+	
+	private static class ByteBuffersPack extends AbstractBytesPack {
+		
+		private final ByteBuffer[] buffers;
+		private int index;
+		
+		private ByteBuffersPack(ByteBuffer[] buffers) {
+			this.buffers = buffers;
+			this.index = 0;
+		}
+		
+		/**
+		 * Returns present buffer which has remaining, or {@code null} if reach end.
+		 * 
+		 * @return present buffer, or {@code null} if reach end
+		 */
+		private ByteBuffer present() {
+			
+			while ( this.index < this.buffers.length ) {
+				
+				final ByteBuffer bf = this.buffers[this.index];
+				
+				if ( bf.hasRemaining() ) {
+					return bf;
+				}
+				
+				++ this.index;
+			}
+			
+			return null;
+		}
+		
+		@Override
+		public boolean hasRemaining() {
+			return present() != null;
+		}
+		
+		@Override
+		public byte get() throws Secs2BytesParseException {
+			
+			final ByteBuffer bf = present();
+			
+			if ( bf == null ) {
+				throw new Secs2BytesParseException("reach end bytes");
+			}
+			
+			return bf.get();
+		}
+		
+		/**
+		 * Returns sum of remaining bytes of buffers.
+		 * 
+		 * @return sum of remaining bytes of buffers
+		 */
+		private long remaining() {
+			
+			long n = 0L;
+			
+			for ( int i = this.index; i < this.buffers.length; ++i ) {
+				n += this.buffers[i].remaining();
+			}
+			
+			return n;
+		}
+		
+		@Override
+		public byte[] get(int size) throws Secs2BytesParseException {
+			
+			if ( size > remaining() ) {
+				throw new Secs2BytesParseException("reach end bytes");
+			}
+			
+			final byte[] bs = new byte[size];
+			
+			for ( int pos = 0; pos < size; ) {
+				
+				final ByteBuffer bf = present();
+				
+				final int n = Math.min(size - pos, bf.remaining());
+				bf.get(bs, pos, n);
+				pos += n;
+			}
+			
+			return bs;
+		}
+	}
+	
+	private static class BytesPack extends AbstractBytesPack {
 		
 		private final List<byte[]> bss;
 		private final int mPack;
@@ -161,6 +668,7 @@ public class Secs2BytesParser {
 			this.iBytes = 0;
 		}
 		
+		@Override
 		public boolean hasRemaining() {
 			
 			if ( iPack < mPack ) {
@@ -177,6 +685,7 @@ public class Secs2BytesParser {
 			return false;
 		}
 		
+		@Override
 		public byte get() throws Secs2BytesParseException {
 			
 			while ( iPack <= mPack ) {
@@ -201,11 +710,35 @@ public class Secs2BytesParser {
 			throw new Secs2BytesParseException("reach end bytes");
 		}
 		
+		@Override
 		public byte[] get(int size) throws Secs2BytesParseException {
-			byte[] bs = new byte[size];
-			for (int i = 0; i < size; ++i ) {
-				bs[i] = get();
+			
+			final byte[] bs = new byte[size];
+			
+			for (int pos = 0; pos < size; ) {
+				
+				if ( iPack > mPack ) {
+					throw new Secs2BytesParseException("reach end bytes");
+				}
+				
+				if ( iBytes > mBytes ) {
+					
+					++ iPack;
+					
+					if ( iPack <= mPack ) {
+						iBytes = 0;
+						mBytes = this.bss.get(iPack).length - 1;
+					}
+					
+				} else {
+					
+					int n = Math.min(size - pos, mBytes - iBytes + 1);
+					System.arraycopy(this.bss.get(iPack), iBytes, bs, pos, n);
+					iBytes += n;
+					pos += n;
+				}
 			}
+			
 			return bs;
 		}
 	}
@@ -0,0 +1,236 @@
+package com.shimizukenta.secs.secs2;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.Objects;
+
+/**
+ * This class is pre-encoded SECS-II, for sending same message many times.
+ * 
+ * <p>
+ * Encoded once by {@link #of(Secs2)}, sending writes encoded bytes directly.<br />
+ * Values can be read as lazy view.<br />
+ * Fixed-length item can be patched by {@link #patch(Field, Secs2)}, without re-encoding others.<br />
+ * This class is immutable, patch returns new instance.<br />
+ * </p>
+ * 
+ * @author kenta-shimizu
+ *
+ */
+public final class Secs2Encoded extends Secs2LazyBytes {
+	
+	private static final long serialVersionUID = -4411793512964802361L;
+	
+	private final transient byte[] bytes;
+	private final transient Object layout;
+	
+	private Secs2Encoded(byte[] bytes, Object layout) {
+		super(ByteBuffer.wrap(bytes).asReadOnlyBuffer());
+		
+		this.bytes = bytes;
+		this.layout = layout;
+	}
+	
+	/**
+	 * Returns pre-encoded SECS-II.
+	 * 
+	 * @param secs2
+	 * @return pre-encoded SECS-II
+	 * @throws Secs2BuildException if not encodable
+	 */
+	public static Secs2Encoded of(Secs2 secs2) throws Secs2BuildException {
+		
+		if ( secs2 instanceof Secs2Encoded ) {
+			return (Secs2Encoded)secs2;
+		}
+		
+		if ( ! isEncodable(secs2) ) {
+			throw new Secs2BuildException("Not encodable, empty or dynamic value");
+		}
+		
+		return new Secs2Encoded(Secs2BytesEncoder.getInstance().encode(secs2), new Object());
+	}
+	
+	/**
+	 * Returns {@code true} if SECS-II can be pre-encoded.
+	 * 
+	 * <p>
+	 * {@code false} if empty, or has dynamic value item.<br />
+	 * </p>
+	 * 
+	 * @param secs2
+	 * @return {@code true} if SECS-II can be pre-encoded
+	 */
+	public static boolean isEncodable(Secs2 secs2) {
+		
+		if ( secs2 instanceof Secs2LazyBytes ) {
+			return true;
+		}
+		
+		if ( secs2 instanceof Secs2List ) {
+			
+			for ( Secs2 ss : secs2 ) {
+				if ( ! isEncodable(ss) ) {
+					return false;
+				}
+			}
+			
+			return true;
+		}
+		
+		if ( secs2 instanceof Secs2RawBytes ) {
+			return false;
+		}
+		
+		if ( secs2 instanceof AbstractSecs2 ) {
+			return ((AbstractSecs2)secs2).bodyBytes() != null;
+		}
+		
+		return false;
+	}
+	
+	/**
+	 * Returns field of item to patch.
+	 * 
+	 * @param indices
+	 * @return field
+	 * @throws Secs2Exception if not exist, or LIST
+	 */
+	public Field field(int... indices) throws Secs2Exception {
+		
+		final ByteBuffer bf = ByteBuffer.wrap(this.bytes);
+		
+		for ( int index : indices ) {
+			
+			final byte b = bf.get();
+			
+			if ( Secs2Item.get(b) != Secs2Item.LIST ) {
+				throw new Secs2IrregalDataFormatException("Not Secs2List");
+			}
+			
+			final int size = readLength(bf, b);
+			
+			if ( index < 0 || index >= size ) {
+				throw new Secs2IndexOutOfBoundsException("index: " + index + ", size: " + size);
+			}
+			
+			for ( int i = 0; i < index; ++i ) {
+				Secs2BytesParser.stpSkip(bf);
+			}
+		}
+		
+		final byte b = bf.get();
+		final Secs2Item s2i = Secs2Item.get(b);
+		
+		if ( s2i == Secs2Item.LIST ) {
+			throw new Secs2IrregalDataFormatException("LIST is not patchable");
+		}
+		
+		final int length = readLength(bf, b);
+		
+		return new Field(this.layout, s2i, bf.position(), length);
+	}
+	
+	/**
+	 * Returns field of item to patch.
+	 * 
+	 * @param path
+	 * @return field
+	 * @throws Secs2Exception if not exist, or LIST
+	 */
+	public Field field(Secs2Path path) throws Secs2Exception {
+		return field(path.indices());
+	}
+	
+	private static int readLength(ByteBuffer bf, byte b) {
+		
+		int v = 0;
+		
+		for ( int i = 0, m = b & 0x03; i < m; ++i ) {
+			v = (v << 8) | (((int)(bf.get())) & 0x000000FF);
+		}
+		
+		return v;
+	}
+	
+	/**
+	 * Returns new instance, field is replaced by value.
+	 * 
+	 * <p>
+	 * Value must be same item-type and same encoded length as field.<br />
+	 * </p>
+	 * 
+	 * @param field
+	 * @param value
+	 * @return patched new instance
+	 * @throws Secs2BuildException if field is not this template's or value not matched
+	 */
+	public Secs2Encoded patch(Field field, Secs2 value) throws Secs2BuildException {
+		
+		Objects.requireNonNull(field);
+		Objects.requireNonNull(value);
+		
+		if ( field.layout != this.layout ) {
+			throw new Secs2BuildException("Field is not of this template");
+		}
+		
+		if ( field.secs2Item != value.secs2Item() || ! (value instanceof AbstractSecs2) ) {
+			throw new Secs2BuildException("Patch item-type not matched: " + value.secs2Item());
+		}
+		
+		final byte[] body = ((AbstractSecs2)value).bodyBytes();
+		
+		if ( body == null || body.length != field.length ) {
+			throw new Secs2BuildException("Patch length not matched");
+		}
+		
+		final byte[] bs = Arrays.copyOf(this.bytes, this.bytes.length);
+		System.arraycopy(body, 0, bs, field.offset, field.length);
+		
+		return new Secs2Encoded(bs, this.layout);
+	}
+	
+	/**
+	 * Returns read-only buffer of encoded bytes.
+	 * 
+	 * @return read-only buffer of encoded bytes
+	 */
+	public ByteBuffer asReadOnlyBuffer() {
+		return ByteBuffer.wrap(this.bytes).asReadOnlyBuffer();
+	}
+	
+	/**
+	 * This class is patchable field of Secs2Encoded.
+	 * 
+	 * @author kenta-shimizu
+	 *
+	 */
+	public static final class Field {
+		
+		private final Object layout;
+		private final Secs2Item secs2Item;
+		private final int offset;
+		private final int length;
+		
+		private Field(Object layout, Secs2Item secs2Item, int offset, int length) {
+			this.layout = layout;
+			this.secs2Item = secs2Item;
+			this.offset = offset;
+			this.length = length;
+		}
+		
+		public Secs2Item secs2Item() {
+			return secs2Item;
+		}
+		
+		/**
+		 * Returns body bytes length.
+		 * 
+		 * @return body bytes length
+		 */
+		public int length() {
+			return length;
+		}
+	}
+	
+}
@@ -1,11 +1,9 @@
 package com.shimizukenta.secs.secs2;
 
-import java.nio.ByteBuffer;
-import java.util.ArrayList;
+import java.io.IOException;
 import java.util.Arrays;
 import java.util.List;
 import java.util.Objects;
-import java.util.stream.Collectors;
 
 public class Secs2Float4 extends Secs2Number<Float> {
 	
@@ -18,42 +16,72 @@ public class Secs2Float4 extends Secs2Number<Float> {
 	}
 	
 	public Secs2Float4(float... values) {
-		super();
+		super(toBytes(values));
+	}
+	
+	public Secs2Float4(List<? extends Number> values) {
+		super(toBytes(values));
+	}
+	
+	protected Secs2Float4(byte[] bs) {
+		super(Arrays.copyOf(Objects.requireNonNull(bs), bs.length));
+	}
+	
+	private static byte[] toBytes(float[] values) {
 		
 		Objects.requireNonNull(values);
 		
-		this.values = new ArrayList<>();
-		for ( float v : values ) {
-			this.values.add(v);
+		final byte[] bs = new byte[values.length * 4];
+		
+		for ( int i = 0; i < values.length; ++i ) {
+			longToBytes(bs, i * 4, 4, Float.floatToRawIntBits(values[i]));
 		}
+		
+		return bs;
 	}
 	
-	public Secs2Float4(List<? extends Number> values) {
-		super();
+	private static byte[] toBytes(List<? extends Number> values) {
 		
 		Objects.requireNonNull(values);
 		
-		this.values = values.stream()
-				.map(Number::floatValue)
-				.collect(Collectors.toList());
-	}
-	
-	protected Secs2Float4(byte[] bs) {
-		super();
+		final byte[] bs = new byte[values.size() * 4];
 		
-		Objects.requireNonNull(bs);
+		int i = 0;
+		for ( Number v : values ) {
+			longToBytes(bs, i * 4, 4, Float.floatToRawIntBits(v.floatValue()));
+			++ i;
+		}
 		
-		this.bytes = Arrays.copyOf(bs, bs.length);
+		return bs;
+	}
+	
+	private float floatValue(int index) throws Secs2Exception {
+		return Float.intBitsToFloat((int)bytesToLong(bytes(), offset(index), 4, false));
 	}
 	
 	@Override
-	protected Float byteBufferGetter(ByteBuffer bf) {
-		return bf.getFloat();
+	protected long longValue(int index) throws Secs2Exception {
+		return (long)floatValue(index);
 	}
-
+	
+	@Override
+	protected double doubleValue(int index) throws Secs2Exception {
+		return (double)floatValue(index);
+	}
+	
+	@Override
+	protected int getInt(int index) throws Secs2Exception {
+		return (int)floatValue(index);
+	}
+	
+	@Override
+	protected float getFloat(int index) throws Secs2Exception {
+		return floatValue(index);
+	}
+	
 	@Override
-	protected void byteBufferPutter(ByteBuffer bf, Float value) {
-		bf.putFloat(value);
+	protected void appendValue(Appendable appendable, int index) throws IOException {
+		appendable.append(String.valueOf(Float.intBitsToFloat((int)bytesToLong(bytes(), index * 4, 4, false))));
 	}
 	
 	@Override
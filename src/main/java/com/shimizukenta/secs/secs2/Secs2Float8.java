@@ -1,11 +1,9 @@
 package com.shimizukenta.secs.secs2;
 
-import java.nio.ByteBuffer;
-import java.util.ArrayList;
+import java.io.IOException;
 import java.util.Arrays;
 import java.util.List;
 import java.util.Objects;
-import java.util.stream.Collectors;
 
 public class Secs2Float8 extends Secs2Number<Double> {
 	
@@ -18,42 +16,63 @@ public class Secs2Float8 extends Secs2Number<Double> {
 	}
 	
 	public Secs2Float8(double... values) {
-		super();
+		super(toBytes(values));
+	}
+	
+	public Secs2Float8(List<? extends Number> values) {
+		super(toBytes(values));
+	}
+	
+	protected Secs2Float8(byte[] bs) {
+		super(Arrays.copyOf(Objects.requireNonNull(bs), bs.length));
+	}
+	
+	private static byte[] toBytes(double[] values) {
 		
 		Objects.requireNonNull(values);
 		
-		this.values = new ArrayList<>();
-		for ( double v : values ) {
-			this.values.add(v);
+		final byte[] bs = new byte[values.length * 8];
+		
+		for ( int i = 0; i < values.length; ++i ) {
+			longToBytes(bs, i * 8, 8, Double.doubleToRawLongBits(values[i]));
 		}
+		
+		return bs;
 	}
 	
-	public Secs2Float8(List<? extends Number> values) {
-		super();
+	private static byte[] toBytes(List<? extends Number> values) {
 		
 		Objects.requireNonNull(values);
 		
-		this.values = values.stream()
-				.map(Number::doubleValue)
-				.collect(Collectors.toList());
-	}
-	
-	protected Secs2Float8(byte[] bs) {
-		super();
+		final byte[] bs = new byte[values.size() * 8];
 		
-		Objects.requireNonNull(bs);
+		int i = 0;
+		for ( Number v : values ) {
+			longToBytes(bs, i * 8, 8, Double.doubleToRawLongBits(v.doubleValue()));
+			++ i;
+		}
 		
-		this.bytes = Arrays.copyOf(bs, bs.length);
+		return bs;
 	}
 	
 	@Override
-	protected Double byteBufferGetter(ByteBuffer bf) {
-		return bf.getDouble();
+	protected long longValue(int index) throws Secs2Exception {
+		return (long)doubleValue(index);
 	}
-
+	
+	@Override
+	protected double doubleValue(int index) throws Secs2Exception {
+		return Double.longBitsToDouble(bytesToLong(bytes(), offset(index), 8, false));
+	}
+	
+	@Override
+	protected int getInt(int index) throws Secs2Exception {
+		return (int)doubleValue(index);
+	}
+	
 	@Override
-	protected void byteBufferPutter(ByteBuffer bf, Double value) {
-		bf.putDouble(value);
+	protected void appendValue(Appendable appendable, int index) throws IOException {
+		appendable.append(String.valueOf(Double.longBitsToDouble(bytesToLong(bytes(), index * 8, 8, false))));
 	}
 	
 	@Override
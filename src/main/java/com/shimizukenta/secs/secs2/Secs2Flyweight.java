@@ -0,0 +1,162 @@
+package com.shimizukenta.secs.secs2;
+
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * This class is pool of shared immutable SECS-II, for common single-byte and empty items.
+ * 
+ * <p>
+ * Used from {@link Secs2Builder} and {@link Secs2BytesParser}, ACK replies and empty bodies do not allocate.<br />
+ * Encoded length and hash are computed at creation, instances are pre-encoded.<br />
+ * </p>
+ * 
+ * @author kenta-shimizu
+ *
+ */
+final class Secs2Flyweight {
+	
+	private Secs2Flyweight() {
+		/* Nothing */
+	}
+	
+	private static final Secs2Binary[] binaries = new Secs2Binary[256];
+	private static final Secs2Uint1[] uint1s = new Secs2Uint1[256];
+	private static final Secs2Int1[] int1s = new Secs2Int1[256];
+	
+	static final Secs2Boolean TRUE = warm(new Secs2Boolean(true));
+	static final Secs2Boolean FALSE = warm(new Secs2Boolean(false));
+	
+	static final Secs2List LIST_EMPTY = warm(new Secs2List());
+	static final Secs2Ascii ASCII_EMPTY = warm(new Secs2Ascii(""));
+	static final Secs2Binary BINARY_EMPTY = warm(new Secs2Binary());
+	static final Secs2Boolean BOOLEAN_EMPTY = warm(new Secs2Boolean());
+	static final Secs2Int1 INT1_EMPTY = warm(new Secs2Int1());
+	static final Secs2Int2 INT2_EMPTY = warm(new Secs2Int2());
+	static final Secs2Int4 INT4_EMPTY = warm(new Secs2Int4());
+	static final Secs2Int8 INT8_EMPTY = warm(new Secs2Int8());
+	static final Secs2Uint1 UINT1_EMPTY = warm(new Secs2Uint1());
+	static final Secs2Uint2 UINT2_EMPTY = warm(new Secs2Uint2());
+	static final Secs2Uint4 UINT4_EMPTY = warm(new Secs2Uint4());
+	static final Secs2Uint8 UINT8_EMPTY = warm(new Secs2Uint8());
+	static final Secs2Float4 FLOAT4_EMPTY = warm(new Secs2Float4());
+	static final Secs2Float8 FLOAT8_EMPTY = warm(new Secs2Float8());
+	
+	private static final Map<Secs2Item, AbstractSecs2> empties = new EnumMap<>(Secs2Item.class);
+	
+	static {
+		
+		for ( AbstractSecs2 ss : new AbstractSecs2[] {
+				ASCII_EMPTY, BINARY_EMPTY, BOOLEAN_EMPTY,
+				INT1_EMPTY, INT2_EMPTY, INT4_EMPTY, INT8_EMPTY,
+				UINT1_EMPTY, UINT2_EMPTY, UINT4_EMPTY, UINT8_EMPTY,
+				FLOAT4_EMPTY, FLOAT8_EMPTY
+		}) {
+			empties.put(ss.secs2Item(), ss);
+		}
+		
+		for ( int i = 0; i < 256; ++i ) {
+			binaries[i] = warm(new Secs2Binary((byte)i));
+			uint1s[i] = warm(new Secs2Uint1(i));
+			int1s[i] = warm(new Secs2Int1(i - 128));
+		}
+	}
+	
+	/**
+	 * Compute lazy caches before shared.
+	 * 
+	 * @param <T> Type
+	 * @param ss
+	 * @return ss
+	 */
+	private static <T extends AbstractSecs2> T warm(T ss) {
+		
+		ss.bodyBytes();
+		ss.hashCode();
+		
+		try {
+			ss.encodedLength();
+		}
+		catch ( Secs2BuildException e ) {
+			throw new IllegalStateException(e);
+		}
+		
+		return ss;
+	}
+	
+	static Secs2Binary binary(byte b) {
+		return binaries[b & 0xFF];
+	}
+	
+	static Secs2Boolean bool(boolean f) {
+		return f ? TRUE : FALSE;
+	}
+	
+	/**
+	 * Returns shared instance, or {@code null} if out of range.
+	 * 
+	 * @param v
+	 * @return shared instance, or {@code null} if out of range
+	 */
+	static Secs2Uint1 uint1(long v) {
+		return (v >= 0L && v <= 0xFFL) ? uint1s[(int)v] : null;
+	}
+	
+	/**
+	 * Returns shared instance, or {@code null} if out of range.
+	 * 
+	 * @param v
+	 * @return shared instance, or {@code null} if out of range
+	 */
+	static Secs2Int1 int1(long v) {
+		return (v >= -128L && v <= 127L) ? int1s[(int)v + 128] : null;
+	}
+	
+	/**
+	 * Returns shared instance of parsed body, or {@code null} if not pooled.
+	 * 
+	 * @param s2i
+	 * @param bs body bytes
+	 * @return shared instance of parsed body, or {@code null} if not pooled
+	 */
+	static AbstractSecs2 parsed(Secs2Item s2i, byte[] bs) {
+		
+		if ( bs.length == 0 ) {
+			
+			return empties.get(s2i);
+			
+		} else if ( bs.length == 1 ) {
+			
+			final byte b = bs[0];
+			
+			switch ( s2i ) {
+			case BINARY: {
+				return binaries[b & 0xFF];
+			}
+			case UINT1: {
+				return uint1s[b & 0xFF];
+			}
+			case INT1: {
+				return int1s[b + 128];
+			}
+			case BOOLEAN: {
+				
+				/* only normal bytes, to keep received bytes */
+				if ( b == (byte)0xFF ) {
+					return TRUE;
+				} else if ( b == (byte)0x00 ) {
+					return FALSE;
+				} else {
+					return null;
+				}
+			}
+			default: {
+				return null;
+			}
+			}
+		}
+		
+		return null;
+	}
+	
+}
@@ -1,5 +1,6 @@
 package com.shimizukenta.secs.secs2;
 
+import java.io.IOException;
 import java.util.Arrays;
 import java.util.Objects;
 
@@ -34,6 +35,11 @@ public class Secs2Jis8 extends AbstractSecs2 {
 		return bytes().length;
 	}
 	
+	@Override
+	protected byte[] bodyBytes() {
+		return bytes();
+	}
+	
 	@Override
 	protected void putBytesPack(Secs2BytesPackBuilder builder) throws Secs2BuildException {
 		this.putHeadAndBodyBytesToBytesPack(builder, bytes());
@@ -45,13 +51,13 @@ public class Secs2Jis8 extends AbstractSecs2 {
 	}
 	
 	@Override
-	protected String toJsonValue() {
-		return "false";
+	protected void writeJsonValue(Appendable appendable) throws IOException {
+		appendable.append("false");
 	}
 	
 	@Override
-	protected String toStringValue() {
-		return "NOT_SUPPORT";
+	protected void writeSmlValue(Appendable appendable) throws IOException {
+		appendable.append("NOT_SUPPORT");
 	}
 	
 }
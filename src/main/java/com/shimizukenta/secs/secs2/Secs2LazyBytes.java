@@ -0,0 +1,328 @@
+package com.shimizukenta.secs.secs2;
+
+import java.io.IOException;
+import java.io.ObjectStreamException;
+import java.math.BigInteger;
+import java.nio.Buffer;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.stream.Stream;
+
+/**
+ * This class is lazy view of SECS-II encoded bytes.
+ * 
+ * <p>
+ * Item-type and size are read from header bytes.<br />
+ * List items are indexed at first access, as views of same buffer.<br />
+ * Each item is parsed at first access of own values, and sending writes encoded bytes directly.<br />
+ * This class is created by {@link Secs2BytesParser#parseLazy(ByteBuffer)}.<br />
+ * </p>
+ * 
+ * @author kenta-shimizu
+ *
+ */
+public class Secs2LazyBytes extends AbstractSecs2 {
+	
+	private static final long serialVersionUID = -3027404612781694128L;
+	
+	private final transient ByteBuffer buffer;
+	private final Object sync = new Object();
+	private volatile AbstractSecs2 parsed;
+	private volatile Secs2LazyBytes[] children;
+	
+	protected Secs2LazyBytes(ByteBuffer buffer) {
+		super();
+		
+		this.buffer = buffer;
+		this.parsed = null;
+		this.children = null;
+	}
+	
+	private AbstractSecs2 parsed() {
+		
+		AbstractSecs2 ss = this.parsed;
+		
+		if ( ss == null ) {
+			
+			synchronized ( this.sync ) {
+				
+				ss = this.parsed;
+				
+				if ( ss == null ) {
+					
+					try {
+						ss = (AbstractSecs2)(Secs2BytesParser.getInstance().parse(this.buffer.duplicate()));
+					}
+					catch ( Secs2BytesParseException e ) {
+						throw new IllegalStateException(e);
+					}
+					
+					this.parsed = ss;
+				}
+			}
+		}
+		
+		return ss;
+	}
+	
+	/**
+	 * Returns {@code true} if already parsed.
+	 * 
+	 * @return {@code true} if already parsed
+	 */
+	public boolean isParsed() {
+		return this.parsed != null;
+	}
+	
+	/**
+	 * Returns encoded bytes length.
+	 * 
+	 * @return encoded bytes length
+	 */
+	@Override
+	public long encodedLength() {
+		return (long)(this.buffer.remaining());
+	}
+	
+	/**
+	 * Returns read-only duplicate of encoded bytes.
+	 * 
+	 * @return read-only duplicate of encoded bytes
+	 */
+	protected ByteBuffer encodedBuffer() {
+		return this.buffer.asReadOnlyBuffer();
+	}
+	
+	private int headerLength() {
+		
+		int lengthBits = this.buffer.get(0) & 0x03;
+		int v = 0;
+		
+		for ( int i = 1; i <= lengthBits; ++i ) {
+			v = (v << 8) | (((int)(this.buffer.get(i))) & 0x000000FF);
+		}
+		
+		return v;
+	}
+	
+	@Override
+	public Secs2Item secs2Item() {
+		return Secs2Item.get(this.buffer.get(0));
+	}
+	
+	@Override
+	public int size() {
+		
+		final Secs2Item s2i = secs2Item();
+		final int len = headerLength();
+		
+		if ( s2i == Secs2Item.LIST || s2i.size() <= 0 ) {
+			return len;
+		} else {
+			return len / s2i.size();
+		}
+	}
+	
+	@Override
+	public boolean isEmpty() {
+		return headerLength() == 0;
+	}
+	
+	@Override
+	protected void putBytesPack(Secs2BytesPackBuilder builder) throws Secs2BuildException {
+		builder.put(this.buffer.duplicate());
+	}
+	
+	@Override
+	protected void encode(ByteBuffer buffer) {
+		buffer.put(this.buffer.duplicate());
+	}
+	
+	/**
+	 * Returns views of list items, indexed at first access.
+	 * 
+	 * @return views of list items, or {@code null} if not LIST
+	 */
+	private Secs2LazyBytes[] children() {
+		
+		if ( secs2Item() != Secs2Item.LIST ) {
+			return null;
+		}
+		
+		Secs2LazyBytes[] cc = this.children;
+		
+		if ( cc == null ) {
+			
+			synchronized ( this.sync ) {
+				
+				cc = this.children;
+				
+				if ( cc == null ) {
+					
+					final ByteBuffer bf = this.buffer.duplicate();
+					((Buffer)bf).position(1 + (this.buffer.get(0) & 0x03));
+					
+					cc = new Secs2LazyBytes[headerLength()];
+					
+					try {
+						for ( int i = 0; i < cc.length; ++i ) {
+							
+							final ByteBuffer c = bf.duplicate();
+							Secs2BytesParser.stpSkip(bf);
+							((Buffer)c).limit(bf.position());
+							
+							cc[i] = new Secs2LazyBytes(c.slice());
+						}
+					}
+					catch ( Secs2BytesParseException e ) {
+						throw new IllegalStateException(e);
+					}
+					
+					this.children = cc;
+				}
+			}
+		}
+		
+		return cc;
+	}
+	
+	@Override
+	public Stream<Secs2> stream() {
+		
+		final Secs2LazyBytes[] cc = children();
+		
+		if ( cc == null ) {
+			return super.stream();
+		}
+		
+		return Stream.of(cc);
+	}
+	
+	@Override
+	public Iterator<Secs2> iterator() {
+		
+		final Secs2LazyBytes[] cc = children();
+		
+		if ( cc == null ) {
+			return super.iterator();
+		}
+		
+		return Arrays.<Secs2>asList(cc).iterator();
+	}
+	
+	@Override
+	protected AbstractSecs2 getItem(int index) throws Secs2Exception {
+		
+		final Secs2LazyBytes[] cc = children();
+		
+		if ( cc == null ) {
+			return super.getItem(index);
+		}
+		
+		if ( index < 0 || index >= cc.length ) {
+			throw new Secs2IndexOutOfBoundsException("index: " + index + ", size: " + cc.length);
+		}
+		
+		return cc[index];
+	}
+	
+	@Override
+	public String getAscii() throws Secs2Exception {
+		return parsed().getAscii();
+	}
+	
+	@Override
+	protected byte getByte(int index) throws Secs2Exception {
+		return parsed().getByte(index);
+	}
+	
+	@Override
+	protected boolean getBoolean(int index) throws Secs2Exception {
+		return parsed().getBoolean(index);
+	}
+	
+	@Override
+	protected int getInt(int index) throws Secs2Exception {
+		return parsed().getInt(index);
+	}
+	
+	@Override
+	protected long getLong(int index) throws Secs2Exception {
+		return parsed().getLong(index);
+	}
+	
+	@Override
+	protected BigInteger getBigInteger(int index) throws Secs2Exception {
+		return parsed().getBigInteger(index);
+	}
+	
+	@Override
+	protected float getFloat(int index) throws Secs2Exception {
+		return parsed().getFloat(index);
+	}
+	
+	@Override
+	protected double getDouble(int index) throws Secs2Exception {
+		return parsed().getDouble(index);
+	}
+	
+	@Override
+	public int[] getInts() throws Secs2Exception {
+		return parsed().getInts();
+	}
+	
+	@Override
+	public long[] getLongs() throws Secs2Exception {
+		return parsed().getLongs();
+	}
+	
+	@Override
+	public double[] getDoubles() throws Secs2Exception {
+		return parsed().getDoubles();
+	}
+	
+	@Override
+	protected void writeSml(Appendable appendable, int level) throws IOException {
+		parsed().writeSml(appendable, level);
+	}
+	
+	@Override
+	protected void writeSmlValue(Appendable appendable) throws IOException {
+		parsed().writeSmlValue(appendable);
+	}
+	
+	@Override
+	public void writeJson(Appendable appendable) throws IOException {
+		parsed().writeJson(appendable);
+	}
+	
+	@Override
+	protected void writeJsonValue(Appendable appendable) throws IOException {
+		parsed().writeJsonValue(appendable);
+	}
+	
+	@Override
+	protected AbstractSecs2 structure() {
+		return parsed();
+	}
+	
+	@Override
+	public boolean equals(Object o) {
+		
+		if ( o instanceof Secs2LazyBytes ) {
+			
+			/* same encoded bytes, without parsing */
+			if ( this.buffer.equals(((Secs2LazyBytes)o).buffer) ) {
+				return true;
+			}
+		}
+		
+		return super.equals(o);
+	}
+	
+	protected Object writeReplace() throws ObjectStreamException {
+		return parsed();
+	}
+	
+}
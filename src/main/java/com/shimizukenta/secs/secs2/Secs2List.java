@@ -1,9 +1,10 @@
 package com.shimizukenta.secs.secs2;
 
+import java.io.IOException;
+import java.nio.ByteBuffer;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.Iterator;
-import java.util.LinkedList;
 import java.util.List;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
@@ -14,36 +15,26 @@ public class Secs2List extends AbstractSecs2 {
 	
 	private static final Secs2Item secs2Item = Secs2Item.LIST;
 	
-	private static final String SPACE = "  ";
 	private static final String BR = System.lineSeparator();
 	
-
 	private final List<Secs2> values;
-	private String proxyToString;
-	private String proxyToJson;
 	
 	public Secs2List() {
 		super();
 		
 		this.values = Collections.emptyList();
-		this.proxyToString = null;
-		this.proxyToJson = null;
 	}
 
 	public Secs2List(Secs2... values){
 		super();
 		
 		this.values = Stream.of(values).collect(Collectors.toList());
-		this.proxyToString = null;
-		this.proxyToJson = null;
 	}
 
 	public Secs2List(List<? extends Secs2> values) {
 		super();
 		
 		this.values = new ArrayList<>(values);
-		this.proxyToString = null;
-		this.proxyToJson = null;
 	}
 
 	@Override
@@ -80,96 +71,147 @@ public class Secs2List extends AbstractSecs2 {
 	}
 	
 	@Override
-	protected AbstractSecs2 get( LinkedList<Integer> list ) throws Secs2Exception {
+	protected long calcEncodedLength() throws Secs2BuildException {
+		
+		long len = (long)(headerBytesLength(size()));
+		
+		for ( Secs2 ss : values ) {
+			len += cast(ss).encodedLength();
+		}
+		
+		return len;
+	}
+	
+	@Override
+	protected void encode(ByteBuffer buffer) throws Secs2BuildException {
+		
+		this.encodeHeader(buffer, size());
+		
+		for ( Secs2 ss : values ) {
+			cast(ss).encode(buffer);
+		}
+	}
+	
+	private static AbstractSecs2 cast(Secs2 ss) throws Secs2BuildException {
+		
+		if ( ss instanceof AbstractSecs2 ) {
+			return (AbstractSecs2)ss;
+		} else {
+			throw new Secs2BuildException("cast failed");
+		}
+	}
+	
+	@Override
+	protected boolean equalsValue(AbstractSecs2 other) {
 		
-		if ( list.isEmpty() ) {
+		if ( other instanceof Secs2List ) {
 			
-			return this;
+			final List<Secs2> vv = ((Secs2List)other).values;
 			
-		} else {
+			if ( values.size() != vv.size() ) {
+				return false;
+			}
 			
-			try {
-				int index = list.removeFirst();
-				Secs2 ss = values.get(index);
-				
-				if ( ss instanceof AbstractSecs2 ) {
-					
-					return ((AbstractSecs2)ss).get(list);
-					
-				} else {
-					
-					throw new Secs2Exception("cast failed");
+			for ( int i = 0, m = values.size(); i < m; ++i ) {
+				if ( ! values.get(i).equals(vv.get(i)) ) {
+					return false;
 				}
 			}
-			catch ( IndexOutOfBoundsException e ) {
-				throw new Secs2IndexOutOfBoundsException(e);
-			}
+			
+			return true;
 		}
+		
+		return false;
 	}
-
+	
 	@Override
-	public Secs2Item secs2Item() {
-		return secs2Item;
+	protected int hashValue() {
+		
+		int h = 1;
+		
+		for ( Secs2 ss : values ) {
+			h = 31 * h + ss.hashCode();
+		}
+		
+		return h;
 	}
 	
 	@Override
-	public String toString() {
-		synchronized ( this ) {
-			if ( this.proxyToString == null ) {
-				this.proxyToString = lineStrings("").stream().collect(Collectors.joining(BR));
+	protected AbstractSecs2 getItem(int index) throws Secs2Exception {
+		
+		try {
+			Secs2 ss = values.get(index);
+			
+			if ( ss instanceof AbstractSecs2 ) {
+				return (AbstractSecs2)ss;
+			} else {
+				throw new Secs2Exception("cast failed");
 			}
-			return this.proxyToString;
 		}
+		catch ( IndexOutOfBoundsException e ) {
+			throw new Secs2IndexOutOfBoundsException(e);
+		}
+	}
+	
+	@Override
+	public Secs2Item secs2Item() {
+		return secs2Item;
 	}
 	
-	private List<String> lineStrings(String space) {
+	@Override
+	protected void writeSml(Appendable appendable, int level) throws IOException {
 		
-		final List<String> lines = new ArrayList<>();
+		appendIndent(appendable, level);
 		
-		lines.add(space + "<" + secs2Item().symbol() + " [" + size() + "]");
+		appendable.append('<')
+		.append(secs2Item().symbol())
+		.append(" [")
+		.append(String.valueOf(size()))
+		.append(']');
 		
-		values.stream()
-		.map(s -> {
+		for ( Secs2 ss : values ) {
 			
-			String ss = space + SPACE;
+			appendable.append(BR);
 			
-			if ( s instanceof Secs2List ) {
+			if ( ss instanceof AbstractSecs2 ) {
 				
-				return ((Secs2List)s).lineStrings(ss).stream()
-						.collect(Collectors.joining(BR));
+				((AbstractSecs2)ss).writeSml(appendable, level + 1);
 				
 			} else {
 				
-				return ss + s.toString();
+				appendIndent(appendable, level + 1);
+				ss.writeSml(appendable);
 			}
-		})
-		.forEach(lines::add);
-		
-		lines.add(space + ">");
+		}
 		
-		return lines;
+		appendable.append(BR);
+		appendIndent(appendable, level);
+		appendable.append('>');
 	}
 	
 	@Override
-	public String toJson() {
-		synchronized ( this ) {
-			if ( this.proxyToJson == null ) {
-				this.proxyToJson = super.toJson();
-			}
-			return this.proxyToJson;
-		}
+	protected void writeSmlValue(Appendable appendable) {
+		/* Nothing */
 	}
 	
 	@Override
-	protected String toJsonValue() {
+	protected void writeJsonValue(Appendable appendable) throws IOException {
 		
-		return stream().map(ss -> ss.toJson())
-				.collect(Collectors.joining(",", "[", "]"));
-	}
-	
-	@Override
-	protected String toStringValue() {
-		return "";
+		appendable.append('[');
+		
+		boolean first = true;
+		
+		for ( Secs2 ss : values ) {
+			
+			if ( ! first ) {
+				appendable.append(',');
+			}
+			
+			ss.writeJson(appendable);
+			first = false;
+		}
+		
+		appendable.append(']');
 	}
 
 }
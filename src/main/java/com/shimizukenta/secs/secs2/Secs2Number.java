@@ -1,152 +1,201 @@
 package com.shimizukenta.secs.secs2;
 
-import java.nio.Buffer;
-import java.nio.BufferUnderflowException;
-import java.nio.ByteBuffer;
-import java.util.ArrayList;
-import java.util.List;
-import java.util.stream.Collectors;
+import java.io.IOException;
+import java.util.Objects;
 
+/**
+ * This abstract class is numeric SECS-II item, backed by big-endian encoded bytes.
+ * 
+ * <p>
+ * Values are decoded from bytes at access, not boxed.<br />
+ * </p>
+ * 
+ * @author kenta-shimizu
+ *
+ * @param <T> Number type of item
+ */
 abstract public class Secs2Number<T extends Number> extends AbstractSecs2 {
 	
 	private static final long serialVersionUID = -5315163278193292437L;
 	
-	protected List<T> values;
-	protected byte[] bytes;
+	private final byte[] bytes;
 	
-	public Secs2Number() {
+	/**
+	 * Constructor.
+	 * 
+	 * @param bytes encoded bytes, not copied, owned by this item
+	 */
+	protected Secs2Number(byte[] bytes) {
 		super();
 		
-		this.values = null;
-		this.bytes = null;
+		this.bytes = Objects.requireNonNull(bytes);
 	}
 	
-	abstract protected T byteBufferGetter(ByteBuffer bf);
-	abstract protected void byteBufferPutter(ByteBuffer bf, T value);
+	protected byte[] bytes() {
+		return this.bytes;
+	}
 	
-	protected synchronized List<T> values() throws Secs2Exception {
+	/**
+	 * Returns offset of bytes of value.
+	 * 
+	 * @param index
+	 * @return offset
+	 * @throws Secs2IndexOutOfBoundsException
+	 */
+	protected int offset(int index) throws Secs2IndexOutOfBoundsException {
 		
-		if ( this.values == null ) {
-			
-			try {
-				ByteBuffer bf = ByteBuffer.allocate(this.bytes.length);
-				bf.put(this.bytes);
-				((Buffer)bf).flip();
-				
-				List<T> vv = new ArrayList<>();
-				while ( bf.hasRemaining() ) {
-					vv.add(byteBufferGetter(bf));
-				}
-				
-				this.values = vv;
-			}
-			catch ( BufferUnderflowException e ) {
-				throw new Secs2Exception(e);
-			}
+		if ( index < 0 || index >= size() ) {
+			throw new Secs2IndexOutOfBoundsException("index: " + index + ", size: " + size());
 		}
 		
-		return this.values;
+		return index * secs2Item().size();
 	}
 	
-	protected synchronized byte[] bytes() {
+	/**
+	 * Big-endian bytes to long.
+	 * 
+	 * @param bs
+	 * @param offset
+	 * @param length bytes length, {@code <= 8}
+	 * @param unsigned
+	 * @return value
+	 */
+	protected static long bytesToLong(byte[] bs, int offset, int length, boolean unsigned) {
 		
-		if ( this.bytes == null ) {
-			
-			int size = secs2Item().size() * this.values.size();
-			
-			ByteBuffer bf = ByteBuffer.allocate(size);
-			this.values.forEach(v -> { byteBufferPutter(bf, v); });
-			((Buffer)bf).flip();
-			
-			this.bytes = new byte[size];
-			bf.get(this.bytes);
+		long v = unsigned ? 0L : (long)(bs[offset]);
+		
+		for ( int i = (unsigned ? 0 : 1); i < length; ++i ) {
+			v = (v << 8) | ((long)(bs[offset + i]) & 0xFFL);
 		}
 		
-		return this.bytes;
+		return v;
 	}
 	
+	/**
+	 * long to big-endian bytes, lower bytes of value.
+	 * 
+	 * @param bs
+	 * @param offset
+	 * @param length bytes length, {@code <= 8}
+	 * @param v value
+	 */
+	protected static void longToBytes(byte[] bs, int offset, int length, long v) {
+		
+		for ( int i = length - 1; i >= 0; --i ) {
+			bs[offset + i] = (byte)v;
+			v >>= 8;
+		}
+	}
+	
+	abstract protected long longValue(int index) throws Secs2Exception;
+	
+	abstract protected double doubleValue(int index) throws Secs2Exception;
+	
+	/**
+	 * Append value string for SML and JSON.
+	 * 
+	 * @param appendable
+	 * @param index
+	 * @throws IOException
+	 */
+	abstract protected void appendValue(Appendable appendable, int index) throws IOException;
+	
 	@Override
 	public int size() {
-		try {
-			return values().size();
-		}
-		catch ( Secs2Exception e ) {
-			return -1;
-		}
+		return this.bytes.length / secs2Item().size();
+	}
+	
+	@Override
+	protected byte[] bodyBytes() {
+		return bytes();
 	}
 	
 	@Override
 	protected void putBytesPack(Secs2BytesPackBuilder builder) throws Secs2BuildException {
 		this.putHeadAndBodyBytesToBytesPack(builder, bytes());
 	}
-
+	
 	@Override
 	protected int getInt(int index) throws Secs2Exception {
-		
-		try {
-			return values().get(index).intValue();
-		}
-		catch ( IndexOutOfBoundsException e ) {
-			throw new Secs2IndexOutOfBoundsException(e);
-		}
+		return (int)longValue(index);
 	}
 	
 	@Override
 	protected long getLong(int index) throws Secs2Exception {
-		
-		try {
-			return values().get(index).longValue();
-		}
-		catch ( IndexOutOfBoundsException e ) {
-			throw new Secs2IndexOutOfBoundsException(e);
-		}
+		return longValue(index);
 	}
 	
 	@Override
 	protected float getFloat(int index) throws Secs2Exception {
-		
-		try {
-			return values().get(index).floatValue();
-		}
-		catch ( IndexOutOfBoundsException e ) {
-			throw new Secs2IndexOutOfBoundsException(e);
-		}
+		return (float)doubleValue(index);
 	}
 	
 	@Override
 	protected double getDouble(int index) throws Secs2Exception {
+		return doubleValue(index);
+	}
+	
+	@Override
+	public int[] getInts() throws Secs2Exception {
 		
-		try {
-			return values().get(index).doubleValue();
-		}
-		catch ( IndexOutOfBoundsException e ) {
-			throw new Secs2IndexOutOfBoundsException(e);
+		final int m = size();
+		final int[] vv = new int[m];
+		
+		for ( int i = 0; i < m; ++i ) {
+			vv[i] = getInt(i);
 		}
+		
+		return vv;
 	}
 	
 	@Override
-	protected String toJsonValue() {
+	public long[] getLongs() throws Secs2Exception {
 		
-		try {
-			return values().stream()
-					.map(Number::toString)
-					.collect(Collectors.joining(",", "[", "]"));
-		}
-		catch ( Secs2Exception e ) {
-			return "false";
+		final int m = size();
+		final long[] vv = new long[m];
+		
+		for ( int i = 0; i < m; ++i ) {
+			vv[i] = longValue(i);
 		}
+		
+		return vv;
 	}
 	
 	@Override
-	protected String toStringValue() {
-		try {
-			return values().stream()
-					.map(Number::toString)
-					.collect(Collectors.joining(" "));
+	public double[] getDoubles() throws Secs2Exception {
+		
+		final int m = size();
+		final double[] vv = new double[m];
+		
+		for ( int i = 0; i < m; ++i ) {
+			vv[i] = doubleValue(i);
 		}
-		catch ( Secs2Exception e ) {
-			return "PARSE_FAILED";
+		
+		return vv;
+	}
+	
+	private void appendValues(Appendable appendable, char delimiter) throws IOException {
+		
+		for ( int i = 0, m = size(); i < m; ++i ) {
+			
+			if ( i > 0 ) {
+				appendable.append(delimiter);
+			}
+			
+			appendValue(appendable, i);
 		}
 	}
 	
+	@Override
+	protected void writeJsonValue(Appendable appendable) throws IOException {
+		appendable.append('[');
+		appendValues(appendable, ',');
+		appendable.append(']');
+	}
+	
+	@Override
+	protected void writeSmlValue(Appendable appendable) throws IOException {
+		appendValues(appendable, ' ');
+	}
+	
 }
@@ -0,0 +1,193 @@
+package com.shimizukenta.secs.secs2;
+
+import java.io.Serializable;
+import java.math.BigInteger;
+import java.util.Arrays;
+import java.util.Objects;
+
+/**
+ * This class is compiled index-path of SECS-II.
+ * 
+ * <p>
+ * Create once by {@link #of(int...)}, and apply to any Secs2.<br />
+ * {@code Secs2Path.of(2, 0, 1).getInt(secs2)} is same as {@code secs2.getInt(2, 0, 1)},
+ * without allocation for each call.<br />
+ * Also applicable to lazy view, only items on path are indexed.<br />
+ * This class is immutable.<br />
+ * </p>
+ * 
+ * @author kenta-shimizu
+ *
+ */
+public final class Secs2Path implements Serializable {
+	
+	private static final long serialVersionUID = 2406381329436780941L;
+	
+	private static final Secs2Path ROOT = new Secs2Path(new int[0]);
+	
+	private final int[] indices;
+	
+	private Secs2Path(int[] indices) {
+		this.indices = indices;
+	}
+	
+	/**
+	 * Returns path instance.
+	 * 
+	 * @param indices
+	 * @return path
+	 */
+	public static Secs2Path of(int... indices) {
+		
+		Objects.requireNonNull(indices);
+		
+		if ( indices.length == 0 ) {
+			return ROOT;
+		}
+		
+		for ( int i : indices ) {
+			if ( i < 0 ) {
+				throw new IllegalArgumentException("index is >= 0");
+			}
+		}
+		
+		return new Secs2Path(Arrays.copyOf(indices, indices.length));
+	}
+	
+	/**
+	 * Returns root path.
+	 * 
+	 * @return root path
+	 */
+	public static Secs2Path root() {
+		return ROOT;
+	}
+	
+	/**
+	 * Returns child path.
+	 * 
+	 * @param index
+	 * @return child path
+	 */
+	public Secs2Path child(int index) {
+		
+		if ( index < 0 ) {
+			throw new IllegalArgumentException("index is >= 0");
+		}
+		
+		final int[] ii = Arrays.copyOf(this.indices, this.indices.length + 1);
+		ii[this.indices.length] = index;
+		return new Secs2Path(ii);
+	}
+	
+	/**
+	 * Returns copy of indices.
+	 * 
+	 * @return indices
+	 */
+	public int[] indices() {
+		return Arrays.copyOf(this.indices, this.indices.length);
+	}
+	
+	/**
+	 * Returns depth of path.
+	 * 
+	 * @return depth
+	 */
+	public int depth() {
+		return this.indices.length;
+	}
+	
+	private static AbstractSecs2 cast(Secs2 secs2) throws Secs2Exception {
+		
+		if ( secs2 instanceof AbstractSecs2 ) {
+			return (AbstractSecs2)secs2;
+		} else {
+			throw new Secs2Exception("cast failed");
+		}
+	}
+	
+	private AbstractSecs2 item(Secs2 secs2) throws Secs2Exception {
+		return cast(secs2).get(this.indices, this.indices.length);
+	}
+	
+	private AbstractSecs2 parent(Secs2 secs2) throws Secs2Exception {
+		
+		if ( this.indices.length == 0 ) {
+			throw new Secs2IndexOutOfBoundsException("indices is empty");
+		}
+		
+		return cast(secs2).get(this.indices, this.indices.length - 1);
+	}
+	
+	private int last() {
+		return this.indices[this.indices.length - 1];
+	}
+	
+	public Secs2 get(Secs2 secs2) throws Secs2Exception {
+		return item(secs2);
+	}
+	
+	public String getAscii(Secs2 secs2) throws Secs2Exception {
+		return item(secs2).getAscii();
+	}
+	
+	public byte getByte(Secs2 secs2) throws Secs2Exception {
+		return parent(secs2).getByte(last());
+	}
+	
+	public boolean getBoolean(Secs2 secs2) throws Secs2Exception {
+		return parent(secs2).getBoolean(last());
+	}
+	
+	public int getInt(Secs2 secs2) throws Secs2Exception {
+		return parent(secs2).getInt(last());
+	}
+	
+	public long getLong(Secs2 secs2) throws Secs2Exception {
+		return parent(secs2).getLong(last());
+	}
+	
+	public BigInteger getBigInteger(Secs2 secs2) throws Secs2Exception {
+		return parent(secs2).getBigInteger(last());
+	}
+	
+	public float getFloat(Secs2 secs2) throws Secs2Exception {
+		return parent(secs2).getFloat(last());
+	}
+	
+	public double getDouble(Secs2 secs2) throws Secs2Exception {
+		return parent(secs2).getDouble(last());
+	}
+	
+	public int[] getInts(Secs2 secs2) throws Secs2Exception {
+		return item(secs2).getInts();
+	}
+	
+	public long[] getLongs(Secs2 secs2) throws Secs2Exception {
+		return item(secs2).getLongs();
+	}
+	
+	public double[] getDoubles(Secs2 secs2) throws Secs2Exception {
+		return item(secs2).getDoubles();
+	}
+	
+	@Override
+	public int hashCode() {
+		return Arrays.hashCode(this.indices);
+	}
+	
+	@Override
+	public boolean equals(Object o) {
+		if ( o != null && (o instanceof Secs2Path) ) {
+			return Arrays.equals(((Secs2Path)o).indices, this.indices);
+		}
+		return false;
+	}
+	
+	@Override
+	public String toString() {
+		return Arrays.toString(this.indices);
+	}
+	
+}
@@ -1,5 +1,7 @@
 package com.shimizukenta.secs.secs2;
 
+import java.io.IOException;
+import java.nio.ByteBuffer;
 import java.util.Arrays;
 
 public class Secs2RawBytes extends AbstractSecs2 {
@@ -31,29 +33,44 @@ public class Secs2RawBytes extends AbstractSecs2 {
 		return Secs2Item.UNDEFINED;
 	}
 	
+	@Override
+	protected byte[] bodyBytes() {
+		return bs;
+	}
+	
+	@Override
+	protected long calcEncodedLength() {
+		return (long)(bs.length);
+	}
+	
+	@Override
+	protected void encode(ByteBuffer buffer) {
+		buffer.put(bs);
+	}
+	
 	@Override
 	protected void putBytesPack(Secs2BytesPackBuilder builder) throws Secs2BuildException {
 		builder.put(bs);
 	}
 	
 	@Override
-	public String toString() {
-		return "";
+	protected void writeSml(Appendable appendable, int level) {
+		/* Nothing */
 	}
 	
 	@Override
-	protected String toStringValue() {
-		return "";
+	protected void writeSmlValue(Appendable appendable) {
+		/* Nothing */
 	}
 	
 	@Override
-	public String toJson() {
-		return "{}";
+	public void writeJson(Appendable appendable) throws IOException {
+		appendable.append("{}");
 	}
 	
 	@Override
-	protected String toJsonValue() {
-		return "";
+	protected void writeJsonValue(Appendable appendable) {
+		/* Nothing */
 	}
 	
 }
@@ -1,7 +1,6 @@
 package com.shimizukenta.secs.secs2;
 
 import java.math.BigInteger;
-import java.nio.ByteBuffer;
 import java.util.List;
 
 public class Secs2Uint2 extends Secs2BigInteger {
@@ -15,35 +14,25 @@ public class Secs2Uint2 extends Secs2BigInteger {
 	}
 	
 	public Secs2Uint2(int... values) {
-		super(values);
+		super(secs2Item, values);
 	}
 
 	public Secs2Uint2(long... values) {
-		super(values);
+		super(secs2Item, values);
 	}
 
 	public Secs2Uint2(BigInteger... values) {
-		super(values);
+		super(secs2Item, values);
 	}
 
 	protected Secs2Uint2(List<? extends Number> values) {
-		super(values);
+		super(secs2Item, values);
 	}
 
 	protected Secs2Uint2(byte[] bs) {
 		super(bs);
 	}
 
-	@Override
-	protected BigInteger byteBufferGetter(ByteBuffer bf) {
-		return getBigInteger(bf, true);
-	}
-
-	@Override
-	protected void byteBufferPutter(ByteBuffer bf, BigInteger value) {
-		bf.putShort(value.shortValue());
-	}
-
 	@Override
 	public Secs2Item secs2Item() {
 		return secs2Item;
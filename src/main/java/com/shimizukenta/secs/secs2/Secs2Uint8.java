@@ -1,7 +1,6 @@
 package com.shimizukenta.secs.secs2;
 
 import java.math.BigInteger;
-import java.nio.ByteBuffer;
 import java.util.List;
 
 public class Secs2Uint8 extends Secs2BigInteger {
@@ -15,35 +14,25 @@ public class Secs2Uint8 extends Secs2BigInteger {
 	}
 	
 	public Secs2Uint8(int... values) {
-		super(values);
+		super(secs2Item, values);
 	}
 
 	public Secs2Uint8(long... values) {
-		super(values);
+		super(secs2Item, values);
 	}
 
 	public Secs2Uint8(BigInteger... values) {
-		super(values);
+		super(secs2Item, values);
 	}
 
 	public Secs2Uint8(List<? extends Number> values) {
-		super(values);
+		super(secs2Item, values);
 	}
 
 	protected Secs2Uint8(byte[] bs) {
 		super(bs);
 	}
 
-	@Override
-	protected BigInteger byteBufferGetter(ByteBuffer bf) {
-		return getBigInteger(bf, true);
-	}
-
-	@Override
-	protected void byteBufferPutter(ByteBuffer bf, BigInteger value) {
-		bf.putLong(value.longValue());
-	}
-
 	@Override
 	public Secs2Item secs2Item() {
 		return secs2Item;
@@ -0,0 +1,219 @@
+package com.shimizukenta.secs.secs2;
+
+import java.math.BigInteger;
+import java.nio.Buffer;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * This class is item of {@link Secs2Visitor}, view of encoded body.
+ * 
+ * <p>
+ * Values are read from buffer directly, primitive getters do not allocate.<br />
+ * Instance is reused while visiting, valid only in callback.<br />
+ * </p>
+ * 
+ * @author kenta-shimizu
+ *
+ */
+public final class Secs2VisitItem {
+	
+	private final ByteBuffer buffer;
+	private Secs2Item secs2Item;
+	private int offset;
+	private int length;
+	
+	protected Secs2VisitItem(ByteBuffer buffer) {
+		this.buffer = buffer;
+		this.secs2Item = Secs2Item.UNDEFINED;
+		this.offset = 0;
+		this.length = 0;
+	}
+	
+	protected void set(Secs2Item secs2Item, int offset, int length) {
+		this.secs2Item = secs2Item;
+		this.offset = offset;
+		this.length = length;
+	}
+	
+	public Secs2Item secs2Item() {
+		return this.secs2Item;
+	}
+	
+	/**
+	 * Returns item-count size.
+	 * 
+	 * @return item-count size
+	 */
+	public int size() {
+		
+		final int n = this.secs2Item.size();
+		
+		if ( n > 1 ) {
+			return this.length / n;
+		} else {
+			return this.length;
+		}
+	}
+	
+	/**
+	 * Returns body bytes length.
+	 * 
+	 * @return body bytes length
+	 */
+	public int length() {
+		return this.length;
+	}
+	
+	/**
+	 * Returns read-only slice of body bytes.
+	 * 
+	 * <p>
+	 * Slice shares source buffer, valid while source buffer is not modified.<br />
+	 * </p>
+	 * 
+	 * @return read-only slice of body bytes
+	 */
+	public ByteBuffer body() {
+		final ByteBuffer bf = this.buffer.duplicate();
+		((Buffer)bf).limit(this.offset + this.length);
+		((Buffer)bf).position(this.offset);
+		return bf.slice().asReadOnlyBuffer();
+	}
+	
+	private int position(int index) throws Secs2Exception {
+		
+		if ( index < 0 || index >= size() ) {
+			throw new Secs2IndexOutOfBoundsException("index: " + index + ", size: " + size());
+		}
+		
+		return this.offset + index * Math.max(this.secs2Item.size(), 1);
+	}
+	
+	public String getAscii() throws Secs2Exception {
+		
+		if ( this.secs2Item != Secs2Item.ASCII ) {
+			throw new Secs2IrregalDataFormatException("Not Secs2Ascii");
+		}
+		
+		final byte[] bs = new byte[this.length];
+		
+		for ( int i = 0; i < this.length; ++i ) {
+			bs[i] = this.buffer.get(this.offset + i);
+		}
+		
+		return new String(bs, StandardCharsets.US_ASCII);
+	}
+	
+	/**
+	 * Returns {@code true} if ASCII and equals to value.
+	 * 
+	 * <p>
+	 * Compared without allocation.<br />
+	 * </p>
+	 * 
+	 * @param cs
+	 * @return {@code true} if ASCII and equals to value
+	 */
+	public boolean asciiEquals(CharSequence cs) {
+		
+		if ( this.secs2Item != Secs2Item.ASCII || cs.length() != this.length ) {
+			return false;
+		}
+		
+		for ( int i = 0; i < this.length; ++i ) {
+			if ( this.buffer.get(this.offset + i) != (byte)(cs.charAt(i)) ) {
+				return false;
+			}
+		}
+		
+		return true;
+	}
+	
+	public byte getByte(int index) throws Secs2Exception {
+		
+		if ( this.secs2Item != Secs2Item.BINARY ) {
+			throw new Secs2IrregalDataFormatException("Not Secs2Binary");
+		}
+		
+		return this.buffer.get(position(index));
+	}
+	
+	public boolean getBoolean(int index) throws Secs2Exception {
+		
+		if ( this.secs2Item != Secs2Item.BOOLEAN ) {
+			throw new Secs2IrregalDataFormatException("Not Secs2Boolean");
+		}
+		
+		return this.buffer.get(position(index)) != (byte)0x00;
+	}
+	
+	public int getInt(int index) throws Secs2Exception {
+		return (int)getLong(index);
+	}
+	
+	public long getLong(int index) throws Secs2Exception {
+		
+		switch ( this.secs2Item ) {
+		case BINARY:
+		case INT1: {
+			return (long)(this.buffer.get(position(index)));
+		}
+		case INT2: {
+			return (long)(this.buffer.getShort(position(index)));
+		}
+		case INT4: {
+			return (long)(this.buffer.getInt(position(index)));
+		}
+		case INT8:
+		case UINT8: {
+			return this.buffer.getLong(position(index));
+		}
+		case UINT1: {
+			return ((long)(this.buffer.get(position(index)))) & 0xFFL;
+		}
+		case UINT2: {
+			return ((long)(this.buffer.getShort(position(index)))) & 0xFFFFL;
+		}
+		case UINT4: {
+			return ((long)(this.buffer.getInt(position(index)))) & 0xFFFFFFFFL;
+		}
+		case FLOAT4:
+		case FLOAT8: {
+			return (long)getDouble(index);
+		}
+		default: {
+			throw new Secs2IrregalDataFormatException("Not Secs2Number");
+		}
+		}
+	}
+	
+	public float getFloat(int index) throws Secs2Exception {
+		return (float)getDouble(index);
+	}
+	
+	public double getDouble(int index) throws Secs2Exception {
+		
+		switch ( this.secs2Item ) {
+		case FLOAT4: {
+			return (double)(this.buffer.getFloat(position(index)));
+		}
+		case FLOAT8: {
+			return this.buffer.getDouble(position(index));
+		}
+		case UINT8: {
+			final long v = this.buffer.getLong(position(index));
+			return v >= 0L ? (double)v : new BigInteger(Long.toUnsignedString(v)).doubleValue();
+		}
+		default: {
+			return (double)getLong(index);
+		}
+		}
+	}
+	
+	@Override
+	public String toString() {
+		return this.secs2Item.symbol() + " [" + size() + "]";
+	}
+	
+}
@@ -0,0 +1,35 @@
+package com.shimizukenta.secs.secs2;
+
+/**
+ * This enum is result of {@link Secs2Visitor} callback.
+ * 
+ * @author kenta-shimizu
+ *
+ */
+public enum Secs2VisitResult {
+	
+	/**
+	 * Continue.
+	 */
+	CONTINUE,
+	
+	/**
+	 * Skip items of this LIST, and {@link Secs2Visitor#endList()} is not called.
+	 * 
+	 * <p>
+	 * Same as CONTINUE if returned from item or end-of-list.<br />
+	 * </p>
+	 */
+	SKIP_SUBTREE,
+	
+	/**
+	 * Skip remaining siblings, then parent end-of-list is called.
+	 */
+	SKIP_SIBLINGS,
+	
+	/**
+	 * Terminate visiting.
+	 */
+	TERMINATE,
+	;
+}
@@ -0,0 +1,55 @@
+package com.shimizukenta.secs.secs2;
+
+/**
+ * This interface is visitor of SECS-II encoded bytes, SAX-style.
+ * 
+ * <p>
+ * Callbacks are called in encoded order, without building Secs2 tree.<br />
+ * To visit, {@link Secs2BytesParser#visit(java.nio.ByteBuffer, Secs2Visitor)}.<br />
+ * Override only needed methods, default returns {@link Secs2VisitResult#CONTINUE}.<br />
+ * </p>
+ * 
+ * @author kenta-shimizu
+ *
+ */
+public interface Secs2Visitor {
+	
+	/**
+	 * Called at start of LIST.
+	 * 
+	 * <p>
+	 * Return {@link Secs2VisitResult#SKIP_SUBTREE} to skip items of this LIST.<br />
+	 * </p>
+	 * 
+	 * @param size item-count of LIST
+	 * @return result
+	 */
+	default public Secs2VisitResult startList(int size) {
+		return Secs2VisitResult.CONTINUE;
+	}
+	
+	/**
+	 * Called at end of LIST.
+	 * 
+	 * @return result
+	 */
+	default public Secs2VisitResult endList() {
+		return Secs2VisitResult.CONTINUE;
+	}
+	
+	/**
+	 * Called at each item except LIST.
+	 * 
+	 * <p>
+	 * Item instance is reused, valid only in this call.<br />
+	 * </p>
+	 * 
+	 * @param item
+	 * @return result
+	 * @throws Secs2Exception
+	 */
+	default public Secs2VisitResult item(Secs2VisitItem item) throws Secs2Exception {
+		return Secs2VisitResult.CONTINUE;
+	}
+	
+}
@@ -0,0 +1,471 @@
+package com.shimizukenta.secs.secs2;
+
+import java.nio.Buffer;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.Arrays;
+import java.util.Objects;
+
+/**
+ * This class is streaming writer of SECS-II encoded bytes.
+ * 
+ * <p>
+ * Items are encoded directly to buffer in call order, without building Secs2 tree.<br />
+ * LIST is started by {@link #beginList(int)}, and closed automatically when size items are written.<br />
+ * Item counts of LIST are checked in each write.<br />
+ * {@link #toSecs2()} returns view of written bytes, sending writes these bytes directly.<br />
+ * This class is not thread-safe.<br />
+ * </p>
+ * 
+ * <pre>
+ * Secs2Writer w = Secs2Writer.create();
+ * w.beginList(2).uint4(dataId).beginList(vids.length);
+ * for ( int vid : vids ) {
+ *     w.uint4(vid);
+ * }
+ * Secs2 secs2 = w.toSecs2();
+ * </pre>
+ * 
+ * @author kenta-shimizu
+ *
+ */
+public final class Secs2Writer {
+	
+	private static final int DEFAULT_CAPACITY = 1024;
+	
+	private ByteBuffer buffer;
+	private final boolean growable;
+	private final int start;
+	
+	private int[] remains;
+	private int depth;
+	private boolean rootWritten;
+	
+	private Secs2Writer(ByteBuffer buffer, boolean growable) {
+		this.buffer = buffer;
+		this.growable = growable;
+		this.start = buffer.position();
+		this.remains = new int[8];
+		this.depth = 0;
+		this.rootWritten = false;
+	}
+	
+	/**
+	 * Returns new writer to growable heap buffer.
+	 * 
+	 * @return new writer
+	 */
+	public static Secs2Writer create() {
+		return create(DEFAULT_CAPACITY);
+	}
+	
+	/**
+	 * Returns new writer to growable heap buffer.
+	 * 
+	 * @param initialCapacity
+	 * @return new writer
+	 */
+	public static Secs2Writer create(int initialCapacity) {
+		
+		if ( initialCapacity < 0 ) {
+			throw new IllegalArgumentException("initialCapacity is >= 0");
+		}
+		
+		return new Secs2Writer(ByteBuffer.allocate(initialCapacity), true);
+	}
+	
+	/**
+	 * Returns new writer to buffer.
+	 * 
+	 * <p>
+	 * Bytes are written from buffer position, buffer is not grown.<br />
+	 * Buffer may be heap or direct, for example outgoing frame buffer.<br />
+	 * Position of buffer is not changed, written length is {@link #length()}.<br />
+	 * </p>
+	 * 
+	 * @param buffer
+	 * @return new writer
+	 */
+	public static Secs2Writer to(ByteBuffer buffer) {
+		return new Secs2Writer(Objects.requireNonNull(buffer).duplicate().order(ByteOrder.BIG_ENDIAN), false);
+	}
+	
+	/**
+	 * Returns written bytes length.
+	 * 
+	 * @return written bytes length
+	 */
+	public int length() {
+		return this.buffer.position() - this.start;
+	}
+	
+	/**
+	 * Returns {@code true} if root item and all LIST items are written.
+	 * 
+	 * @return {@code true} if completed
+	 */
+	public boolean isCompleted() {
+		return this.rootWritten && this.depth == 0;
+	}
+	
+	/**
+	 * Returns SECS-II view of written bytes.
+	 * 
+	 * <p>
+	 * Bytes are not copied, do not write to buffer after.<br />
+	 * </p>
+	 * 
+	 * @return SECS-II view of written bytes
+	 * @throws Secs2BuildException if not completed
+	 */
+	public Secs2 toSecs2() throws Secs2BuildException {
+		
+		if ( ! isCompleted() ) {
+			throw new Secs2BuildException("Not completed, depth: " + this.depth);
+		}
+		
+		final ByteBuffer bf = this.buffer.duplicate();
+		((Buffer)bf).limit(bf.position());
+		((Buffer)bf).position(this.start);
+		
+		return new Secs2LazyBytes(bf.slice().asReadOnlyBuffer());
+	}
+	
+	private void countItem() throws Secs2BuildException {
+		
+		if ( this.depth == 0 ) {
+			
+			if ( this.rootWritten ) {
+				throw new Secs2BuildException("Root item already written");
+			}
+			
+			this.rootWritten = true;
+			
+		} else {
+			
+			this.remains[this.depth - 1] -= 1;
+		}
+	}
+	
+	private void closeLists() {
+		while ( this.depth > 0 && this.remains[this.depth - 1] == 0 ) {
+			this.depth -= 1;
+		}
+	}
+	
+	private void ensure(int n) throws Secs2BuildException {
+		
+		if ( this.buffer.remaining() >= n ) {
+			return;
+		}
+		
+		if ( ! this.growable ) {
+			throw new Secs2BuildException("buffer remaining: " + this.buffer.remaining() + ", required: " + n);
+		}
+		
+		final long req = (long)(this.buffer.position()) + (long)n;
+		final long cap = Math.max(req, (long)(this.buffer.capacity()) * 2L);
+		
+		if ( req > (long)(Integer.MAX_VALUE) ) {
+			throw new Secs2BuildException("length: " + req);
+		}
+		
+		final ByteBuffer bf = ByteBuffer.allocate((int)(Math.min(cap, (long)(Integer.MAX_VALUE))));
+		((Buffer)this.buffer).flip();
+		bf.put(this.buffer);
+		this.buffer = bf;
+	}
+	
+	private void header(Secs2Item s2i, int length) throws Secs2BuildException {
+		
+		final int n = AbstractSecs2.headerBytesLength(length);
+		
+		ensure(n + (s2i == Secs2Item.LIST ? 0 : length));
+		countItem();
+		
+		this.buffer.put((byte)(s2i.code() | (n - 1)));
+		
+		for ( int i = n - 2; i >= 0; --i ) {
+			this.buffer.put((byte)(length >> (i * 8)));
+		}
+	}
+	
+	private void numberHeader(Secs2Item s2i, int size) throws Secs2BuildException {
+		
+		if ( size > (0xFFFFFF / s2i.size()) ) {
+			throw new Secs2LengthByteOutOfRangeException("size: " + size);
+		}
+		
+		header(s2i, size * s2i.size());
+	}
+	
+	/**
+	 * Begin LIST.
+	 * 
+	 * <p>
+	 * LIST is closed when size items are written.<br />
+	 * </p>
+	 * 
+	 * @param size
+	 * @return this
+	 * @throws Secs2BuildException
+	 */
+	public Secs2Writer beginList(int size) throws Secs2BuildException {
+		
+		header(Secs2Item.LIST, size);
+		
+		if ( size > 0 ) {
+			
+			if ( this.depth == this.remains.length ) {
+				this.remains = Arrays.copyOf(this.remains, this.depth * 2);
+			}
+			
+			this.remains[this.depth] = size;
+			this.depth += 1;
+			
+		} else {
+			
+			closeLists();
+		}
+		
+		return this;
+	}
+	
+	/**
+	 * Write encoded item.
+	 * 
+	 * @param secs2
+	 * @return this
+	 * @throws Secs2BuildException
+	 */
+	public Secs2Writer item(Secs2 secs2) throws Secs2BuildException {
+		
+		final Secs2BytesEncoder encoder = Secs2BytesEncoder.getInstance();
+		final long len = encoder.encodedLength(secs2);
+		
+		if ( len == 0L ) {
+			throw new Secs2BuildException("Empty item");
+		}
+		
+		if ( len > (long)(Integer.MAX_VALUE) ) {
+			throw new Secs2BuildException("encoded length: " + len);
+		}
+		
+		ensure((int)len);
+		countItem();
+		encoder.encode(secs2, this.buffer);
+		closeLists();
+		return this;
+	}
+	
+	/**
+	 * Write ASCII.
+	 * 
+	 * <p>
+	 * Not ASCII characters are written as '?'.<br />
+	 * </p>
+	 * 
+	 * @param ascii
+	 * @return this
+	 * @throws Secs2BuildException
+	 */
+	public Secs2Writer ascii(CharSequence ascii) throws Secs2BuildException {
+		
+		final int n = ascii.length();
+		
+		header(Secs2Item.ASCII, n);
+		
+		for ( int i = 0; i < n; ++i ) {
+			final char c = ascii.charAt(i);
+			this.buffer.put(c < 0x80 ? (byte)c : (byte)'?');
+		}
+		
+		closeLists();
+		return this;
+	}
+	
+	/**
+	 * Write BINARY.
+	 * 
+	 * @param bs
+	 * @return this
+	 * @throws Secs2BuildException
+	 */
+	public Secs2Writer binary(byte... bs) throws Secs2BuildException {
+		header(Secs2Item.BINARY, bs.length);
+		this.buffer.put(bs);
+		closeLists();
+		return this;
+	}
+	
+	/**
+	 * Write BINARY from buffer remaining.
+	 * 
+	 * <p>
+	 * Buffer position is not changed.<br />
+	 * </p>
+	 * 
+	 * @param bs
+	 * @return this
+	 * @throws Secs2BuildException
+	 */
+	public Secs2Writer binary(ByteBuffer bs) throws Secs2BuildException {
+		header(Secs2Item.BINARY, bs.remaining());
+		this.buffer.put(bs.duplicate());
+		closeLists();
+		return this;
+	}
+	
+	/**
+	 * Write BOOLEAN.
+	 * 
+	 * @param bools
+	 * @return this
+	 * @throws Secs2BuildException
+	 */
+	public Secs2Writer bool(boolean... bools) throws Secs2BuildException {
+		
+		header(Secs2Item.BOOLEAN, bools.length);
+		
+		for ( boolean b : bools ) {
+			this.buffer.put(b ? (byte)0xFF : (byte)0x00);
+		}
+		
+		closeLists();
+		return this;
+	}
+	
+	private Secs2Writer putInts(Secs2Item s2i, int[] values) throws Secs2BuildException {
+		
+		numberHeader(s2i, values.length);
+		
+		for ( int v : values ) {
+			putNumber(s2i, (long)v);
+		}
+		
+		closeLists();
+		return this;
+	}
+	
+	private Secs2Writer putLongs(Secs2Item s2i, long[] values) throws Secs2BuildException {
+		
+		numberHeader(s2i, values.length);
+		
+		for ( long v : values ) {
+			putNumber(s2i, v);
+		}
+		
+		closeLists();
+		return this;
+	}
+	
+	private void putNumber(Secs2Item s2i, long v) {
+		
+		switch ( s2i.size() ) {
+		case 1: {
+			this.buffer.put((byte)v);
+			break;
+		}
+		case 2: {
+			this.buffer.putShort((short)v);
+			break;
+		}
+		case 4: {
+			this.buffer.putInt((int)v);
+			break;
+		}
+		default: {
+			this.buffer.putLong(v);
+		}
+		}
+	}
+	
+	public Secs2Writer int1(int... values) throws Secs2BuildException {
+		return putInts(Secs2Item.INT1, values);
+	}
+	
+	public Secs2Writer int1(long... values) throws Secs2BuildException {
+		return putLongs(Secs2Item.INT1, values);
+	}
+	
+	public Secs2Writer int2(int... values) throws Secs2BuildException {
+		return putInts(Secs2Item.INT2, values);
+	}
+	
+	public Secs2Writer int2(long... values) throws Secs2BuildException {
+		return putLongs(Secs2Item.INT2, values);
+	}
+	
+	public Secs2Writer int4(int... values) throws Secs2BuildException {
+		return putInts(Secs2Item.INT4, values);
+	}
+	
+	public Secs2Writer int4(long... values) throws Secs2BuildException {
+		return putLongs(Secs2Item.INT4, values);
+	}
+	
+	public Secs2Writer int8(int... values) throws Secs2BuildException {
+		return putInts(Secs2Item.INT8, values);
+	}
+	
+	public Secs2Writer int8(long... values) throws Secs2BuildException {
+		return putLongs(Secs2Item.INT8, values);
+	}
+	
+	public Secs2Writer uint1(int... values) throws Secs2BuildException {
+		return putInts(Secs2Item.UINT1, values);
+	}
+	
+	public Secs2Writer uint1(long... values) throws Secs2BuildException {
+		return putLongs(Secs2Item.UINT1, values);
+	}
+	
+	public Secs2Writer uint2(int... values) throws Secs2BuildException {
+		return putInts(Secs2Item.UINT2, values);
+	}
+	
+	public Secs2Writer uint2(long... values) throws Secs2BuildException {
+		return putLongs(Secs2Item.UINT2, values);
+	}
+	
+	public Secs2Writer uint4(int... values) throws Secs2BuildException {
+		return putInts(Secs2Item.UINT4, values);
+	}
+	
+	public Secs2Writer uint4(long... values) throws Secs2BuildException {
+		return putLongs(Secs2Item.UINT4, values);
+	}
+	
+	public Secs2Writer uint8(int... values) throws Secs2BuildException {
+		return putInts(Secs2Item.UINT8, values);
+	}
+	
+	public Secs2Writer uint8(long... values) throws Secs2BuildException {
+		return putLongs(Secs2Item.UINT8, values);
+	}
+	
+	public Secs2Writer float4(float... values) throws Secs2BuildException {
+		
+		numberHeader(Secs2Item.FLOAT4, values.length);
+		
+		for ( float v : values ) {
+			this.buffer.putFloat(v);
+		}
+		
+		closeLists();
+		return this;
+	}
+	
+	public Secs2Writer float8(double... values) throws Secs2BuildException {
+		
+		numberHeader(Secs2Item.FLOAT8, values.length);
+		
+		for ( double v : values ) {
+			this.buffer.putDouble(v);
+		}
+		
+		closeLists();
+		return this;
+	}
+	
+}
@@ -1,7 +1,9 @@
 package com.shimizukenta.secssimulator;
 
+import java.io.IOException;
 import java.io.Serializable;
 import java.time.format.DateTimeFormatter;
+import java.util.Optional;
 
 public abstract class AbstractSecsSimulatorLog implements SecsSimulatorLog, Serializable {
 	
@@ -42,6 +44,34 @@ public abstract class AbstractSecsSimulatorLog implements SecsSimulatorLog, Seri
 		}
 	}
 	
+	/**
+	 * Write log-String to appendable, same as {@link #toString()}.
+	 * 
+	 * <p>
+	 * Value is written directly, without caching whole String.<br />
+	 * </p>
+	 * 
+	 * @param appendable
+	 * @throws IOException
+	 */
+	public void writeTo(Appendable appendable) throws IOException {
+		
+		appendable.append(this.toTimestampString())
+		.append(SPACE)
+		.append(this.subject());
+		
+		this.writeValue(appendable);
+	}
+	
+	protected void writeValue(Appendable appendable) throws IOException {
+		
+		final Optional<String> v = this.optionalValueString();
+		
+		if ( v.isPresent() ) {
+			appendable.append(BR).append(v.get());
+		}
+	}
+	
 	public  String toTimestampString() {
 		return this.timestamp().format(DATETIME);
 	}
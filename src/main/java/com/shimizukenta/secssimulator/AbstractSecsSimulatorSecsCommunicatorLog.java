@@ -1,12 +1,15 @@
 package com.shimizukenta.secssimulator;
 
+import java.io.IOException;
 import java.time.LocalDateTime;
 import java.util.Optional;
 
 import com.shimizukenta.secs.AbstractSecsMessage;
 import com.shimizukenta.secs.SecsLog;
+import com.shimizukenta.secs.SecsReceiveMessageLog;
 import com.shimizukenta.secs.SecsSendedMessageLog;
 import com.shimizukenta.secs.SecsThrowableLog;
+import com.shimizukenta.secs.SecsTrySendMessageLog;
 import com.shimizukenta.secs.SecsWaitReplyMessageExceptionLog;
 
 public abstract class AbstractSecsSimulatorSecsCommunicatorLog extends AbstractSecsSimulatorLog {
@@ -111,4 +114,24 @@ public abstract class AbstractSecsSimulatorSecsCommunicatorLog extends AbstractS
 		}
 	}
 	
+	private static final String BR = System.lineSeparator();
+	
+	@Override
+	protected void writeValue(Appendable appendable) throws IOException {
+		
+		/* write message directly, not to cache whole String */
+		if ( (log instanceof SecsReceiveMessageLog) || (log instanceof SecsTrySendMessageLog) ) {
+			
+			final Object o = log.value().orElse(null);
+			
+			if ( o instanceof AbstractSecsMessage ) {
+				appendable.append(BR);
+				((AbstractSecsMessage)o).writeTo(appendable);
+				return;
+			}
+		}
+		
+		super.writeValue(appendable);
+	}
+	
 }
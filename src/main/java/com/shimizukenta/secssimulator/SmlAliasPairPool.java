@@ -12,11 +12,17 @@ import com.shimizukenta.jsonhub.JsonHubBuilder;
 import com.shimizukenta.secs.AbstractCollectionProperty;
 import com.shimizukenta.secs.CollectionProperty;
 import com.shimizukenta.secs.PropertyChangeListener;
+import com.shimizukenta.secs.secs2.Secs2BuildException;
+import com.shimizukenta.secs.secs2.Secs2Encoded;
 import com.shimizukenta.secs.sml.SmlMessage;
 
 /**
  * This class is implements of SmlAliasPair pool, add/remove, change-listener.
  * 
+ * <p>
+ * SECS-II of added pair is pre-encoded if encodable, auto-reply sends same message many times.<br />
+ * </p>
+ * 
  * @author kenta-shimizu
  *
  */
@@ -42,6 +48,42 @@ public class SmlAliasPairPool {
 	public SmlAliasPairPool() {
 	}
 	
+	private static class EncodedSmlMessage extends SmlMessage {
+		
+		private static final long serialVersionUID = -2412606937465290733L;
+		
+		private EncodedSmlMessage(SmlMessage sm, Secs2Encoded secs2) {
+			super(sm.getStream(), sm.getFunction(), sm.wbit(), secs2);
+		}
+	}
+	
+	/**
+	 * Returns pair of pre-encoded SECS-II if encodable.
+	 * 
+	 * @param pair
+	 * @return pair of pre-encoded SECS-II if encodable, otherwise pair
+	 */
+	private static SmlAliasPair preEncode(SmlAliasPair pair) {
+		
+		if ( pair == null ) {
+			return pair;
+		}
+		
+		final SmlMessage sm = pair.sml();
+		
+		if ( (sm.secs2() instanceof Secs2Encoded) || ! Secs2Encoded.isEncodable(sm.secs2()) ) {
+			return pair;
+		}
+		
+		try {
+			return new SmlAliasPair(pair.alias(), new EncodedSmlMessage(sm, Secs2Encoded.of(sm.secs2())), pair.path());
+		}
+		catch ( Secs2BuildException ignore ) {
+		}
+		
+		return pair;
+	}
+	
 	/**
 	 * Clear all pairs.
 	 * 
@@ -57,7 +99,7 @@ public class SmlAliasPairPool {
 	 * @return {@code true} if add success
 	 */
 	public boolean add(SmlAliasPair pair) {
-		return pairs.add(pair);
+		return pairs.add(preEncode(pair));
 	}
 	
 	/**
@@ -78,7 +120,9 @@ public class SmlAliasPairPool {
 	 * @return {@code true} if add success
 	 */
 	public boolean addAll(Collection<? extends SmlAliasPair> pairs) {
-		return this.pairs.addAll(pairs);
+		return this.pairs.addAll(pairs.stream()
+				.map(SmlAliasPairPool::preEncode)
+				.collect(Collectors.toList()));
 	}
 	
 	/**
@@ -25,8 +25,8 @@ public abstract class AbstractSecs2AutoNumber extends AbstractSecs2 {
 	}
 	
 	@Override
-	protected String toStringValue() {
-		return "";
+	protected void writeSmlValue(Appendable appendable) {
+		/* Nothing */
 	}
 	
 	abstract protected byte[] createNumberBytes();
@@ -36,6 +36,21 @@ public abstract class AbstractSecs2AutoNumber extends AbstractSecs2 {
 		this.putHeadAndBodyBytesToBytesPack(builder, createNumberBytes());
 	}
 	
+	@Override
+	protected long calcEncodedLength() {
+		
+		/* fixed length, not to count up number */
+		switch ( secs2Item() ) {
+		case INT8:
+		case UINT8: {
+			return 10L;
+		}
+		default: {
+			return 6L;
+		}
+		}
+	}
+	
 	protected Number getNumber() {
 		return autoNumber;
 	}
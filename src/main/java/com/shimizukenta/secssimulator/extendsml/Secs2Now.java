@@ -1,5 +1,6 @@
 package com.shimizukenta.secssimulator.extendsml;
 
+import java.io.IOException;
 import java.nio.charset.StandardCharsets;
 
 import com.shimizukenta.secs.gem.Clock;
@@ -63,24 +64,30 @@ public class Secs2Now extends AbstractSecs2 {
 		this.putHeadAndBodyBytesToBytesPack(builder, now().getBytes(StandardCharsets.US_ASCII));
 	}
 	
+	@Override
+	protected long calcEncodedLength() {
+		return (long)(2 + size);
+	}
+	
 	@Override
 	public String getAscii() throws Secs2Exception {
 		return now();
 	}
 	
 	@Override
-	protected String toJsonValue() {
-		return "\"" + now() + "\"";
+	protected void writeJsonValue(Appendable appendable) throws IOException {
+		appendable.append('"').append(now()).append('"');
 	}
 	
 	@Override
-	public String toString() {
-		return "<NOW [" + size() + "] >";
+	protected void writeSml(Appendable appendable, int level) throws IOException {
+		appendIndent(appendable, level);
+		appendable.append("<NOW [").append(String.valueOf(size())).append("] >");
 	}
 	
 	@Override
-	protected String toStringValue() {
-		return "\"" + now() + "\"";
+	protected void writeSmlValue(Appendable appendable) throws IOException {
+		appendable.append('"').append(now()).append('"');
 	}
 
 }
@@ -1,5 +1,6 @@
 package com.shimizukenta.secssimulator.extendsml;
 
+import java.io.IOException;
 import java.nio.Buffer;
 import java.nio.ByteBuffer;
 
@@ -35,13 +36,14 @@ public class Secs2Uint8AutoNumber extends AbstractSecs2AutoNumber {
 	}
 	
 	@Override
-	public String toString() {
-		return "<U8AUTO [1] >";
+	protected void writeSml(Appendable appendable, int level) throws IOException {
+		appendIndent(appendable, level);
+		appendable.append("<U8AUTO [1] >");
 	}
 	
 	@Override
-	protected String toJsonValue() {
-		return Long.toUnsignedString(getNumber().longValue());
+	protected void writeJsonValue(Appendable appendable) throws IOException {
+		appendable.append(Long.toUnsignedString(getNumber().longValue()));
 	}
 	
 }
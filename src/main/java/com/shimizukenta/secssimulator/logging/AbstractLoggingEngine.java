@@ -18,6 +18,7 @@ import java.util.concurrent.TimeUnit;
 import com.shimizukenta.secs.Property;
 import com.shimizukenta.secs.PropertyChangeListener;
 import com.shimizukenta.secs.ReadOnlyProperty;
+import com.shimizukenta.secssimulator.AbstractSecsSimulatorLog;
 
 public abstract class AbstractLoggingEngine implements LoggingEngine {
 	
@@ -59,7 +60,17 @@ public abstract class AbstractLoggingEngine implements LoggingEngine {
 						if ( this.bw != null ) {
 							try {
 								for ( Object o : oo ) {
-									this.bw.write(o.toString());
+									
+									if ( o instanceof AbstractSecsSimulatorLog ) {
+										
+										/* write directly, without building whole String */
+										((AbstractSecsSimulatorLog)o).writeTo(this.bw);
+										
+									} else {
+										
+										this.bw.write(o.toString());
+									}
+									
 									this.bw.newLine();
 									this.bw.newLine();
 								}
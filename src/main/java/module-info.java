@@ -1,4 +1,6 @@
 module com.shimizukenta.secssimulator {
+	requires transitive java.management;
+	
 	exports com.shimizukenta.secssimulator.cli;
 	exports com.shimizukenta.secssimulator.gui;
 	exports com.shimizukenta.secs;
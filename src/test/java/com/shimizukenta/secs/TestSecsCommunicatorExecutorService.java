@@ -0,0 +1,129 @@
+package com.shimizukenta.secs;
+
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import test.TestAssert;
+
+/**
+ * Tests of ExecutorService of one communicator.
+ * 
+ * @author kenta-shimizu
+ *
+ */
+public class TestSecsCommunicatorExecutorService {
+	
+	public TestSecsCommunicatorExecutorService() {
+		/* Nothing */
+	}
+	
+	public static void main(String[] args) throws Exception {
+		
+		TestAssert.run("exception of executed task is reported", TestSecsCommunicatorExecutorService::executeException);
+		TestAssert.run("exception of submitted task is in future", TestSecsCommunicatorExecutorService::submitException);
+		TestAssert.run("cancelled task is not reported", TestSecsCommunicatorExecutorService::cancelled);
+		
+		System.exit(0);
+	}
+	
+	private static ExecutorService newExecutor(BlockingQueue<Throwable> reported) {
+		return Executors.newCachedThreadPool(r -> {
+			Thread th = new Thread(r);
+			th.setDaemon(true);
+			th.setUncaughtExceptionHandler((t, e) -> {reported.offer(e);});
+			return th;
+		});
+	}
+	
+	private static void executeException() throws Exception {
+		
+		final BlockingQueue<Throwable> reported = new LinkedBlockingQueue<>();
+		final ExecutorService shared = newExecutor(reported);
+		
+		try {
+			final SecsCommunicatorExecutorService es = new SecsCommunicatorExecutorService(shared, true);
+			
+			final RuntimeException ex = new IllegalStateException("task failed");
+			
+			es.execute(() -> {
+				throw ex;
+			});
+			
+			TestAssert.assertTrue("reported", reported.poll(5L, TimeUnit.SECONDS) == ex);
+			
+			es.execute(() -> {});
+			
+			es.shutdown();
+			TestAssert.assertTrue("terminated", es.awaitTermination(5L, TimeUnit.SECONDS));
+			TestAssert.assertTrue("normal task is not reported", reported.isEmpty());
+		}
+		finally {
+			shared.shutdownNow();
+		}
+	}
+	
+	private static void submitException() throws Exception {
+		
+		final BlockingQueue<Throwable> reported = new LinkedBlockingQueue<>();
+		final ExecutorService shared = newExecutor(reported);
+		
+		try {
+			final SecsCommunicatorExecutorService es = new SecsCommunicatorExecutorService(shared, true);
+			
+			final Future<?> f = es.submit(() -> {
+				throw new IllegalStateException("task failed");
+			});
+			
+			TestAssert.assertThrows("future", ExecutionException.class, () -> {
+				f.get(5L, TimeUnit.SECONDS);
+			});
+			
+			es.shutdown();
+			TestAssert.assertTrue("terminated", es.awaitTermination(5L, TimeUnit.SECONDS));
+			TestAssert.assertTrue("not reported twice", reported.isEmpty());
+		}
+		finally {
+			shared.shutdownNow();
+		}
+	}
+	
+	private static void cancelled() throws Exception {
+		
+		final BlockingQueue<Throwable> reported = new LinkedBlockingQueue<>();
+		final ExecutorService shared = newExecutor(reported);
+		
+		try {
+			final SecsCommunicatorExecutorService es = new SecsCommunicatorExecutorService(shared, true);
+			
+			final CountDownLatch started = new CountDownLatch(1);
+			
+			es.execute(() -> {
+				started.countDown();
+				try {
+					TimeUnit.SECONDS.sleep(10L);
+				}
+				catch ( InterruptedException e ) {
+					throw new IllegalStateException("interrupted");
+				}
+			});
+			
+			TestAssert.assertTrue("started", started.await(5L, TimeUnit.SECONDS));
+			
+			es.shutdownNow();
+			TestAssert.assertTrue("terminated", es.awaitTermination(5L, TimeUnit.SECONDS));
+			
+			TimeUnit.MILLISECONDS.sleep(200L);
+			TestAssert.assertTrue("not reported", reported.isEmpty());
+		}
+		finally {
+			shared.shutdownNow();
+		}
+	}
+	
+}
@@ -0,0 +1,190 @@
+package com.shimizukenta.secs.hsmsss;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+
+import com.shimizukenta.secs.secs2.Secs2;
+import com.shimizukenta.secs.secs2.Secs2BytesEncoder;
+import com.shimizukenta.secs.secs2.Secs2BytesParser;
+
+import test.TestAssert;
+
+/**
+ * Tests of temporary file of received large body.
+ * 
+ * @author kenta-shimizu
+ *
+ */
+public class TestHsmsSsSpillFile {
+	
+	public TestHsmsSsSpillFile() {
+		/* Nothing */
+	}
+	
+	public static void main(String[] args) throws Exception {
+		
+		TestAssert.run("write chunks and map", TestHsmsSsSpillFile::writeChunksAndMap);
+		TestAssert.run("empty body", TestHsmsSsSpillFile::emptyBody);
+		TestAssert.run("close without map deletes file", TestHsmsSsSpillFile::closeWithoutMap);
+		TestAssert.run("map by windows", TestHsmsSsSpillFile::mapByWindows);
+		
+		System.exit(0);
+	}
+	
+	private static int countTempFiles() throws IOException {
+		
+		final Path dir = Paths.get(System.getProperty("java.io.tmpdir"));
+		
+		int n = 0;
+		
+		try (
+				DirectoryStream<Path> ds = Files.newDirectoryStream(dir, "hsmsss-body-*.tmp");
+				) {
+			
+			for ( @SuppressWarnings("unused") Path p : ds ) {
+				++ n;
+			}
+		}
+		
+		return n;
+	}
+	
+	private static void writeChunksAndMap() throws Exception {
+		
+		final int before = countTempFiles();
+		
+		/* not multiple of chunk size */
+		final int size = 3 * 64 * 1024 + 123;
+		
+		final ByteBuffer mapped;
+		
+		try (
+				HsmsSsSpillFile spill = HsmsSsSpillFile.create(size);
+				) {
+			
+			int n = 0;
+			
+			while ( spill.hasRemaining() ) {
+				
+				final ByteBuffer chunk = spill.chunk();
+				
+				TestAssert.assertTrue("chunk limit not over body", chunk.remaining() <= size - n);
+				
+				/* fragmented read */
+				while ( chunk.hasRemaining() ) {
+					int m = Math.min(chunk.remaining(), 1000);
+					for ( int i = 0; i < m; ++i ) {
+						chunk.put((byte)(n++));
+					}
+				}
+				
+				spill.writeChunk();
+			}
+			
+			TestAssert.assertEquals("written", size, n);
+			
+			final ByteBuffer[] windows = spill.mapAndClose();
+			
+			TestAssert.assertEquals("one window", 1, windows.length);
+			
+			mapped = windows[0];
+		}
+		
+		TestAssert.assertEquals("temp file deleted", before, countTempFiles());
+		TestAssert.assertTrue("read-only", mapped.isReadOnly());
+		TestAssert.assertEquals("mapped size", size, mapped.remaining());
+		
+		for ( int i = 0; i < size; ++i ) {
+			if ( mapped.get(i) != (byte)i ) {
+				throw new AssertionError("mapped byte at " + i);
+			}
+		}
+	}
+	
+	private static void emptyBody() throws Exception {
+		
+		try (
+				HsmsSsSpillFile spill = HsmsSsSpillFile.create(0L);
+				) {
+			
+			TestAssert.assertFalse("no remaining", spill.hasRemaining());
+			final ByteBuffer[] windows = spill.mapAndClose();
+			
+			TestAssert.assertEquals("one window", 1, windows.length);
+			TestAssert.assertEquals("empty map", 0, windows[0].remaining());
+		}
+	}
+	
+	private static void mapByWindows() throws Exception {
+		
+		final Secs2 ss = Secs2.list(
+				Secs2.binary(new byte[300]),
+				Secs2.list(Secs2.ascii("WINDOW"), Secs2.uint4(1, 2, 3)),
+				Secs2.binary(new byte[500]));
+		
+		final byte[] bs = Secs2BytesEncoder.getInstance().encode(ss);
+		
+		final ByteBuffer[] windows;
+		
+		/* small window instead of 2 GiB */
+		try (
+				HsmsSsSpillFile spill = HsmsSsSpillFile.create(bs.length, 256);
+				) {
+			
+			int n = 0;
+			
+			while ( spill.hasRemaining() ) {
+				
+				final ByteBuffer chunk = spill.chunk();
+				final int m = chunk.remaining();
+				chunk.put(bs, n, m);
+				n += m;
+				
+				spill.writeChunk();
+			}
+			
+			windows = spill.mapAndClose();
+		}
+		
+		TestAssert.assertEquals("windows", (bs.length + 255) / 256, windows.length);
+		
+		int total = 0;
+		for ( ByteBuffer w : windows ) {
+			TestAssert.assertTrue("window size", w.remaining() <= 256);
+			TestAssert.assertTrue("read-only", w.isReadOnly());
+			total += w.remaining();
+		}
+		
+		TestAssert.assertEquals("mapped size", bs.length, total);
+		
+		final Secs2 r = Secs2BytesParser.getInstance().parseLazy(windows);
+		
+		TestAssert.assertEquals("lazy view across windows", ss, r);
+		TestAssert.assertEquals("ascii", "WINDOW", r.getAscii(1, 0));
+		TestAssert.assertArrayEquals("encode", bs, Secs2BytesEncoder.getInstance().encode(r));
+		
+		TestAssert.assertThrows("window size", IllegalArgumentException.class, () -> {
+			HsmsSsSpillFile.create(10L, 0);
+		});
+	}
+	
+	private static void closeWithoutMap() throws Exception {
+		
+		final int before = countTempFiles();
+		
+		final HsmsSsSpillFile spill = HsmsSsSpillFile.create(100000L);
+		spill.chunk().put(new byte[100]);
+		spill.writeChunk();
+		
+		TestAssert.assertTrue("has remaining", spill.hasRemaining());
+		
+		spill.close();
+		
+		TestAssert.assertEquals("temp file deleted", before, countTempFiles());
+	}
+	
+}
@@ -0,0 +1,208 @@
+package com.shimizukenta.secs.secs1;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import test.TestAssert;
+
+/**
+ * Tests of SECS-I latency histogram.
+ * 
+ * @author kenta-shimizu
+ *
+ */
+public class TestSecs1LatencyHistogram {
+	
+	public TestSecs1LatencyHistogram() {
+		/* Nothing */
+	}
+	
+	public static void main(String[] args) throws Exception {
+		
+		TestAssert.run("empty", TestSecs1LatencyHistogram::empty);
+		TestAssert.run("count, mean and max", TestSecs1LatencyHistogram::countMeanMax);
+		TestAssert.run("percentile is bucket upper bound", TestSecs1LatencyHistogram::percentile);
+		TestAssert.run("zero, negative and huge", TestSecs1LatencyHistogram::edges);
+		TestAssert.run("percent range", TestSecs1LatencyHistogram::percentRange);
+		TestAssert.run("reset", TestSecs1LatencyHistogram::reset);
+		TestAssert.run("record from many threads", TestSecs1LatencyHistogram::manyThreads);
+		
+		System.exit(0);
+	}
+	
+	private static long micros(long v) {
+		return TimeUnit.MICROSECONDS.toNanos(v);
+	}
+	
+	private static void empty() throws Exception {
+		
+		final Secs1LatencyHistogram h = new Secs1LatencyHistogram();
+		
+		TestAssert.assertEquals("count", 0L, h.count());
+		TestAssert.assertTrue("mean", h.meanMicros() == 0.0D);
+		TestAssert.assertEquals("max", 0L, h.maxMicros());
+		TestAssert.assertEquals("p50", 0L, h.percentileMicros(50.0D));
+		TestAssert.assertEquals("p100", 0L, h.percentileMicros(100.0D));
+		TestAssert.assertEquals("toString", "count=0, mean=" + String.format("%.1f", 0.0D) + "us, p50=0us, p99=0us, max=0us", h.toString());
+	}
+	
+	private static void countMeanMax() throws Exception {
+		
+		final Secs1LatencyHistogram h = new Secs1LatencyHistogram();
+		
+		h.record(micros(100L));
+		h.record(micros(200L));
+		h.record(micros(600L));
+		
+		/* sub micro-seconds are truncated */
+		h.record(micros(100L) + 999L);
+		
+		TestAssert.assertEquals("count", 4L, h.count());
+		TestAssert.assertTrue("mean " + h.meanMicros(), h.meanMicros() == 250.0D);
+		TestAssert.assertEquals("max", 600L, h.maxMicros());
+	}
+	
+	private static void percentile() throws Exception {
+		
+		final Secs1LatencyHistogram h = new Secs1LatencyHistogram();
+		
+		/* 90 of 100us (bucket 64-127), 9 of 1000us (bucket 512-1023), 1 of 5000us (bucket 4096-8191) */
+		for ( int i = 0; i < 90; ++i ) {
+			h.record(micros(100L));
+		}
+		for ( int i = 0; i < 9; ++i ) {
+			h.record(micros(1000L));
+		}
+		h.record(micros(5000L));
+		
+		TestAssert.assertEquals("p1", 127L, h.percentileMicros(1.0D));
+		TestAssert.assertEquals("p50", 127L, h.percentileMicros(50.0D));
+		TestAssert.assertEquals("p90", 127L, h.percentileMicros(90.0D));
+		TestAssert.assertEquals("p90.5", 1023L, h.percentileMicros(90.5D));
+		TestAssert.assertEquals("p99", 1023L, h.percentileMicros(99.0D));
+		
+		/* not exceeding max */
+		TestAssert.assertEquals("p99.5", 5000L, h.percentileMicros(99.5D));
+		TestAssert.assertEquals("p100", 5000L, h.percentileMicros(100.0D));
+		
+		/* power of 2 is lower bound of next bucket */
+		final Secs1LatencyHistogram g = new Secs1LatencyHistogram();
+		g.record(micros(63L));
+		g.record(micros(64L));
+		
+		TestAssert.assertEquals("63", 63L, g.percentileMicros(50.0D));
+		TestAssert.assertEquals("64", 64L, g.percentileMicros(100.0D));
+		
+		final Secs1LatencyHistogram k = new Secs1LatencyHistogram();
+		k.record(micros(64L));
+		k.record(micros(1000L));
+		
+		TestAssert.assertEquals("64 in bucket 64-127", 127L, k.percentileMicros(50.0D));
+	}
+	
+	private static void edges() throws Exception {
+		
+		final Secs1LatencyHistogram h = new Secs1LatencyHistogram();
+		
+		h.record(0L);
+		h.record(-100L);
+		h.record(999L);
+		
+		TestAssert.assertEquals("count", 3L, h.count());
+		TestAssert.assertEquals("max", 0L, h.maxMicros());
+		TestAssert.assertEquals("p100", 0L, h.percentileMicros(100.0D));
+		
+		/* over last bucket */
+		final long huge = 1L << 50;
+		h.record(micros(huge));
+		
+		TestAssert.assertEquals("huge max", huge, h.maxMicros());
+		TestAssert.assertEquals("huge p100", huge, h.percentileMicros(100.0D));
+		TestAssert.assertEquals("p75", 0L, h.percentileMicros(75.0D));
+		
+		h.record(Long.MAX_VALUE);
+		TestAssert.assertEquals("Long.MAX_VALUE", Long.MAX_VALUE / 1000L, h.maxMicros());
+	}
+	
+	private static void percentRange() throws Exception {
+		
+		final Secs1LatencyHistogram h = new Secs1LatencyHistogram();
+		h.record(micros(10L));
+		
+		TestAssert.assertThrows("0", IllegalArgumentException.class, () -> {
+			h.percentileMicros(0.0D);
+		});
+		
+		TestAssert.assertThrows("negative", IllegalArgumentException.class, () -> {
+			h.percentileMicros(-1.0D);
+		});
+		
+		TestAssert.assertThrows("over 100", IllegalArgumentException.class, () -> {
+			h.percentileMicros(100.1D);
+		});
+		
+		/* rank is at least 1 */
+		TestAssert.assertEquals("min percent", 10L, h.percentileMicros(Double.MIN_VALUE));
+	}
+	
+	private static void reset() throws Exception {
+		
+		final Secs1LatencyHistogram h = new Secs1LatencyHistogram();
+		
+		h.record(micros(1000L));
+		h.record(micros(3000L));
+		h.reset();
+		
+		TestAssert.assertEquals("count", 0L, h.count());
+		TestAssert.assertEquals("max", 0L, h.maxMicros());
+		TestAssert.assertEquals("p100", 0L, h.percentileMicros(100.0D));
+		
+		h.record(micros(20L));
+		
+		TestAssert.assertEquals("after reset count", 1L, h.count());
+		TestAssert.assertEquals("after reset max", 20L, h.maxMicros());
+		TestAssert.assertEquals("after reset p100", 20L, h.percentileMicros(100.0D));
+	}
+	
+	private static void manyThreads() throws Exception {
+		
+		final Secs1LatencyHistogram h = new Secs1LatencyHistogram();
+		final int m = 8;
+		final int n = 100000;
+		
+		final ExecutorService es = Executors.newFixedThreadPool(m);
+		
+		try {
+			
+			final List<Future<?>> ff = new ArrayList<>();
+			
+			for ( int i = 0; i < m; ++i ) {
+				final long v = micros(1L << i);
+				ff.add(es.submit(() -> {
+					for ( int k = 0; k < n; ++k ) {
+						h.record(v);
+					}
+				}));
+			}
+			
+			for ( Future<?> f : ff ) {
+				f.get(30L, TimeUnit.SECONDS);
+			}
+		}
+		finally {
+			es.shutdown();
+		}
+		
+		TestAssert.assertEquals("count", (long)m * n, h.count());
+		TestAssert.assertEquals("max", 1L << (m - 1), h.maxMicros());
+		TestAssert.assertTrue("mean", h.meanMicros() == (double)((1L << m) - 1L) / (double)m);
+		
+		/* each thread is own bucket, p50 is 4th thread */
+		TestAssert.assertEquals("p50", (1L << 4) - 1L, h.percentileMicros(50.0D));
+	}
+	
+}
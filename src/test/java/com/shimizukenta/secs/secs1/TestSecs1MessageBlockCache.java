@@ -0,0 +1,251 @@
+package com.shimizukenta.secs.secs1;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import com.shimizukenta.secs.secs2.Secs2;
+
+import test.TestAssert;
+
+/**
+ * Tests of reassembly cache of received blocks.
+ * 
+ * @author kenta-shimizu
+ *
+ */
+public class TestSecs1MessageBlockCache {
+	
+	private static final long T4 = TimeUnit.SECONDS.toNanos(10L);
+	
+	public TestSecs1MessageBlockCache() {
+		/* Nothing */
+	}
+	
+	public static void main(String[] args) throws Exception {
+		
+		TestAssert.run("single block", TestSecs1MessageBlockCache::singleBlock);
+		TestAssert.run("multi blocks", TestSecs1MessageBlockCache::multiBlocks);
+		TestAssert.run("interleaved messages", TestSecs1MessageBlockCache::interleaved);
+		TestAssert.run("duplicated and out of sequence", TestSecs1MessageBlockCache::duplicatedAndOutOfSequence);
+		TestAssert.run("first block restarts", TestSecs1MessageBlockCache::firstBlockRestarts);
+		TestAssert.run("T4 expiry", TestSecs1MessageBlockCache::t4Expiry);
+		TestAssert.run("T4 reset by next block", TestSecs1MessageBlockCache::t4Reset);
+		TestAssert.run("clear", TestSecs1MessageBlockCache::clear);
+		
+		System.exit(0);
+	}
+	
+	private static Secs1Message message(int deviceId, int systemBytes, Secs2 body) {
+		
+		final byte[] head = new byte[] {
+				(byte)(deviceId >> 8), (byte)deviceId,
+				(byte)0x86, (byte)0x0B, (byte)0x00, (byte)0x00,
+				(byte)(systemBytes >> 24), (byte)(systemBytes >> 16), (byte)(systemBytes >> 8), (byte)systemBytes
+		};
+		
+		return new Secs1Message(head, body);
+	}
+	
+	private static List<Secs1MessageBlock> blocks(int deviceId, int systemBytes, Secs2 body) throws Exception {
+		return Secs1MessageBlockConverter.toBlocks(message(deviceId, systemBytes, body));
+	}
+	
+	/**
+	 * Body of blocks, 244 bytes per block.
+	 * 
+	 * @param n count of blocks
+	 * @param v first byte
+	 * @return body
+	 */
+	private static Secs2 body(int n, byte v) {
+		final byte[] bs = new byte[244 * n - 4];
+		for ( int i = 0; i < bs.length; ++i ) {
+			bs[i] = (byte)(v + i);
+		}
+		return Secs2.binary(bs);
+	}
+	
+	private static void assertMessage(String name, Secs2 expected, List<Secs1MessageBlock> blocks) throws Exception {
+		TestAssert.assertTrue(name + " completed", blocks != null);
+		TestAssert.assertEquals(name + " body", expected, Secs1MessageBlockConverter.toSecs1Message(blocks).secs2());
+	}
+	
+	private static void singleBlock() throws Exception {
+		
+		final Secs1MessageBlockCache cache = new Secs1MessageBlockCache();
+		final List<Secs1MessageBlock> bb = blocks(10, 1, Secs2.ascii("ONE"));
+		
+		TestAssert.assertEquals("one block", 1, bb.size());
+		
+		final List<Secs1MessageBlock> r = cache.put(bb.get(0), T4);
+		
+		TestAssert.assertEquals("returned", 1, r.size());
+		TestAssert.assertTrue("same block", r.get(0) == bb.get(0));
+		TestAssert.assertEquals("no entries", -1L, cache.nanosToNextExpiry());
+	}
+	
+	private static void multiBlocks() throws Exception {
+		
+		final Secs1MessageBlockCache cache = new Secs1MessageBlockCache();
+		final Secs2 body = body(4, (byte)1);
+		final List<Secs1MessageBlock> bb = blocks(10, 2, body);
+		
+		TestAssert.assertEquals("4 blocks", 4, bb.size());
+		
+		for ( int i = 0; i < 3; ++i ) {
+			TestAssert.assertTrue("not completed " + i, cache.put(bb.get(i), T4) == null);
+			TestAssert.assertTrue("entry", cache.nanosToNextExpiry() > 0L);
+		}
+		
+		final List<Secs1MessageBlock> r = cache.put(bb.get(3), T4);
+		
+		TestAssert.assertEquals("blocks", 4, r.size());
+		assertMessage("message", body, r);
+		TestAssert.assertEquals("removed", -1L, cache.nanosToNextExpiry());
+	}
+	
+	private static void interleaved() throws Exception {
+		
+		final Secs1MessageBlockCache cache = new Secs1MessageBlockCache();
+		
+		final Secs2 a = body(3, (byte)10);
+		final Secs2 b = body(2, (byte)20);
+		final Secs2 c = body(2, (byte)30);
+		
+		/* a and b are different System-Bytes, c is same System-Bytes of a and other Device-ID */
+		final List<Secs1MessageBlock> ba = blocks(10, 100, a);
+		final List<Secs1MessageBlock> bb = blocks(10, 101, b);
+		final List<Secs1MessageBlock> bc = blocks(11, 100, c);
+		
+		TestAssert.assertTrue("a0", cache.put(ba.get(0), T4) == null);
+		TestAssert.assertTrue("b0", cache.put(bb.get(0), T4) == null);
+		TestAssert.assertTrue("c0", cache.put(bc.get(0), T4) == null);
+		TestAssert.assertTrue("a1", cache.put(ba.get(1), T4) == null);
+		
+		assertMessage("c", c, cache.put(bc.get(1), T4));
+		assertMessage("b", b, cache.put(bb.get(1), T4));
+		assertMessage("a", a, cache.put(ba.get(2), T4));
+		
+		TestAssert.assertEquals("no entries", -1L, cache.nanosToNextExpiry());
+	}
+	
+	private static void duplicatedAndOutOfSequence() throws Exception {
+		
+		final Secs1MessageBlockCache cache = new Secs1MessageBlockCache();
+		final Secs2 body = body(4, (byte)5);
+		final List<Secs1MessageBlock> bb = blocks(10, 3, body);
+		
+		TestAssert.assertTrue("0", cache.put(bb.get(0), T4) == null);
+		TestAssert.assertTrue("1", cache.put(bb.get(1), T4) == null);
+		
+		/* duplicated (retry) block */
+		TestAssert.assertTrue("1 again", cache.put(bb.get(1), T4) == null);
+		
+		/* skipped block */
+		TestAssert.assertTrue("3 before 2", cache.put(bb.get(3), T4) == null);
+		
+		TestAssert.assertTrue("2", cache.put(bb.get(2), T4) == null);
+		assertMessage("message", body, cache.put(bb.get(3), T4));
+		
+		/* not first block without entry */
+		TestAssert.assertTrue("no entry", cache.put(bb.get(1), T4) == null);
+		TestAssert.assertEquals("not entried", -1L, cache.nanosToNextExpiry());
+	}
+	
+	private static void firstBlockRestarts() throws Exception {
+		
+		final Secs1MessageBlockCache cache = new Secs1MessageBlockCache();
+		
+		final Secs2 old = body(3, (byte)40);
+		final Secs2 renew = body(2, (byte)50);
+		
+		final List<Secs1MessageBlock> bo = blocks(10, 7, old);
+		final List<Secs1MessageBlock> bn = blocks(10, 7, renew);
+		
+		TestAssert.assertTrue("old 0", cache.put(bo.get(0), T4) == null);
+		TestAssert.assertTrue("old 1", cache.put(bo.get(1), T4) == null);
+		
+		/* same key first block discards old entry */
+		TestAssert.assertTrue("new 0", cache.put(bn.get(0), T4) == null);
+		assertMessage("new", renew, cache.put(bn.get(1), T4));
+		
+		/* old rest is ignored */
+		TestAssert.assertTrue("old 2", cache.put(bo.get(2), T4) == null);
+		
+		/* single block message discards entry of same key */
+		TestAssert.assertTrue("old 0 again", cache.put(bo.get(0), T4) == null);
+		TestAssert.assertEquals("single", 1, cache.put(blocks(10, 7, Secs2.ascii("S")).get(0), T4).size());
+		TestAssert.assertEquals("discarded", -1L, cache.nanosToNextExpiry());
+	}
+	
+	private static void t4Expiry() throws Exception {
+		
+		final Secs1MessageBlockCache cache = new Secs1MessageBlockCache();
+		
+		final List<Secs1MessageBlock> ba = blocks(10, 200, body(3, (byte)1));
+		final List<Secs1MessageBlock> bb = blocks(10, 201, body(3, (byte)2));
+		
+		final long shortT4 = TimeUnit.MILLISECONDS.toNanos(100L);
+		
+		cache.put(ba.get(0), shortT4);
+		cache.put(ba.get(1), shortT4);
+		cache.put(bb.get(0), T4);
+		
+		final long n = cache.nanosToNextExpiry();
+		TestAssert.assertTrue("nearest " + n, n > 0L && n <= shortT4);
+		TestAssert.assertTrue("not yet", cache.removeExpired().isEmpty());
+		
+		TimeUnit.MILLISECONDS.sleep(200L);
+		
+		TestAssert.assertEquals("expired", 0L, cache.nanosToNextExpiry());
+		
+		final List<Secs1MessageBlock> expired = cache.removeExpired();
+		
+		TestAssert.assertEquals("expired count", 1, expired.size());
+		TestAssert.assertTrue("last block", expired.get(0) == ba.get(1));
+		
+		/* other entry continues */
+		final long m = cache.nanosToNextExpiry();
+		TestAssert.assertTrue("rest " + m, m > shortT4);
+		
+		/* expired entry does not complete */
+		TestAssert.assertTrue("a2 after expired", cache.put(ba.get(2), T4) == null);
+		
+		cache.put(bb.get(1), T4);
+		TestAssert.assertTrue("b completed", cache.put(bb.get(2), T4) != null);
+		TestAssert.assertTrue("none", cache.removeExpired().isEmpty());
+	}
+	
+	private static void t4Reset() throws Exception {
+		
+		final Secs1MessageBlockCache cache = new Secs1MessageBlockCache();
+		final Secs2 body = body(4, (byte)9);
+		final List<Secs1MessageBlock> bb = blocks(10, 300, body);
+		
+		final long t4 = TimeUnit.MILLISECONDS.toNanos(300L);
+		
+		/* each block is within T4, total is over T4 */
+		for ( int i = 0; i < 3; ++i ) {
+			TestAssert.assertTrue("put " + i, cache.put(bb.get(i), t4) == null);
+			TimeUnit.MILLISECONDS.sleep(150L);
+			TestAssert.assertTrue("not expired " + i, cache.removeExpired().isEmpty());
+		}
+		
+		assertMessage("completed", body, cache.put(bb.get(3), t4));
+	}
+	
+	private static void clear() throws Exception {
+		
+		final Secs1MessageBlockCache cache = new Secs1MessageBlockCache();
+		final List<Secs1MessageBlock> bb = blocks(10, 400, body(2, (byte)0));
+		
+		cache.put(bb.get(0), T4);
+		TestAssert.assertTrue("entry", cache.nanosToNextExpiry() > 0L);
+		
+		cache.clear();
+		
+		TestAssert.assertEquals("cleared", -1L, cache.nanosToNextExpiry());
+		TestAssert.assertTrue("not completed", cache.put(bb.get(1), T4) == null);
+	}
+	
+}
@@ -0,0 +1,58 @@
+package com.shimizukenta.secs.secs1emulator;
+
+import java.io.IOException;
+import java.util.Objects;
+
+import com.shimizukenta.secs.SecsException;
+import com.shimizukenta.secs.SecsSendMessageException;
+import com.shimizukenta.secs.secs1.AbstractSecs1Communicator;
+import com.shimizukenta.secs.secs1.Secs1CommunicatorConfig;
+
+/**
+ * This abstract class is implementation of SECS-I (SEMI-E4) on emulated serial line.
+ * 
+ * @author kenta-shimizu
+ *
+ */
+public abstract class AbstractSecs1OnEmulatedLineCommunicator extends AbstractSecs1Communicator
+		implements Secs1OnEmulatedLineCommunicator {
+			
+	private final Secs1EmulatedLine.Port port;
+	
+	public AbstractSecs1OnEmulatedLineCommunicator(Secs1CommunicatorConfig config, Secs1EmulatedLine.Port port) {
+		super(Objects.requireNonNull(config));
+		
+		this.port = Objects.requireNonNull(port);
+	}
+	
+	@Override
+	public void open() throws IOException {
+		super.open();
+		
+		this.port.attach(this::putBytes);
+		this.notifyCommunicatableStateChange(true);
+	}
+	
+	@Override
+	public void close() throws IOException {
+		
+		synchronized ( this ) {
+			if ( isClosed() ) {
+				return;
+			}
+			
+			this.port.detach();
+			this.notifyCommunicatableStateChange(false);
+		}
+		
+		super.close();
+	}
+	
+	@Override
+	protected void sendBytes(byte[] bs)
+			throws SecsSendMessageException, SecsException, InterruptedException {
+				
+		this.port.write(bs);
+	}
+	
+}
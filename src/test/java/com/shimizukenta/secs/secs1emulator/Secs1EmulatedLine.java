@@ -0,0 +1,300 @@
+package com.shimizukenta.secs.secs1emulator;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Objects;
+import java.util.Random;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+import com.shimizukenta.secs.SecsThreadFactories;
+
+/**
+ * This class is emulated serial line between two SECS-I Communicators in one JVM.
+ * 
+ * <p>
+ * Bytes written to a port arrive at the other port after line time, 10 bits per byte at baud-rate
+ * and inter-character-delay.<br />
+ * Byte errors and NAK are injected by config rates, with seeded random.<br />
+ * To create new instance, {@link #newInstance(Secs1EmulatedLineConfig)}<br />
+ * To get ports, {@link #portA()}, {@link #portB()}<br />
+ * </p>
+ * 
+ * @author kenta-shimizu
+ *
+ */
+public final class Secs1EmulatedLine implements Closeable {
+	
+	private static final byte ACK = (byte)0x6;
+	private static final byte NAK = (byte)0x15;
+	
+	private final Port portA;
+	private final Port portB;
+	private final Direction aToB;
+	private final Direction bToA;
+	private final AtomicLong injectedByteErrors = new AtomicLong(0L);
+	private final AtomicLong injectedNaks = new AtomicLong(0L);
+	
+	private boolean closed;
+	
+	private Secs1EmulatedLine(Secs1EmulatedLineConfig config) {
+		
+		final long byteNanos = TimeUnit.SECONDS.toNanos(10L) / config.baudRate().longValue()
+				+ TimeUnit.MILLISECONDS.toNanos(config.interCharacterDelay().getMilliSeconds());
+		
+		final double errorRate = config.byteErrorRate().doubleValue();
+		final double nakRate = config.nakInjectionRate().doubleValue();
+		final long seed = config.seed().longValue();
+		
+		this.portA = new Port("A");
+		this.portB = new Port("B");
+		this.aToB = new Direction(this.portB, byteNanos, errorRate, nakRate, new Random(seed));
+		this.bToA = new Direction(this.portA, byteNanos, errorRate, nakRate, new Random(~seed));
+		this.portA.out = this.aToB;
+		this.portB.out = this.bToA;
+		
+		final ThreadFactory tf = SecsThreadFactories.daemon("secs1-emulated-line-");
+		this.aToB.thread = tf.newThread(this.aToB);
+		this.bToA.thread = tf.newThread(this.bToA);
+		this.aToB.thread.start();
+		this.bToA.thread.start();
+		
+		this.closed = false;
+	}
+	
+	/**
+	 * Create emulated line instance, line threads are started.
+	 * 
+	 * @param config
+	 * @return new emulated line
+	 */
+	public static Secs1EmulatedLine newInstance(Secs1EmulatedLineConfig config) {
+		return new Secs1EmulatedLine(Objects.requireNonNull(config));
+	}
+	
+	public Port portA() {
+		return portA;
+	}
+	
+	public Port portB() {
+		return portB;
+	}
+	
+	/**
+	 * Returns count of bytes corrupted by injection.
+	 * 
+	 * @return count of bytes corrupted by injection
+	 */
+	public long injectedByteErrors() {
+		return injectedByteErrors.get();
+	}
+	
+	/**
+	 * Returns count of ACK replaced by NAK.
+	 * 
+	 * @return count of ACK replaced by NAK
+	 */
+	public long injectedNaks() {
+		return injectedNaks.get();
+	}
+	
+	@Override
+	public void close() throws IOException {
+		
+		synchronized ( this ) {
+			if ( this.closed ) {
+				return;
+			}
+			this.closed = true;
+		}
+		
+		this.aToB.thread.interrupt();
+		this.bToA.thread.interrupt();
+	}
+	
+	/**
+	 * Receiver of bytes arrived at port.
+	 * 
+	 * @author kenta-shimizu
+	 *
+	 */
+	@FunctionalInterface
+	public interface Receiver {
+		
+		/**
+		 * Arrived bytes.
+		 * 
+		 * @param bs
+		 * @throws InterruptedException
+		 */
+		public void received(byte[] bs) throws InterruptedException;
+	}
+	
+	/**
+	 * This class is end of emulated line.
+	 * 
+	 * @author kenta-shimizu
+	 *
+	 */
+	public static final class Port {
+		
+		private final String name;
+		private Direction out;
+		private volatile Receiver receiver;
+		
+		private Port(String name) {
+			this.name = name;
+			this.out = null;
+			this.receiver = null;
+		}
+		
+		/**
+		 * Attach receiver, bytes arrived while not attached are lost.
+		 * 
+		 * @param receiver
+		 */
+		public void attach(Receiver receiver) {
+			this.receiver = Objects.requireNonNull(receiver);
+		}
+		
+		public void detach() {
+			this.receiver = null;
+		}
+		
+		/**
+		 * Write bytes to line, returns without waiting line time.
+		 * 
+		 * @param bs
+		 */
+		public void write(byte[] bs) {
+			this.out.put(Arrays.copyOf(bs, bs.length));
+		}
+		
+		@Override
+		public String toString() {
+			return "port-" + name;
+		}
+	}
+	
+	private static final class Chunk {
+		
+		private final byte[] bytes;
+		private final long nanos;
+		
+		private Chunk(byte[] bytes, long nanos) {
+			this.bytes = bytes;
+			this.nanos = nanos;
+		}
+	}
+	
+	/**
+	 * One way of line, delivers bytes to port at arrival time.
+	 *
+	 */
+	private final class Direction implements Runnable {
+		
+		private final BlockingQueue<Chunk> queue = new LinkedBlockingQueue<>();
+		private final Port to;
+		private final long byteNanos;
+		private final double errorRate;
+		private final double nakRate;
+		private final Random random;
+		private Thread thread;
+		
+		private Direction(Port to, long byteNanos, double errorRate, double nakRate, Random random) {
+			this.to = to;
+			this.byteNanos = byteNanos;
+			this.errorRate = errorRate;
+			this.nakRate = nakRate;
+			this.random = random;
+		}
+		
+		private void put(byte[] bs) {
+			this.queue.add(new Chunk(bs, System.nanoTime()));
+		}
+		
+		/**
+		 * Returns byte after injection, NAK is injected to single byte ACK only, not to block bytes.
+		 * 
+		 * @param b
+		 * @param single {@code true} if written as single byte
+		 * @return byte after injection
+		 */
+		private byte inject(byte b, boolean single) {
+			
+			if ( single && b == ACK && this.nakRate > 0.0D && this.random.nextDouble() < this.nakRate ) {
+				injectedNaks.incrementAndGet();
+				return NAK;
+			}
+			
+			if ( this.errorRate > 0.0D && this.random.nextDouble() < this.errorRate ) {
+				injectedByteErrors.incrementAndGet();
+				return (byte)(b ^ (1 << this.random.nextInt(8)));
+			}
+			
+			return b;
+		}
+		
+		private void deliver(byte[] bs, int len) throws InterruptedException {
+			
+			final Receiver r = this.to.receiver;
+			
+			if ( r != null && len > 0 ) {
+				r.received(Arrays.copyOf(bs, len));
+			}
+		}
+		
+		@Override
+		public void run() {
+			
+			try {
+				long lineFree = System.nanoTime();
+				byte[] pending = new byte[256];
+				
+				for ( ;; ) {
+					
+					final Chunk c = this.queue.take();
+					
+					long t = Math.max(lineFree, c.nanos);
+					int n = 0;
+					
+					for ( byte b : c.bytes ) {
+						
+						t += this.byteNanos;
+						
+						if ( (t - System.nanoTime()) > 0L ) {
+							
+							deliver(pending, n);
+							n = 0;
+							
+							for ( long w; (w = t - System.nanoTime()) > 0L; ) {
+								LockSupport.parkNanos(w);
+								if ( Thread.interrupted() ) {
+									throw new InterruptedException();
+								}
+							}
+						}
+						
+						if ( n >= pending.length ) {
+							pending = Arrays.copyOf(pending, pending.length * 2);
+						}
+						
+						pending[n] = inject(b, c.bytes.length == 1);
+						++ n;
+					}
+					
+					deliver(pending, n);
+					lineFree = t;
+				}
+			}
+			catch ( InterruptedException ignore ) {
+			}
+		}
+	}
+	
+}
@@ -0,0 +1,416 @@
+package com.shimizukenta.secs.secs1emulator;
+
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicLong;
+
+import com.shimizukenta.secs.SecsException;
+import com.shimizukenta.secs.SecsLog;
+import com.shimizukenta.secs.SecsLogListener;
+import com.shimizukenta.secs.secs1.Secs1CommunicatorConfig;
+import com.shimizukenta.secs.secs1.Secs1NotReceiveAckCircuitControlLog;
+import com.shimizukenta.secs.secs1.Secs1ReceiveMessageBlockLog;
+import com.shimizukenta.secs.secs1.Secs1RetryCircuitControlLog;
+import com.shimizukenta.secs.secs1.Secs1SendedMessageBlockLog;
+import com.shimizukenta.secs.secs1.Secs1SumCheckMismatchCirsuitControlLog;
+import com.shimizukenta.secs.secs1.Secs1TimeoutT1CircuitControlLog;
+import com.shimizukenta.secs.secs1.Secs1TimeoutT2AckCircuitControlLog;
+import com.shimizukenta.secs.secs1.Secs1TimeoutT2LengthByteCircuitColtrolLog;
+import com.shimizukenta.secs.secs1.Secs1TimeoutT4CircuitControlLog;
+import com.shimizukenta.secs.secs2.Secs2;
+
+/**
+ * This class is throughput benchmark of SECS-I on emulated serial line.
+ * 
+ * <p>
+ * Host (Master) sends primary messages of body size to Equipment, Equipment replies S6F12 ACK.<br />
+ * Reports block and message throughput, retry, NAK, sum-check and T1/T2/T4 counts.<br />
+ * To run from command line, {@link #main(String[])}<br />
+ * </p>
+ * 
+ * @author kenta-shimizu
+ *
+ */
+public final class Secs1EmulatedLineBenchmark {
+	
+	private Secs1EmulatedLineBenchmark() {
+		/* Nothing */
+	}
+	
+	/**
+	 * Run benchmark, send messages sequentially.
+	 * 
+	 * <p>
+	 * hostConfig and equipConfig must be same Device-ID, hostConfig is Master.<br />
+	 * </p>
+	 * 
+	 * @param lineConfig
+	 * @param hostConfig
+	 * @param equipConfig
+	 * @param messages count of messages
+	 * @param bodySize binary bytes of each message body
+	 * @return result
+	 * @throws IOException
+	 * @throws InterruptedException
+	 */
+	public static Result run(
+			Secs1EmulatedLineConfig lineConfig,
+			Secs1CommunicatorConfig hostConfig,
+			Secs1CommunicatorConfig equipConfig,
+			int messages,
+			int bodySize)
+					throws IOException, InterruptedException {
+		
+		Objects.requireNonNull(lineConfig);
+		Objects.requireNonNull(hostConfig);
+		Objects.requireNonNull(equipConfig);
+		
+		final byte[] bs = new byte[bodySize];
+		for ( int i = 0; i < bs.length; ++i ) {
+			bs[i] = (byte)i;
+		}
+		final Secs2 body = Secs2.binary(bs);
+		
+		final Counter counter = new Counter();
+		
+		try (
+				Secs1EmulatedLine line = Secs1EmulatedLine.newInstance(lineConfig);
+				Secs1OnEmulatedLineCommunicator host = Secs1OnEmulatedLineCommunicator.newInstance(hostConfig, line.portA());
+				Secs1OnEmulatedLineCommunicator equip = Secs1OnEmulatedLineCommunicator.newInstance(equipConfig, line.portB());
+				) {
+			
+			host.addSecsLogListener(counter);
+			equip.addSecsLogListener(counter);
+			
+			equip.addSecsMessageReceiveListener(msg -> {
+				try {
+					equip.send(msg, 6, 12, false, Secs2.binary((byte)0x0));
+				}
+				catch ( SecsException ignore ) {
+				}
+				catch ( InterruptedException ignore ) {
+				}
+			});
+			
+			equip.open();
+			host.open();
+			
+			int completed = 0;
+			int failed = 0;
+			
+			final long start = System.nanoTime();
+			
+			for ( int i = 0; i < messages; ++i ) {
+				
+				try {
+					if ( host.send(6, 11, true, body).isPresent() ) {
+						++ completed;
+					} else {
+						++ failed;
+					}
+				}
+				catch ( SecsException e ) {
+					++ failed;
+				}
+			}
+			
+			final long elapsed = System.nanoTime() - start;
+			
+			/* wait for logs of last message notified */
+			Thread.sleep(100L);
+			
+			return new Result(
+					hostConfig,
+					completed,
+					failed,
+					elapsed,
+					counter,
+					line.injectedByteErrors(),
+					line.injectedNaks());
+		}
+	}
+	
+	private static final class Counter implements SecsLogListener {
+		
+		private final AtomicLong blocksSended = new AtomicLong(0L);
+		private final AtomicLong blocksReceived = new AtomicLong(0L);
+		private final AtomicLong retries = new AtomicLong(0L);
+		private final AtomicLong notAcks = new AtomicLong(0L);
+		private final AtomicLong sumCheckMismatches = new AtomicLong(0L);
+		private final AtomicLong t1Timeouts = new AtomicLong(0L);
+		private final AtomicLong t2Timeouts = new AtomicLong(0L);
+		private final AtomicLong t4Timeouts = new AtomicLong(0L);
+		
+		private Counter() {
+			/* Nothing */
+		}
+		
+		@Override
+		public void received(SecsLog log) {
+			
+			if ( log instanceof Secs1SendedMessageBlockLog ) {
+				blocksSended.incrementAndGet();
+			} else if ( log instanceof Secs1ReceiveMessageBlockLog ) {
+				blocksReceived.incrementAndGet();
+			} else if ( log instanceof Secs1RetryCircuitControlLog ) {
+				retries.incrementAndGet();
+			} else if ( log instanceof Secs1NotReceiveAckCircuitControlLog ) {
+				notAcks.incrementAndGet();
+			} else if ( log instanceof Secs1SumCheckMismatchCirsuitControlLog ) {
+				sumCheckMismatches.incrementAndGet();
+			} else if ( log instanceof Secs1TimeoutT1CircuitControlLog ) {
+				t1Timeouts.incrementAndGet();
+			} else if ( (log instanceof Secs1TimeoutT2AckCircuitControlLog)
+					|| (log instanceof Secs1TimeoutT2LengthByteCircuitColtrolLog) ) {
+				t2Timeouts.incrementAndGet();
+			} else if ( log instanceof Secs1TimeoutT4CircuitControlLog ) {
+				t4Timeouts.incrementAndGet();
+			}
+		}
+	}
+	
+	/**
+	 * This class is result of benchmark.
+	 * 
+	 * @author kenta-shimizu
+	 *
+	 */
+	public static final class Result {
+		
+		private final float t1;
+		private final float t2;
+		private final float t4;
+		private final int completed;
+		private final int failed;
+		private final long elapsedNanos;
+		private final long blocksSended;
+		private final long blocksReceived;
+		private final long retries;
+		private final long notAcks;
+		private final long sumCheckMismatches;
+		private final long t1Timeouts;
+		private final long t2Timeouts;
+		private final long t4Timeouts;
+		private final long injectedByteErrors;
+		private final long injectedNaks;
+		
+		private Result(
+				Secs1CommunicatorConfig config,
+				int completed,
+				int failed,
+				long elapsedNanos,
+				Counter counter,
+				long injectedByteErrors,
+				long injectedNaks) {
+			
+			this.t1 = config.timeout().t1().getSeconds();
+			this.t2 = config.timeout().t2().getSeconds();
+			this.t4 = config.timeout().t4().getSeconds();
+			this.completed = completed;
+			this.failed = failed;
+			this.elapsedNanos = elapsedNanos;
+			this.blocksSended = counter.blocksSended.get();
+			this.blocksReceived = counter.blocksReceived.get();
+			this.retries = counter.retries.get();
+			this.notAcks = counter.notAcks.get();
+			this.sumCheckMismatches = counter.sumCheckMismatches.get();
+			this.t1Timeouts = counter.t1Timeouts.get();
+			this.t2Timeouts = counter.t2Timeouts.get();
+			this.t4Timeouts = counter.t4Timeouts.get();
+			this.injectedByteErrors = injectedByteErrors;
+			this.injectedNaks = injectedNaks;
+		}
+		
+		public int completedMessages() {
+			return completed;
+		}
+		
+		public int failedMessages() {
+			return failed;
+		}
+		
+		public double elapsedSeconds() {
+			return (double)elapsedNanos / 1000000000.0D;
+		}
+		
+		/**
+		 * Returns completed messages per second.
+		 * 
+		 * @return completed messages per second
+		 */
+		public double messagesPerSecond() {
+			return (double)completed / elapsedSeconds();
+		}
+		
+		/**
+		 * Returns sended blocks of both sides per second.
+		 * 
+		 * @return sended blocks of both sides per second
+		 */
+		public double blocksPerSecond() {
+			return (double)blocksSended / elapsedSeconds();
+		}
+		
+		public long blocksSended() {
+			return blocksSended;
+		}
+		
+		public long blocksReceived() {
+			return blocksReceived;
+		}
+		
+		public long retries() {
+			return retries;
+		}
+		
+		/**
+		 * Returns count of not ACK (NAK or other) received after block sended.
+		 * 
+		 * @return count of not ACK received
+		 */
+		public long notAcks() {
+			return notAcks;
+		}
+		
+		public long sumCheckMismatches() {
+			return sumCheckMismatches;
+		}
+		
+		public long t1Timeouts() {
+			return t1Timeouts;
+		}
+		
+		public long t2Timeouts() {
+			return t2Timeouts;
+		}
+		
+		public long t4Timeouts() {
+			return t4Timeouts;
+		}
+		
+		public long injectedByteErrors() {
+			return injectedByteErrors;
+		}
+		
+		public long injectedNaks() {
+			return injectedNaks;
+		}
+		
+		/**
+		 * Returns header line of {@link #toString()} columns.
+		 * 
+		 * @return header line
+		 */
+		public static String header() {
+			return String.format("%6s %6s %6s %8s %6s %6s %9s %9s %8s %8s %7s %6s %8s %4s %4s %4s %9s %7s",
+					"T1", "T2", "T4", "elapsed", "msgs", "failed", "msgs/s", "blocks/s",
+					"sended", "received", "retries", "notAck", "sumCheck", "T1", "T2", "T4",
+					"byteErrs", "NAKs");
+		}
+		
+		@Override
+		public String toString() {
+			return String.format("%6.2f %6.2f %6.2f %8.2f %6d %6d %9.2f %9.2f %8d %8d %7d %6d %8d %4d %4d %4d %9d %7d",
+					t1, t2, t4, elapsedSeconds(), completed, failed, messagesPerSecond(), blocksPerSecond(),
+					blocksSended, blocksReceived, retries, notAcks, sumCheckMismatches,
+					t1Timeouts, t2Timeouts, t4Timeouts,
+					injectedByteErrors, injectedNaks);
+		}
+	}
+	
+	private static float[] parseFloats(String v) {
+		final String[] ss = v.split(",");
+		final float[] ff = new float[ss.length];
+		for ( int i = 0; i < ss.length; ++i ) {
+			ff[i] = Float.parseFloat(ss[i].trim());
+		}
+		return ff;
+	}
+	
+	/**
+	 * Run benchmark for each T1, T2, T4 combination, and print results.
+	 * 
+	 * <p>
+	 * Arguments are "key=value", T1/T2/T4 value is comma separated seconds list.<br />
+	 * baud=9600 delay=0.0 error=0.0 nak=0.0 seed=0 messages=10 size=1000 retry=3 t1=0.5 t2=10.0 t3=45.0 t4=45.0<br />
+	 * </p>
+	 * 
+	 * @param args
+	 */
+	public static void main(String[] args) {
+		
+		final Map<String, String> map = new HashMap<>();
+		map.put("baud", "9600");
+		map.put("delay", "0.0");
+		map.put("error", "0.0");
+		map.put("nak", "0.0");
+		map.put("seed", "0");
+		map.put("messages", "10");
+		map.put("size", "1000");
+		map.put("retry", "3");
+		map.put("t1", "0.5");
+		map.put("t2", "10.0");
+		map.put("t3", "45.0");
+		map.put("t4", "45.0");
+		
+		for ( String a : args ) {
+			final String[] kv = a.split("=", 2);
+			if ( kv.length != 2 || ! map.containsKey(kv[0].trim()) ) {
+				System.out.println("Unknown argument: " + a);
+				return;
+			}
+			map.put(kv[0].trim(), kv[1].trim());
+		}
+		
+		final Secs1EmulatedLineConfig lineConfig = new Secs1EmulatedLineConfig();
+		lineConfig.baudRate(Integer.parseInt(map.get("baud")));
+		lineConfig.interCharacterDelay(Float.parseFloat(map.get("delay")));
+		lineConfig.byteErrorRate(Double.parseDouble(map.get("error")));
+		lineConfig.nakInjectionRate(Double.parseDouble(map.get("nak")));
+		lineConfig.seed(Long.parseLong(map.get("seed")));
+		
+		final int messages = Integer.parseInt(map.get("messages"));
+		final int size = Integer.parseInt(map.get("size"));
+		final int retry = Integer.parseInt(map.get("retry"));
+		final float t3 = Float.parseFloat(map.get("t3"));
+		
+		System.out.println(Result.header());
+		
+		try {
+			for ( float t1 : parseFloats(map.get("t1")) ) {
+				for ( float t2 : parseFloats(map.get("t2")) ) {
+					for ( float t4 : parseFloats(map.get("t4")) ) {
+						
+						final Secs1CommunicatorConfig host = new Secs1CommunicatorConfig();
+						final Secs1CommunicatorConfig equip = new Secs1CommunicatorConfig();
+						
+						host.isEquip(false);
+						host.isMaster(true);
+						equip.isEquip(true);
+						equip.isMaster(false);
+						
+						for ( Secs1CommunicatorConfig c : new Secs1CommunicatorConfig[] {host, equip} ) {
+							c.deviceId(10);
+							c.retry(retry);
+							c.timeout().t1(t1);
+							c.timeout().t2(t2);
+							c.timeout().t3(t3);
+							c.timeout().t4(t4);
+						}
+						
+						final Result r = run(lineConfig, host, equip, messages, size);
+						System.out.println(r);
+					}
+				}
+			}
+		}
+		catch ( InterruptedException ignore ) {
+		}
+		catch ( Throwable t ) {
+			t.printStackTrace();
+		}
+	}
+	
+}
@@ -0,0 +1,152 @@
+package com.shimizukenta.secs.secs1emulator;
+
+import java.io.Serializable;
+
+import com.shimizukenta.secs.NumberProperty;
+import com.shimizukenta.secs.ReadOnlyNumberProperty;
+import com.shimizukenta.secs.ReadOnlyTimeProperty;
+import com.shimizukenta.secs.TimeProperty;
+
+/**
+ * This class is emulated serial line config.
+ * 
+ * <p>
+ * To set Baud-Rate, {@link #baudRate(int)}<br />
+ * To set Inter-Character-Delay, {@link #interCharacterDelay(float)}<br />
+ * To set Byte-Error-Rate, {@link #byteErrorRate(double)}<br />
+ * To set NAK-Injection-Rate, {@link #nakInjectionRate(double)}<br />
+ * </p>
+ * 
+ * @author kenta-shimizu
+ *
+ */
+public class Secs1EmulatedLineConfig implements Serializable {
+	
+	private static final long serialVersionUID = -2262811937640392071L;
+	
+	private final NumberProperty baudRate = NumberProperty.newInstance(9600);
+	private final TimeProperty interCharacterDelay = TimeProperty.newInstance(0.0F);
+	private final NumberProperty byteErrorRate = NumberProperty.newInstance(0.0D);
+	private final NumberProperty nakInjectionRate = NumberProperty.newInstance(0.0D);
+	private final NumberProperty seed = NumberProperty.newInstance(0L);
+	
+	public Secs1EmulatedLineConfig() {
+		/* Nothing */
+	}
+	
+	/**
+	 * Baud-Rate setter.
+	 * 
+	 * <p>
+	 * 1 byte is 10 bits, start-bit, 8 data-bits and stop-bit.<br />
+	 * </p>
+	 * 
+	 * @param bps baud-rate is {@code > 0}
+	 */
+	public void baudRate(int bps) {
+		if ( bps <= 0 ) {
+			throw new IllegalArgumentException("baud-rate is > 0");
+		}
+		this.baudRate.set(bps);
+	}
+	
+	/**
+	 * Baud-Rate getter.
+	 * 
+	 * @return baud-rate
+	 */
+	public ReadOnlyNumberProperty baudRate() {
+		return baudRate;
+	}
+	
+	/**
+	 * Inter-Character-Delay setter, added after each byte.
+	 * 
+	 * @param seconds
+	 */
+	public void interCharacterDelay(float seconds) {
+		if ( seconds < 0.0F ) {
+			throw new IllegalArgumentException("delay is >= 0.0");
+		}
+		this.interCharacterDelay.set(seconds);
+	}
+	
+	/**
+	 * Inter-Character-Delay getter.
+	 * 
+	 * @return inter-character-delay
+	 */
+	public ReadOnlyTimeProperty interCharacterDelay() {
+		return interCharacterDelay;
+	}
+	
+	/**
+	 * Byte-Error-Rate setter.
+	 * 
+	 * <p>
+	 * Each byte is corrupted by one bit flip at this rate.<br />
+	 * </p>
+	 * 
+	 * @param rate {@code 0.0 <= rate <= 1.0}
+	 */
+	public void byteErrorRate(double rate) {
+		this.byteErrorRate.set(checkRate(rate));
+	}
+	
+	/**
+	 * Byte-Error-Rate getter.
+	 * 
+	 * @return byte-error-rate
+	 */
+	public ReadOnlyNumberProperty byteErrorRate() {
+		return byteErrorRate;
+	}
+	
+	/**
+	 * NAK-Injection-Rate setter.
+	 * 
+	 * <p>
+	 * Each ACK is replaced by NAK at this rate, bytes of block are not replaced.<br />
+	 * </p>
+	 * 
+	 * @param rate {@code 0.0 <= rate <= 1.0}
+	 */
+	public void nakInjectionRate(double rate) {
+		this.nakInjectionRate.set(checkRate(rate));
+	}
+	
+	/**
+	 * NAK-Injection-Rate getter.
+	 * 
+	 * @return nak-injection-rate
+	 */
+	public ReadOnlyNumberProperty nakInjectionRate() {
+		return nakInjectionRate;
+	}
+	
+	/**
+	 * Random seed setter, same seed injects same errors.
+	 * 
+	 * @param seed
+	 */
+	public void seed(long seed) {
+		this.seed.set(seed);
+	}
+	
+	/**
+	 * Random seed getter.
+	 * 
+	 * @return random seed
+	 */
+	public ReadOnlyNumberProperty seed() {
+		return seed;
+	}
+	
+	private static double checkRate(double rate) {
+		if ( rate < 0.0D || rate > 1.0D ) {
+			throw new IllegalArgumentException("rate is 0.0 - 1.0");
+		}
+		return rate;
+	}
+	
+}
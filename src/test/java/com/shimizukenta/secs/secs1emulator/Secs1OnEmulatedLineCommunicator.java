@@ -0,0 +1,29 @@
+package com.shimizukenta.secs.secs1emulator;
+
+import com.shimizukenta.secs.secs1.Secs1Communicator;
+import com.shimizukenta.secs.secs1.Secs1CommunicatorConfig;
+
+/**
+ * This instance is implementation of SECS-I (SEMI-E4) on emulated serial line.
+ * 
+ * <p>
+ * To create new instance, {@link #newInstance(Secs1CommunicatorConfig, Secs1EmulatedLine.Port)}<br />
+ * </p>
+ * 
+ * @author kenta-shimizu
+ *
+ */
+public interface Secs1OnEmulatedLineCommunicator extends Secs1Communicator {
+	
+	/**
+	 * Create SECS-I-on-emulated-line instance.
+	 * 
+	 * @param config
+	 * @param port end of emulated line
+	 * @return new Secs1OnEmulatedLine instance
+	 */
+	public static Secs1OnEmulatedLineCommunicator newInstance(Secs1CommunicatorConfig config, Secs1EmulatedLine.Port port) {
+		return new AbstractSecs1OnEmulatedLineCommunicator(config, port) {};
+	}
+	
+}
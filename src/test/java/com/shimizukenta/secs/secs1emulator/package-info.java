@@ -0,0 +1,7 @@
+/**
+ * Test package providing SECS-I(SEMI-E4) Communicator on emulated serial line, and line benchmark.
+ * 
+ * @author kenta-shimizu
+ *
+ */
+package com.shimizukenta.secs.secs1emulator;
@@ -0,0 +1,115 @@
+package test;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.util.function.Consumer;
+
+import com.shimizukenta.secs.SecsException;
+import com.shimizukenta.secs.hsmsss.HsmsSsCommunicator;
+import com.shimizukenta.secs.hsmsss.HsmsSsCommunicatorConfig;
+import com.shimizukenta.secs.hsmsss.HsmsSsProtocol;
+
+/**
+ * This class is pair of HSMS-SS Passive-Equip and Active-Host on loopback.
+ * 
+ * <p>
+ * Equip echoes primary message as S?F(n+1).<br />
+ * </p>
+ * 
+ * @author kenta-shimizu
+ *
+ */
+public final class HsmsSsLoopback implements Closeable {
+	
+	public final HsmsSsCommunicator equip;
+	public final HsmsSsCommunicator host;
+	
+	private HsmsSsLoopback(HsmsSsCommunicator equip, HsmsSsCommunicator host) {
+		this.equip = equip;
+		this.host = host;
+	}
+	
+	public static HsmsSsCommunicatorConfig passiveConfig(int port) {
+		HsmsSsCommunicatorConfig c = new HsmsSsCommunicatorConfig();
+		c.protocol(HsmsSsProtocol.PASSIVE);
+		c.socketAddress(new InetSocketAddress("127.0.0.1", port));
+		c.isEquip(true);
+		c.sessionId(10);
+		c.notLinktest();
+		c.notRebindIfPassive();
+		return c;
+	}
+	
+	public static HsmsSsCommunicatorConfig activeConfig(int port) {
+		HsmsSsCommunicatorConfig c = new HsmsSsCommunicatorConfig();
+		c.protocol(HsmsSsProtocol.ACTIVE);
+		c.socketAddress(new InetSocketAddress("127.0.0.1", port));
+		c.isEquip(false);
+		c.sessionId(10);
+		c.notLinktest();
+		c.timeout().t5(0.5F);
+		return c;
+	}
+	
+	/**
+	 * Open echo pair, and wait until communicating.
+	 * 
+	 * @param port
+	 * @param configurer applied to both configs
+	 * @return opened pair
+	 * @throws IOException
+	 * @throws InterruptedException
+	 */
+	public static HsmsSsLoopback open(int port, Consumer<HsmsSsCommunicatorConfig> configurer)
+			throws IOException, InterruptedException {
+		
+		final HsmsSsCommunicatorConfig pc = passiveConfig(port);
+		final HsmsSsCommunicatorConfig ac = activeConfig(port);
+		configurer.accept(pc);
+		configurer.accept(ac);
+		
+		final HsmsSsCommunicator equip = HsmsSsCommunicator.newInstance(pc);
+		final HsmsSsCommunicator host = HsmsSsCommunicator.newInstance(ac);
+		
+		equip.addSecsMessageReceiveListener(msg -> {
+			try {
+				equip.send(msg, msg.getStream(), msg.getFunction() + 1, false, msg.secs2());
+			}
+			catch ( SecsException ignore ) {
+			}
+			catch ( InterruptedException ignore ) {
+			}
+		});
+		
+		equip.open();
+		host.openAndWaitUntilCommunicating();
+		
+		return new HsmsSsLoopback(equip, host);
+	}
+	
+	@Override
+	public void close() throws IOException {
+		
+		IOException ioExcept = null;
+		
+		try {
+			this.host.close();
+		}
+		catch ( IOException e ) {
+			ioExcept = e;
+		}
+		
+		try {
+			this.equip.close();
+		}
+		catch ( IOException e ) {
+			ioExcept = e;
+		}
+		
+		if ( ioExcept != null ) {
+			throw ioExcept;
+		}
+	}
+	
+}
@@ -0,0 +1,167 @@
+package test;
+
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.Socket;
+import java.net.SocketAddress;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * This class is raw socket peer of HSMS-SS, to write frames byte by byte.
+ * 
+ * @author kenta-shimizu
+ *
+ */
+public final class HsmsSsRawPeer implements Closeable {
+	
+	private final Socket socket;
+	private final DataInputStream dis;
+	private final OutputStream os;
+	
+	private HsmsSsRawPeer(Socket socket) throws IOException {
+		this.socket = socket;
+		this.dis = new DataInputStream(socket.getInputStream());
+		this.os = socket.getOutputStream();
+	}
+	
+	/**
+	 * Connect to Passive, retry until bound.
+	 * 
+	 * @param port
+	 * @return connected peer
+	 * @throws IOException
+	 * @throws InterruptedException
+	 */
+	public static HsmsSsRawPeer connect(int port) throws IOException, InterruptedException {
+		
+		for ( int i = 0; ; ++i ) {
+			
+			final Socket socket = new Socket();
+			
+			try {
+				socket.connect(new InetSocketAddress("127.0.0.1", port));
+				socket.setSoTimeout(10000);
+				return new HsmsSsRawPeer(socket);
+			}
+			catch ( IOException e ) {
+				
+				socket.close();
+				
+				if ( i >= 50 ) {
+					throw e;
+				}
+				
+				TimeUnit.MILLISECONDS.sleep(100L);
+			}
+		}
+	}
+	
+	/**
+	 * Returns frame, 4 bytes length, 10 bytes header and body.
+	 * 
+	 * @param sessionId
+	 * @param stream
+	 * @param function
+	 * @param sType
+	 * @param systemBytes
+	 * @param body
+	 * @return frame bytes
+	 */
+	public static byte[] frame(int sessionId, int stream, int function, int sType, int systemBytes, byte[] body) {
+		
+		final int len = 10 + body.length;
+		final byte[] bs = new byte[4 + len];
+		
+		bs[0] = (byte)(len >> 24);
+		bs[1] = (byte)(len >> 16);
+		bs[2] = (byte)(len >> 8);
+		bs[3] = (byte)len;
+		bs[4] = (byte)(sessionId >> 8);
+		bs[5] = (byte)sessionId;
+		bs[6] = (byte)stream;
+		bs[7] = (byte)function;
+		bs[8] = (byte)0;
+		bs[9] = (byte)sType;
+		bs[10] = (byte)(systemBytes >> 24);
+		bs[11] = (byte)(systemBytes >> 16);
+		bs[12] = (byte)(systemBytes >> 8);
+		bs[13] = (byte)systemBytes;
+		System.arraycopy(body, 0, bs, 14, body.length);
+		
+		return bs;
+	}
+	
+	/**
+	 * Returns Data-Message frame.
+	 * 
+	 * @param stream
+	 * @param function
+	 * @param systemBytes
+	 * @param body
+	 * @return frame bytes
+	 */
+	public static byte[] dataFrame(int stream, int function, int systemBytes, byte[] body) {
+		return frame(10, stream, function, 0, systemBytes, body);
+	}
+	
+	/**
+	 * Send SELECT.req, and read SELECT.rsp.
+	 * 
+	 * @throws IOException
+	 */
+	public void select() throws IOException {
+		write(frame(0xFFFF, 0, 0, 1, 1, new byte[0]));
+		readFrame();
+	}
+	
+	/**
+	 * Returns local address, it is remote address seen from communicator.
+	 * 
+	 * @return local socket address
+	 */
+	public SocketAddress localSocketAddress() {
+		return this.socket.getLocalSocketAddress();
+	}
+	
+	public void write(byte[] bs) throws IOException {
+		this.os.write(bs);
+		this.os.flush();
+	}
+	
+	/**
+	 * Write each byte with flush.
+	 * 
+	 * @param bs
+	 * @throws IOException
+	 * @throws InterruptedException
+	 */
+	public void writeByteByByte(byte[] bs) throws IOException, InterruptedException {
+		for ( byte b : bs ) {
+			this.os.write(b);
+			this.os.flush();
+			TimeUnit.MICROSECONDS.sleep(200L);
+		}
+	}
+	
+	/**
+	 * Read frame, without length bytes.
+	 * 
+	 * @return header and body bytes
+	 * @throws IOException
+	 */
+	public byte[] readFrame() throws IOException {
+		final int len = this.dis.readInt();
+		final byte[] bs = new byte[len];
+		this.dis.readFully(bs);
+		return bs;
+	}
+	
+	@Override
+	public void close() throws IOException {
+		this.socket.close();
+	}
+	
+}
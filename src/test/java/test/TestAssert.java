@@ -0,0 +1,97 @@
+package test;
+
+import java.util.Arrays;
+import java.util.Objects;
+
+/**
+ * This class is assertions of behavior tests.
+ * 
+ * <p>
+ * Tests are main programs, failed assertion throws AssertionError.<br />
+ * </p>
+ * 
+ * @author kenta-shimizu
+ *
+ */
+public final class TestAssert {
+	
+	private TestAssert() {
+		/* Nothing */
+	}
+	
+	/**
+	 * Test body which may throw.
+	 *
+	 */
+	@FunctionalInterface
+	public interface Executable {
+		public void execute() throws Exception;
+	}
+	
+	public static void assertTrue(String message, boolean f) {
+		if ( ! f ) {
+			throw new AssertionError(message);
+		}
+	}
+	
+	public static void assertFalse(String message, boolean f) {
+		assertTrue(message, ! f);
+	}
+	
+	public static void assertEquals(String message, Object expected, Object actual) {
+		if ( ! Objects.equals(expected, actual) ) {
+			throw new AssertionError(message + ", expected: " + expected + ", actual: " + actual);
+		}
+	}
+	
+	public static void assertEquals(String message, long expected, long actual) {
+		if ( expected != actual ) {
+			throw new AssertionError(message + ", expected: " + expected + ", actual: " + actual);
+		}
+	}
+	
+	public static void assertArrayEquals(String message, byte[] expected, byte[] actual) {
+		if ( ! Arrays.equals(expected, actual) ) {
+			throw new AssertionError(message + ", expected: " + Arrays.toString(expected) + ", actual: " + Arrays.toString(actual));
+		}
+	}
+	
+	/**
+	 * Assert that executable throws expected type, and returns thrown.
+	 * 
+	 * @param <T> Throwable type
+	 * @param message
+	 * @param expected
+	 * @param executable
+	 * @return thrown
+	 */
+	public static <T extends Throwable> T assertThrows(String message, Class<T> expected, Executable executable) {
+		
+		try {
+			executable.execute();
+		}
+		catch ( Throwable t ) {
+			
+			if ( expected.isInstance(t) ) {
+				return expected.cast(t);
+			}
+			
+			throw new AssertionError(message + ", expected: " + expected.getSimpleName() + ", actual: " + t, t);
+		}
+		
+		throw new AssertionError(message + ", expected: " + expected.getSimpleName() + ", but not thrown");
+	}
+	
+	/**
+	 * Run test and print result.
+	 * 
+	 * @param name
+	 * @param executable
+	 * @throws Exception
+	 */
+	public static void run(String name, Executable executable) throws Exception {
+		executable.execute();
+		System.out.println("ok: " + name);
+	}
+	
+}
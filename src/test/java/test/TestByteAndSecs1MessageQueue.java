@@ -0,0 +1,410 @@
+package test;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Random;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import com.shimizukenta.secs.secs1.ByteAndSecs1MessageQueue;
+import com.shimizukenta.secs.secs1.ByteOrSecs1Message;
+import com.shimizukenta.secs.secs1.Secs1Message;
+import com.shimizukenta.secs.secs2.Secs2;
+
+/**
+ * Tests of SECS-I circuit queue of received bytes in ring buffer.
+ * 
+ * @author kenta-shimizu
+ *
+ */
+public class TestByteAndSecs1MessageQueue {
+	
+	public TestByteAndSecs1MessageQueue() {
+		/* Nothing */
+	}
+	
+	public static void main(String[] args) throws Exception {
+		
+		TestAssert.run("FIFO across wrap-around", TestByteAndSecs1MessageQueue::fifoWrapAround);
+		TestAssert.run("grow while wrapped", TestByteAndSecs1MessageQueue::growWhileWrapped);
+		TestAssert.run("put ByteBuffer", TestByteAndSecs1MessageQueue::putByteBuffer);
+		TestAssert.run("read limit and offset", TestByteAndSecs1MessageQueue::readLimitAndOffset);
+		TestAssert.run("random against deque", TestByteAndSecs1MessageQueue::randomAgainstDeque);
+		TestAssert.run("timeout", TestByteAndSecs1MessageQueue::timeout);
+		TestAssert.run("read woken by put", TestByteAndSecs1MessageQueue::readWokenByPut);
+		TestAssert.run("message before bytes", TestByteAndSecs1MessageQueue::messageBeforeBytes);
+		TestAssert.run("clear and garbage", TestByteAndSecs1MessageQueue::clearAndGarbage);
+		TestAssert.run("producer and consumer", TestByteAndSecs1MessageQueue::producerAndConsumer);
+		
+		System.exit(0);
+	}
+	
+	private static byte[] sequence(int start, int len) {
+		final byte[] bs = new byte[len];
+		for ( int i = 0; i < len; ++i ) {
+			bs[i] = (byte)(start + i);
+		}
+		return bs;
+	}
+	
+	private static byte[] readExactly(ByteAndSecs1MessageQueue q, int len) throws InterruptedException {
+		
+		final byte[] bs = new byte[len];
+		int pos = 0;
+		
+		while ( pos < len ) {
+			
+			final int r = q.read(bs, pos, len - pos, 5L, TimeUnit.SECONDS);
+			
+			if ( r <= 0 ) {
+				throw new AssertionError("timeout at " + pos);
+			}
+			
+			pos += r;
+		}
+		
+		return bs;
+	}
+	
+	private static void fifoWrapAround() throws Exception {
+		
+		final ByteAndSecs1MessageQueue q = new ByteAndSecs1MessageQueue();
+		
+		/* default capacity is 1024, tail wraps to front */
+		q.putBytes(sequence(0, 1000));
+		TestAssert.assertArrayEquals("first", sequence(0, 900), readExactly(q, 900));
+		
+		q.putBytes(sequence(1000, 500));
+		q.putByte((byte)77);
+		
+		TestAssert.assertArrayEquals("wrapped", sequence(900, 600), readExactly(q, 600));
+		TestAssert.assertEquals("single byte", Byte.valueOf((byte)77), q.pollByte());
+		TestAssert.assertTrue("empty", q.pollByte() == null);
+	}
+	
+	private static void growWhileWrapped() throws Exception {
+		
+		final ByteAndSecs1MessageQueue q = new ByteAndSecs1MessageQueue();
+		
+		q.putBytes(sequence(0, 1000));
+		readExactly(q, 1000);
+		
+		/* head at 1000, wrapped content then grown to many times */
+		q.putBytes(sequence(1000, 100));
+		q.putBytes(sequence(1100, 5000));
+		
+		for ( int i = 0; i < 3000; ++i ) {
+			q.putByte((byte)(6100 + i));
+		}
+		
+		TestAssert.assertArrayEquals("order kept", sequence(1000, 8100), readExactly(q, 8100));
+		TestAssert.assertTrue("empty", q.pollByte() == null);
+	}
+	
+	private static void putByteBuffer() throws Exception {
+		
+		final ByteAndSecs1MessageQueue q = new ByteAndSecs1MessageQueue();
+		
+		q.putBytes(sequence(0, 1000));
+		readExactly(q, 1000);
+		
+		/* direct buffer at position, across wrap-around */
+		final ByteBuffer direct = ByteBuffer.allocateDirect(200);
+		direct.put(sequence(50, 200));
+		direct.flip();
+		direct.position(10);
+		
+		q.putBytes(direct);
+		TestAssert.assertEquals("consumed", 0, direct.remaining());
+		
+		/* heap buffer of slice */
+		final ByteBuffer heap = ByteBuffer.wrap(sequence(250, 300), 100, 50);
+		q.putBytes(heap);
+		
+		/* empty buffer is nothing */
+		q.putBytes(ByteBuffer.allocate(0));
+		
+		final byte[] expected = new byte[240];
+		System.arraycopy(sequence(60, 190), 0, expected, 0, 190);
+		System.arraycopy(sequence(350, 50), 0, expected, 190, 50);
+		
+		TestAssert.assertArrayEquals("bytes", expected, readExactly(q, 240));
+		TestAssert.assertTrue("empty", q.pollByte() == null);
+	}
+	
+	private static void readLimitAndOffset() throws Exception {
+		
+		final ByteAndSecs1MessageQueue q = new ByteAndSecs1MessageQueue();
+		
+		q.putBytes(sequence(0, 10), 2, 5);
+		
+		final byte[] bs = new byte[10];
+		
+		/* limited by len */
+		TestAssert.assertEquals("limit", 3, q.read(bs, 4, 3, 1L, TimeUnit.SECONDS));
+		TestAssert.assertArrayEquals("at offset", new byte[] {0, 0, 0, 0, 2, 3, 4, 0, 0, 0}, bs);
+		
+		/* returns available only, not wait for len */
+		final long start = System.nanoTime();
+		TestAssert.assertEquals("available", 2, q.read(bs, 0, 10, 5L, TimeUnit.SECONDS));
+		TestAssert.assertTrue("not waited", TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start) < 1000L);
+		TestAssert.assertEquals("5", (byte)5, bs[0]);
+		TestAssert.assertEquals("6", (byte)6, bs[1]);
+		
+		/* put and read of len 0 are nothing */
+		q.putBytes(new byte[5], 0, 0);
+		TestAssert.assertEquals("len 0", 0, q.read(bs, 0, 0, 1L, TimeUnit.SECONDS));
+		TestAssert.assertTrue("empty", q.pollByte() == null);
+		
+		/* pollBytes is read to end position */
+		q.putBytes(sequence(20, 5));
+		final byte[] cs = new byte[8];
+		TestAssert.assertEquals("pollBytes", 3, q.pollBytes(cs, 5, 8, 1L, TimeUnit.SECONDS));
+		TestAssert.assertArrayEquals("pollBytes at pos", new byte[] {0, 0, 0, 0, 0, 20, 21, 22}, cs);
+	}
+	
+	private static void randomAgainstDeque() throws Exception {
+		
+		final ByteAndSecs1MessageQueue q = new ByteAndSecs1MessageQueue();
+		final Deque<Byte> model = new ArrayDeque<>();
+		final Random r = new Random(12345L);
+		
+		int next = 0;
+		
+		for ( int n = 0; n < 20000; ++n ) {
+			
+			final int op = r.nextInt(4);
+			
+			if ( op == 0 ) {
+				
+				final int len = r.nextInt(700);
+				final byte[] bs = sequence(next, len);
+				next += len;
+				
+				q.putBytes(bs);
+				for ( byte b : bs ) {
+					model.add(Byte.valueOf(b));
+				}
+				
+			} else if ( op == 1 ) {
+				
+				final byte b = (byte)(next++);
+				q.putByte(b);
+				model.add(Byte.valueOf(b));
+				
+			} else if ( op == 2 ) {
+				
+				TestAssert.assertEquals("pollByte", model.poll(), q.pollByte());
+				
+			} else {
+				
+				if ( model.isEmpty() ) {
+					continue;
+				}
+				
+				final byte[] bs = new byte[r.nextInt(900) + 1];
+				final int m = q.read(bs, 0, bs.length, 1L, TimeUnit.SECONDS);
+				
+				TestAssert.assertEquals("read size", Math.min(bs.length, model.size()), m);
+				
+				for ( int i = 0; i < m; ++i ) {
+					if ( model.poll().byteValue() != bs[i] ) {
+						throw new AssertionError("read byte at " + n + ", " + i);
+					}
+				}
+			}
+		}
+		
+		while ( ! model.isEmpty() ) {
+			TestAssert.assertEquals("rest", model.poll(), q.pollByte());
+		}
+		
+		TestAssert.assertTrue("empty", q.pollByte() == null);
+	}
+	
+	private static void timeout() throws Exception {
+		
+		final ByteAndSecs1MessageQueue q = new ByteAndSecs1MessageQueue();
+		
+		long start = System.nanoTime();
+		TestAssert.assertTrue("pollByte timeout", q.pollByte(200L, TimeUnit.MILLISECONDS) == null);
+		long elapsed = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+		TestAssert.assertTrue("pollByte waited " + elapsed, elapsed >= 190L && elapsed < 2000L);
+		
+		start = System.nanoTime();
+		TestAssert.assertEquals("read timeout", 0, q.read(new byte[10], 0, 10, 200L, TimeUnit.MILLISECONDS));
+		elapsed = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+		TestAssert.assertTrue("read waited " + elapsed, elapsed >= 190L && elapsed < 2000L);
+		
+		TestAssert.assertTrue("zero timeout", q.pollByte(0L, TimeUnit.MILLISECONDS) == null);
+	}
+	
+	private static void readWokenByPut() throws Exception {
+		
+		final ByteAndSecs1MessageQueue q = new ByteAndSecs1MessageQueue();
+		final AtomicInteger size = new AtomicInteger(-1);
+		final CountDownLatch done = new CountDownLatch(1);
+		final byte[] bs = new byte[100];
+		
+		final Thread th = new Thread(() -> {
+			try {
+				size.set(q.read(bs, 0, bs.length, 10L, TimeUnit.SECONDS));
+			}
+			catch ( InterruptedException ignore ) {
+			}
+			done.countDown();
+		});
+		
+		th.start();
+		
+		TimeUnit.MILLISECONDS.sleep(200L);
+		TestAssert.assertEquals("waiting", 1L, done.getCount());
+		
+		final long start = System.nanoTime();
+		q.putBytes(sequence(0, 30));
+		
+		TestAssert.assertTrue("woken", done.await(5L, TimeUnit.SECONDS));
+		TestAssert.assertTrue("soon", TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start) < 1000L);
+		TestAssert.assertEquals("size", 30, size.get());
+		
+		/* interrupted while waiting */
+		final AtomicReference<Throwable> caught = new AtomicReference<>();
+		final Thread th2 = new Thread(() -> {
+			try {
+				q.pollByte(10L, TimeUnit.SECONDS);
+			}
+			catch ( Throwable t ) {
+				caught.set(t);
+			}
+		});
+		
+		th2.start();
+		TimeUnit.MILLISECONDS.sleep(100L);
+		th2.interrupt();
+		th2.join(5000L);
+		
+		TestAssert.assertTrue("interrupted", caught.get() instanceof InterruptedException);
+	}
+	
+	private static void messageBeforeBytes() throws Exception {
+		
+		final ByteAndSecs1MessageQueue q = new ByteAndSecs1MessageQueue();
+		
+		q.putByte((byte)0x05);
+		q.putSecs1Message(new Secs1Message(new byte[] {0, 10, (byte)0x81, 1, 0, 0, 0, 0, 0, 1}, Secs2.ascii("M")));
+		
+		final ByteOrSecs1Message a = q.takeByteOrSecs1Message();
+		TestAssert.assertTrue("message first", a.message() != null && a.getByte() == null);
+		TestAssert.assertEquals("message body", Secs2.ascii("M"), a.message().message().secs2());
+		
+		final ByteOrSecs1Message b = q.takeByteOrSecs1Message();
+		TestAssert.assertTrue("then byte", b.message() == null);
+		TestAssert.assertTrue("ENQ", b.isENQ());
+		
+		/* take waits for byte */
+		final AtomicReference<ByteOrSecs1Message> taken = new AtomicReference<>();
+		final Thread th = new Thread(() -> {
+			try {
+				taken.set(q.takeByteOrSecs1Message());
+			}
+			catch ( InterruptedException ignore ) {
+			}
+		});
+		
+		th.start();
+		TimeUnit.MILLISECONDS.sleep(100L);
+		q.putBytes(new byte[] {(byte)0x04, (byte)0x05});
+		th.join(5000L);
+		
+		TestAssert.assertEquals("taken", Byte.valueOf((byte)0x04), taken.get().getByte());
+		TestAssert.assertEquals("rest", Byte.valueOf((byte)0x05), q.pollByte());
+	}
+	
+	private static void clearAndGarbage() throws Exception {
+		
+		final ByteAndSecs1MessageQueue q = new ByteAndSecs1MessageQueue();
+		
+		q.putBytes(sequence(0, 2000));
+		q.clear();
+		TestAssert.assertTrue("cleared", q.pollByte() == null);
+		
+		q.putBytes(sequence(0, 10));
+		TestAssert.assertArrayEquals("after clear", sequence(0, 10), readExactly(q, 10));
+		
+		/* garbage until silent */
+		q.putBytes(sequence(0, 500));
+		
+		final Thread th = new Thread(() -> {
+			try {
+				for ( int i = 0; i < 3; ++i ) {
+					TimeUnit.MILLISECONDS.sleep(50L);
+					q.putBytes(sequence(0, 100));
+				}
+			}
+			catch ( InterruptedException ignore ) {
+			}
+		});
+		
+		th.start();
+		q.garbageBytes(300L, TimeUnit.MILLISECONDS);
+		th.join(5000L);
+		
+		TestAssert.assertTrue("garbaged", q.pollByte() == null);
+		
+		q.putByte((byte)9);
+		TestAssert.assertEquals("after garbage", Byte.valueOf((byte)9), q.pollByte());
+	}
+	
+	private static void producerAndConsumer() throws Exception {
+		
+		final ByteAndSecs1MessageQueue q = new ByteAndSecs1MessageQueue();
+		final int total = 1000000;
+		final AtomicReference<Throwable> failed = new AtomicReference<>();
+		
+		final Thread producer = new Thread(() -> {
+			try {
+				final Random r = new Random(1L);
+				int n = 0;
+				while ( n < total ) {
+					final int len = Math.min(total - n, r.nextInt(300) + 1);
+					q.putBytes(sequence(n, len));
+					n += len;
+				}
+			}
+			catch ( Throwable t ) {
+				failed.set(t);
+			}
+		});
+		
+		producer.start();
+		
+		final byte[] bs = new byte[257];
+		int n = 0;
+		
+		while ( n < total ) {
+			
+			final int r = q.read(bs, 0, bs.length, 5L, TimeUnit.SECONDS);
+			
+			if ( r <= 0 ) {
+				throw new AssertionError("timeout at " + n);
+			}
+			
+			for ( int i = 0; i < r; ++i ) {
+				if ( bs[i] != (byte)(n + i) ) {
+					throw new AssertionError("byte at " + (n + i));
+				}
+			}
+			
+			n += r;
+		}
+		
+		producer.join(5000L);
+		
+		TestAssert.assertTrue("producer", failed.get() == null);
+		TestAssert.assertTrue("empty", q.pollByte() == null);
+	}
+	
+}
@@ -0,0 +1,279 @@
+package test;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Optional;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+
+import com.shimizukenta.secs.SecsMessage;
+import com.shimizukenta.secs.hsmsss.HsmsSsCommunicator;
+import com.shimizukenta.secs.hsmsss.HsmsSsCommunicatorConfig;
+import com.shimizukenta.secs.secs2.Secs2;
+import com.shimizukenta.secs.secs2.Secs2BytesEncoder;
+
+/**
+ * Tests of HSMS-SS async-reading, received messages are dispatched without parked thread.
+ * 
+ * @author kenta-shimizu
+ *
+ */
+public class TestHsmsSsAsyncReading {
+	
+	public TestHsmsSsAsyncReading() {
+		/* Nothing */
+	}
+	
+	public static void main(String[] args) throws Exception {
+		
+		TestAssert.run("framing, async reading", () -> TestHsmsSsReceiveFraming.framing(23301, true, false));
+		TestAssert.run("framing, async reading, lazy parsing", () -> TestHsmsSsReceiveFraming.framing(23302, true, true));
+		TestAssert.run("received order and no parked thread", TestHsmsSsAsyncReading::receivedOrder);
+		TestAssert.run("separate closes connection", TestHsmsSsAsyncReading::separate);
+		TestAssert.run("T7 closes not selected connection", TestHsmsSsAsyncReading::t7Timeout);
+		TestAssert.run("communicator close closes connection", TestHsmsSsAsyncReading::communicatorClose);
+		TestAssert.run("loopback with linktest", TestHsmsSsAsyncReading::loopback);
+		TestAssert.run("change linktest-time while linktesting", TestHsmsSsAsyncReading::linktestTimeChanged);
+		
+		System.exit(0);
+	}
+	
+	private static HsmsSsCommunicatorConfig asyncPassiveConfig(int port) {
+		final HsmsSsCommunicatorConfig c = HsmsSsLoopback.passiveConfig(port);
+		c.asyncReading(true);
+		return c;
+	}
+	
+	private static void receivedOrder() throws Exception {
+		
+		final int port = 23303;
+		final BlockingQueue<SecsMessage> queue = new LinkedBlockingQueue<>();
+		
+		try (
+				HsmsSsCommunicator equip = HsmsSsCommunicator.newInstance(asyncPassiveConfig(port));
+				) {
+			
+			equip.addSecsMessageReceiveListener(queue::offer);
+			equip.open();
+			
+			try (
+					HsmsSsRawPeer peer = HsmsSsRawPeer.connect(port);
+					) {
+				
+				peer.select();
+				
+				final int m = 200;
+				
+				for ( int i = 0; i < m; ++i ) {
+					byte[] body = Secs2BytesEncoder.getInstance().encode(Secs2.uint4(i));
+					peer.write(HsmsSsRawPeer.dataFrame(1, 1, 1000 + i, body));
+				}
+				
+				for ( int i = 0; i < m; ++i ) {
+					
+					final SecsMessage msg = queue.poll(10L, TimeUnit.SECONDS);
+					
+					TestAssert.assertTrue("received #" + i, msg != null);
+					TestAssert.assertEquals("order", Secs2.uint4(i), msg.secs2());
+				}
+				
+				TestAssert.assertFalse("no parked thread", hasParkedConnectionThread());
+				
+				/* connection still alive, LINKTEST.req is answered */
+				peer.write(HsmsSsRawPeer.frame(0xFFFF, 0, 0, 5, 2000, new byte[0]));
+				final byte[] rsp = peer.readFrame();
+				TestAssert.assertEquals("LINKTEST.rsp", 6, rsp[5]);
+			}
+		}
+	}
+	
+	/**
+	 * Returns {@code true} if any thread is waiting in connection main-task.
+	 * 
+	 * @return {@code true} if found
+	 */
+	private static boolean hasParkedConnectionThread() {
+		
+		return Thread.getAllStackTraces().values().stream()
+				.flatMap(Arrays::stream)
+				.anyMatch(e -> e.getClassName().startsWith("com.shimizukenta.secs.hsmsss.")
+						&& (e.getMethodName().equals("takeReceiveMessage")
+								|| e.getMethodName().equals("mainTask")));
+	}
+	
+	private static void separate() throws Exception {
+		
+		final int port = 23304;
+		
+		try (
+				HsmsSsCommunicator equip = HsmsSsCommunicator.newInstance(asyncPassiveConfig(port));
+				) {
+			
+			final AtomicBoolean communicatable = new AtomicBoolean(false);
+			equip.addSecsCommunicatableStateChangeListener(communicatable::set);
+			equip.open();
+			
+			try (
+					HsmsSsRawPeer peer = HsmsSsRawPeer.connect(port);
+					) {
+				
+				peer.select();
+				TestAssert.assertTrue("selected", waitUntil(communicatable, true));
+				
+				/* SEPARATE.req */
+				peer.write(HsmsSsRawPeer.frame(0xFFFF, 0, 0, 9, 3000, new byte[0]));
+				
+				TestAssert.assertThrows("closed by equip", IOException.class, peer::readFrame);
+				TestAssert.assertTrue("not communicatable", waitUntil(communicatable, false));
+			}
+			
+			/* accept next connection */
+			try (
+					HsmsSsRawPeer peer = HsmsSsRawPeer.connect(port);
+					) {
+				
+				peer.select();
+				TestAssert.assertTrue("selected again", waitUntil(communicatable, true));
+			}
+		}
+	}
+	
+	private static void t7Timeout() throws Exception {
+		
+		final int port = 23305;
+		final HsmsSsCommunicatorConfig c = asyncPassiveConfig(port);
+		c.timeout().t7(0.5F);
+		
+		try (
+				HsmsSsCommunicator equip = HsmsSsCommunicator.newInstance(c);
+				) {
+			
+			equip.open();
+			
+			try (
+					HsmsSsRawPeer peer = HsmsSsRawPeer.connect(port);
+					) {
+				
+				final long start = System.nanoTime();
+				
+				TestAssert.assertThrows("closed by T7", IOException.class, peer::readFrame);
+				
+				final long elapsed = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+				TestAssert.assertTrue("T7 elapsed " + elapsed, elapsed >= 300L && elapsed < 5000L);
+			}
+		}
+	}
+	
+	private static void communicatorClose() throws Exception {
+		
+		final int port = 23306;
+		
+		final HsmsSsCommunicator equip = HsmsSsCommunicator.newInstance(asyncPassiveConfig(port));
+		
+		try {
+			equip.open();
+			
+			try (
+					HsmsSsRawPeer peer = HsmsSsRawPeer.connect(port);
+					) {
+				
+				peer.select();
+				
+				equip.close();
+				
+				TestAssert.assertThrows("closed by communicator close", IOException.class, peer::readFrame);
+			}
+		}
+		finally {
+			equip.close();
+		}
+	}
+	
+	private static void loopback() throws Exception {
+		
+		try (
+				HsmsSsLoopback lb = HsmsSsLoopback.open(23307, c -> {
+					c.asyncReading(true);
+					c.linktest(0.2F);
+				});
+				) {
+			
+			final AtomicBoolean communicatable = new AtomicBoolean(true);
+			lb.host.addSecsCommunicatableStateChangeListener(communicatable::set);
+			
+			for ( int i = 0; i < 50; ++i ) {
+				
+				final Secs2 ss = Secs2.list(Secs2.ascii("LOOP"), Secs2.uint4(i));
+				final Optional<SecsMessage> reply = lb.host.send(1, 1, true, ss);
+				
+				TestAssert.assertTrue("reply", reply.isPresent());
+				TestAssert.assertEquals("reply function", 2, reply.get().getFunction());
+				TestAssert.assertEquals("reply body", ss, reply.get().secs2());
+			}
+			
+			/* linktest runs several times */
+			TimeUnit.MILLISECONDS.sleep(1000L);
+			
+			TestAssert.assertTrue("communicatable after linktest", communicatable.get());
+			TestAssert.assertTrue("reply after linktest", lb.host.send(1, 1, true, Secs2.empty()).isPresent());
+			TestAssert.assertFalse("no parked thread", hasParkedConnectionThread());
+			
+			lb.equip.close();
+			
+			TestAssert.assertTrue("host detects equip closed", waitUntil(communicatable, false));
+		}
+	}
+	
+	private static void linktestTimeChanged() throws Exception {
+		
+		final AtomicReference<HsmsSsCommunicatorConfig> hostConfig = new AtomicReference<>();
+		
+		try (
+				HsmsSsLoopback lb = HsmsSsLoopback.open(23308, c -> {
+					c.asyncReading(true);
+					c.linktest(0.001F);
+					hostConfig.set(c);
+				});
+				) {
+			
+			final AtomicBoolean communicatable = new AtomicBoolean(true);
+			lb.host.addSecsCommunicatableStateChangeListener(communicatable::set);
+			
+			/* property-lock and linktest-lock are taken by timer thread and this thread */
+			final Thread th = new Thread(() -> {
+				for ( int i = 0; i < 20000; ++i ) {
+					hostConfig.get().linktest((i % 2 == 0) ? 0.001F : 0.002F);
+				}
+			});
+			
+			th.setDaemon(true);
+			th.start();
+			th.join(10000L);
+			
+			TestAssert.assertFalse("no deadlock", th.isAlive());
+			
+			hostConfig.get().linktest(0.2F);
+			
+			TestAssert.assertTrue("communicatable after changing", communicatable.get());
+			TestAssert.assertTrue("reply after changing", lb.host.send(1, 1, true, Secs2.empty()).isPresent());
+		}
+	}
+	
+	private static boolean waitUntil(AtomicBoolean f, boolean expected) throws InterruptedException {
+		
+		for ( int i = 0; i < 100; ++i ) {
+			
+			if ( f.get() == expected ) {
+				return true;
+			}
+			
+			TimeUnit.MILLISECONDS.sleep(100L);
+		}
+		
+		return false;
+	}
+	
+}
@@ -0,0 +1,207 @@
+package test;
+
+import java.io.DataInputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.ByteBuffer;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.BooleanSupplier;
+
+import com.shimizukenta.secs.ByteBufferPool;
+import com.shimizukenta.secs.SecsException;
+import com.shimizukenta.secs.SecsMessage;
+import com.shimizukenta.secs.hsmsss.HsmsSsCommunicator;
+import com.shimizukenta.secs.hsmsss.HsmsSsCommunicatorConfig;
+import com.shimizukenta.secs.secs2.Secs2;
+
+/**
+ * Tests of pooled buffers and gathering write of HSMS-SS send.
+ * 
+ * @author kenta-shimizu
+ *
+ */
+public class TestHsmsSsGatheringWrite {
+	
+	public TestHsmsSsGatheringWrite() {
+		/* Nothing */
+	}
+	
+	public static void main(String[] args) throws Exception {
+		
+		TestAssert.run("pool rounds capacity", TestHsmsSsGatheringWrite::poolRoundsCapacity);
+		TestAssert.run("pool reuses released buffer", TestHsmsSsGatheringWrite::poolReusesReleasedBuffer);
+		TestAssert.run("pool ignores foreign buffer", TestHsmsSsGatheringWrite::poolIgnoresForeignBuffer);
+		TestAssert.run("send round trip", TestHsmsSsGatheringWrite::sendRoundTrip);
+		TestAssert.run("interrupted write closes connection", TestHsmsSsGatheringWrite::interruptedWriteClosesConnection);
+		
+		System.exit(0);
+	}
+	
+	private static void poolRoundsCapacity() {
+		
+		final ByteBufferPool pool = ByteBufferPool.getInstance();
+		
+		TestAssert.assertEquals("min capacity", 256, pool.acquire(0).capacity());
+		TestAssert.assertEquals("exact power of 2", 1024, pool.acquire(1024).capacity());
+		TestAssert.assertEquals("rounded up", 2048, pool.acquire(1025).capacity());
+		TestAssert.assertEquals("max pooled", 1 << 20, pool.acquire(1 << 20).capacity());
+		TestAssert.assertEquals("larger than max is exact", (1 << 20) + 1, pool.acquire((1 << 20) + 1).capacity());
+		TestAssert.assertTrue("direct", pool.acquire(100).isDirect());
+		
+		TestAssert.assertThrows("negative", IllegalArgumentException.class, () -> pool.acquire(-1));
+	}
+	
+	private static void poolReusesReleasedBuffer() {
+		
+		final ByteBufferPool pool = ByteBufferPool.getInstance();
+		
+		final ByteBuffer a = pool.acquire(3000);
+		a.putInt(0x01020304);
+		pool.release(a);
+		
+		final ByteBuffer b = pool.acquire(4096);
+		TestAssert.assertTrue("same instance", a == b);
+		TestAssert.assertEquals("cleared position", 0, b.position());
+		TestAssert.assertEquals("cleared limit", b.capacity(), b.limit());
+	}
+	
+	private static void poolIgnoresForeignBuffer() {
+		
+		final ByteBufferPool pool = ByteBufferPool.getInstance();
+		
+		final ByteBuffer heap = ByteBuffer.allocate(8192);
+		final ByteBuffer odd = ByteBuffer.allocateDirect(3000);
+		final ByteBuffer readOnly = ByteBuffer.allocateDirect(16384).asReadOnlyBuffer();
+		
+		pool.release(heap);
+		pool.release(odd);
+		pool.release(readOnly);
+		pool.release((ByteBuffer)null);
+		
+		TestAssert.assertTrue("heap not pooled", pool.acquire(8192) != heap);
+		TestAssert.assertTrue("odd capacity not pooled", pool.acquire(3000) != odd);
+		TestAssert.assertFalse("read-only not pooled", pool.acquire(16384).isReadOnly());
+	}
+	
+	private static void sendRoundTrip() throws Exception {
+		
+		try (
+				HsmsSsLoopback lb = HsmsSsLoopback.open(23101, c -> {});
+				) {
+			
+			/* empty, one pooled buffer, and larger than max pooled capacity */
+			final Secs2[] bodies = new Secs2[] {
+					Secs2.empty(),
+					Secs2.list(Secs2.ascii("A"), Secs2.uint4(1, 2, 3)),
+					Secs2.binary(new byte[(1 << 20) - 14]),
+					Secs2.binary(new byte[3 * (1 << 20)])
+			};
+			
+			for ( Secs2 body : bodies ) {
+				
+				final SecsMessage r = lb.host.send(6, 11, true, body).get();
+				
+				TestAssert.assertEquals("function", 12, r.getFunction());
+				TestAssert.assertEquals("echo body", body, r.secs2());
+			}
+		}
+	}
+	
+	private static void interruptedWriteClosesConnection() throws Exception {
+		
+		try (
+				ServerSocket server = new ServerSocket();
+				) {
+			
+			server.bind(new InetSocketAddress("127.0.0.1", 23102));
+			
+			final HsmsSsCommunicatorConfig ac = HsmsSsLoopback.activeConfig(23102);
+			ac.timeout().t5(10.0F);
+			
+			try (
+					HsmsSsCommunicator host = HsmsSsCommunicator.newInstance(ac);
+					) {
+				
+				final AtomicBoolean communicating = new AtomicBoolean(false);
+				host.addSecsCommunicatableStateChangeListener(communicating::set);
+				
+				host.open();
+				
+				try (
+						Socket peer = server.accept();
+						) {
+					
+					/* reply SELECT.rsp, and not read anymore */
+					final DataInputStream dis = new DataInputStream(peer.getInputStream());
+					final byte[] req = new byte[14];
+					dis.readFully(req);
+					
+					final OutputStream os = peer.getOutputStream();
+					os.write(new byte[] {
+							0, 0, 0, 10,
+							(byte)0xFF, (byte)0xFF, 0, 0, 0, 2,
+							req[10], req[11], req[12], req[13]
+					});
+					os.flush();
+					
+					TestAssert.assertTrue("communicating", waitUntil(communicating::get, true));
+					
+					/* larger than socket buffers */
+					final Secs2 huge = Secs2.list(
+							Secs2.binary(new byte[0x00FFFFFF]),
+							Secs2.binary(new byte[0x00FFFFFF]),
+							Secs2.binary(new byte[0x00FFFFFF]),
+							Secs2.binary(new byte[0x00FFFFFF]));
+							
+					final CompletableFuture<Throwable> result = new CompletableFuture<>();
+					
+					final Thread th = new Thread(() -> {
+						try {
+							host.send(6, 11, false, huge);
+							result.complete(null);
+						}
+						catch ( Throwable t ) {
+							result.complete(t);
+						}
+					});
+					
+					th.start();
+					
+					TimeUnit.MILLISECONDS.sleep(500L);
+					th.interrupt();
+					
+					final Throwable t = result.get(10L, TimeUnit.SECONDS);
+					TestAssert.assertTrue("interrupted: " + t, t instanceof InterruptedException);
+					
+					TestAssert.assertTrue("connection closed", waitUntil(communicating::get, false));
+					
+					final Throwable next = TestAssert.assertThrows("next send", Throwable.class, () -> {
+						host.send(1, 1, false, Secs2.empty());
+					});
+					
+					TestAssert.assertTrue("checked exception: " + next, next instanceof SecsException);
+				}
+			}
+		}
+	}
+	
+	private static boolean waitUntil(BooleanSupplier s, boolean expected)
+			throws InterruptedException {
+		
+		for ( int i = 0; i < 100; ++i ) {
+			
+			if ( s.getAsBoolean() == expected ) {
+				return true;
+			}
+			
+			TimeUnit.MILLISECONDS.sleep(50L);
+		}
+		
+		return false;
+	}
+	
+}
@@ -0,0 +1,190 @@
+package test;
+
+import java.net.SocketAddress;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import com.shimizukenta.secs.SecsException;
+import com.shimizukenta.secs.SecsMessage;
+import com.shimizukenta.secs.hsmsss.HsmsSsCommunicatorConfig;
+import com.shimizukenta.secs.hsmsss.HsmsSsMultiSessionPassiveCommunicator;
+import com.shimizukenta.secs.hsmsss.HsmsSsNotConnectedException;
+import com.shimizukenta.secs.hsmsss.HsmsSsSession;
+import com.shimizukenta.secs.secs2.Secs2;
+import com.shimizukenta.secs.secs2.Secs2BytesEncoder;
+import com.shimizukenta.secs.secs2.Secs2BytesParser;
+
+/**
+ * Tests of HSMS-SS multi-session Passive, many connections on one port.
+ * 
+ * @author kenta-shimizu
+ *
+ */
+public class TestHsmsSsMultiSession {
+	
+	public TestHsmsSsMultiSession() {
+		/* Nothing */
+	}
+	
+	public static void main(String[] args) throws Exception {
+		
+		TestAssert.run("multi session, blocking reading", () -> multiSession(23701, false));
+		TestAssert.run("multi session, async reading", () -> multiSession(23702, true));
+		
+		System.exit(0);
+	}
+	
+	private static class StateEvent {
+		
+		private final HsmsSsSession session;
+		private final boolean selected;
+		
+		private StateEvent(HsmsSsSession session, boolean selected) {
+			this.session = session;
+			this.selected = selected;
+		}
+	}
+	
+	private static void multiSession(int port, boolean asyncReading) throws Exception {
+		
+		final int m = 3;
+		
+		final HsmsSsCommunicatorConfig pc = HsmsSsLoopback.passiveConfig(port);
+		pc.asyncReading(asyncReading);
+		
+		final BlockingQueue<StateEvent> events = new LinkedBlockingQueue<>();
+		final List<HsmsSsRawPeer> peers = new ArrayList<>();
+		
+		try (
+				HsmsSsMultiSessionPassiveCommunicator equip = HsmsSsMultiSessionPassiveCommunicator.newInstance(pc);
+				) {
+			
+			/* echo to session of primary */
+			equip.addSecsMessageReceiveListener(msg -> {
+				try {
+					equip.send(msg, msg.getStream(), msg.getFunction() + 1, false, msg.secs2());
+				}
+				catch ( SecsException ignore ) {
+				}
+				catch ( InterruptedException ignore ) {
+				}
+			});
+			
+			equip.addSessionStateChangeListener((s, f) -> {
+				events.offer(new StateEvent(s, f));
+			});
+			
+			equip.open();
+			
+			try {
+				
+				for ( int i = 0; i < m; ++i ) {
+					
+					final HsmsSsRawPeer peer = HsmsSsRawPeer.connect(port);
+					peers.add(peer);
+					peer.select();
+					
+					final StateEvent ev = events.poll(10L, TimeUnit.SECONDS);
+					
+					TestAssert.assertTrue("selected event", ev != null && ev.selected);
+					TestAssert.assertEquals("remote", peer.localSocketAddress(), ev.session.remoteSocketAddress());
+				}
+				
+				TestAssert.assertEquals("sessions", m, equip.sessions().size());
+				
+				/* primary from each session, reply to own session */
+				for ( int i = 0; i < m; ++i ) {
+					
+					final HsmsSsRawPeer peer = peers.get(i);
+					final byte[] body = Secs2BytesEncoder.getInstance().encode(Secs2.ascii("H" + i));
+					
+					peer.write(HsmsSsRawPeer.frame(100 + i, 0x81, 1, 0, 500 + i, body));
+					
+					final byte[] bs = peer.readFrame();
+					
+					TestAssert.assertEquals("reply session-id", 100 + i, ((bs[0] & 0xFF) << 8) | (bs[1] & 0xFF));
+					TestAssert.assertEquals("reply function", 2, bs[3]);
+					TestAssert.assertEquals("reply system-bytes", 500 + i, systemBytes(bs));
+					TestAssert.assertEquals("reply body", Secs2.ascii("H" + i), parseBody(bs));
+				}
+				
+				/* send to session by remote address, with learned session-id */
+				for ( int i = 0; i < m; ++i ) {
+					
+					final HsmsSsRawPeer peer = peers.get(i);
+					final SocketAddress remote = peer.localSocketAddress();
+					
+					TestAssert.assertTrue("session", equip.session(remote).isPresent());
+					
+					final CompletableFuture<Optional<SecsMessage>> f = equip.sendAsync(remote, 5, 1, true, Secs2.binary((byte)i));
+					
+					final byte[] bs = peer.readFrame();
+					
+					TestAssert.assertEquals("primary session-id", 100 + i, ((bs[0] & 0xFF) << 8) | (bs[1] & 0xFF));
+					TestAssert.assertEquals("primary body", Secs2.binary((byte)i), parseBody(bs));
+					
+					peer.write(HsmsSsRawPeer.frame(100 + i, 5, 2, 0, systemBytes(bs), new byte[0]));
+					
+					TestAssert.assertEquals("reply", 2, f.get(5L, TimeUnit.SECONDS).get().getFunction());
+				}
+				
+				/* SELECT.req on selected connection */
+				peers.get(1).write(HsmsSsRawPeer.frame(0xFFFF, 0, 0, 1, 900, new byte[0]));
+				TestAssert.assertEquals("ACTIVED", 1, peers.get(1).readFrame()[3]);
+				
+				/* primary without session is ambiguous if many sessions */
+				TestAssert.assertThrows("ambiguous", HsmsSsNotConnectedException.class, () -> {
+					equip.send(1, 1, true, Secs2.empty());
+				});
+				
+				/* close one session */
+				final SocketAddress closed = peers.get(0).localSocketAddress();
+				peers.get(0).close();
+				
+				final StateEvent ev = events.poll(10L, TimeUnit.SECONDS);
+				
+				TestAssert.assertTrue("deselected event", ev != null && ! ev.selected);
+				TestAssert.assertEquals("deselected remote", closed, ev.session.remoteSocketAddress());
+				TestAssert.assertEquals("sessions after close", m - 1, equip.sessions().size());
+				TestAssert.assertFalse("closed session", equip.session(closed).isPresent());
+				
+				TestAssert.assertThrows("closed session send", HsmsSsNotConnectedException.class, () -> {
+					equip.send(closed, 1, 1, false, Secs2.empty());
+				});
+				
+				final ExecutionException e = TestAssert.assertThrows("closed session sendAsync", ExecutionException.class, () -> {
+					equip.sendAsync(closed, 1, 1, false, Secs2.empty()).get();
+				});
+				
+				TestAssert.assertTrue("not connected", e.getCause() instanceof HsmsSsNotConnectedException);
+				
+				/* others continue */
+				final HsmsSsRawPeer peer = peers.get(2);
+				peer.write(HsmsSsRawPeer.frame(102, 0x81, 1, 0, 600, new byte[0]));
+				TestAssert.assertEquals("continue", 600, systemBytes(peer.readFrame()));
+			}
+			finally {
+				
+				for ( HsmsSsRawPeer peer : peers ) {
+					peer.close();
+				}
+			}
+		}
+	}
+	
+	private static int systemBytes(byte[] frame) {
+		return ((frame[6] & 0xFF) << 24) | ((frame[7] & 0xFF) << 16) | ((frame[8] & 0xFF) << 8) | (frame[9] & 0xFF);
+	}
+	
+	private static Secs2 parseBody(byte[] frame) throws Exception {
+		return Secs2BytesParser.getInstance().parse(ByteBuffer.wrap(frame, 10, frame.length - 10));
+	}
+	
+}
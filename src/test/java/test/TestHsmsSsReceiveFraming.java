@@ -0,0 +1,120 @@
+package test;
+
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import com.shimizukenta.secs.SecsMessage;
+import com.shimizukenta.secs.hsmsss.HsmsSsCommunicator;
+import com.shimizukenta.secs.hsmsss.HsmsSsCommunicatorConfig;
+import com.shimizukenta.secs.secs2.Secs2;
+import com.shimizukenta.secs.secs2.Secs2BytesEncoder;
+
+/**
+ * Tests of HSMS-SS receive framing, frame is read into one pooled buffer.
+ * 
+ * @author kenta-shimizu
+ *
+ */
+public class TestHsmsSsReceiveFraming {
+	
+	public TestHsmsSsReceiveFraming() {
+		/* Nothing */
+	}
+	
+	public static void main(String[] args) throws Exception {
+		
+		TestAssert.run("framing, blocking reading", () -> framing(23201, false, false));
+		TestAssert.run("framing, blocking reading, lazy parsing", () -> framing(23202, false, true));
+		
+		System.exit(0);
+	}
+	
+	/**
+	 * Write edge-case frames from raw peer, and check received by Passive.
+	 * 
+	 * @param port
+	 * @param asyncReading
+	 * @param lazyParsing
+	 * @throws Exception
+	 */
+	static void framing(int port, boolean asyncReading, boolean lazyParsing) throws Exception {
+		
+		final HsmsSsCommunicatorConfig pc = HsmsSsLoopback.passiveConfig(port);
+		pc.asyncReading(asyncReading);
+		pc.lazyParsing(lazyParsing);
+		pc.notSpillToFile();
+		
+		final BlockingQueue<SecsMessage> queue = new LinkedBlockingQueue<>();
+		
+		try (
+				HsmsSsCommunicator equip = HsmsSsCommunicator.newInstance(pc);
+				) {
+			
+			equip.addSecsMessageReceiveListener(queue::offer);
+			equip.open();
+			
+			try (
+					HsmsSsRawPeer peer = HsmsSsRawPeer.connect(port);
+					) {
+				
+				peer.select();
+				
+				final Secs2 small = Secs2.list(Secs2.ascii("ABC"), Secs2.uint2(1, 2), Secs2.bool(true));
+				final Secs2 large = Secs2.list(Secs2.binary(new byte[100000]), Secs2.ascii("END"));
+				final Secs2 huge = Secs2.binary(new byte[(1 << 20) + 1]);
+				
+				/* empty body */
+				peer.write(HsmsSsRawPeer.dataFrame(1, 1, 100, new byte[0]));
+				assertReceived(queue, 1, 1, Secs2.empty());
+				
+				/* fragmented, length and header and body split */
+				peer.writeByteByByte(HsmsSsRawPeer.dataFrame(1, 3, 101, encode(small)));
+				assertReceived(queue, 1, 3, small);
+				
+				/* pipelined, 3 frames in one write */
+				final byte[] a = HsmsSsRawPeer.dataFrame(6, 11, 102, encode(small));
+				final byte[] b = HsmsSsRawPeer.dataFrame(6, 11, 103, encode(large));
+				final byte[] c = HsmsSsRawPeer.dataFrame(6, 11, 104, new byte[0]);
+				final byte[] abc = new byte[a.length + b.length + c.length];
+				System.arraycopy(a, 0, abc, 0, a.length);
+				System.arraycopy(b, 0, abc, a.length, b.length);
+				System.arraycopy(c, 0, abc, a.length + b.length, c.length);
+				peer.write(abc);
+				assertReceived(queue, 6, 11, small);
+				assertReceived(queue, 6, 11, large);
+				assertReceived(queue, 6, 11, Secs2.empty());
+				
+				/* larger than max pooled buffer */
+				peer.write(HsmsSsRawPeer.dataFrame(6, 11, 105, encode(huge)));
+				assertReceived(queue, 6, 11, huge);
+				
+				/* length less than header is skipped */
+				peer.write(new byte[] {0, 0, 0, 4, 1, 2, 3, 4, 5, 6, 7, 8, 9, 10});
+				
+				/* broken body is not received, and connection continues */
+				peer.write(HsmsSsRawPeer.dataFrame(1, 3, 106, new byte[] {0x41, 0x05, 0x41}));
+				peer.write(HsmsSsRawPeer.dataFrame(1, 3, 107, encode(small)));
+				assertReceived(queue, 1, 3, small);
+				
+				TestAssert.assertTrue("no more message", queue.poll(200L, TimeUnit.MILLISECONDS) == null);
+			}
+		}
+	}
+	
+	private static byte[] encode(Secs2 ss) throws Exception {
+		return Secs2BytesEncoder.getInstance().encode(ss);
+	}
+	
+	private static void assertReceived(BlockingQueue<SecsMessage> queue, int stream, int function, Secs2 body)
+			throws InterruptedException {
+		
+		final SecsMessage msg = queue.poll(10L, TimeUnit.SECONDS);
+		
+		TestAssert.assertTrue("received", msg != null);
+		TestAssert.assertEquals("stream", stream, msg.getStream());
+		TestAssert.assertEquals("function", function, msg.getFunction());
+		TestAssert.assertEquals("body", body, msg.secs2());
+	}
+	
+}
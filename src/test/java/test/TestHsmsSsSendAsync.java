@@ -0,0 +1,235 @@
+package test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import com.shimizukenta.secs.SecsMessage;
+import com.shimizukenta.secs.SecsWaitReplyMessageException;
+import com.shimizukenta.secs.hsmsss.HsmsSsCommunicator;
+import com.shimizukenta.secs.hsmsss.HsmsSsCommunicatorConfig;
+import com.shimizukenta.secs.hsmsss.HsmsSsNotConnectedException;
+import com.shimizukenta.secs.secs2.Secs2;
+import com.shimizukenta.secs.secs2.Secs2BytesEncoder;
+
+/**
+ * Tests of HSMS-SS reply correlation and sendAsync.
+ * 
+ * @author kenta-shimizu
+ *
+ */
+public class TestHsmsSsSendAsync {
+	
+	public TestHsmsSsSendAsync() {
+		/* Nothing */
+	}
+	
+	public static void main(String[] args) throws Exception {
+		
+		TestAssert.run("not connected", TestHsmsSsSendAsync::notConnected);
+		TestAssert.run("many in flight", TestHsmsSsSendAsync::manyInFlight);
+		TestAssert.run("reply completes on executor", TestHsmsSsSendAsync::replyOnExecutor);
+		TestAssert.run("T3 completes on executor", TestHsmsSsSendAsync::t3Timeout);
+		TestAssert.run("out of order replies", TestHsmsSsSendAsync::outOfOrder);
+		
+		System.exit(0);
+	}
+	
+	private static void notConnected() throws Exception {
+		
+		try (
+				HsmsSsCommunicator host = HsmsSsCommunicator.newInstance(HsmsSsLoopback.activeConfig(23401));
+				) {
+			
+			final CompletableFuture<Optional<SecsMessage>> f = host.sendAsync(1, 1, true, Secs2.empty());
+			
+			final ExecutionException e = TestAssert.assertThrows("failed", ExecutionException.class, f::get);
+			TestAssert.assertTrue("not connected", e.getCause() instanceof HsmsSsNotConnectedException);
+		}
+	}
+	
+	private static void manyInFlight() throws Exception {
+		
+		try (
+				HsmsSsLoopback lb = HsmsSsLoopback.open(23402, c -> {});
+				) {
+			
+			final int m = 2000;
+			final List<CompletableFuture<Optional<SecsMessage>>> fs = new ArrayList<>();
+			
+			for ( int i = 0; i < m; ++i ) {
+				fs.add(lb.host.sendAsync(1, 1, true, Secs2.uint4(i)));
+			}
+			
+			CompletableFuture.allOf(fs.toArray(new CompletableFuture<?>[0])).get(30L, TimeUnit.SECONDS);
+			
+			for ( int i = 0; i < m; ++i ) {
+				final SecsMessage r = fs.get(i).get().orElse(null);
+				TestAssert.assertTrue("reply #" + i, r != null);
+				TestAssert.assertEquals("reply #" + i, Secs2.uint4(i), r.secs2());
+			}
+			
+			/* reply message of no W-bit is empty */
+			TestAssert.assertFalse("no W-bit", lb.host.sendAsync(1, 1, false, Secs2.empty()).get().isPresent());
+		}
+	}
+	
+	/**
+	 * Returns {@code true} if current thread is completing thread of reading or timer.
+	 * 
+	 * @return {@code true} if reading or timer thread
+	 */
+	private static boolean onReadingOrTimerThread() {
+		
+		for ( StackTraceElement e : Thread.currentThread().getStackTrace() ) {
+			
+			final String c = e.getClassName();
+			
+			if ( c.startsWith("com.shimizukenta.secs.SecsTimerWheel") ) {
+				return true;
+			}
+			
+			if ( c.equals("com.shimizukenta.secs.hsmsss.HsmsSsReplyMessageManager") && e.getMethodName().equals("put") ) {
+				return true;
+			}
+		}
+		
+		return false;
+	}
+	
+	private static void replyOnExecutor() throws Exception {
+		
+		try (
+				HsmsSsLoopback lb = HsmsSsLoopback.open(23403, c -> {});
+				) {
+			
+			final AtomicBoolean onReading = new AtomicBoolean(true);
+			
+			final CompletableFuture<Optional<SecsMessage>> slow = lb.host.sendAsync(1, 1, true, Secs2.ascii("SLOW"));
+			
+			final CompletableFuture<Boolean> blocked = slow.thenApply(r -> {
+				
+				onReading.set(onReadingOrTimerThread());
+				
+				try {
+					TimeUnit.MILLISECONDS.sleep(1500L);
+				}
+				catch ( InterruptedException ignore ) {
+				}
+				
+				return Boolean.TRUE;
+			});
+			
+			slow.get(5L, TimeUnit.SECONDS);
+			
+			/* blocking stage does not stop reading */
+			final long start = System.nanoTime();
+			final Optional<SecsMessage> r = lb.host.sendAsync(1, 1, true, Secs2.ascii("FAST")).get(5L, TimeUnit.SECONDS);
+			final long elapsed = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+			
+			TestAssert.assertEquals("fast reply", Secs2.ascii("FAST"), r.get().secs2());
+			TestAssert.assertTrue("fast reply not blocked " + elapsed, elapsed < 1000L);
+			TestAssert.assertFalse("not on reading thread", onReading.get());
+			TestAssert.assertTrue("slow stage done", blocked.get(5L, TimeUnit.SECONDS).booleanValue());
+		}
+	}
+	
+	private static void t3Timeout() throws Exception {
+		
+		final int port = 23404;
+		final HsmsSsCommunicatorConfig ac = HsmsSsLoopback.activeConfig(port);
+		ac.timeout().t3(0.5F);
+		
+		try (
+				HsmsSsCommunicator equip = HsmsSsCommunicator.newInstance(HsmsSsLoopback.passiveConfig(port));
+				HsmsSsCommunicator host = HsmsSsCommunicator.newInstance(ac);
+				) {
+			
+			/* equip not reply */
+			equip.open();
+			host.openAndWaitUntilCommunicating();
+			
+			final AtomicBoolean onTimer = new AtomicBoolean(true);
+			
+			final CompletableFuture<Optional<SecsMessage>> f = host.sendAsync(1, 1, true, Secs2.empty());
+			
+			final CompletableFuture<Throwable> t = f.handle((r, e) -> {
+				onTimer.set(onReadingOrTimerThread());
+				return e;
+			});
+			
+			final Throwable e = t.get(5L, TimeUnit.SECONDS);
+			
+			TestAssert.assertTrue("T3 timeout", e != null);
+			TestAssert.assertTrue("T3 exception", e instanceof SecsWaitReplyMessageException
+					|| e.getCause() instanceof SecsWaitReplyMessageException);
+			TestAssert.assertFalse("not on timer thread", onTimer.get());
+			
+			/* communicator continues */
+			TestAssert.assertTrue("open", host.isOpen());
+		}
+	}
+	
+	private static void outOfOrder() throws Exception {
+		
+		final int port = 23405;
+		final HsmsSsCommunicatorConfig pc = HsmsSsLoopback.passiveConfig(port);
+		pc.isEquip(false);
+		
+		try (
+				HsmsSsCommunicator host = HsmsSsCommunicator.newInstance(pc);
+				) {
+			
+			final AtomicBoolean communicatable = new AtomicBoolean(false);
+			host.addSecsCommunicatableStateChangeListener(communicatable::set);
+			host.open();
+			
+			try (
+					HsmsSsRawPeer peer = HsmsSsRawPeer.connect(port);
+					) {
+				
+				peer.select();
+				
+				for ( int i = 0; i < 100 && ! communicatable.get(); ++i ) {
+					TimeUnit.MILLISECONDS.sleep(50L);
+				}
+				
+				final int m = 5;
+				final List<CompletableFuture<Optional<SecsMessage>>> fs = new ArrayList<>();
+				final int[] systemBytes = new int[m];
+				
+				for ( int i = 0; i < m; ++i ) {
+					fs.add(host.sendAsync(2, 13, true, Secs2.uint4(i)));
+				}
+				
+				for ( int i = 0; i < m; ++i ) {
+					
+					final byte[] bs = peer.readFrame();
+					
+					systemBytes[i] = ((bs[6] & 0xFF) << 24) | ((bs[7] & 0xFF) << 16) | ((bs[8] & 0xFF) << 8) | (bs[9] & 0xFF);
+				}
+				
+				/* reply reverse order, body is index of primary */
+				for ( int i = m - 1; i >= 0; --i ) {
+					
+					final byte[] body = Secs2BytesEncoder.getInstance().encode(Secs2.uint4(i));
+					peer.write(HsmsSsRawPeer.dataFrame(2, 14, systemBytes[i], body));
+				}
+				
+				for ( int i = 0; i < m; ++i ) {
+					
+					final SecsMessage r = fs.get(i).get(5L, TimeUnit.SECONDS).orElse(null);
+					
+					TestAssert.assertTrue("reply #" + i, r != null);
+					TestAssert.assertEquals("function", 14, r.getFunction());
+					TestAssert.assertEquals("correlated #" + i, Secs2.uint4(i), r.secs2());
+				}
+			}
+		}
+	}
+	
+}
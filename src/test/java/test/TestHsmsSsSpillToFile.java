@@ -0,0 +1,152 @@
+package test;
+
+import java.io.IOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import com.shimizukenta.secs.SecsMessage;
+import com.shimizukenta.secs.hsmsss.HsmsSsCommunicator;
+import com.shimizukenta.secs.hsmsss.HsmsSsCommunicatorConfig;
+import com.shimizukenta.secs.secs2.Secs2;
+import com.shimizukenta.secs.secs2.Secs2BytesEncoder;
+
+/**
+ * Tests of HSMS-SS spill-to-file receive of large body.
+ * 
+ * @author kenta-shimizu
+ *
+ */
+public class TestHsmsSsSpillToFile {
+	
+	private static final long threshold = 1000L;
+	
+	public TestHsmsSsSpillToFile() {
+		/* Nothing */
+	}
+	
+	public static void main(String[] args) throws Exception {
+		
+		TestAssert.run("round trip, blocking reading", () -> roundTrip(23901, false));
+		TestAssert.run("round trip, async reading", () -> roundTrip(23902, true));
+		TestAssert.run("broken body, blocking reading", () -> brokenBody(23903, false));
+		TestAssert.run("broken body, async reading", () -> brokenBody(23904, true));
+		
+		System.exit(0);
+	}
+	
+	private static int countTempFiles() throws IOException {
+		
+		final Path dir = Paths.get(System.getProperty("java.io.tmpdir"));
+		
+		int n = 0;
+		
+		try (
+				DirectoryStream<Path> ds = Files.newDirectoryStream(dir, "hsmsss-body-*.tmp");
+				) {
+			
+			for ( @SuppressWarnings("unused") Path p : ds ) {
+				++ n;
+			}
+		}
+		
+		return n;
+	}
+	
+	private static void roundTrip(int port, boolean asyncReading) throws Exception {
+		
+		final int before = countTempFiles();
+		
+		try (
+				HsmsSsLoopback lb = HsmsSsLoopback.open(port, c -> {
+					c.asyncReading(asyncReading);
+					c.spillToFileThreshold(threshold);
+				});
+				) {
+			
+			final Secs2 nested = Secs2.list(
+					Secs2.ascii("SPILL"),
+					Secs2.list(Secs2.uint4(1, 2, 3), Secs2.binary(new byte[5000])),
+					Secs2.float8(1.5D));
+					
+			final Secs2[] bodies = new Secs2[] {
+					Secs2.empty(),
+					Secs2.binary(new byte[(int)threshold - 4]),
+					Secs2.binary(new byte[(int)threshold]),
+					Secs2.binary(new byte[200000]),
+					nested,
+					Secs2.binary(new byte[(1 << 20) + 3])
+			};
+			
+			for ( Secs2 body : bodies ) {
+				
+				final SecsMessage r = lb.host.send(6, 11, true, body).get();
+				
+				TestAssert.assertEquals("function", 12, r.getFunction());
+				TestAssert.assertEquals("echo body", body, r.secs2());
+			}
+			
+			final SecsMessage r = lb.host.send(6, 11, true, nested).get();
+			
+			TestAssert.assertEquals("nested ascii", "SPILL", r.secs2().getAscii(0));
+			TestAssert.assertEquals("nested uint4", 3, r.secs2().getInt(1, 0, 2));
+			TestAssert.assertEquals("nested binary size", 5000, r.secs2().get(1, 1).size());
+		}
+		
+		TestAssert.assertEquals("temp files deleted", before, countTempFiles());
+	}
+	
+	private static void brokenBody(int port, boolean asyncReading) throws Exception {
+		
+		final int before = countTempFiles();
+		
+		final HsmsSsCommunicatorConfig pc = HsmsSsLoopback.passiveConfig(port);
+		pc.asyncReading(asyncReading);
+		pc.spillToFileThreshold(threshold);
+		
+		final BlockingQueue<SecsMessage> queue = new LinkedBlockingQueue<>();
+		
+		try (
+				HsmsSsCommunicator equip = HsmsSsCommunicator.newInstance(pc);
+				) {
+			
+			equip.addSecsMessageReceiveListener(queue::offer);
+			equip.open();
+			
+			try (
+					HsmsSsRawPeer peer = HsmsSsRawPeer.connect(port);
+					) {
+				
+				peer.select();
+				
+				/* item length over body */
+				final byte[] broken = new byte[5000];
+				broken[0] = (byte)0x21;
+				broken[1] = (byte)0xFF;
+				broken[2] = (byte)0xFF;
+				broken[3] = (byte)0xFF;
+				peer.write(HsmsSsRawPeer.dataFrame(6, 11, 100, broken));
+				
+				final Secs2 valid = Secs2.binary(new byte[5000]);
+				peer.writeByteByByte(HsmsSsRawPeer.dataFrame(6, 11, 101, Secs2BytesEncoder.getInstance().encode(Secs2.ascii("V"))));
+				peer.write(HsmsSsRawPeer.dataFrame(6, 11, 102, Secs2BytesEncoder.getInstance().encode(valid)));
+				
+				/* broken body is validated before lazy view, and skipped */
+				final SecsMessage b = queue.poll(10L, TimeUnit.SECONDS);
+				TestAssert.assertTrue("small after broken", b != null);
+				TestAssert.assertEquals("small after broken", Secs2.ascii("V"), b.secs2());
+				
+				final SecsMessage c = queue.poll(10L, TimeUnit.SECONDS);
+				TestAssert.assertTrue("large after broken", c != null);
+				TestAssert.assertEquals("large after broken", valid, c.secs2());
+			}
+		}
+		
+		TestAssert.assertEquals("temp files deleted", before, countTempFiles());
+	}
+	
+}
@@ -0,0 +1,286 @@
+package test;
+
+import java.util.HashSet;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import com.shimizukenta.secs.SecsMessage;
+import com.shimizukenta.secs.SystemBytesAllocator;
+import com.shimizukenta.secs.hsmsss.HsmsSsCommunicator;
+import com.shimizukenta.secs.hsmsss.HsmsSsCommunicatorConfig;
+import com.shimizukenta.secs.hsmsss.HsmsSsOutstandingTransactionsFullException;
+import com.shimizukenta.secs.secs2.Secs2;
+
+/**
+ * Tests of System-Bytes allocator and outstanding transactions window.
+ * 
+ * @author kenta-shimizu
+ *
+ */
+public class TestHsmsSsTransactionWindow {
+	
+	public TestHsmsSsTransactionWindow() {
+		/* Nothing */
+	}
+	
+	public static void main(String[] args) throws Exception {
+		
+		TestAssert.run("allocator wraps in bits and skips 0", TestHsmsSsTransactionWindow::allocatorWraps);
+		TestAssert.run("allocator skips in flight", TestHsmsSsTransactionWindow::allocatorSkipsInFlight);
+		TestAssert.run("allocator all in flight", TestHsmsSsTransactionWindow::allocatorAllInFlight);
+		TestAssert.run("allocator bits range", TestHsmsSsTransactionWindow::allocatorBitsRange);
+		TestAssert.run("sendAsync fails fast if window full", TestHsmsSsTransactionWindow::sendAsyncFailsFast);
+		TestAssert.run("send blocks until window released", TestHsmsSsTransactionWindow::sendBlocks);
+		TestAssert.run("send blocks until T3", TestHsmsSsTransactionWindow::sendBlocksUntilT3);
+		TestAssert.run("send fails fast by config", TestHsmsSsTransactionWindow::sendFailsFastByConfig);
+		
+		System.exit(0);
+	}
+	
+	private static void allocatorWraps() {
+		
+		final SystemBytesAllocator a = new SystemBytesAllocator(2);
+		
+		for ( int i = 0; i < 3; ++i ) {
+			TestAssert.assertEquals("1", 1, a.allocate(n -> false));
+			TestAssert.assertEquals("2", 2, a.allocate(n -> false));
+			TestAssert.assertEquals("3", 3, a.allocate(n -> false));
+		}
+		
+		final SystemBytesAllocator b = new SystemBytesAllocator(32);
+		final Set<Integer> set = new HashSet<>();
+		
+		for ( int i = 0; i < 100000; ++i ) {
+			final int n = b.allocate(x -> false);
+			TestAssert.assertTrue("not 0", n != 0);
+			TestAssert.assertTrue("unique", set.add(n));
+		}
+		
+		/* beyond 16 bits */
+		TestAssert.assertTrue("32 bits", set.contains(Integer.valueOf(0x10000)));
+	}
+	
+	private static void allocatorSkipsInFlight() {
+		
+		final SystemBytesAllocator a = new SystemBytesAllocator(3);
+		final Set<Integer> inFlight = new HashSet<>();
+		inFlight.add(Integer.valueOf(2));
+		inFlight.add(Integer.valueOf(3));
+		
+		TestAssert.assertEquals("1", 1, a.allocate(n -> inFlight.contains(n)));
+		TestAssert.assertEquals("skip 2, 3", 4, a.allocate(n -> inFlight.contains(n)));
+		
+		for ( int i = 0; i < 20; ++i ) {
+			final int n = a.allocate(x -> inFlight.contains(x));
+			TestAssert.assertFalse("not in flight " + n, inFlight.contains(n));
+			TestAssert.assertTrue("in 3 bits " + n, n > 0 && n < 8);
+		}
+	}
+	
+	private static void allocatorAllInFlight() {
+		
+		final SystemBytesAllocator a = new SystemBytesAllocator(4);
+		
+		TestAssert.assertThrows("all in flight", IllegalStateException.class, () -> {
+			a.allocate(n -> true);
+		});
+		
+		/* recovers when released */
+		TestAssert.assertTrue("released", a.allocate(n -> n != 5) == 5);
+	}
+	
+	private static void allocatorBitsRange() {
+		
+		TestAssert.assertThrows("0 bits", IllegalArgumentException.class, () -> {
+			new SystemBytesAllocator(0);
+		});
+		
+		TestAssert.assertThrows("33 bits", IllegalArgumentException.class, () -> {
+			new SystemBytesAllocator(33);
+		});
+	}
+	
+	/**
+	 * Host is Passive, raw peer is Equip and not reply until requested.
+	 * 
+	 * @param port
+	 * @param max
+	 * @param failFast
+	 * @return config
+	 */
+	private static HsmsSsCommunicatorConfig hostConfig(int port, int max, boolean failFast) {
+		final HsmsSsCommunicatorConfig c = HsmsSsLoopback.passiveConfig(port);
+		c.isEquip(false);
+		c.maxOutstandingTransactions(max);
+		c.failFastIfOutstandingTransactionsFull(failFast);
+		c.timeout().t3(5.0F);
+		return c;
+	}
+	
+	private static HsmsSsRawPeer connectSelected(HsmsSsCommunicator host, int port) throws Exception {
+		
+		final AtomicBoolean communicatable = new AtomicBoolean(false);
+		host.addSecsCommunicatableStateChangeListener(communicatable::set);
+		host.open();
+		
+		final HsmsSsRawPeer peer = HsmsSsRawPeer.connect(port);
+		peer.select();
+		
+		for ( int i = 0; i < 100 && ! communicatable.get(); ++i ) {
+			TimeUnit.MILLISECONDS.sleep(50L);
+		}
+		
+		return peer;
+	}
+	
+	/**
+	 * Read primary frame, and reply S?F(n+1) with empty body.
+	 * 
+	 * @param peer
+	 * @throws Exception
+	 */
+	private static void replyNext(HsmsSsRawPeer peer) throws Exception {
+		
+		final byte[] bs = peer.readFrame();
+		final int systemBytes = ((bs[6] & 0xFF) << 24) | ((bs[7] & 0xFF) << 16) | ((bs[8] & 0xFF) << 8) | (bs[9] & 0xFF);
+		
+		peer.write(HsmsSsRawPeer.dataFrame(bs[2] & 0x7F, bs[3] + 1, systemBytes, new byte[0]));
+	}
+	
+	private static void sendAsyncFailsFast() throws Exception {
+		
+		final int port = 23601;
+		
+		try (
+				HsmsSsCommunicator host = HsmsSsCommunicator.newInstance(hostConfig(port, 2, false));
+				HsmsSsRawPeer peer = connectSelected(host, port);
+				) {
+			
+			final CompletableFuture<Optional<SecsMessage>> a = host.sendAsync(1, 1, true, Secs2.empty());
+			final CompletableFuture<Optional<SecsMessage>> b = host.sendAsync(1, 1, true, Secs2.empty());
+			
+			final long start = System.nanoTime();
+			final CompletableFuture<Optional<SecsMessage>> c = host.sendAsync(1, 1, true, Secs2.empty());
+			final long elapsed = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+			
+			TestAssert.assertTrue("not blocked " + elapsed, elapsed < 1000L);
+			TestAssert.assertTrue("failed immediately", c.isCompletedExceptionally());
+			
+			final ExecutionException e = TestAssert.assertThrows("full", ExecutionException.class, c::get);
+			TestAssert.assertTrue("full exception", e.getCause() instanceof HsmsSsOutstandingTransactionsFullException);
+			
+			/* no W-bit is not limited */
+			TestAssert.assertFalse("no W-bit", host.sendAsync(1, 1, false, Secs2.empty()).get().isPresent());
+			
+			/* window released by replies */
+			replyNext(peer);
+			replyNext(peer);
+			peer.readFrame();
+			
+			TestAssert.assertTrue("a replied", a.get(5L, TimeUnit.SECONDS).isPresent());
+			TestAssert.assertTrue("b replied", b.get(5L, TimeUnit.SECONDS).isPresent());
+			
+			final CompletableFuture<Optional<SecsMessage>> d = host.sendAsync(1, 1, true, Secs2.empty());
+			replyNext(peer);
+			TestAssert.assertTrue("sent after released", d.get(5L, TimeUnit.SECONDS).isPresent());
+		}
+	}
+	
+	private static void sendBlocks() throws Exception {
+		
+		final int port = 23602;
+		
+		try (
+				HsmsSsCommunicator host = HsmsSsCommunicator.newInstance(hostConfig(port, 1, false));
+				HsmsSsRawPeer peer = connectSelected(host, port);
+				) {
+			
+			final CompletableFuture<Optional<SecsMessage>> a = host.sendAsync(1, 1, true, Secs2.empty());
+			
+			final CompletableFuture<Optional<SecsMessage>> b = new CompletableFuture<>();
+			
+			final Thread th = new Thread(() -> {
+				try {
+					b.complete(host.send(1, 3, true, Secs2.empty()));
+				}
+				catch ( Throwable t ) {
+					b.completeExceptionally(t);
+				}
+			});
+			
+			th.start();
+			
+			TimeUnit.MILLISECONDS.sleep(300L);
+			TestAssert.assertFalse("blocked", b.isDone());
+			
+			/* reply a, then b is sent */
+			replyNext(peer);
+			TestAssert.assertTrue("a replied", a.get(5L, TimeUnit.SECONDS).isPresent());
+			
+			replyNext(peer);
+			TestAssert.assertEquals("b replied", 4, b.get(5L, TimeUnit.SECONDS).get().getFunction());
+		}
+	}
+	
+	private static void sendBlocksUntilT3() throws Exception {
+		
+		final int port = 23603;
+		final HsmsSsCommunicatorConfig c = hostConfig(port, 1, false);
+		c.timeout().t3(0.5F);
+		
+		try (
+				HsmsSsCommunicator host = HsmsSsCommunicator.newInstance(c);
+				HsmsSsRawPeer peer = connectSelected(host, port);
+				) {
+			
+			host.sendAsync(1, 1, true, Secs2.empty());
+			TestAssert.assertEquals("primary sent", 1, peer.readFrame()[3]);
+			
+			final long start = System.nanoTime();
+			
+			TestAssert.assertThrows("full until T3", HsmsSsOutstandingTransactionsFullException.class, () -> {
+				host.send(1, 1, true, Secs2.empty());
+			});
+			
+			final long elapsed = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+			
+			TestAssert.assertTrue("waited T3 " + elapsed, elapsed >= 400L && elapsed < 5000L);
+		}
+	}
+	
+	private static void sendFailsFastByConfig() throws Exception {
+		
+		final int port = 23604;
+		
+		try (
+				HsmsSsCommunicator host = HsmsSsCommunicator.newInstance(hostConfig(port, 1, true));
+				HsmsSsRawPeer peer = connectSelected(host, port);
+				) {
+			
+			host.sendAsync(1, 1, true, Secs2.empty());
+			
+			final long start = System.nanoTime();
+			
+			TestAssert.assertThrows("fail fast", HsmsSsOutstandingTransactionsFullException.class, () -> {
+				host.send(1, 1, true, Secs2.empty());
+			});
+			
+			final long elapsed = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+			
+			TestAssert.assertTrue("not blocked " + elapsed, elapsed < 300L);
+			
+			/* released by reply */
+			replyNext(peer);
+			TimeUnit.MILLISECONDS.sleep(200L);
+			
+			final CompletableFuture<Optional<SecsMessage>> f = host.sendAsync(1, 1, true, Secs2.empty());
+			replyNext(peer);
+			TestAssert.assertTrue("sent after released", f.get(5L, TimeUnit.SECONDS).isPresent());
+		}
+	}
+	
+}
@@ -0,0 +1,220 @@
+package test;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import com.shimizukenta.secs.SecsException;
+import com.shimizukenta.secs.SecsMessage;
+import com.shimizukenta.secs.hsmsss.HsmsSsCommunicator;
+import com.shimizukenta.secs.hsmsss.HsmsSsCommunicatorConfig;
+import com.shimizukenta.secs.secs2.Secs2;
+import com.shimizukenta.secs.secs2.Secs2BytesParser;
+
+/**
+ * Tests of HSMS-SS write-coalescing, frames of many senders are written by one gathering write.
+ * 
+ * @author kenta-shimizu
+ *
+ */
+public class TestHsmsSsWriteCoalescing {
+	
+	public TestHsmsSsWriteCoalescing() {
+		/* Nothing */
+	}
+	
+	public static void main(String[] args) throws Exception {
+		
+		TestAssert.run("concurrent round trip", TestHsmsSsWriteCoalescing::concurrentRoundTrip);
+		TestAssert.run("frames intact and sender order", TestHsmsSsWriteCoalescing::framesIntact);
+		TestAssert.run("peer closed fails senders", TestHsmsSsWriteCoalescing::peerClosed);
+		
+		System.exit(0);
+	}
+	
+	private static void concurrentRoundTrip() throws Exception {
+		
+		final int threads = 16;
+		final int m = 100;
+		
+		final ExecutorService es = Executors.newFixedThreadPool(threads);
+		
+		try (
+				HsmsSsLoopback lb = HsmsSsLoopback.open(23501, c -> {
+					c.writeCoalescing(true);
+				});
+				) {
+			
+			final List<Future<?>> fs = new ArrayList<>();
+			
+			for ( int t = 0; t < threads; ++t ) {
+				
+				final int th = t;
+				
+				fs.add(es.submit(() -> {
+					
+					for ( int i = 0; i < m; ++i ) {
+						
+						/* small, and sometimes larger than max pooled capacity */
+						final Secs2 body = (i % 50 == 49)
+								? Secs2.list(Secs2.uint4(th, i), Secs2.binary(new byte[(3 << 19)]))
+								: Secs2.list(Secs2.uint4(th, i), Secs2.ascii("ACK"));
+						
+						final SecsMessage r = lb.host.send(6, 11, true, body).get();
+						
+						TestAssert.assertEquals("function", 12, r.getFunction());
+						TestAssert.assertEquals("echo body", body, r.secs2());
+					}
+					
+					return null;
+				}));
+			}
+			
+			for ( Future<?> f : fs ) {
+				f.get(60L, TimeUnit.SECONDS);
+			}
+		}
+		finally {
+			es.shutdownNow();
+		}
+	}
+	
+	private static void framesIntact() throws Exception {
+		
+		final int port = 23502;
+		final int threads = 8;
+		final int m = 200;
+		
+		final HsmsSsCommunicatorConfig pc = HsmsSsLoopback.passiveConfig(port);
+		pc.writeCoalescing(true);
+		
+		final ExecutorService es = Executors.newFixedThreadPool(threads);
+		
+		try (
+				HsmsSsCommunicator equip = HsmsSsCommunicator.newInstance(pc);
+				) {
+			
+			final AtomicBoolean communicatable = new AtomicBoolean(false);
+			equip.addSecsCommunicatableStateChangeListener(communicatable::set);
+			equip.open();
+			
+			try (
+					HsmsSsRawPeer peer = HsmsSsRawPeer.connect(port);
+					) {
+				
+				peer.select();
+				
+				for ( int i = 0; i < 100 && ! communicatable.get(); ++i ) {
+					TimeUnit.MILLISECONDS.sleep(50L);
+				}
+				
+				final List<Future<?>> fs = new ArrayList<>();
+				
+				for ( int t = 0; t < threads; ++t ) {
+					
+					final int th = t;
+					
+					fs.add(es.submit(() -> {
+						
+						for ( int i = 0; i < m; ++i ) {
+							equip.send(6, 11, false, Secs2.list(Secs2.uint4(th), Secs2.uint4(i), Secs2.ascii("EVENT")));
+						}
+						
+						return null;
+					}));
+				}
+				
+				final int[] next = new int[threads];
+				
+				for ( int n = 0; n < threads * m; ++n ) {
+					
+					final byte[] bs = peer.readFrame();
+					
+					TestAssert.assertEquals("session-id", 10, ((bs[0] & 0xFF) << 8) | (bs[1] & 0xFF));
+					TestAssert.assertEquals("stream", 6, bs[2] & 0x7F);
+					TestAssert.assertEquals("function", 11, bs[3]);
+					
+					final Secs2 body = Secs2BytesParser.getInstance().parse(ByteBuffer.wrap(bs, 10, bs.length - 10));
+					final int th = body.getInt(0, 0);
+					final int i = body.getInt(1, 0);
+					
+					TestAssert.assertEquals("order of sender " + th, next[th], i);
+					TestAssert.assertEquals("tail", "EVENT", body.getAscii(2));
+					
+					next[th] = i + 1;
+				}
+				
+				for ( Future<?> f : fs ) {
+					f.get(10L, TimeUnit.SECONDS);
+				}
+			}
+		}
+		finally {
+			es.shutdownNow();
+		}
+	}
+	
+	private static void peerClosed() throws Exception {
+		
+		final int port = 23503;
+		final int threads = 4;
+		
+		final HsmsSsCommunicatorConfig pc = HsmsSsLoopback.passiveConfig(port);
+		pc.writeCoalescing(true);
+		
+		final ExecutorService es = Executors.newFixedThreadPool(threads);
+		
+		try (
+				HsmsSsCommunicator equip = HsmsSsCommunicator.newInstance(pc);
+				) {
+			
+			equip.open();
+			
+			final List<CompletableFuture<Throwable>> results = new ArrayList<>();
+			
+			try (
+					HsmsSsRawPeer peer = HsmsSsRawPeer.connect(port);
+					) {
+				
+				peer.select();
+				
+				for ( int t = 0; t < threads; ++t ) {
+					
+					final CompletableFuture<Throwable> r = new CompletableFuture<>();
+					results.add(r);
+					
+					es.execute(() -> {
+						
+						try {
+							for ( ;; ) {
+								equip.send(6, 11, false, Secs2.binary(new byte[4096]));
+							}
+						}
+						catch ( Throwable e ) {
+							r.complete(e);
+						}
+					});
+				}
+				
+				TimeUnit.MILLISECONDS.sleep(200L);
+			}
+			
+			for ( CompletableFuture<Throwable> r : results ) {
+				
+				final Throwable e = r.get(10L, TimeUnit.SECONDS);
+				
+				TestAssert.assertTrue("sender failed: " + e, e instanceof SecsException);
+			}
+		}
+		finally {
+			es.shutdownNow();
+		}
+	}
+	
+}
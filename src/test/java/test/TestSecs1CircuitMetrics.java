@@ -0,0 +1,365 @@
+package test;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+
+import javax.management.InstanceAlreadyExistsException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+import com.shimizukenta.secs.SecsException;
+import com.shimizukenta.secs.secs1.Secs1CircuitMetrics;
+import com.shimizukenta.secs.secs1.Secs1CommunicatorConfig;
+import com.shimizukenta.secs.secs1.Secs1RetryOverException;
+import com.shimizukenta.secs.secs1emulator.Secs1EmulatedLine;
+import com.shimizukenta.secs.secs1emulator.Secs1EmulatedLineConfig;
+import com.shimizukenta.secs.secs1emulator.Secs1OnEmulatedLineCommunicator;
+import com.shimizukenta.secs.secs2.Secs2;
+
+/**
+ * Tests of SECS-I circuit counters, latency histograms and MXBean.
+ * 
+ * @author kenta-shimizu
+ *
+ */
+public class TestSecs1CircuitMetrics {
+	
+	public TestSecs1CircuitMetrics() {
+		/* Nothing */
+	}
+	
+	public static void main(String[] args) throws Exception {
+		
+		TestAssert.run("counters and latencies", TestSecs1CircuitMetrics::countersAndLatencies);
+		TestAssert.run("NAK injection", TestSecs1CircuitMetrics::nakInjection);
+		TestAssert.run("byte errors", TestSecs1CircuitMetrics::byteErrors);
+		TestAssert.run("retry over", TestSecs1CircuitMetrics::retryOver);
+		TestAssert.run("reset", TestSecs1CircuitMetrics::reset);
+		TestAssert.run("MXBean", TestSecs1CircuitMetrics::mxBean);
+		
+		System.exit(0);
+	}
+	
+	private static Secs1CommunicatorConfig config(boolean equip) {
+		
+		final Secs1CommunicatorConfig c = new Secs1CommunicatorConfig();
+		
+		c.isEquip(equip);
+		c.isMaster(! equip);
+		c.deviceId(10);
+		c.retry(10);
+		c.timeout().t1(0.5F);
+		c.timeout().t2(1.0F);
+		c.timeout().t3(10.0F);
+		c.timeout().t4(5.0F);
+		
+		return c;
+	}
+	
+	private static Secs1EmulatedLineConfig lineConfig() {
+		final Secs1EmulatedLineConfig c = new Secs1EmulatedLineConfig();
+		c.baudRate(115200);
+		return c;
+	}
+	
+	/**
+	 * Host and Equip on emulated line, Equip replies S6F12.
+	 *
+	 */
+	private static final class Pair implements Closeable {
+		
+		private final Secs1EmulatedLine line;
+		private final Secs1OnEmulatedLineCommunicator host;
+		private final Secs1OnEmulatedLineCommunicator equip;
+		
+		private Pair(Secs1EmulatedLineConfig lc, Secs1CommunicatorConfig hc, Secs1CommunicatorConfig ec, boolean openEquip) throws Exception {
+			
+			this.line = Secs1EmulatedLine.newInstance(lc);
+			this.host = Secs1OnEmulatedLineCommunicator.newInstance(hc, line.portA());
+			this.equip = Secs1OnEmulatedLineCommunicator.newInstance(ec, line.portB());
+			
+			this.equip.addSecsMessageReceiveListener(msg -> {
+				try {
+					this.equip.send(msg, 6, 12, false, Secs2.binary((byte)0x00));
+				}
+				catch ( SecsException ignore ) {
+				}
+				catch ( InterruptedException ignore ) {
+				}
+			});
+			
+			if ( openEquip ) {
+				this.equip.open();
+			}
+			
+			this.host.open();
+		}
+		
+		private Pair() throws Exception {
+			this(lineConfig(), config(false), config(true), true);
+		}
+		
+		private void sendMessages(int messages, int bodySize) throws Exception {
+			for ( int i = 0; i < messages; ++i ) {
+				TestAssert.assertTrue("reply", this.host.send(6, 11, true, Secs2.binary(new byte[bodySize])).isPresent());
+			}
+		}
+		
+		@Override
+		public void close() throws IOException {
+			try {
+				this.host.close();
+			}
+			finally {
+				try {
+					this.equip.close();
+				}
+				finally {
+					this.line.close();
+				}
+			}
+		}
+	}
+	
+	/**
+	 * Wait until counter reaches, counters of other side are counted asynchronously.
+	 * 
+	 * @param message
+	 * @param expected
+	 * @param counter
+	 * @throws InterruptedException
+	 */
+	private static void awaitEquals(String message, long expected, LongSupplier counter) throws InterruptedException {
+		
+		for ( int i = 0; i < 100 && counter.getAsLong() != expected; ++i ) {
+			TimeUnit.MILLISECONDS.sleep(20L);
+		}
+		
+		TestAssert.assertEquals(message, expected, counter.getAsLong());
+	}
+	
+	private static void countersAndLatencies() throws Exception {
+		
+		try (
+				Pair p = new Pair();
+				) {
+			
+			/* 1003 bytes is 5 blocks, reply is 1 block */
+			p.sendMessages(3, 1000);
+			
+			final Secs1CircuitMetrics h = p.host.circuitMetrics();
+			final Secs1CircuitMetrics e = p.equip.circuitMetrics();
+			
+			awaitEquals("host messages sended", 3L, h::getMessagesSended);
+			awaitEquals("host blocks sended", 15L, h::getBlocksSended);
+			awaitEquals("host messages received", 3L, h::getMessagesReceived);
+			awaitEquals("host blocks received", 3L, h::getBlocksReceived);
+			awaitEquals("equip messages received", 3L, e::getMessagesReceived);
+			awaitEquals("equip blocks received", 15L, e::getBlocksReceived);
+			awaitEquals("equip messages sended", 3L, e::getMessagesSended);
+			awaitEquals("equip blocks sended", 3L, e::getBlocksSended);
+			
+			for ( Secs1CircuitMetrics m : new Secs1CircuitMetrics[] {h, e} ) {
+				TestAssert.assertEquals("retries", 0L, m.getRetries());
+				TestAssert.assertEquals("retry-overs", 0L, m.getRetryOvers());
+				TestAssert.assertEquals("NAK sended", 0L, m.getNaksSended());
+				TestAssert.assertEquals("not ACK", 0L, m.getNotAcksReceived());
+				TestAssert.assertEquals("sum-check", 0L, m.getSumCheckMismatches());
+				TestAssert.assertEquals("T1", 0L, m.getT1Timeouts());
+				TestAssert.assertEquals("T2", 0L, m.getT2Timeouts());
+				TestAssert.assertEquals("T4", 0L, m.getT4Timeouts());
+			}
+			
+			/* each block has ENQ-to-EOT and Block-to-ACK */
+			TestAssert.assertEquals("ENQ-to-EOT count", 15L, h.enqToEotLatency().count());
+			TestAssert.assertEquals("Block-to-ACK count", 15L, h.blockToAckLatency().count());
+			TestAssert.assertEquals("equip Block-to-ACK count", 3L, e.blockToAckLatency().count());
+			
+			/* 254 bytes block is 22 milli-seconds at 115200 bps */
+			final long maxAck = h.blockToAckLatency().maxMicros();
+			TestAssert.assertTrue("Block-to-ACK max " + maxAck, maxAck >= 20000L && maxAck < 5000000L);
+			TestAssert.assertTrue("Block-to-ACK p99", h.blockToAckLatency().percentileMicros(99.0D) <= maxAck);
+			TestAssert.assertTrue("Block-to-ACK p50", h.blockToAckLatency().percentileMicros(50.0D) >= 16383L);
+			
+			final double meanEot = h.enqToEotLatency().meanMicros();
+			TestAssert.assertTrue("ENQ-to-EOT mean " + meanEot, meanEot > 0.0D && meanEot < (double)maxAck);
+			
+			/* MXBean view is same */
+			TestAssert.assertEquals("MXBean count", h.blockToAckLatency().count(), h.getBlockToAckCount());
+			TestAssert.assertEquals("MXBean max", maxAck, h.getBlockToAckMaxMicros());
+			TestAssert.assertEquals("MXBean p99", h.blockToAckLatency().percentileMicros(99.0D), h.getBlockToAckP99Micros());
+			TestAssert.assertTrue("MXBean mean", h.getEnqToEotMeanMicros() == meanEot);
+			
+			TestAssert.assertTrue("toString", h.toString().startsWith("messages sended=3, received=3, blocks sended=15, received=3"));
+		}
+	}
+	
+	private static void nakInjection() throws Exception {
+		
+		final Secs1EmulatedLineConfig lc = lineConfig();
+		lc.nakInjectionRate(0.2D);
+		lc.seed(1L);
+		
+		try (
+				Pair p = new Pair(lc, config(false), config(true), true);
+				) {
+			
+			p.sendMessages(5, 1000);
+			
+			final Secs1CircuitMetrics h = p.host.circuitMetrics();
+			final Secs1CircuitMetrics e = p.equip.circuitMetrics();
+			
+			awaitEquals("equip messages received", 5L, e::getMessagesReceived);
+			
+			final long notAcks = h.getNotAcksReceived() + e.getNotAcksReceived();
+			
+			TestAssert.assertTrue("injected", p.line.injectedNaks() > 0L);
+			TestAssert.assertEquals("not ACK is injected NAK", p.line.injectedNaks(), notAcks);
+			TestAssert.assertEquals("retry by not ACK", notAcks, h.getRetries() + e.getRetries());
+			
+			/* NAK is injected on line, not sended */
+			TestAssert.assertEquals("NAK sended", 0L, h.getNaksSended() + e.getNaksSended());
+			TestAssert.assertEquals("blocks sended", 25L, h.getBlocksSended());
+		}
+	}
+	
+	private static void byteErrors() throws Exception {
+		
+		final Secs1EmulatedLineConfig lc = lineConfig();
+		lc.byteErrorRate(0.001D);
+		lc.seed(2L);
+		
+		try (
+				Pair p = new Pair(lc, config(false), config(true), true);
+				) {
+			
+			for ( int i = 0; i < 5; ++i ) {
+				try {
+					p.host.send(6, 11, true, Secs2.binary(new byte[1000]));
+				}
+				catch ( SecsException ignore ) {
+				}
+			}
+			
+			final Secs1CircuitMetrics h = p.host.circuitMetrics();
+			final Secs1CircuitMetrics e = p.equip.circuitMetrics();
+			
+			TestAssert.assertTrue("injected", p.line.injectedByteErrors() > 0L);
+			
+			final long naks = h.getNaksSended() + e.getNaksSended();
+			
+			/* sum-check mismatch and T1, T2 of length-byte send NAK */
+			TestAssert.assertTrue("detected " + h + " / " + e, naks > 0L || (h.getT2Timeouts() + e.getT2Timeouts()) > 0L);
+			TestAssert.assertTrue("NAK by sum-check", naks >= e.getSumCheckMismatches() + h.getSumCheckMismatches());
+		}
+	}
+	
+	private static void retryOver() throws Exception {
+		
+		final Secs1CommunicatorConfig hc = config(false);
+		hc.retry(2);
+		hc.timeout().t2(0.2F);
+		
+		/* Equip not opened, no EOT */
+		try (
+				Pair p = new Pair(lineConfig(), hc, config(true), false);
+				) {
+			
+			TestAssert.assertThrows("retry over", Secs1RetryOverException.class, () -> {
+				p.host.send(1, 1, true, Secs2.empty());
+			});
+			
+			final Secs1CircuitMetrics h = p.host.circuitMetrics();
+			
+			TestAssert.assertEquals("T2", 3L, h.getT2Timeouts());
+			TestAssert.assertEquals("retries", 3L, h.getRetries());
+			TestAssert.assertEquals("retry-overs", 1L, h.getRetryOvers());
+			TestAssert.assertEquals("messages sended", 0L, h.getMessagesSended());
+			TestAssert.assertEquals("ENQ-to-EOT", 0L, h.getEnqToEotCount());
+		}
+	}
+	
+	private static void reset() throws Exception {
+		
+		try (
+				Pair p = new Pair();
+				) {
+			
+			p.sendMessages(1, 10);
+			
+			final Secs1CircuitMetrics h = p.host.circuitMetrics();
+			
+			TestAssert.assertEquals("before", 1L, h.getMessagesSended());
+			TestAssert.assertTrue("not same metrics", h != p.equip.circuitMetrics());
+			TestAssert.assertTrue("same instance", h == p.host.circuitMetrics());
+			
+			h.reset();
+			
+			TestAssert.assertEquals("messages", 0L, h.getMessagesSended() + h.getMessagesReceived());
+			TestAssert.assertEquals("blocks", 0L, h.getBlocksSended() + h.getBlocksReceived());
+			TestAssert.assertEquals("latency", 0L, h.getEnqToEotCount() + h.getBlockToAckCount());
+			TestAssert.assertEquals("max", 0L, h.getBlockToAckMaxMicros());
+			
+			/* other side is not reset */
+			awaitEquals("equip", 1L, p.equip.circuitMetrics()::getMessagesReceived);
+			
+			p.sendMessages(1, 10);
+			TestAssert.assertEquals("after reset", 1L, h.getMessagesSended());
+			TestAssert.assertEquals("after reset ENQ-to-EOT", 1L, h.getEnqToEotCount());
+		}
+	}
+	
+	private static void mxBean() throws Exception {
+		
+		final MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+		final ObjectName on;
+		
+		try (
+				Pair p = new Pair();
+				) {
+			
+			final Secs1CircuitMetrics h = p.host.circuitMetrics();
+			
+			on = h.registerMBean("test \"host\"");
+			
+			TestAssert.assertEquals("domain", "com.shimizukenta.secs.secs1", on.getDomain());
+			TestAssert.assertEquals("type", "Secs1CircuitMetrics", on.getKeyProperty("type"));
+			TestAssert.assertEquals("name", "test \"host\"", ObjectName.unquote(on.getKeyProperty("name")));
+			TestAssert.assertTrue("registered", server.isRegistered(on));
+			
+			TestAssert.assertThrows("already registered", IllegalStateException.class, () -> {
+				h.registerMBean("other");
+			});
+			
+			/* same name of other communicator */
+			TestAssert.assertThrows("same name", InstanceAlreadyExistsException.class, () -> {
+				p.equip.circuitMetrics().registerMBean("test \"host\"");
+			});
+			
+			p.sendMessages(2, 300);
+			
+			TestAssert.assertEquals("MessagesSended", Long.valueOf(2L), server.getAttribute(on, "MessagesSended"));
+			TestAssert.assertEquals("BlocksSended", Long.valueOf(4L), server.getAttribute(on, "BlocksSended"));
+			TestAssert.assertEquals("BlockToAckCount", Long.valueOf(4L), server.getAttribute(on, "BlockToAckCount"));
+			TestAssert.assertTrue("EnqToEotMeanMicros", server.getAttribute(on, "EnqToEotMeanMicros") instanceof Double);
+			
+			server.invoke(on, "reset", new Object[0], new String[0]);
+			
+			TestAssert.assertEquals("reset by JMX", 0L, h.getMessagesSended());
+			
+			/* unregister and register again */
+			h.unregisterMBean();
+			TestAssert.assertFalse("unregistered", server.isRegistered(on));
+			h.unregisterMBean();
+			
+			TestAssert.assertEquals("registered again", on, h.registerMBean("test \"host\""));
+			TestAssert.assertTrue("registered again", server.isRegistered(on));
+		}
+		
+		TestAssert.assertFalse("unregistered when closed", server.isRegistered(on));
+	}
+	
+}
@@ -0,0 +1,391 @@
+package test;
+
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import com.shimizukenta.secs.SecsException;
+import com.shimizukenta.secs.SecsMessage;
+import com.shimizukenta.secs.secs1.Secs1CommunicatorConfig;
+import com.shimizukenta.secs.secs1emulator.Secs1EmulatedLine;
+import com.shimizukenta.secs.secs1emulator.Secs1EmulatedLineBenchmark;
+import com.shimizukenta.secs.secs1emulator.Secs1EmulatedLineConfig;
+import com.shimizukenta.secs.secs1emulator.Secs1OnEmulatedLineCommunicator;
+import com.shimizukenta.secs.secs2.Secs2;
+
+/**
+ * Tests of SECS-I Communicators on emulated serial line.
+ * 
+ * @author kenta-shimizu
+ *
+ */
+public class TestSecs1EmulatedLine {
+	
+	public TestSecs1EmulatedLine() {
+		/* Nothing */
+	}
+	
+	public static void main(String[] args) throws Exception {
+		
+		TestAssert.run("line time by baud-rate", TestSecs1EmulatedLine::lineTime);
+		TestAssert.run("not attached port loses bytes", TestSecs1EmulatedLine::notAttached);
+		TestAssert.run("send and reply", TestSecs1EmulatedLine::sendAndReply);
+		TestAssert.run("NAK injection is retried", TestSecs1EmulatedLine::nakInjection);
+		TestAssert.run("byte errors are detected", TestSecs1EmulatedLine::byteErrors);
+		TestAssert.run("benchmark result", TestSecs1EmulatedLine::benchmark);
+		TestAssert.run("partial message does not delay reply", TestSecs1EmulatedLine::partialNotDelayReply);
+		
+		System.exit(0);
+	}
+	
+	private static Secs1CommunicatorConfig config(boolean equip) {
+		
+		final Secs1CommunicatorConfig c = new Secs1CommunicatorConfig();
+		
+		c.isEquip(equip);
+		c.isMaster(! equip);
+		c.deviceId(10);
+		c.retry(3);
+		c.timeout().t1(0.5F);
+		c.timeout().t2(1.0F);
+		c.timeout().t3(10.0F);
+		c.timeout().t4(5.0F);
+		
+		return c;
+	}
+	
+	private static void lineTime() throws Exception {
+		
+		final Secs1EmulatedLineConfig lc = new Secs1EmulatedLineConfig();
+		lc.baudRate(9600);
+		
+		final BlockingQueue<byte[]> arrived = new LinkedBlockingQueue<>();
+		
+		try (
+				Secs1EmulatedLine line = Secs1EmulatedLine.newInstance(lc);
+				) {
+			
+			line.portB().attach(arrived::put);
+			
+			final byte[] bs = new byte[96];
+			for ( int i = 0; i < bs.length; ++i ) {
+				bs[i] = (byte)i;
+			}
+			
+			/* 96 bytes is 960 bits, 100 milli-seconds at 9600 bps */
+			final long start = System.nanoTime();
+			line.portA().write(bs);
+			
+			final byte[] rs = new byte[bs.length];
+			int pos = 0;
+			
+			while ( pos < rs.length ) {
+				
+				final byte[] r = arrived.poll(5L, TimeUnit.SECONDS);
+				
+				TestAssert.assertTrue("arrived", r != null);
+				
+				System.arraycopy(r, 0, rs, pos, r.length);
+				pos += r.length;
+			}
+			
+			final long elapsed = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+			
+			TestAssert.assertArrayEquals("bytes in order", bs, rs);
+			TestAssert.assertTrue("line time " + elapsed, elapsed >= 95L && elapsed < 2000L);
+			TestAssert.assertEquals("no errors", 0L, line.injectedByteErrors());
+		}
+	}
+	
+	private static void notAttached() throws Exception {
+		
+		final Secs1EmulatedLineConfig lc = new Secs1EmulatedLineConfig();
+		lc.baudRate(1000000);
+		
+		final BlockingQueue<byte[]> arrived = new LinkedBlockingQueue<>();
+		
+		try (
+				Secs1EmulatedLine line = Secs1EmulatedLine.newInstance(lc);
+				) {
+			
+			line.portA().write(new byte[] {1, 2, 3});
+			TimeUnit.MILLISECONDS.sleep(100L);
+			
+			line.portB().attach(arrived::put);
+			line.portA().write(new byte[] {4});
+			
+			TestAssert.assertArrayEquals("after attached", new byte[] {4}, arrived.poll(5L, TimeUnit.SECONDS));
+			
+			line.portB().detach();
+			line.portA().write(new byte[] {5});
+			TimeUnit.MILLISECONDS.sleep(100L);
+			
+			TestAssert.assertTrue("detached", arrived.isEmpty());
+			
+			/* other way */
+			line.portA().attach(arrived::put);
+			line.portB().write(new byte[] {6});
+			
+			TestAssert.assertArrayEquals("B to A", new byte[] {6}, arrived.poll(5L, TimeUnit.SECONDS));
+		}
+	}
+	
+	private static Secs2 binary(int size) {
+		final byte[] bs = new byte[size];
+		for ( int i = 0; i < bs.length; ++i ) {
+			bs[i] = (byte)(i * 31);
+		}
+		return Secs2.binary(bs);
+	}
+	
+	private static void sendAndReply() throws Exception {
+		
+		final Secs1EmulatedLineConfig lc = new Secs1EmulatedLineConfig();
+		lc.baudRate(115200);
+		
+		try (
+				Secs1EmulatedLine line = Secs1EmulatedLine.newInstance(lc);
+				Secs1OnEmulatedLineCommunicator host = Secs1OnEmulatedLineCommunicator.newInstance(config(false), line.portA());
+				Secs1OnEmulatedLineCommunicator equip = Secs1OnEmulatedLineCommunicator.newInstance(config(true), line.portB());
+				) {
+			
+			/* echo */
+			equip.addSecsMessageReceiveListener(msg -> {
+				try {
+					equip.send(msg, msg.getStream(), msg.getFunction() + 1, false, msg.secs2());
+				}
+				catch ( SecsException ignore ) {
+				}
+				catch ( InterruptedException ignore ) {
+				}
+			});
+			
+			equip.open();
+			host.open();
+			
+			final Secs2[] bodies = new Secs2[] {
+					Secs2.empty(),
+					Secs2.ascii("EMULATED"),
+					binary(241),
+					binary(242),
+					binary(1000),
+					Secs2.list(Secs2.uint4(1, 2, 3), Secs2.list(binary(600), Secs2.bool(true)))
+			};
+			
+			for ( Secs2 body : bodies ) {
+				
+				final SecsMessage r = host.send(6, 11, true, body).get();
+				
+				TestAssert.assertEquals("function", 12, r.getFunction());
+				TestAssert.assertEquals("echo body", body, r.secs2());
+			}
+			
+			/* primary from Slave */
+			final BlockingQueue<SecsMessage> received = new LinkedBlockingQueue<>();
+			host.addSecsMessageReceiveListener(received::offer);
+			
+			equip.send(5, 1, false, Secs2.ascii("ALARM"));
+			
+			final SecsMessage m = received.poll(5L, TimeUnit.SECONDS);
+			
+			TestAssert.assertTrue("received", m != null);
+			TestAssert.assertEquals("S5F1", 5, m.getStream());
+			TestAssert.assertEquals("body", Secs2.ascii("ALARM"), m.secs2());
+			
+			TestAssert.assertEquals("no errors", 0L, line.injectedByteErrors() + line.injectedNaks());
+		}
+	}
+	
+	private static void nakInjection() throws Exception {
+		
+		final Secs1EmulatedLineConfig lc = new Secs1EmulatedLineConfig();
+		lc.baudRate(115200);
+		lc.nakInjectionRate(0.2D);
+		lc.seed(1L);
+		
+		final Secs1CommunicatorConfig host = config(false);
+		final Secs1CommunicatorConfig equip = config(true);
+		host.retry(10);
+		equip.retry(10);
+		
+		final Secs1EmulatedLineBenchmark.Result r = Secs1EmulatedLineBenchmark.run(lc, host, equip, 10, 1000);
+		
+		TestAssert.assertEquals("completed", 10, r.completedMessages());
+		TestAssert.assertTrue("injected NAK", r.injectedNaks() > 0L);
+		TestAssert.assertTrue("retries " + r.retries(), r.retries() > 0L);
+		TestAssert.assertTrue("not ACK " + r.notAcks(), r.notAcks() > 0L);
+		TestAssert.assertEquals("no byte errors", 0L, r.injectedByteErrors());
+		TestAssert.assertEquals("no sum-check errors", 0L, r.sumCheckMismatches());
+	}
+	
+	private static void byteErrors() throws Exception {
+		
+		final Secs1EmulatedLineConfig lc = new Secs1EmulatedLineConfig();
+		lc.baudRate(115200);
+		lc.byteErrorRate(0.001D);
+		lc.seed(2L);
+		
+		final Secs1CommunicatorConfig host = config(false);
+		final Secs1CommunicatorConfig equip = config(true);
+		host.retry(10);
+		equip.retry(10);
+		
+		final Secs1EmulatedLineBenchmark.Result r = Secs1EmulatedLineBenchmark.run(lc, host, equip, 10, 1000);
+		
+		TestAssert.assertEquals("all messages", 10, r.completedMessages() + r.failedMessages());
+		TestAssert.assertTrue("completed " + r.completedMessages(), r.completedMessages() > 0);
+		TestAssert.assertTrue("injected errors", r.injectedByteErrors() > 0L);
+		
+		/* corrupted bytes are detected as sum-check mismatch, not ACK, or T1/T2 timeout */
+		TestAssert.assertTrue("detected " + r,
+				(r.sumCheckMismatches() + r.notAcks() + r.t1Timeouts() + r.t2Timeouts()) > 0L);
+	}
+	
+	private static final byte ENQ = (byte)0x05;
+	private static final byte EOT = (byte)0x04;
+	private static final byte ACK = (byte)0x06;
+	
+	/**
+	 * Returns block bytes of Host to Equip, Device-ID is 10.
+	 * 
+	 * @param wbit
+	 * @param stream
+	 * @param function
+	 * @param ebit
+	 * @param blockNumber
+	 * @param systemBytes
+	 * @param body
+	 * @return length, header, body and sum bytes
+	 */
+	private static byte[] rawBlock(boolean wbit, int stream, int function, boolean ebit, int blockNumber, int systemBytes, byte[] body) {
+		
+		final byte[] bs = new byte[1 + 10 + body.length + 2];
+		
+		bs[0] = (byte)(10 + body.length);
+		bs[1] = (byte)0x00;
+		bs[2] = (byte)10;
+		bs[3] = (byte)(stream | (wbit ? 0x80 : 0x00));
+		bs[4] = (byte)function;
+		bs[5] = (byte)(((blockNumber >> 8) & 0x7F) | (ebit ? 0x80 : 0x00));
+		bs[6] = (byte)blockNumber;
+		bs[7] = (byte)(systemBytes >> 24);
+		bs[8] = (byte)(systemBytes >> 16);
+		bs[9] = (byte)(systemBytes >> 8);
+		bs[10] = (byte)systemBytes;
+		System.arraycopy(body, 0, bs, 11, body.length);
+		
+		int sum = 0;
+		for ( int i = 1; i < bs.length - 2; ++i ) {
+			sum += (bs[i] & 0xFF);
+		}
+		
+		bs[bs.length - 2] = (byte)(sum >> 8);
+		bs[bs.length - 1] = (byte)sum;
+		
+		return bs;
+	}
+	
+	private static byte takeByte(BlockingQueue<Byte> bytes, long milliSeconds) throws InterruptedException {
+		
+		final Byte b = bytes.poll(milliSeconds, TimeUnit.MILLISECONDS);
+		
+		TestAssert.assertTrue("byte received", b != null);
+		
+		return b.byteValue();
+	}
+	
+	private static void sendRawBlock(Secs1EmulatedLine.Port port, BlockingQueue<Byte> bytes, byte[] block) throws InterruptedException {
+		port.write(new byte[] {ENQ});
+		TestAssert.assertEquals("EOT", EOT, takeByte(bytes, 1000L));
+		port.write(block);
+		TestAssert.assertEquals("ACK", ACK, takeByte(bytes, 1000L));
+	}
+	
+	private static void partialNotDelayReply() throws Exception {
+		
+		final Secs1EmulatedLineConfig lc = new Secs1EmulatedLineConfig();
+		lc.baudRate(115200);
+		
+		final Secs1CommunicatorConfig ec = config(true);
+		ec.timeout().t4(3.0F);
+		
+		final BlockingQueue<Byte> bytes = new LinkedBlockingQueue<>();
+		
+		try (
+				Secs1EmulatedLine line = Secs1EmulatedLine.newInstance(lc);
+				Secs1OnEmulatedLineCommunicator equip = Secs1OnEmulatedLineCommunicator.newInstance(ec, line.portB());
+				) {
+			
+			equip.addSecsMessageReceiveListener(msg -> {
+				try {
+					equip.send(msg, msg.getStream(), msg.getFunction() + 1, false, Secs2.empty());
+				}
+				catch ( SecsException ignore ) {
+				}
+				catch ( InterruptedException ignore ) {
+				}
+			});
+			
+			line.portA().attach(bs -> {
+				for ( byte b : bs ) {
+					bytes.put(b);
+				}
+			});
+			
+			equip.open();
+			
+			/* first block of 2 blocks message, second block never comes */
+			sendRawBlock(line.portA(), bytes, rawBlock(true, 6, 11, false, 1, 100, new byte[244]));
+			
+			/* complete W-bit primary of other System-Bytes */
+			sendRawBlock(line.portA(), bytes, rawBlock(true, 1, 1, true, 1, 101, new byte[0]));
+			
+			final long acked = System.nanoTime();
+			
+			/* reply is sended before T4 of partial message */
+			TestAssert.assertEquals("reply ENQ", ENQ, takeByte(bytes, 1500L));
+			TestAssert.assertTrue("before T4", (System.nanoTime() - acked) < TimeUnit.MILLISECONDS.toNanos(1500L));
+			
+			line.portA().write(new byte[] {EOT});
+			
+			final byte[] reply = new byte[(takeByte(bytes, 1000L) & 0xFF) + 2];
+			for ( int i = 0; i < reply.length; ++i ) {
+				reply[i] = takeByte(bytes, 1000L);
+			}
+			
+			line.portA().write(new byte[] {ACK});
+			
+			TestAssert.assertEquals("R-bit and Device-ID", (byte)0x80, reply[0]);
+			TestAssert.assertEquals("S1", (byte)1, reply[2]);
+			TestAssert.assertEquals("F2", (byte)2, reply[3]);
+			TestAssert.assertEquals("System-Bytes", (byte)101, reply[9]);
+			
+			/* partial message expires while idle */
+			for ( int i = 0; i < 100 && equip.circuitMetrics().getT4Timeouts() == 0L; ++i ) {
+				TimeUnit.MILLISECONDS.sleep(50L);
+			}
+			
+			TestAssert.assertEquals("T4 timeout", 1L, equip.circuitMetrics().getT4Timeouts());
+			TestAssert.assertEquals("received", 1L, equip.circuitMetrics().getMessagesReceived());
+		}
+	}
+	
+	private static void benchmark() throws Exception {
+		
+		final Secs1EmulatedLineConfig lc = new Secs1EmulatedLineConfig();
+		lc.baudRate(115200);
+		
+		final Secs1EmulatedLineBenchmark.Result r = Secs1EmulatedLineBenchmark.run(lc, config(false), config(true), 5, 1000);
+		
+		/* 1003 bytes is 5 blocks, reply is 1 block */
+		TestAssert.assertEquals("completed", 5, r.completedMessages());
+		TestAssert.assertEquals("failed", 0, r.failedMessages());
+		TestAssert.assertEquals("blocks sended", 5L * 6L, r.blocksSended());
+		TestAssert.assertEquals("blocks received", 5L * 6L, r.blocksReceived());
+		TestAssert.assertEquals("retries", 0L, r.retries());
+		TestAssert.assertTrue("elapsed", r.elapsedSeconds() > 0.0D);
+		TestAssert.assertTrue("throughput", r.messagesPerSecond() > 0.0D && r.blocksPerSecond() > 0.0D);
+		TestAssert.assertTrue("row", r.toString().length() > 0 && Secs1EmulatedLineBenchmark.Result.header().length() > 0);
+	}
+	
+}
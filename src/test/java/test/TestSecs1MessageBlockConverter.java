@@ -0,0 +1,313 @@
+package test;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import com.shimizukenta.secs.secs1.Secs1Message;
+import com.shimizukenta.secs.secs1.Secs1MessageBlock;
+import com.shimizukenta.secs.secs1.Secs1MessageBlockConverter;
+import com.shimizukenta.secs.secs1.Secs1TooBigSendMessageException;
+import com.shimizukenta.secs.secs2.Secs2;
+import com.shimizukenta.secs.secs2.Secs2BytesEncoder;
+import com.shimizukenta.secs.secs2.Secs2BytesPackBuilder;
+import com.shimizukenta.secs.secs2.Secs2BytesParseException;
+import com.shimizukenta.secs.secs2.Secs2BytesParser;
+
+/**
+ * Tests of SECS-I block frames and parsing across block bodies.
+ * 
+ * @author kenta-shimizu
+ *
+ */
+public class TestSecs1MessageBlockConverter {
+	
+	private static final Secs2BytesParser parser = Secs2BytesParser.getInstance();
+	
+	private static final byte[] head = new byte[] {
+			(byte)0x80, (byte)0x0A, (byte)0x86, (byte)0x0B, (byte)0x00,
+			(byte)0x00, (byte)0x12, (byte)0x34, (byte)0x56, (byte)0x78
+	};
+	
+	public TestSecs1MessageBlockConverter() {
+		/* Nothing */
+	}
+	
+	public static void main(String[] args) throws Exception {
+		
+		TestAssert.run("same frames as block-split bytes", TestSecs1MessageBlockConverter::sameFrames);
+		TestAssert.run("block headers and checksum", TestSecs1MessageBlockConverter::headersAndChecksum);
+		TestAssert.run("round trip", TestSecs1MessageBlockConverter::roundTrip);
+		TestAssert.run("too big message", TestSecs1MessageBlockConverter::tooBig);
+		TestAssert.run("parse across buffers", TestSecs1MessageBlockConverter::parseAcrossBuffers);
+		TestAssert.run("parse across buffers, broken length", TestSecs1MessageBlockConverter::brokenLength);
+		TestAssert.run("broken block bodies", TestSecs1MessageBlockConverter::brokenBlockBodies);
+		
+		System.exit(0);
+	}
+	
+	private static List<Secs2> bodies() {
+		
+		final List<Secs2> ll = new ArrayList<>();
+		
+		ll.add(Secs2.empty());
+		ll.add(Secs2.list());
+		ll.add(Secs2.ascii("ABC"));
+		
+		/* around block body size 244 */
+		for ( int n : new int[] {240, 241, 242, 243, 244, 245, 485, 486, 487, 488, 1000} ) {
+			ll.add(Secs2.binary(new byte[n]));
+		}
+		
+		final List<Secs2> items = new ArrayList<>();
+		for ( int i = 0; i < 300; ++i ) {
+			items.add(Secs2.list(Secs2.uint4(i), Secs2.ascii("V" + i), Secs2.bool(i % 2 == 0)));
+		}
+		ll.add(Secs2.list(items));
+		
+		final byte[] bs = new byte[70000];
+		for ( int i = 0; i < bs.length; ++i ) {
+			bs[i] = (byte)(i * 7);
+		}
+		ll.add(Secs2.list(Secs2.binary(bs), Secs2.float8(1.5D, -2.5D)));
+		
+		return ll;
+	}
+	
+	/**
+	 * Reference frame, length byte, header, body and checksum.
+	 * 
+	 * @param body
+	 * @param ebit
+	 * @param blockNumber
+	 * @return frame bytes
+	 */
+	private static byte[] frame(byte[] body, boolean ebit, int blockNumber) {
+		
+		final byte[] bs = new byte[body.length + 13];
+		
+		bs[0] = (byte)(body.length + 10);
+		System.arraycopy(head, 0, bs, 1, 10);
+		bs[5] = (byte)(((blockNumber >> 8) & 0x7F) | (ebit ? 0x80 : 0x00));
+		bs[6] = (byte)blockNumber;
+		System.arraycopy(body, 0, bs, 11, body.length);
+		
+		int sum = 0;
+		for ( int i = 1; i < bs.length - 2; ++i ) {
+			sum += bs[i] & 0xFF;
+		}
+		
+		bs[bs.length - 2] = (byte)(sum >> 8);
+		bs[bs.length - 1] = (byte)sum;
+		
+		return bs;
+	}
+	
+	private static void sameFrames() throws Exception {
+		
+		for ( Secs2 body : bodies() ) {
+			
+			final List<byte[]> expected = Secs2BytesPackBuilder.build(244, body).getBytes();
+			final List<Secs1MessageBlock> blocks = Secs1MessageBlockConverter.toBlocks(new Secs1Message(head, body));
+			
+			final String name = body.secs2Item() + " [" + body.size() + "]";
+			
+			TestAssert.assertEquals("block count " + name, expected.size(), blocks.size());
+			
+			for ( int i = 0, m = blocks.size(); i < m; ++i ) {
+				TestAssert.assertArrayEquals(
+						"frame " + i + " " + name,
+						frame(expected.get(i), i == m - 1, i + 1),
+						blocks.get(i).getBytes());
+			}
+		}
+	}
+	
+	private static void headersAndChecksum() throws Exception {
+		
+		final List<Secs1MessageBlock> blocks = Secs1MessageBlockConverter.toBlocks(new Secs1Message(head, Secs2.binary(new byte[1000])));
+		
+		/* 1003 bytes is 5 blocks */
+		TestAssert.assertEquals("blocks", 5, blocks.size());
+		
+		for ( int i = 0; i < 5; ++i ) {
+			
+			final Secs1MessageBlock b = blocks.get(i);
+			
+			TestAssert.assertEquals("block number", i + 1, b.blockNumber());
+			TestAssert.assertEquals("ebit", i == 4, b.ebit());
+			TestAssert.assertEquals("isFirst", i == 0, b.isFirst());
+			TestAssert.assertTrue("sumCheck", b.sumCheck());
+			TestAssert.assertEquals("device-id", 10, b.deviceId());
+			TestAssert.assertEquals("system-bytes", 0x12345678, b.systemBytesKey().intValue());
+			TestAssert.assertEquals("length byte", (i == 4 ? (1003 - 244 * 4) : 244) + 10, b.getBytes()[0] & 0xFF);
+			
+			if ( i > 0 ) {
+				TestAssert.assertTrue("next", blocks.get(i - 1).isNextBlock(b));
+			}
+		}
+		
+		/* frames are not shared with getBytes */
+		final byte[] bs = blocks.get(0).getBytes();
+		bs[20] = (byte)0x55;
+		TestAssert.assertTrue("still sumCheck", blocks.get(0).sumCheck());
+		
+		/* cached in message */
+		final Secs1Message msg = new Secs1Message(head, Secs2.ascii("CACHE"));
+		TestAssert.assertTrue("cached", msg.toBlocks() == msg.toBlocks());
+	}
+	
+	private static void roundTrip() throws Exception {
+		
+		for ( Secs2 body : bodies() ) {
+			
+			final List<Secs1MessageBlock> blocks = Secs1MessageBlockConverter.toBlocks(new Secs1Message(head, body));
+			
+			/* received blocks are copied from frames */
+			final List<Secs1MessageBlock> received = new ArrayList<>();
+			for ( Secs1MessageBlock b : blocks ) {
+				received.add(new Secs1MessageBlock(b.getBytes()));
+			}
+			
+			final Secs1Message msg = Secs1MessageBlockConverter.toSecs1Message(received);
+			
+			TestAssert.assertEquals("body", body, msg.secs2());
+			TestAssert.assertEquals("stream", 6, msg.getStream());
+			TestAssert.assertEquals("function", 11, msg.getFunction());
+			TestAssert.assertTrue("wbit", msg.wbit());
+			TestAssert.assertArrayEquals("encoded", Secs2BytesEncoder.getInstance().encode(body), Secs2BytesEncoder.getInstance().encode(msg.secs2()));
+		}
+	}
+	
+	private static void tooBig() throws Exception {
+		
+		/* 0x7FFE blocks is max */
+		final Secs2 body = Secs2.binary(new byte[244 * 0x7FFE]);
+		
+		TestAssert.assertThrows("too big", Secs1TooBigSendMessageException.class, () -> {
+			Secs1MessageBlockConverter.toBlocks(new Secs1Message(head, body));
+		});
+	}
+	
+	private static ByteBuffer[] split(byte[] bs, int... points) {
+		
+		final ByteBuffer[] buffers = new ByteBuffer[points.length + 1];
+		
+		int pos = 0;
+		for ( int i = 0; i < points.length; ++i ) {
+			buffers[i] = ByteBuffer.wrap(bs, pos, points[i] - pos);
+			pos = points[i];
+		}
+		
+		buffers[points.length] = ByteBuffer.wrap(bs, pos, bs.length - pos);
+		
+		return buffers;
+	}
+	
+	private static void parseAcrossBuffers() throws Exception {
+		
+		final Secs2 ss = Secs2.list(
+				Secs2.ascii("ACROSS"),
+				Secs2.list(Secs2.uint4(1L, 2L, 0xFFFFFFFFL), Secs2.binary(new byte[300])),
+				Secs2.float4(0.5F),
+				Secs2.list());
+				
+		final byte[] bs = Secs2BytesEncoder.getInstance().encode(ss);
+		
+		/* split at every position */
+		for ( int p = 0; p <= bs.length; ++p ) {
+			TestAssert.assertEquals("split at " + p, ss, parser.parse(split(bs, p)));
+		}
+		
+		/* each byte in own buffer, with empty buffers */
+		final ByteBuffer[] buffers = new ByteBuffer[bs.length * 2];
+		for ( int i = 0; i < bs.length; ++i ) {
+			buffers[i * 2] = ByteBuffer.allocate(0);
+			buffers[i * 2 + 1] = ByteBuffer.wrap(bs, i, 1);
+		}
+		
+		TestAssert.assertEquals("byte by byte", ss, parser.parse(buffers));
+		
+		/* read-only direct buffers */
+		final ByteBuffer direct = ByteBuffer.allocateDirect(bs.length);
+		direct.put(bs).flip();
+		final ByteBuffer a = direct.duplicate();
+		a.limit(100);
+		final ByteBuffer b = direct.duplicate();
+		b.position(100);
+		
+		TestAssert.assertEquals("direct", ss, parser.parse(new ByteBuffer[] {a.asReadOnlyBuffer(), b.asReadOnlyBuffer()}));
+		
+		/* parsed items do not share buffers */
+		final byte[] cs = Arrays.copyOf(bs, bs.length);
+		final Secs2 parsed = parser.parse(split(cs, 10, 20));
+		Arrays.fill(cs, (byte)0);
+		TestAssert.assertEquals("not shared", ss, parsed);
+		
+		/* no bytes */
+		TestAssert.assertEquals("no buffers", Secs2.empty(), parser.parse(new ByteBuffer[0]));
+		TestAssert.assertEquals("empty buffers", Secs2.empty(), parser.parse(new ByteBuffer[] {ByteBuffer.allocate(0), ByteBuffer.allocate(0)}));
+	}
+	
+	private static void brokenLength() throws Exception {
+		
+		/* 3 length-bytes of 0xFFFFFF, but only few bytes follow */
+		final byte[] huge = new byte[] {(byte)0x23, (byte)0xFF, (byte)0xFF, (byte)0xFF, 1, 2, 3, 4, 5};
+		
+		for ( int p = 0; p <= huge.length; ++p ) {
+			
+			final ByteBuffer[] buffers = split(huge, p);
+			
+			TestAssert.assertThrows("huge length split at " + p, Secs2BytesParseException.class, () -> {
+				parser.parse(buffers);
+			});
+		}
+		
+		/* length over by one byte, across buffers */
+		final byte[] bs = Secs2BytesEncoder.getInstance().encode(Secs2.binary(new byte[500]));
+		final byte[] over = Arrays.copyOf(bs, bs.length - 1);
+		
+		TestAssert.assertThrows("over by one", Secs2BytesParseException.class, () -> {
+			parser.parse(split(over, 100, 200, 300));
+		});
+		
+		/* broken item in list, after valid items */
+		final byte[] inList = new byte[] {
+				(byte)0x01, (byte)0x02,
+				(byte)0x21, (byte)0x01, (byte)0x05,
+				(byte)0xB1, (byte)0xFF, 0, 0, 0, 1};
+				
+		TestAssert.assertThrows("broken in list", Secs2BytesParseException.class, () -> {
+			parser.parse(split(inList, 4, 7));
+		});
+		
+		/* list of 0xFFFFFF items */
+		final byte[] list = new byte[] {(byte)0x03, (byte)0xFF, (byte)0xFF, (byte)0xFF, (byte)0x01, (byte)0x00};
+		
+		TestAssert.assertThrows("huge list", Secs2BytesParseException.class, () -> {
+			parser.parse(split(list, 3));
+		});
+		
+		/* remaining bytes after item */
+		final byte[] rest = Arrays.copyOf(bs, bs.length + 2);
+		
+		TestAssert.assertThrows("not reach end", Secs2BytesParseException.class, () -> {
+			parser.parse(split(rest, 250));
+		});
+	}
+	
+	private static void brokenBlockBodies() throws Exception {
+		
+		/* first block claims 1000 bytes binary, but single block */
+		final byte[] body = new byte[] {(byte)0x22, (byte)0x03, (byte)0xE8, 1, 2, 3};
+		
+		final List<Secs1MessageBlock> blocks = new ArrayList<>();
+		blocks.add(new Secs1MessageBlock(frame(body, true, 1)));
+		
+		TestAssert.assertThrows("broken", Secs2BytesParseException.class, () -> {
+			Secs1MessageBlockConverter.toSecs1Message(blocks);
+		});
+	}
+	
+}
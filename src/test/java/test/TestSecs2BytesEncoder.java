@@ -0,0 +1,207 @@
+package test;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import com.shimizukenta.secs.secs2.Secs2;
+import com.shimizukenta.secs.secs2.Secs2BuildException;
+import com.shimizukenta.secs.secs2.Secs2BytesEncoder;
+import com.shimizukenta.secs.secs2.Secs2BytesPackBuilder;
+import com.shimizukenta.secs.secs2.Secs2BytesParser;
+import com.shimizukenta.secs.secs2.Secs2Item;
+import com.shimizukenta.secssimulator.extendsml.ExtendSmlDataItemParser;
+
+/**
+ * Tests of one pass encoding of SECS-II.
+ * 
+ * @author kenta-shimizu
+ *
+ */
+public class TestSecs2BytesEncoder {
+	
+	private static final Secs2BytesEncoder encoder = Secs2BytesEncoder.getInstance();
+	
+	public TestSecs2BytesEncoder() {
+		/* Nothing */
+	}
+	
+	public static void main(String[] args) throws Exception {
+		
+		TestAssert.run("same bytes as pack builder", TestSecs2BytesEncoder::sameAsPackBuilder);
+		TestAssert.run("length byte boundaries", TestSecs2BytesEncoder::lengthByteBoundaries);
+		TestAssert.run("direct buffer and position", TestSecs2BytesEncoder::directBuffer);
+		TestAssert.run("buffer too small", TestSecs2BytesEncoder::bufferTooSmall);
+		TestAssert.run("lazy view", TestSecs2BytesEncoder::lazyView);
+		TestAssert.run("NOW item", TestSecs2BytesEncoder::nowItem);
+		TestAssert.run("auto number item", TestSecs2BytesEncoder::autoNumberItem);
+		
+		System.exit(0);
+	}
+	
+	private static byte[] packBuilderBytes(Secs2 ss) throws Exception {
+		
+		final ByteArrayOutputStream os = new ByteArrayOutputStream();
+		
+		for ( byte[] bs : Secs2BytesPackBuilder.build(1024, ss).getBytes() ) {
+			os.write(bs);
+		}
+		
+		return os.toByteArray();
+	}
+	
+	private static void assertEncode(String message, Secs2 ss) throws Exception {
+		
+		final byte[] expected = packBuilderBytes(ss);
+		final byte[] bs = encoder.encode(ss);
+		
+		TestAssert.assertArrayEquals(message, expected, bs);
+		TestAssert.assertEquals(message + " length", (long)(bs.length), encoder.encodedLength(ss));
+		
+		if ( bs.length > 0 ) {
+			TestAssert.assertEquals(message + " parse", ss, Secs2BytesParser.getInstance().parse(ByteBuffer.wrap(bs)));
+		}
+	}
+	
+	private static void sameAsPackBuilder() throws Exception {
+		
+		assertEncode("empty", Secs2.empty());
+		assertEncode("empty list", Secs2.list());
+		assertEncode("empty ascii", Secs2.ascii(""));
+		
+		/* raw bytes as is */
+		final byte[] raw = new byte[] {(byte)0x41, (byte)0x01, (byte)'R'};
+		TestAssert.assertArrayEquals("raw", raw, encoder.encode(Secs2.raw(raw)));
+		TestAssert.assertEquals("raw length", 3L, encoder.encodedLength(Secs2.raw(raw)));
+		TestAssert.assertArrayEquals("raw pack builder", packBuilderBytes(Secs2.raw(raw)), encoder.encode(Secs2.raw(raw)));
+		
+		assertEncode("tree", Secs2.list(
+				Secs2.ascii("ABC"),
+				Secs2.list(Secs2.uint4(1, 2, 3), Secs2.int8(-1L)),
+				Secs2.bool(true, false),
+				Secs2.binary((byte)0x01, (byte)0x02),
+				Secs2.float4(1.5F),
+				Secs2.float8(-2.5D),
+				Secs2.list(Secs2.list(Secs2.list()))));
+	}
+	
+	private static void lengthByteBoundaries() throws Exception {
+		
+		final int[] sizes = new int[] {0xFF, 0x100, 0xFFFF, 0x10000, 0x10001};
+		
+		for ( int n : sizes ) {
+			
+			final Secs2 ss = Secs2.binary(new byte[n]);
+			final byte[] bs = encoder.encode(ss);
+			
+			final int lengthBytes = n > 0xFFFF ? 3 : (n > 0xFF ? 2 : 1);
+			
+			TestAssert.assertEquals("binary " + n, 1 + lengthBytes + n, bs.length);
+			TestAssert.assertEquals("format byte " + n, 0x20 | lengthBytes, bs[0] & 0xFF);
+			assertEncode("binary " + n, ss);
+		}
+		
+		/* list of 256 items, 2 length bytes */
+		final List<Secs2> ll = new ArrayList<>();
+		
+		for ( int i = 0; i < 256; ++i ) {
+			ll.add(Secs2.uint1(i));
+		}
+		
+		final Secs2 list = Secs2.list(ll);
+		
+		TestAssert.assertEquals("list format byte", 0x02, encoder.encode(list)[0] & 0xFF);
+		TestAssert.assertEquals("list length", 3L + 256L * 3L, encoder.encodedLength(list));
+		assertEncode("list 256", list);
+	}
+	
+	private static void directBuffer() throws Exception {
+		
+		final Secs2 ss = Secs2.list(Secs2.ascii("DIRECT"), Secs2.uint2(1, 2));
+		final byte[] expected = encoder.encode(ss);
+		
+		final ByteBuffer buffer = ByteBuffer.allocateDirect(expected.length + 10);
+		buffer.position(5);
+		
+		encoder.encode(ss, buffer);
+		
+		TestAssert.assertEquals("position", 5 + expected.length, buffer.position());
+		
+		final byte[] bs = new byte[expected.length];
+		buffer.position(5);
+		buffer.get(bs);
+		
+		TestAssert.assertArrayEquals("bytes", expected, bs);
+	}
+	
+	private static void bufferTooSmall() throws Exception {
+		
+		final Secs2 ss = Secs2.binary(new byte[100]);
+		final ByteBuffer buffer = ByteBuffer.allocate(101);
+		
+		TestAssert.assertThrows("too small", Secs2BuildException.class, () -> {
+			encoder.encode(ss, buffer);
+		});
+		
+		TestAssert.assertEquals("position not moved", 0, buffer.position());
+		
+		/* exact size */
+		final ByteBuffer exact = ByteBuffer.allocate(102);
+		encoder.encode(ss, exact);
+		TestAssert.assertFalse("filled", exact.hasRemaining());
+	}
+	
+	private static void lazyView() throws Exception {
+		
+		final Secs2 ss = Secs2.list(Secs2.ascii("LAZY"), Secs2.list(Secs2.int4(7)), Secs2.binary(new byte[300]));
+		final byte[] bs = encoder.encode(ss);
+		
+		final Secs2 lazy = Secs2BytesParser.getInstance().parseLazy(ByteBuffer.wrap(bs));
+		
+		TestAssert.assertEquals("length", (long)(bs.length), encoder.encodedLength(lazy));
+		TestAssert.assertArrayEquals("bytes", bs, encoder.encode(lazy));
+		TestAssert.assertArrayEquals("in list", encoder.encode(Secs2.list(ss)), encoder.encode(Secs2.list(lazy)));
+	}
+	
+	private static void nowItem() throws Exception {
+		
+		for ( int n : new int[] {12, 16} ) {
+			
+			final Secs2 now = ExtendSmlDataItemParser.getInstance().parse("<NOW [" + n + "]>");
+			
+			TestAssert.assertEquals("length " + n, (long)(2 + n), encoder.encodedLength(now));
+			
+			final byte[] bs = encoder.encode(Secs2.list(now));
+			final Secs2 r = Secs2BytesParser.getInstance().parse(ByteBuffer.wrap(bs));
+			
+			TestAssert.assertEquals("item " + n, Secs2Item.ASCII, r.get(0).secs2Item());
+			TestAssert.assertEquals("size " + n, n, r.getAscii(0).length());
+			TestAssert.assertTrue("digits " + n, r.getAscii(0).chars().allMatch(Character::isDigit));
+		}
+	}
+	
+	private static void autoNumberItem() throws Exception {
+		
+		final String[] types = new String[] {"U4AUTO", "I4AUTO", "U8AUTO", "I8AUTO"};
+		
+		for ( String t : types ) {
+			
+			final Secs2 auto = ExtendSmlDataItemParser.getInstance().parse("<" + t + ">");
+			final boolean eight = t.endsWith("8AUTO");
+			
+			/* sizing does not count up */
+			for ( int i = 0; i < 3; ++i ) {
+				TestAssert.assertEquals(t + " length", eight ? 10L : 6L, encoder.encodedLength(auto));
+			}
+			
+			final Secs2 a = Secs2BytesParser.getInstance().parse(ByteBuffer.wrap(encoder.encode(auto)));
+			final Secs2 b = Secs2BytesParser.getInstance().parse(ByteBuffer.wrap(encoder.encode(Secs2.list(auto))));
+			
+			TestAssert.assertEquals(t + " next", a.getLong(0) + 1L, b.getLong(0, 0));
+			TestAssert.assertFalse(t + " bytes differ", Arrays.equals(encoder.encode(auto), encoder.encode(auto)));
+		}
+	}
+	
+}
@@ -0,0 +1,211 @@
+package test;
+
+import java.util.Arrays;
+import java.util.List;
+
+import com.shimizukenta.secs.SecsMessage;
+import com.shimizukenta.secs.secs2.Secs2;
+import com.shimizukenta.secs.secs2.Secs2BuildException;
+import com.shimizukenta.secs.secs2.Secs2BytesEncoder;
+import com.shimizukenta.secs.secs2.Secs2Encoded;
+import com.shimizukenta.secs.secs2.Secs2Exception;
+import com.shimizukenta.secs.secs2.Secs2Item;
+import com.shimizukenta.secs.secs2.Secs2LazyBytes;
+import com.shimizukenta.secs.secs2.Secs2Path;
+import com.shimizukenta.secs.sml.SmlMessage;
+import com.shimizukenta.secs.sml.SmlMessageParser;
+import com.shimizukenta.secssimulator.SmlAliasPair;
+import com.shimizukenta.secssimulator.SmlAliasPairPool;
+import com.shimizukenta.secssimulator.extendsml.ExtendSmlMessageParser;
+
+/**
+ * Tests of pre-encoded SECS-II and patchable fields.
+ * 
+ * @author kenta-shimizu
+ *
+ */
+public class TestSecs2Encoded {
+	
+	private static final Secs2 tree = Secs2.list(
+			Secs2.binary((byte)0x00),
+			Secs2.list(Secs2.ascii("2024010112000000"), Secs2.uint4(1, 2)),
+			Secs2.list());
+			
+	public TestSecs2Encoded() {
+		/* Nothing */
+	}
+	
+	public static void main(String[] args) throws Exception {
+		
+		TestAssert.run("encode once", TestSecs2Encoded::encodeOnce);
+		TestAssert.run("not encodable", TestSecs2Encoded::notEncodable);
+		TestAssert.run("patch field", TestSecs2Encoded::patchField);
+		TestAssert.run("patch errors", TestSecs2Encoded::patchErrors);
+		TestAssert.run("SML parser returns tree", TestSecs2Encoded::smlParserReturnsTree);
+		TestAssert.run("alias pair pool pre-encodes", TestSecs2Encoded::aliasPairPool);
+		TestAssert.run("send pre-encoded", () -> sendPreEncoded(24701));
+		
+		System.exit(0);
+	}
+	
+	private static void encodeOnce() throws Exception {
+		
+		final Secs2Encoded e = Secs2Encoded.of(tree);
+		
+		TestAssert.assertEquals("equals", tree, e);
+		TestAssert.assertEquals("hashCode", tree.hashCode(), e.hashCode());
+		TestAssert.assertEquals("SML", tree.toString(), e.toString());
+		TestAssert.assertArrayEquals("bytes", Secs2BytesEncoder.getInstance().encode(tree), Secs2BytesEncoder.getInstance().encode(e));
+		TestAssert.assertEquals("read value", 2, e.getInt(1, 1, 1));
+		TestAssert.assertTrue("same instance", Secs2Encoded.of(e) == e);
+		TestAssert.assertTrue("read-only buffer", e.asReadOnlyBuffer().isReadOnly());
+		TestAssert.assertEquals("buffer remaining", (int)(Secs2BytesEncoder.getInstance().encodedLength(tree)), e.asReadOnlyBuffer().remaining());
+		
+		/* leaf */
+		TestAssert.assertEquals("leaf", Secs2.ascii("A"), Secs2Encoded.of(Secs2.ascii("A")));
+	}
+	
+	private static void notEncodable() throws Exception {
+		
+		TestAssert.assertFalse("empty", Secs2Encoded.isEncodable(Secs2.empty()));
+		
+		TestAssert.assertThrows("empty", Secs2BuildException.class, () -> {
+			Secs2Encoded.of(Secs2.empty());
+		});
+		
+		final SmlMessage sm = ExtendSmlMessageParser.getInstance().parse("S1F2 <L <NOW [16]> <U4AUTO>>.");
+		
+		TestAssert.assertFalse("dynamic", Secs2Encoded.isEncodable(sm.secs2()));
+		TestAssert.assertFalse("dynamic in list", Secs2Encoded.isEncodable(Secs2.list(Secs2.ascii("A"), sm.secs2())));
+		TestAssert.assertTrue("encodable", Secs2Encoded.isEncodable(tree));
+	}
+	
+	private static void patchField() throws Exception {
+		
+		final Secs2Encoded e = Secs2Encoded.of(tree);
+		
+		final Secs2Encoded.Field ack = e.field(0);
+		final Secs2Encoded.Field clock = e.field(Secs2Path.of(1, 0));
+		
+		TestAssert.assertEquals("ack item", Secs2Item.BINARY, ack.secs2Item());
+		TestAssert.assertEquals("ack length", 1, ack.length());
+		TestAssert.assertEquals("clock length", 16, clock.length());
+		
+		final Secs2Encoded p = e.patch(ack, Secs2.binary((byte)0x02)).patch(clock, Secs2.ascii("2025123123595999"));
+		
+		TestAssert.assertEquals("patched", Secs2.list(
+				Secs2.binary((byte)0x02),
+				Secs2.list(Secs2.ascii("2025123123595999"), Secs2.uint4(1, 2)),
+				Secs2.list()), p);
+				
+		/* template not changed */
+		TestAssert.assertEquals("template", tree, e);
+		TestAssert.assertEquals("template ack", (byte)0x00, e.getByte(0, 0));
+		
+		/* field of template is applicable to patched */
+		TestAssert.assertEquals("patch patched", (byte)0x03, p.patch(ack, Secs2.binary((byte)0x03)).getByte(0, 0));
+		TestAssert.assertEquals("patch U4", 9, e.patch(e.field(1, 1), Secs2.uint4(9, 8)).getInt(1, 1, 0));
+	}
+	
+	private static void patchErrors() throws Exception {
+		
+		final Secs2Encoded e = Secs2Encoded.of(tree);
+		final Secs2Encoded.Field ack = e.field(0);
+		
+		TestAssert.assertThrows("item not matched", Secs2BuildException.class, () -> {
+			e.patch(ack, Secs2.uint1(1));
+		});
+		
+		TestAssert.assertThrows("length not matched", Secs2BuildException.class, () -> {
+			e.patch(ack, Secs2.binary((byte)0x01, (byte)0x02));
+		});
+		
+		TestAssert.assertThrows("other template", Secs2BuildException.class, () -> {
+			Secs2Encoded.of(tree.get(1)).patch(ack, Secs2.binary((byte)0x01));
+		});
+		
+		TestAssert.assertThrows("LIST field", Secs2Exception.class, () -> {
+			e.field(1);
+		});
+		
+		TestAssert.assertThrows("index over", Secs2Exception.class, () -> {
+			e.field(3);
+		});
+		
+		TestAssert.assertThrows("not list", Secs2Exception.class, () -> {
+			e.field(0, 0);
+		});
+		
+		TestAssert.assertThrows("null value", NullPointerException.class, () -> {
+			e.patch(ack, null);
+		});
+	}
+	
+	private static void smlParserReturnsTree() throws Exception {
+		
+		final SmlMessage sm = SmlMessageParser.getInstance().parse("S1F2 <L <B 0x00> <L <A \"2024010112000000\"> <U4 1 2>> <L>>.");
+		
+		TestAssert.assertFalse("not pre-encoded", sm.secs2() instanceof Secs2Encoded);
+		TestAssert.assertFalse("not lazy view", sm.secs2() instanceof Secs2LazyBytes);
+		TestAssert.assertEquals("tree", tree, sm.secs2());
+		
+		final SmlMessage ex = ExtendSmlMessageParser.getInstance().parse("S1F2 <A \"X\">.");
+		TestAssert.assertFalse("extend not pre-encoded", ex.secs2() instanceof Secs2Encoded);
+	}
+	
+	private static void aliasPairPool() throws Exception {
+		
+		final SmlMessageParser parser = ExtendSmlMessageParser.getInstance();
+		final SmlAliasPairPool pool = new SmlAliasPairPool();
+		
+		final SmlMessage reply = parser.parse("S1F2 W <L <B 0x00> <L <A \"2024010112000000\"> <U4 1 2>> <L>>.");
+		pool.add("reply", reply);
+		
+		final List<SmlMessage> rr = pool.getReplyMessages(1, 2);
+		
+		TestAssert.assertEquals("reply count", 1, rr.size());
+		TestAssert.assertTrue("pre-encoded", rr.get(0).secs2() instanceof Secs2Encoded);
+		TestAssert.assertEquals("same value", reply.secs2(), rr.get(0).secs2());
+		TestAssert.assertEquals("same SML", reply.toString(), rr.get(0).toString());
+		TestAssert.assertTrue("wbit", rr.get(0).wbit());
+		TestAssert.assertTrue("alias", pool.optionalAlias("reply").get().secs2() instanceof Secs2Encoded);
+		TestAssert.assertTrue("only one", pool.optionalOnlyOneStreamFunction(1, 2).get().secs2() instanceof Secs2Encoded);
+		
+		/* dynamic and empty stay as parsed */
+		pool.addAll(Arrays.asList(
+				new SmlAliasPair("now", parser.parse("S2F18 <NOW [16]>."), null),
+				new SmlAliasPair("empty", parser.parse("S1F14."), null)));
+				
+		TestAssert.assertFalse("dynamic", pool.optionalAlias("now").get().secs2() instanceof Secs2Encoded);
+		TestAssert.assertEquals("dynamic size", 16, pool.optionalAlias("now").get().secs2().getAscii().length());
+		TestAssert.assertTrue("empty", pool.optionalAlias("empty").get().secs2().isEmpty());
+		
+		/* replace by same alias, remove */
+		pool.add("reply", parser.parse("S1F2 <A \"R\">."));
+		TestAssert.assertEquals("replaced", Secs2.ascii("R"), pool.getReplyMessages(1, 2).get(0).secs2());
+		TestAssert.assertEquals("aliases", 3, pool.aliases().size());
+		TestAssert.assertTrue("remove", pool.remove("reply"));
+		TestAssert.assertFalse("removed", pool.hasReplyMessages(1, 2));
+	}
+	
+	private static void sendPreEncoded(int port) throws Exception {
+		
+		final Secs2Encoded e = Secs2Encoded.of(tree);
+		final Secs2Encoded.Field ack = e.field(0);
+		
+		try (
+				HsmsSsLoopback lb = HsmsSsLoopback.open(port, c -> {});
+				) {
+			
+			for ( int i = 0; i < 3; ++i ) {
+				
+				final Secs2Encoded p = e.patch(ack, Secs2.binary((byte)i));
+				final SecsMessage r = lb.host.send(1, 1, true, p).get();
+				
+				TestAssert.assertEquals("echo", p, r.secs2());
+				TestAssert.assertEquals("ack", (byte)i, r.secs2().getByte(0, 0));
+			}
+		}
+	}
+	
+}
@@ -0,0 +1,161 @@
+package test;
+
+import java.nio.ByteBuffer;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+import com.shimizukenta.secs.secs2.Secs2;
+import com.shimizukenta.secs.secs2.Secs2BytesEncoder;
+import com.shimizukenta.secs.secs2.Secs2BytesParser;
+
+/**
+ * Tests of structural equals and hashCode of SECS-II items.
+ * 
+ * @author kenta-shimizu
+ *
+ */
+public class TestSecs2Equality {
+	
+	public TestSecs2Equality() {
+		/* Nothing */
+	}
+	
+	public static void main(String[] args) throws Exception {
+		
+		TestAssert.run("built and parsed", TestSecs2Equality::builtAndParsed);
+		TestAssert.run("not equal", TestSecs2Equality::notEqual);
+		TestAssert.run("boolean TRUE 0x01 and 0xFF", TestSecs2Equality::booleanTrue);
+		TestAssert.run("boolean in list and lazy view", TestSecs2Equality::booleanInList);
+		TestAssert.run("hash set and map", TestSecs2Equality::hashSetAndMap);
+		
+		System.exit(0);
+	}
+	
+	private static Secs2 parse(byte... bs) throws Exception {
+		return Secs2BytesParser.getInstance().parse(ByteBuffer.wrap(bs));
+	}
+	
+	private static Secs2 reparse(Secs2 ss) throws Exception {
+		return Secs2BytesParser.getInstance().parse(ByteBuffer.wrap(Secs2BytesEncoder.getInstance().encode(ss)));
+	}
+	
+	private static Secs2 reparseLazy(Secs2 ss) throws Exception {
+		return Secs2BytesParser.getInstance().parseLazy(ByteBuffer.wrap(Secs2BytesEncoder.getInstance().encode(ss)));
+	}
+	
+	private static void assertEqualsAndHash(String message, Object a, Object b) {
+		TestAssert.assertEquals(message, a, b);
+		TestAssert.assertEquals(message + " reverse", b, a);
+		TestAssert.assertEquals(message + " hashCode", a.hashCode(), b.hashCode());
+	}
+	
+	private static void builtAndParsed() throws Exception {
+		
+		final Secs2 ss = Secs2.list(
+				Secs2.ascii("ABC"),
+				Secs2.list(),
+				Secs2.list(Secs2.uint4(1, 2), Secs2.binary((byte)0x01)),
+				Secs2.bool(true, false),
+				Secs2.float8(1.5D));
+				
+		assertEqualsAndHash("parsed", ss, reparse(ss));
+		assertEqualsAndHash("lazy", ss, reparseLazy(ss));
+		assertEqualsAndHash("lazy and lazy", reparseLazy(ss), reparseLazy(ss));
+		assertEqualsAndHash("lazy and parsed", reparseLazy(ss), reparse(ss));
+		
+		assertEqualsAndHash("empty", Secs2.empty(), reparse(Secs2.empty()));
+		
+		/* hash cached, and equals again */
+		final int h = ss.hashCode();
+		TestAssert.assertEquals("cached hash", h, ss.hashCode());
+		TestAssert.assertEquals("self", ss, ss);
+	}
+	
+	private static void notEqual() throws Exception {
+		
+		TestAssert.assertFalse("value", Secs2.uint4(1).equals(Secs2.uint4(2)));
+		TestAssert.assertFalse("size", Secs2.uint4(1).equals(Secs2.uint4(1, 1)));
+		
+		/* same body bytes, different item */
+		TestAssert.assertFalse("I1 and B", Secs2.int1(1).equals(Secs2.binary((byte)1)));
+		TestAssert.assertFalse("I4 and U4", Secs2.int4(1).equals(Secs2.uint4(1)));
+		TestAssert.assertFalse("A and J", Secs2.ascii("A").equals(parse((byte)0x45, (byte)0x01, (byte)'A')));
+		
+		/* compared by value, not by JSON */
+		TestAssert.assertFalse("unicode", parse((byte)0x49, (byte)0x02, (byte)0x00, (byte)'A').equals(parse((byte)0x49, (byte)0x02, (byte)0x00, (byte)'B')));
+		TestAssert.assertFalse("jis8", parse((byte)0x45, (byte)0x01, (byte)'A').equals(parse((byte)0x45, (byte)0x01, (byte)'B')));
+		assertEqualsAndHash("unicode", parse((byte)0x49, (byte)0x02, (byte)0x00, (byte)'A'), parse((byte)0x49, (byte)0x02, (byte)0x00, (byte)'A'));
+		TestAssert.assertFalse("list order", Secs2.list(Secs2.int4(1), Secs2.int4(2)).equals(Secs2.list(Secs2.int4(2), Secs2.int4(1))));
+		TestAssert.assertFalse("list nested", Secs2.list(Secs2.list()).equals(Secs2.list(Secs2.list(Secs2.list()))));
+		TestAssert.assertFalse("null", Secs2.ascii("").equals(null));
+		TestAssert.assertFalse("not Secs2", Secs2.ascii("A").equals("A"));
+		
+		/* hash cached on both, and different */
+		final Secs2 a = Secs2.ascii("X");
+		final Secs2 b = Secs2.ascii("Y");
+		a.hashCode();
+		b.hashCode();
+		TestAssert.assertFalse("cached", a.equals(b));
+		
+		TestAssert.assertFalse("lazy", reparseLazy(Secs2.bool(true)).equals(reparseLazy(Secs2.bool(false))));
+	}
+	
+	private static void booleanTrue() throws Exception {
+		
+		final Secs2 one = parse((byte)0x25, (byte)0x01, (byte)0x01);
+		final Secs2 ff = parse((byte)0x25, (byte)0x01, (byte)0xFF);
+		final Secs2 other = parse((byte)0x25, (byte)0x01, (byte)0x80);
+		final Secs2 f = parse((byte)0x25, (byte)0x01, (byte)0x00);
+		
+		TestAssert.assertTrue("0x01 is TRUE", one.getBoolean(0));
+		
+		assertEqualsAndHash("0x01 and bool(true)", one, Secs2.bool(true));
+		assertEqualsAndHash("0x01 and 0xFF", one, ff);
+		assertEqualsAndHash("0x80 and 0x01", other, one);
+		assertEqualsAndHash("0x00 and bool(false)", f, Secs2.bool(false));
+		
+		TestAssert.assertFalse("TRUE and FALSE", one.equals(f));
+		TestAssert.assertFalse("FALSE and TRUE", Secs2.bool(false).equals(one));
+		TestAssert.assertFalse("size", one.equals(Secs2.bool(true, true)));
+		TestAssert.assertFalse("boolean and binary", one.equals(Secs2.binary((byte)0x01)));
+		
+		final Secs2 many = parse((byte)0x25, (byte)0x03, (byte)0x01, (byte)0x00, (byte)0x7F);
+		assertEqualsAndHash("array", many, Secs2.bool(true, false, true));
+	}
+	
+	private static void booleanInList() throws Exception {
+		
+		final Secs2 received = parse((byte)0x01, (byte)0x02, (byte)0x25, (byte)0x01, (byte)0x01, (byte)0x41, (byte)0x01, (byte)'A');
+		final Secs2 built = Secs2.list(Secs2.bool(true), Secs2.ascii("A"));
+		
+		assertEqualsAndHash("in list", received, built);
+		
+		final Secs2 lazy = Secs2BytesParser.getInstance().parseLazy(
+				ByteBuffer.wrap(new byte[] {(byte)0x25, (byte)0x02, (byte)0x01, (byte)0x00}));
+				
+		assertEqualsAndHash("lazy", lazy, Secs2.bool(true, false));
+		assertEqualsAndHash("lazy and encoded 0xFF", lazy, reparseLazy(Secs2.bool(true, false)));
+	}
+	
+	private static void hashSetAndMap() throws Exception {
+		
+		final Set<Secs2> set = new HashSet<>();
+		set.add(Secs2.bool(true));
+		set.add(Secs2.list(Secs2.uint4(1), Secs2.ascii("A")));
+		
+		TestAssert.assertTrue("contains 0x01", set.contains(parse((byte)0x25, (byte)0x01, (byte)0x01)));
+		TestAssert.assertTrue("contains 0xFF", set.contains(parse((byte)0x25, (byte)0x01, (byte)0xFF)));
+		TestAssert.assertFalse("not contains FALSE", set.contains(Secs2.bool(false)));
+		TestAssert.assertTrue("contains list", set.contains(reparse(Secs2.list(Secs2.uint4(1), Secs2.ascii("A")))));
+		TestAssert.assertFalse("add duplicate", set.add(parse((byte)0x25, (byte)0x01, (byte)0x01)));
+		TestAssert.assertEquals("size", 2, set.size());
+		
+		final Map<Secs2, String> map = new HashMap<>();
+		map.put(Secs2.list(Secs2.bool(true, false)), "V");
+		
+		TestAssert.assertEquals("map get", "V", map.get(parse((byte)0x01, (byte)0x01, (byte)0x25, (byte)0x02, (byte)0x01, (byte)0x00)));
+	}
+	
+}
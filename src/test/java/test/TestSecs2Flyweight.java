@@ -0,0 +1,257 @@
+package test;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import com.shimizukenta.secs.secs2.Secs2;
+import com.shimizukenta.secs.secs2.Secs2BytesEncoder;
+import com.shimizukenta.secs.secs2.Secs2BytesParser;
+
+/**
+ * Tests of shared instances of empty and single-byte SECS-II items.
+ * 
+ * @author kenta-shimizu
+ *
+ */
+public class TestSecs2Flyweight {
+	
+	private static final Secs2BytesEncoder encoder = Secs2BytesEncoder.getInstance();
+	private static final Secs2BytesParser parser = Secs2BytesParser.getInstance();
+	
+	public TestSecs2Flyweight() {
+		/* Nothing */
+	}
+	
+	public static void main(String[] args) throws Exception {
+		
+		TestAssert.run("empty items are shared", TestSecs2Flyweight::emptyShared);
+		TestAssert.run("single-byte items are shared", TestSecs2Flyweight::singleByteShared);
+		TestAssert.run("out of range is not shared", TestSecs2Flyweight::outOfRangeNotShared);
+		TestAssert.run("parsed items are shared", TestSecs2Flyweight::parsedShared);
+		TestAssert.run("non-normal BOOLEAN keeps bytes", TestSecs2Flyweight::nonNormalBoolean);
+		TestAssert.run("encoding and equality", TestSecs2Flyweight::encodingAndEquality);
+		TestAssert.run("not affected by source array", TestSecs2Flyweight::notAffectedBySource);
+		TestAssert.run("shared from many threads", TestSecs2Flyweight::manyThreads);
+		
+		System.exit(0);
+	}
+	
+	private static Secs2 parse(byte... bs) throws Exception {
+		return parser.parse(ByteBuffer.wrap(bs));
+	}
+	
+	private static void emptyShared() throws Exception {
+		
+		TestAssert.assertTrue("list", Secs2.list() == Secs2.list());
+		TestAssert.assertTrue("list of no values", Secs2.list() == Secs2.list(new Secs2[0]));
+		TestAssert.assertTrue("list of empty List", Secs2.list() == Secs2.list(new ArrayList<Secs2>()));
+		TestAssert.assertTrue("ascii", Secs2.ascii("") == Secs2.ascii(""));
+		TestAssert.assertTrue("binary", Secs2.binary() == Secs2.binary(new byte[0]));
+		TestAssert.assertTrue("binary of empty List", Secs2.binary() == Secs2.binary(new ArrayList<Byte>()));
+		TestAssert.assertTrue("boolean", Secs2.bool() == Secs2.bool(new boolean[0]));
+		TestAssert.assertTrue("int1", Secs2.int1() == Secs2.int1(new int[0]));
+		TestAssert.assertTrue("int2", Secs2.int2() == Secs2.int2());
+		TestAssert.assertTrue("int4", Secs2.int4() == Secs2.int4());
+		TestAssert.assertTrue("int8", Secs2.int8() == Secs2.int8());
+		TestAssert.assertTrue("uint1", Secs2.uint1() == Secs2.uint1(new long[0]));
+		TestAssert.assertTrue("uint2", Secs2.uint2() == Secs2.uint2());
+		TestAssert.assertTrue("uint4", Secs2.uint4() == Secs2.uint4());
+		TestAssert.assertTrue("uint8", Secs2.uint8() == Secs2.uint8());
+		TestAssert.assertTrue("float4", Secs2.float4() == Secs2.float4());
+		TestAssert.assertTrue("float8", Secs2.float8() == Secs2.float8());
+		
+		/* different types are different instances */
+		TestAssert.assertFalse("int2 is not int4", (Object)Secs2.int2() == (Object)Secs2.int4());
+		TestAssert.assertFalse("int2 not equals int4", Secs2.int2().equals(Secs2.int4()));
+	}
+	
+	private static void singleByteShared() throws Exception {
+		
+		for ( int i = 0; i < 256; ++i ) {
+			
+			final byte b = (byte)i;
+			
+			TestAssert.assertTrue("binary " + i, Secs2.binary(b) == Secs2.binary(b));
+			TestAssert.assertTrue("binary of List " + i, Secs2.binary(b) == Secs2.binary(Arrays.asList(Byte.valueOf(b))));
+			TestAssert.assertTrue("uint1 " + i, Secs2.uint1(i) == Secs2.uint1((long)i));
+			TestAssert.assertTrue("int1 " + (i - 128), Secs2.int1(i - 128) == Secs2.int1((long)(i - 128)));
+			
+			TestAssert.assertEquals("binary value " + i, b, Secs2.binary(b).getByte(0));
+			TestAssert.assertEquals("uint1 value " + i, i, Secs2.uint1(i).getInt(0));
+			TestAssert.assertEquals("int1 value " + (i - 128), i - 128, Secs2.int1(i - 128).getInt(0));
+		}
+		
+		TestAssert.assertTrue("true", Secs2.bool(true) == Secs2.bool(true));
+		TestAssert.assertTrue("true of List", Secs2.bool(true) == Secs2.bool(Arrays.asList(Boolean.TRUE)));
+		TestAssert.assertTrue("false", Secs2.bool(false) == Secs2.bool(false));
+		TestAssert.assertFalse("true is not false", Secs2.bool(true) == Secs2.bool(false));
+		TestAssert.assertTrue("true value", Secs2.bool(true).getBoolean(0));
+		TestAssert.assertFalse("false value", Secs2.bool(false).getBoolean(0));
+	}
+	
+	private static void outOfRangeNotShared() throws Exception {
+		
+		TestAssert.assertFalse("int1 128", Secs2.int1(128L) == Secs2.int1(128L));
+		TestAssert.assertFalse("int1 -129", Secs2.int1(-129L) == Secs2.int1(-129L));
+		TestAssert.assertFalse("uint1 256", Secs2.uint1(256L) == Secs2.uint1(256L));
+		TestAssert.assertFalse("uint1 -1", Secs2.uint1(-1L) == Secs2.uint1(-1L));
+		
+		/* multiple values are not shared */
+		TestAssert.assertFalse("binary 2 bytes", Secs2.binary((byte)1, (byte)2) == Secs2.binary((byte)1, (byte)2));
+		TestAssert.assertFalse("boolean 2 values", Secs2.bool(true, true) == Secs2.bool(true, true));
+		TestAssert.assertFalse("uint1 2 values", Secs2.uint1(1, 2) == Secs2.uint1(1, 2));
+		
+		/* other types of single value are not shared */
+		TestAssert.assertFalse("uint2 single", Secs2.uint2(1) == Secs2.uint2(1));
+		TestAssert.assertFalse("ascii single", Secs2.ascii("A") == Secs2.ascii("A"));
+	}
+	
+	private static void parsedShared() throws Exception {
+		
+		TestAssert.assertTrue("empty list", parse((byte)0x01, (byte)0x00) == Secs2.list());
+		TestAssert.assertTrue("empty ascii", parse((byte)0x41, (byte)0x00) == Secs2.ascii(""));
+		TestAssert.assertTrue("empty uint4", parse((byte)0xB1, (byte)0x00) == Secs2.uint4());
+		TestAssert.assertTrue("empty float8", parse((byte)0x81, (byte)0x00) == Secs2.float8());
+		
+		for ( int i = 0; i < 256; ++i ) {
+			
+			final byte b = (byte)i;
+			
+			TestAssert.assertTrue("binary " + i, parse((byte)0x21, (byte)0x01, b) == Secs2.binary(b));
+			TestAssert.assertTrue("uint1 " + i, parse((byte)0xA5, (byte)0x01, b) == Secs2.uint1(i));
+			TestAssert.assertTrue("int1 " + i, parse((byte)0x65, (byte)0x01, b) == Secs2.int1((int)b));
+		}
+		
+		TestAssert.assertTrue("TRUE", parse((byte)0x25, (byte)0x01, (byte)0xFF) == Secs2.bool(true));
+		TestAssert.assertTrue("FALSE", parse((byte)0x25, (byte)0x01, (byte)0x00) == Secs2.bool(false));
+		
+		/* in list */
+		final Secs2 ss = parse(
+				(byte)0x01, (byte)0x03,
+				(byte)0x21, (byte)0x01, (byte)0x05,
+				(byte)0x01, (byte)0x00,
+				(byte)0x25, (byte)0x01, (byte)0xFF);
+				
+		TestAssert.assertTrue("binary in list", ss.get(0) == Secs2.binary((byte)5));
+		TestAssert.assertTrue("empty list in list", ss.get(1) == Secs2.list());
+		TestAssert.assertTrue("boolean in list", ss.get(2) == Secs2.bool(true));
+		
+		/* 3 bytes length-byte is also shared */
+		TestAssert.assertTrue("3 length-bytes", parse((byte)0x23, (byte)0x00, (byte)0x00, (byte)0x01, (byte)0x07) == Secs2.binary((byte)7));
+	}
+	
+	private static void nonNormalBoolean() throws Exception {
+		
+		for ( byte b : new byte[] {(byte)0x01, (byte)0x80, (byte)0x7F} ) {
+			
+			final byte[] bs = new byte[] {(byte)0x25, (byte)0x01, b};
+			final Secs2 ss = parse(bs);
+			
+			TestAssert.assertFalse("not shared " + b, ss == Secs2.bool(true));
+			TestAssert.assertTrue("value " + b, ss.getBoolean(0));
+			TestAssert.assertEquals("equals TRUE " + b, Secs2.bool(true), ss);
+			TestAssert.assertArrayEquals("received bytes kept " + b, bs, encoder.encode(ss));
+		}
+	}
+	
+	private static void encodingAndEquality() throws Exception {
+		
+		TestAssert.assertArrayEquals("empty list", new byte[] {(byte)0x01, (byte)0x00}, encoder.encode(Secs2.list()));
+		TestAssert.assertArrayEquals("empty ascii", new byte[] {(byte)0x41, (byte)0x00}, encoder.encode(Secs2.ascii("")));
+		TestAssert.assertArrayEquals("empty int8", new byte[] {(byte)0x61, (byte)0x00}, encoder.encode(Secs2.int8()));
+		TestAssert.assertArrayEquals("TRUE", new byte[] {(byte)0x25, (byte)0x01, (byte)0xFF}, encoder.encode(Secs2.bool(true)));
+		TestAssert.assertArrayEquals("FALSE", new byte[] {(byte)0x25, (byte)0x01, (byte)0x00}, encoder.encode(Secs2.bool(false)));
+		TestAssert.assertArrayEquals("binary", new byte[] {(byte)0x21, (byte)0x01, (byte)0x80}, encoder.encode(Secs2.binary((byte)0x80)));
+		TestAssert.assertArrayEquals("uint1", new byte[] {(byte)0xA5, (byte)0x01, (byte)0xFF}, encoder.encode(Secs2.uint1(255)));
+		TestAssert.assertArrayEquals("int1", new byte[] {(byte)0x65, (byte)0x01, (byte)0x80}, encoder.encode(Secs2.int1(-128)));
+		
+		/* shared instances equal to non-shared instances of same value */
+		TestAssert.assertEquals("binary", Secs2.binary((byte)3), parse((byte)0x21, (byte)0x01, (byte)0x03));
+		TestAssert.assertEquals("binary hash", Secs2.binary((byte)3).hashCode(), lazy(Secs2.binary((byte)3)).hashCode());
+		TestAssert.assertEquals("uint1 lazy", Secs2.uint1(9), lazy(Secs2.uint1(9)));
+		TestAssert.assertEquals("list lazy", Secs2.list(), lazy(Secs2.list()));
+		TestAssert.assertEquals("list lazy hash", Secs2.list().hashCode(), lazy(Secs2.list()).hashCode());
+		
+		/* shared in many lists, encoded each */
+		final List<Secs2> ll = new ArrayList<>();
+		for ( int i = 0; i < 100; ++i ) {
+			ll.add(Secs2.bool(true));
+		}
+		
+		final byte[] bs = encoder.encode(Secs2.list(ll));
+		TestAssert.assertEquals("list length", 2 + 3 * 100, bs.length);
+		TestAssert.assertEquals("parsed back", Secs2.list(ll), parse(bs));
+	}
+	
+	private static Secs2 lazy(Secs2 ss) throws Exception {
+		return parser.parseLazy(ByteBuffer.wrap(encoder.encode(ss)));
+	}
+	
+	private static void notAffectedBySource() throws Exception {
+		
+		final byte[] src = new byte[] {(byte)0x11};
+		final Secs2 a = Secs2.binary(src);
+		src[0] = (byte)0x22;
+		
+		TestAssert.assertEquals("source changed", (byte)0x11, a.getByte(0));
+		TestAssert.assertEquals("shared value", (byte)0x11, Secs2.binary((byte)0x11).getByte(0));
+		
+		/* parsed from buffer, then buffer changed */
+		final byte[] received = new byte[] {(byte)0x21, (byte)0x01, (byte)0x33};
+		final Secs2 b = parse(received);
+		received[2] = (byte)0x44;
+		
+		TestAssert.assertEquals("buffer changed", (byte)0x33, b.getByte(0));
+		TestAssert.assertArrayEquals("encoded", new byte[] {(byte)0x21, (byte)0x01, (byte)0x33}, encoder.encode(Secs2.binary((byte)0x33)));
+	}
+	
+	private static void manyThreads() throws Exception {
+		
+		final int m = 8;
+		final Set<Secs2> instances = ConcurrentHashMap.newKeySet();
+		final ExecutorService es = Executors.newFixedThreadPool(m);
+		
+		try {
+			
+			final List<Future<Secs2>> ff = new ArrayList<>();
+			
+			for ( int i = 0; i < m; ++i ) {
+				ff.add(es.submit(() -> {
+					
+					Secs2 last = null;
+					
+					for ( int n = 0; n < 10000; ++n ) {
+						last = parse((byte)0x21, (byte)0x01, (byte)0x5A);
+						
+						if ( last != Secs2.binary((byte)0x5A) ) {
+							throw new AssertionError("not shared");
+						}
+						
+						encoder.encode(last);
+					}
+					
+					return last;
+				}));
+			}
+			
+			for ( Future<Secs2> f : ff ) {
+				instances.add(f.get(30L, TimeUnit.SECONDS));
+			}
+		}
+		finally {
+			es.shutdown();
+		}
+		
+		TestAssert.assertEquals("one instance", 1, instances.size());
+		TestAssert.assertArrayEquals("encoded", new byte[] {(byte)0x21, (byte)0x01, (byte)0x5A}, encoder.encode(instances.iterator().next()));
+	}
+	
+}
@@ -0,0 +1,291 @@
+package test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.Collectors;
+
+import com.shimizukenta.secs.SecsMessage;
+import com.shimizukenta.secs.secs2.Secs2;
+import com.shimizukenta.secs.secs2.Secs2BytesEncoder;
+import com.shimizukenta.secs.secs2.Secs2BytesParseException;
+import com.shimizukenta.secs.secs2.Secs2BytesParser;
+import com.shimizukenta.secs.secs2.Secs2Exception;
+import com.shimizukenta.secs.secs2.Secs2Item;
+import com.shimizukenta.secs.secs2.Secs2LazyBytes;
+
+/**
+ * Tests of lazy view of SECS-II encoded bytes.
+ * 
+ * @author kenta-shimizu
+ *
+ */
+public class TestSecs2LazyBytes {
+	
+	private static final Secs2 tree = Secs2.list(
+			Secs2.ascii("LAZY"),
+			Secs2.list(Secs2.uint4(1, 2, 3), Secs2.list(Secs2.bool(true), Secs2.float8(0.5D))),
+			Secs2.binary(new byte[1000]),
+			Secs2.list(),
+			Secs2.int8(-1L));
+			
+	public TestSecs2LazyBytes() {
+		/* Nothing */
+	}
+	
+	public static void main(String[] args) throws Exception {
+		
+		TestAssert.run("path access decodes addressed leaf only", TestSecs2LazyBytes::pathAccess);
+		TestAssert.run("iterator and stream", TestSecs2LazyBytes::iteratorAndStream);
+		TestAssert.run("same as eager tree", TestSecs2LazyBytes::sameAsEager);
+		TestAssert.run("errors", TestSecs2LazyBytes::errors);
+		TestAssert.run("serialize as parsed tree", TestSecs2LazyBytes::serialize);
+		TestAssert.run("concurrent access", TestSecs2LazyBytes::concurrentAccess);
+		TestAssert.run("across buffers", TestSecs2LazyBytes::acrossBuffers);
+		TestAssert.run("HSMS-SS lazy parsing, blocking reading", () -> hsmsSsLazyParsing(24501, false));
+		TestAssert.run("HSMS-SS lazy parsing, async reading", () -> hsmsSsLazyParsing(24502, true));
+		
+		System.exit(0);
+	}
+	
+	private static Secs2 lazy(Secs2 ss) throws Exception {
+		return Secs2BytesParser.getInstance().parseLazy(ByteBuffer.wrap(Secs2BytesEncoder.getInstance().encode(ss)));
+	}
+	
+	private static boolean isParsed(Secs2 ss) {
+		return ((Secs2LazyBytes)ss).isParsed();
+	}
+	
+	private static void pathAccess() throws Exception {
+		
+		final Secs2 root = lazy(tree);
+		
+		TestAssert.assertTrue("lazy", root instanceof Secs2LazyBytes);
+		TestAssert.assertEquals("item", Secs2Item.LIST, root.secs2Item());
+		TestAssert.assertEquals("size", 5, root.size());
+		TestAssert.assertFalse("not parsed by size", isParsed(root));
+		
+		TestAssert.assertEquals("getInt", 3, root.getInt(1, 0, 2));
+		TestAssert.assertTrue("getBoolean", root.getBoolean(1, 1, 0, 0));
+		TestAssert.assertTrue("getDouble", root.getDouble(1, 1, 1, 0) == 0.5D);
+		TestAssert.assertEquals("getAscii", "LAZY", root.getAscii(0));
+		TestAssert.assertEquals("getLong", -1L, root.getLong(4, 0));
+		
+		TestAssert.assertFalse("root not parsed", isParsed(root));
+		TestAssert.assertFalse("list not parsed", isParsed(root.get(1)));
+		TestAssert.assertFalse("sibling not parsed", isParsed(root.get(2)));
+		TestAssert.assertTrue("child is view", root.get(1, 1) instanceof Secs2LazyBytes);
+		
+		TestAssert.assertEquals("binary size", 1000, root.get(2).size());
+		TestAssert.assertTrue("empty list", root.get(3).isEmpty());
+		TestAssert.assertEquals("encoded length", 1003L, ((Secs2LazyBytes)root.get(2)).encodedLength());
+	}
+	
+	private static void iteratorAndStream() throws Exception {
+		
+		final Secs2 root = lazy(tree);
+		
+		final List<Secs2Item> items = new ArrayList<>();
+		
+		for ( Secs2 ss : root ) {
+			items.add(ss.secs2Item());
+		}
+		
+		TestAssert.assertEquals("iterator", 5, items.size());
+		TestAssert.assertEquals("iterator item", Secs2Item.BINARY, items.get(2));
+		
+		final List<Secs2Item> ss = root.stream().map(Secs2::secs2Item).collect(Collectors.toList());
+		TestAssert.assertEquals("stream", items, ss);
+		
+		TestAssert.assertTrue("stream views", root.stream().allMatch(s -> s instanceof Secs2LazyBytes));
+		TestAssert.assertFalse("not parsed by iterate", isParsed(root));
+		
+		/* leaf iterates nothing */
+		TestAssert.assertFalse("leaf", root.get(0).iterator().hasNext());
+	}
+	
+	private static void sameAsEager() throws Exception {
+		
+		final Secs2 root = lazy(tree);
+		
+		TestAssert.assertEquals("SML", tree.toString(), root.toString());
+		TestAssert.assertEquals("JSON", tree.toJson(), root.toJson());
+		TestAssert.assertEquals("equals", tree, root);
+		TestAssert.assertEquals("hashCode", tree.hashCode(), root.hashCode());
+		TestAssert.assertEquals("child SML", tree.get(1).toString(), root.get(1).toString());
+		TestAssert.assertTrue("getInts", Arrays.equals(tree.getInts(1, 0), root.getInts(1, 0)));
+		
+		final Secs2 leaf = lazy(Secs2.uint2(1, 2));
+		TestAssert.assertEquals("leaf getInt", 2, leaf.getInt(1));
+		TestAssert.assertEquals("leaf equals", Secs2.uint2(1, 2), leaf);
+	}
+	
+	private static void errors() throws Exception {
+		
+		final Secs2 root = lazy(tree);
+		
+		TestAssert.assertThrows("index over", Secs2Exception.class, () -> {
+			root.get(5);
+		});
+		
+		TestAssert.assertThrows("leaf index over", Secs2Exception.class, () -> {
+			root.getInt(1, 0, 3);
+		});
+		
+		TestAssert.assertThrows("not list", Secs2Exception.class, () -> {
+			root.get(0, 0);
+		});
+		
+		TestAssert.assertThrows("not ascii", Secs2Exception.class, () -> {
+			root.getAscii(2);
+		});
+		
+		/* validated before view */
+		TestAssert.assertThrows("list over body", Secs2BytesParseException.class, () -> {
+			Secs2BytesParser.getInstance().parseLazy(ByteBuffer.wrap(new byte[] {(byte)0x01, (byte)0x02, (byte)0x41, (byte)0x00}));
+		});
+		
+		TestAssert.assertThrows("leaf over body", Secs2BytesParseException.class, () -> {
+			Secs2BytesParser.getInstance().parseLazy(ByteBuffer.wrap(new byte[] {(byte)0x21, (byte)0x05, (byte)0x00}));
+		});
+	}
+	
+	private static ByteBuffer[] split(byte[] bs, int... positions) {
+		
+		final ByteBuffer[] bfs = new ByteBuffer[positions.length + 1];
+		
+		int from = 0;
+		for ( int i = 0; i < positions.length; ++i ) {
+			bfs[i] = ByteBuffer.wrap(bs, from, positions[i] - from);
+			from = positions[i];
+		}
+		
+		bfs[positions.length] = ByteBuffer.wrap(bs, from, bs.length - from);
+		
+		return bfs;
+	}
+	
+	private static void acrossBuffers() throws Exception {
+		
+		final Secs2BytesParser parser = Secs2BytesParser.getInstance();
+		final byte[] bs = Secs2BytesEncoder.getInstance().encode(tree);
+		
+		/* split at each position, as boundary of mapped windows */
+		for ( int p = 0; p <= bs.length; ++p ) {
+			
+			final Secs2 root = parser.parseLazy(split(bs, p));
+			
+			TestAssert.assertEquals("equals at " + p, tree, root);
+			TestAssert.assertEquals("SML at " + p, tree.toString(), root.toString());
+			TestAssert.assertArrayEquals("encode at " + p, bs, Secs2BytesEncoder.getInstance().encode(root));
+		}
+		
+		/* 3 buffers */
+		for ( int p = 1; p < bs.length; p += 7 ) {
+			final int q = Math.min(p + 3, bs.length);
+			TestAssert.assertEquals("3 buffers at " + p, tree, parser.parseLazy(split(bs, p, q)));
+		}
+		
+		/* item in one buffer is view, not parsed */
+		final Secs2 root = parser.parseLazy(split(bs, bs.length - 3));
+		TestAssert.assertTrue("view", root.get(2) instanceof Secs2LazyBytes);
+		TestAssert.assertFalse("not parsed", ((Secs2LazyBytes)root.get(2)).isParsed());
+		TestAssert.assertEquals("leaf across buffers", -1L, root.getLong(4, 0));
+		
+		TestAssert.assertEquals("empty", parser.parseLazy(ByteBuffer.wrap(new byte[0])), parser.parseLazy(split(new byte[0], 0)));
+		
+		TestAssert.assertThrows("list over body", Secs2BytesParseException.class, () -> {
+			parser.parseLazy(split(new byte[] {(byte)0x01, (byte)0x02, (byte)0x41, (byte)0x00}, 2));
+		});
+		
+		TestAssert.assertThrows("leaf over body", Secs2BytesParseException.class, () -> {
+			parser.parseLazy(split(new byte[] {(byte)0x21, (byte)0x05, (byte)0x00}, 1));
+		});
+		
+		TestAssert.assertThrows("not reach end", Secs2BytesParseException.class, () -> {
+			parser.parseLazy(split(new byte[] {(byte)0x21, (byte)0x01, (byte)0x00, (byte)0x00}, 2));
+		});
+	}
+	
+	private static void serialize() throws Exception {
+		
+		final Secs2 root = lazy(tree);
+		
+		final ByteArrayOutputStream os = new ByteArrayOutputStream();
+		
+		try (
+				ObjectOutputStream oos = new ObjectOutputStream(os);
+				) {
+			oos.writeObject(root);
+		}
+		
+		try (
+				ObjectInputStream ois = new ObjectInputStream(new ByteArrayInputStream(os.toByteArray()));
+				) {
+			
+			final Object o = ois.readObject();
+			
+			TestAssert.assertFalse("not view", o instanceof Secs2LazyBytes);
+			TestAssert.assertEquals("tree", tree, o);
+		}
+	}
+	
+	private static void concurrentAccess() throws Exception {
+		
+		final ExecutorService es = Executors.newFixedThreadPool(8);
+		
+		try {
+			
+			for ( int n = 0; n < 50; ++n ) {
+				
+				final Secs2 root = lazy(tree);
+				final List<Callable<Integer>> tasks = new ArrayList<>();
+				
+				for ( int i = 0; i < 16; ++i ) {
+					tasks.add(() -> Integer.valueOf(root.getInt(1, 0, 1) + root.get(2).size() + root.size()));
+				}
+				
+				for ( Future<Integer> f : es.invokeAll(tasks) ) {
+					TestAssert.assertEquals("value", Integer.valueOf(2 + 1000 + 5), f.get());
+				}
+			}
+		}
+		finally {
+			es.shutdown();
+		}
+	}
+	
+	private static void hsmsSsLazyParsing(int port, boolean asyncReading) throws Exception {
+		
+		try (
+				HsmsSsLoopback lb = HsmsSsLoopback.open(port, c -> {
+					c.asyncReading(asyncReading);
+					c.lazyParsing(true);
+				});
+				) {
+			
+			for ( int i = 0; i < 3; ++i ) {
+				
+				final SecsMessage r = lb.host.send(6, 11, true, tree).get();
+				
+				TestAssert.assertTrue("lazy view", r.secs2() instanceof Secs2LazyBytes);
+				TestAssert.assertEquals("path", 3, r.secs2().getInt(1, 0, 2));
+				TestAssert.assertEquals("echo", tree, r.secs2());
+			}
+			
+			/* empty body */
+			final SecsMessage r = lb.host.send(1, 1, true, Secs2.empty()).get();
+			TestAssert.assertTrue("empty", r.secs2().isEmpty());
+		}
+	}
+	
+}
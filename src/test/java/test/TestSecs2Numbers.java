@@ -0,0 +1,244 @@
+package test;
+
+import java.math.BigInteger;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+import com.shimizukenta.secs.secs2.Secs2;
+import com.shimizukenta.secs.secs2.Secs2BytesEncoder;
+import com.shimizukenta.secs.secs2.Secs2BytesParser;
+import com.shimizukenta.secs.secs2.Secs2Exception;
+
+/**
+ * Tests of numeric SECS-II items backed by encoded bytes.
+ * 
+ * @author kenta-shimizu
+ *
+ */
+public class TestSecs2Numbers {
+	
+	public TestSecs2Numbers() {
+		/* Nothing */
+	}
+	
+	public static void main(String[] args) throws Exception {
+		
+		TestAssert.run("round trip of each item", TestSecs2Numbers::roundTrip);
+		TestAssert.run("min and max values", TestSecs2Numbers::minMax);
+		TestAssert.run("truncate to item width", TestSecs2Numbers::truncate);
+		TestAssert.run("U8 above Long.MAX_VALUE", TestSecs2Numbers::uint8Unsigned);
+		TestAssert.run("bulk getters", TestSecs2Numbers::bulkGetters);
+		TestAssert.run("empty items", TestSecs2Numbers::emptyItems);
+		TestAssert.run("out of bounds and not number", TestSecs2Numbers::errors);
+		TestAssert.run("large array", TestSecs2Numbers::largeArray);
+		TestAssert.run("not shared with argument array", TestSecs2Numbers::notShared);
+		
+		System.exit(0);
+	}
+	
+	private static void notShared() throws Exception {
+		
+		final byte[] bs = new byte[] {(byte)0x01, (byte)0x02};
+		final Secs2 b = Secs2.binary(bs);
+		bs[0] = (byte)0x7F;
+		
+		TestAssert.assertEquals("binary", (byte)0x01, b.getByte(0));
+		TestAssert.assertEquals("binary parsed", Secs2.binary((byte)0x01, (byte)0x02), reparse(b));
+		
+		final int[] ii = new int[] {10, 20};
+		final Secs2 i4 = Secs2.int4(ii);
+		ii[1] = 30;
+		
+		TestAssert.assertEquals("I4", 20, i4.getInt(1));
+		
+		final float[] ff = new float[] {1.5F};
+		final Secs2 f4 = Secs2.float4(ff);
+		ff[0] = 2.5F;
+		
+		TestAssert.assertTrue("F4", f4.getFloat(0) == 1.5F);
+		
+		TestAssert.assertThrows("null", NullPointerException.class, () -> {
+			Secs2.binary((byte[])null);
+		});
+	}
+	
+	private static Secs2 reparse(Secs2 ss) throws Exception {
+		final byte[] bs = Secs2BytesEncoder.getInstance().encode(ss);
+		return Secs2BytesParser.getInstance().parse(ByteBuffer.wrap(bs));
+	}
+	
+	private static void assertRoundTrip(Secs2 ss) throws Exception {
+		
+		final Secs2 r = reparse(ss);
+		
+		TestAssert.assertEquals("item", ss.secs2Item(), r.secs2Item());
+		TestAssert.assertEquals("equals", ss, r);
+		TestAssert.assertEquals("hashCode", ss.hashCode(), r.hashCode());
+		TestAssert.assertEquals("SML", ss.toString(), r.toString());
+		TestAssert.assertEquals("JSON", ss.toJson(), r.toJson());
+	}
+	
+	private static void roundTrip() throws Exception {
+		
+		assertRoundTrip(Secs2.int1(1, -2, 3));
+		assertRoundTrip(Secs2.int2(1000, -2000));
+		assertRoundTrip(Secs2.int4(100000, -200000, 0));
+		assertRoundTrip(Secs2.int8(10000000000L, -20000000000L));
+		assertRoundTrip(Secs2.uint1(1, 200));
+		assertRoundTrip(Secs2.uint2(1, 60000));
+		assertRoundTrip(Secs2.uint4(1L, 4000000000L));
+		assertRoundTrip(Secs2.uint8(1L, Long.MAX_VALUE));
+		assertRoundTrip(Secs2.float4(1.5F, -2.25F, Float.NaN));
+		assertRoundTrip(Secs2.float8(1.5D, -2.25D, Double.MAX_VALUE));
+		assertRoundTrip(Secs2.binary((byte)0x00, (byte)0x7F, (byte)0xFF));
+		
+		final Secs2 r = reparse(Secs2.list(Secs2.int4(7, 8), Secs2.float8(0.5D)));
+		
+		TestAssert.assertEquals("getInt", 8, r.getInt(0, 1));
+		TestAssert.assertEquals("getLong", 7L, r.getLong(0, 0));
+		TestAssert.assertTrue("getDouble", r.getDouble(1, 0) == 0.5D);
+		TestAssert.assertTrue("getFloat", r.getFloat(1, 0) == 0.5F);
+		TestAssert.assertEquals("getBigInteger", BigInteger.valueOf(7L), r.getBigInteger(0, 0));
+	}
+	
+	private static void minMax() throws Exception {
+		
+		TestAssert.assertEquals("I1 min", Byte.MIN_VALUE, reparse(Secs2.int1(Byte.MIN_VALUE)).getInt(0));
+		TestAssert.assertEquals("I1 max", Byte.MAX_VALUE, reparse(Secs2.int1(Byte.MAX_VALUE)).getInt(0));
+		TestAssert.assertEquals("I2 min", Short.MIN_VALUE, reparse(Secs2.int2(Short.MIN_VALUE)).getInt(0));
+		TestAssert.assertEquals("I4 min", Integer.MIN_VALUE, reparse(Secs2.int4(Integer.MIN_VALUE)).getInt(0));
+		TestAssert.assertEquals("I8 min", Long.MIN_VALUE, reparse(Secs2.int8(Long.MIN_VALUE)).getLong(0));
+		TestAssert.assertEquals("I8 max", Long.MAX_VALUE, reparse(Secs2.int8(Long.MAX_VALUE)).getLong(0));
+		TestAssert.assertEquals("U1 max", 0xFF, reparse(Secs2.uint1(0xFF)).getInt(0));
+		TestAssert.assertEquals("U2 max", 0xFFFF, reparse(Secs2.uint2(0xFFFF)).getInt(0));
+		TestAssert.assertEquals("U4 max", 0xFFFFFFFFL, reparse(Secs2.uint4(0xFFFFFFFFL)).getLong(0));
+		TestAssert.assertEquals("U4 max as BigInteger", BigInteger.valueOf(0xFFFFFFFFL), Secs2.uint4(0xFFFFFFFFL).getBigInteger(0));
+		TestAssert.assertTrue("F4 min", reparse(Secs2.float4(Float.MIN_VALUE)).getFloat(0) == Float.MIN_VALUE);
+		TestAssert.assertTrue("F8 -inf", reparse(Secs2.float8(Double.NEGATIVE_INFINITY)).getDouble(0) == Double.NEGATIVE_INFINITY);
+	}
+	
+	private static void truncate() throws Exception {
+		
+		/* lower bytes are sent, and printed */
+		final Secs2 a = Secs2.int1(200);
+		TestAssert.assertEquals("I1 200", -56, a.getInt(0));
+		TestAssert.assertEquals("I1 200 reparse", -56, reparse(a).getInt(0));
+		TestAssert.assertEquals("I1 200 SML", reparse(a).toString(), a.toString());
+		
+		TestAssert.assertEquals("U1 -1", 0xFF, Secs2.uint1(-1).getInt(0));
+		TestAssert.assertEquals("U2 0x12345", 0x2345, Secs2.uint2(0x12345).getInt(0));
+		TestAssert.assertEquals("I4 long", 1, Secs2.int4(0x100000001L).getInt(0));
+		TestAssert.assertEquals("I2 BigInteger", -1, Secs2.int2(BigInteger.valueOf(0xFFFFL)).getInt(0));
+	}
+	
+	private static void uint8Unsigned() throws Exception {
+		
+		final BigInteger max = BigInteger.ONE.shiftLeft(64).subtract(BigInteger.ONE);
+		final BigInteger over = BigInteger.valueOf(Long.MAX_VALUE).add(BigInteger.ONE);
+		
+		final Secs2 ss = reparse(Secs2.uint8(max, over, BigInteger.ZERO));
+		
+		TestAssert.assertEquals("max", max, ss.getBigInteger(0));
+		TestAssert.assertEquals("over", over, ss.getBigInteger(1));
+		TestAssert.assertEquals("zero", BigInteger.ZERO, ss.getBigInteger(2));
+		TestAssert.assertEquals("max as long", -1L, ss.getLong(0));
+		TestAssert.assertTrue("SML unsigned", ss.toString().contains(max.toString()));
+		TestAssert.assertTrue("JSON unsigned", ss.toJson().contains(max.toString()));
+		TestAssert.assertTrue("getDouble unsigned", ss.getDouble(1) > 0.0D);
+		
+		/* I8 keeps sign */
+		TestAssert.assertEquals("I8 -1", BigInteger.valueOf(-1L), Secs2.int8(-1L).getBigInteger(0));
+	}
+	
+	private static void bulkGetters() throws Exception {
+		
+		final Secs2 ss = reparse(Secs2.list(
+				Secs2.uint4(1L, 2L, 0xFFFFFFFFL),
+				Secs2.int2(-1, 2),
+				Secs2.float4(1.5F, 2.5F),
+				Secs2.binary((byte)0xFF)));
+				
+		TestAssert.assertTrue("U4 getLongs", Arrays.equals(new long[] {1L, 2L, 0xFFFFFFFFL}, ss.getLongs(0)));
+		TestAssert.assertTrue("U4 getInts", Arrays.equals(new int[] {1, 2, -1}, ss.getInts(0)));
+		TestAssert.assertTrue("I2 getInts", Arrays.equals(new int[] {-1, 2}, ss.getInts(1)));
+		TestAssert.assertTrue("I2 getDoubles", Arrays.equals(new double[] {-1.0D, 2.0D}, ss.getDoubles(1)));
+		TestAssert.assertTrue("F4 getDoubles", Arrays.equals(new double[] {1.5D, 2.5D}, ss.getDoubles(2)));
+		TestAssert.assertTrue("F4 getInts", Arrays.equals(new int[] {1, 2}, ss.getInts(2)));
+		TestAssert.assertTrue("B getInts signed", Arrays.equals(new int[] {-1}, ss.getInts(3)));
+		
+		/* no index-path */
+		TestAssert.assertTrue("self", Arrays.equals(new int[] {5, 6}, Secs2.int4(5, 6).getInts()));
+		
+		/* returned array is copy */
+		final Secs2 u = Secs2.uint4(10L);
+		u.getLongs()[0] = 99L;
+		TestAssert.assertEquals("not changed", 10L, u.getLong(0));
+	}
+	
+	private static void emptyItems() throws Exception {
+		
+		final Secs2[] ss = new Secs2[] {
+				Secs2.int1(), Secs2.int2(), Secs2.int4(), Secs2.int8(),
+				Secs2.uint1(), Secs2.uint2(), Secs2.uint4(), Secs2.uint8(),
+				Secs2.float4(), Secs2.float8(), Secs2.binary()
+		};
+		
+		for ( Secs2 s : ss ) {
+			
+			TestAssert.assertEquals("size", 0, s.size());
+			TestAssert.assertEquals("getInts", 0, s.getInts().length);
+			TestAssert.assertEquals("getLongs", 0, s.getLongs().length);
+			TestAssert.assertEquals("getDoubles", 0, s.getDoubles().length);
+			
+			assertRoundTrip(s);
+		}
+	}
+	
+	private static void errors() throws Exception {
+		
+		final Secs2 ss = Secs2.int4(1, 2);
+		
+		TestAssert.assertThrows("index over", Secs2Exception.class, () -> {
+			ss.getInt(2);
+		});
+		
+		TestAssert.assertThrows("index negative", Secs2Exception.class, () -> {
+			ss.getLong(-1);
+		});
+		
+		TestAssert.assertThrows("ascii getInts", Secs2Exception.class, () -> {
+			Secs2.ascii("A").getInts();
+		});
+		
+		TestAssert.assertThrows("list getDoubles", Secs2Exception.class, () -> {
+			Secs2.list(Secs2.int4(1)).getDoubles();
+		});
+		
+		TestAssert.assertThrows("bool getLongs", Secs2Exception.class, () -> {
+			Secs2.bool(true).getLongs();
+		});
+		
+		/* length byte over body */
+		TestAssert.assertThrows("broken U4", Secs2Exception.class, () -> {
+			Secs2BytesParser.getInstance().parse(ByteBuffer.wrap(new byte[] {(byte)0xB1, 4, 0, 1}));
+		});
+
+	}
+	
+	private static void largeArray() throws Exception {
+		
+		final int m = 10000;
+		final long[] vv = new long[m];
+		
+		for ( int i = 0; i < m; ++i ) {
+			vv[i] = 0xFFFFFFFFL - i;
+		}
+		
+		final Secs2 ss = reparse(Secs2.uint4(vv));
+		
+		TestAssert.assertEquals("size", m, ss.size());
+		TestAssert.assertEquals("one value", 0xFFFFFFFFL - 5000L, ss.getLong(5000));
+		TestAssert.assertTrue("all values", Arrays.equals(vv, ss.getLongs()));
+	}
+	
+}
@@ -0,0 +1,179 @@
+package test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.math.BigInteger;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Set;
+
+import com.shimizukenta.secs.secs2.Secs2;
+import com.shimizukenta.secs.secs2.Secs2BytesEncoder;
+import com.shimizukenta.secs.secs2.Secs2BytesParser;
+import com.shimizukenta.secs.secs2.Secs2Exception;
+import com.shimizukenta.secs.secs2.Secs2IndexOutOfBoundsException;
+import com.shimizukenta.secs.secs2.Secs2LazyBytes;
+import com.shimizukenta.secs.secs2.Secs2Path;
+
+/**
+ * Tests of compiled index-path of SECS-II.
+ * 
+ * @author kenta-shimizu
+ *
+ */
+public class TestSecs2Path {
+	
+	private static final Secs2 tree = Secs2.list(
+			Secs2.ascii("PATH"),
+			Secs2.list(
+					Secs2.uint4(10L, 20L, 0xFFFFFFFFL),
+					Secs2.list(Secs2.bool(false, true), Secs2.binary((byte)0x7F))),
+			Secs2.float4(1.5F, 2.5F),
+			Secs2.uint8(BigInteger.ONE.shiftLeft(63)));
+			
+	public TestSecs2Path() {
+		/* Nothing */
+	}
+	
+	public static void main(String[] args) throws Exception {
+		
+		TestAssert.run("same as index getters", () -> sameAsIndexGetters(tree));
+		TestAssert.run("same as index getters, lazy view", () -> sameAsIndexGetters(lazy(tree)));
+		TestAssert.run("root and child", TestSecs2Path::rootAndChild);
+		TestAssert.run("immutable", TestSecs2Path::immutable);
+		TestAssert.run("errors", TestSecs2Path::errors);
+		TestAssert.run("equals, hashCode and serialize", TestSecs2Path::equalsAndSerialize);
+		
+		System.exit(0);
+	}
+	
+	private static Secs2 lazy(Secs2 ss) throws Exception {
+		return Secs2BytesParser.getInstance().parseLazy(ByteBuffer.wrap(Secs2BytesEncoder.getInstance().encode(ss)));
+	}
+	
+	private static void sameAsIndexGetters(Secs2 ss) throws Exception {
+		
+		TestAssert.assertEquals("getAscii", ss.getAscii(0), Secs2Path.of(0).getAscii(ss));
+		TestAssert.assertEquals("getInt", ss.getInt(1, 0, 1), Secs2Path.of(1, 0, 1).getInt(ss));
+		TestAssert.assertEquals("getLong", ss.getLong(1, 0, 2), Secs2Path.of(1, 0, 2).getLong(ss));
+		TestAssert.assertEquals("getBigInteger", ss.getBigInteger(3, 0), Secs2Path.of(3, 0).getBigInteger(ss));
+		TestAssert.assertTrue("getBoolean", Secs2Path.of(1, 1, 0, 1).getBoolean(ss) == ss.getBoolean(1, 1, 0, 1));
+		TestAssert.assertEquals("getByte", ss.getByte(1, 1, 1, 0), Secs2Path.of(1, 1, 1, 0).getByte(ss));
+		TestAssert.assertTrue("getFloat", Secs2Path.of(2, 1).getFloat(ss) == ss.getFloat(2, 1));
+		TestAssert.assertTrue("getDouble", Secs2Path.of(2, 0).getDouble(ss) == ss.getDouble(2, 0));
+		TestAssert.assertTrue("getInts", Arrays.equals(ss.getInts(1, 0), Secs2Path.of(1, 0).getInts(ss)));
+		TestAssert.assertTrue("getLongs", Arrays.equals(ss.getLongs(1, 0), Secs2Path.of(1, 0).getLongs(ss)));
+		TestAssert.assertTrue("getDoubles", Arrays.equals(ss.getDoubles(2), Secs2Path.of(2).getDoubles(ss)));
+		TestAssert.assertEquals("get", ss.get(1, 1), Secs2Path.of(1, 1).get(ss));
+		
+		/* reused for many trees */
+		final Secs2Path p = Secs2Path.of(1, 0, 0);
+		
+		for ( int i = 0; i < 100; ++i ) {
+			final Secs2 t = Secs2.list(Secs2.ascii(""), Secs2.list(Secs2.uint4(i)));
+			TestAssert.assertEquals("reuse", i, p.getInt(t));
+		}
+	}
+	
+	private static void rootAndChild() throws Exception {
+		
+		TestAssert.assertEquals("root depth", 0, Secs2Path.root().depth());
+		TestAssert.assertEquals("of() is root", Secs2Path.root(), Secs2Path.of());
+		TestAssert.assertEquals("root get", tree, Secs2Path.root().get(tree));
+		
+		final Secs2Path p = Secs2Path.root().child(1).child(0);
+		
+		TestAssert.assertEquals("child", Secs2Path.of(1, 0), p);
+		TestAssert.assertEquals("child depth", 2, p.depth());
+		TestAssert.assertEquals("child getInt", 20, p.child(1).getInt(tree));
+		TestAssert.assertEquals("parent not changed", 2, p.depth());
+		
+		/* lazy view, siblings are not parsed */
+		final Secs2 lazy = lazy(tree);
+		TestAssert.assertEquals("lazy", 0xFFFFFFFFL, p.child(2).getLong(lazy));
+		TestAssert.assertFalse("sibling not parsed", ((Secs2LazyBytes)lazy.get(1, 1)).isParsed());
+	}
+	
+	private static void immutable() throws Exception {
+		
+		final int[] ii = new int[] {1, 0, 2};
+		final Secs2Path p = Secs2Path.of(ii);
+		
+		ii[2] = 0;
+		TestAssert.assertEquals("argument copied", 0xFFFFFFFFL, p.getLong(tree));
+		
+		p.indices()[2] = 0;
+		TestAssert.assertTrue("indices copied", Arrays.equals(new int[] {1, 0, 2}, p.indices()));
+	}
+	
+	private static void errors() throws Exception {
+		
+		TestAssert.assertThrows("negative", IllegalArgumentException.class, () -> {
+			Secs2Path.of(0, -1);
+		});
+		
+		TestAssert.assertThrows("negative child", IllegalArgumentException.class, () -> {
+			Secs2Path.root().child(-1);
+		});
+		
+		TestAssert.assertThrows("null", NullPointerException.class, () -> {
+			Secs2Path.of((int[])null);
+		});
+		
+		TestAssert.assertThrows("root value", Secs2IndexOutOfBoundsException.class, () -> {
+			Secs2Path.root().getInt(Secs2.uint4(1));
+		});
+		
+		TestAssert.assertThrows("index over", Secs2Exception.class, () -> {
+			Secs2Path.of(4).get(tree);
+		});
+		
+		TestAssert.assertThrows("value index over", Secs2Exception.class, () -> {
+			Secs2Path.of(1, 0, 3).getInt(tree);
+		});
+		
+		TestAssert.assertThrows("not list", Secs2Exception.class, () -> {
+			Secs2Path.of(0, 0, 0).getInt(tree);
+		});
+		
+		TestAssert.assertThrows("not number", Secs2Exception.class, () -> {
+			Secs2Path.of(0).getInts(tree);
+		});
+		
+		TestAssert.assertThrows("lazy index over", Secs2Exception.class, () -> {
+			Secs2Path.of(1, 5).get(lazy(tree));
+		});
+	}
+	
+	private static void equalsAndSerialize() throws Exception {
+		
+		final Set<Secs2Path> set = new HashSet<>();
+		set.add(Secs2Path.of(1, 2));
+		
+		TestAssert.assertTrue("contains", set.contains(Secs2Path.root().child(1).child(2)));
+		TestAssert.assertFalse("not contains", set.contains(Secs2Path.of(2, 1)));
+		TestAssert.assertEquals("toString", "[1, 2]", Secs2Path.of(1, 2).toString());
+		
+		final ByteArrayOutputStream os = new ByteArrayOutputStream();
+		
+		try (
+				ObjectOutputStream oos = new ObjectOutputStream(os);
+				) {
+			oos.writeObject(Secs2Path.of(1, 0, 2));
+		}
+		
+		try (
+				ObjectInputStream ois = new ObjectInputStream(new ByteArrayInputStream(os.toByteArray()));
+				) {
+			
+			final Secs2Path p = (Secs2Path)(ois.readObject());
+			
+			TestAssert.assertEquals("deserialized", Secs2Path.of(1, 0, 2), p);
+			TestAssert.assertEquals("deserialized getLong", 0xFFFFFFFFL, p.getLong(tree));
+		}
+	}
+	
+}
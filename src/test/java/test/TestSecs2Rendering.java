@@ -0,0 +1,328 @@
+package test;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.math.BigInteger;
+import java.nio.ByteBuffer;
+
+import com.shimizukenta.secs.AbstractSecsMessage;
+import com.shimizukenta.secs.hsmsss.HsmsSsCommunicator;
+import com.shimizukenta.secs.hsmsss.HsmsSsCommunicatorConfig;
+import com.shimizukenta.secs.hsmsss.HsmsSsMessage;
+import com.shimizukenta.secs.secs1.Secs1Message;
+import com.shimizukenta.secs.secs2.Secs2;
+import com.shimizukenta.secs.secs2.Secs2BytesEncoder;
+import com.shimizukenta.secs.secs2.Secs2BytesParser;
+import com.shimizukenta.secssimulator.extendsml.ExtendSmlDataItemParser;
+
+/**
+ * Tests of SML-String and JSON-String streaming to Appendable.
+ * 
+ * @author kenta-shimizu
+ *
+ */
+public class TestSecs2Rendering {
+	
+	private static final String BR = System.lineSeparator();
+	
+	private static final Secs2 tree = Secs2.list(
+			Secs2.ascii("A\"B\\C"),
+			Secs2.list(),
+			Secs2.list(Secs2.binary((byte)0x00, (byte)0x7F, (byte)0xFF), Secs2.bool(true, false)),
+			Secs2.int1(-1, 1),
+			Secs2.int2(-300),
+			Secs2.int4(),
+			Secs2.int8(Long.MIN_VALUE),
+			Secs2.uint1(255),
+			Secs2.uint2(65535),
+			Secs2.uint4(1L, 4294967295L),
+			Secs2.uint8(new BigInteger("18446744073709551615")),
+			Secs2.float4(1.5F),
+			Secs2.float8(-0.25D, 2.0D));
+			
+	private static final String treeSml = "<L [13]" + BR
+			+ "  <A [5] \"A\"B\\C\">" + BR
+			+ "  <L [0]" + BR
+			+ "  >" + BR
+			+ "  <L [2]" + BR
+			+ "    <B [3] 0x00 0x7F 0xFF>" + BR
+			+ "    <BOOLEAN [2] TRUE FALSE>" + BR
+			+ "  >" + BR
+			+ "  <I1 [2] -1 1>" + BR
+			+ "  <I2 [1] -300>" + BR
+			+ "  <I4 [0] >" + BR
+			+ "  <I8 [1] -9223372036854775808>" + BR
+			+ "  <U1 [1] 255>" + BR
+			+ "  <U2 [1] 65535>" + BR
+			+ "  <U4 [2] 1 4294967295>" + BR
+			+ "  <U8 [1] 18446744073709551615>" + BR
+			+ "  <F4 [1] 1.5>" + BR
+			+ "  <F8 [2] -0.25 2.0>" + BR
+			+ ">";
+			
+	private static final String treeJson = "{\"f\":\"L\",\"v\":["
+			+ "{\"f\":\"A\",\"v\":\"A\\\"B\\\\C\"},"
+			+ "{\"f\":\"L\",\"v\":[]},"
+			+ "{\"f\":\"L\",\"v\":[{\"f\":\"B\",\"v\":[0,127,-1]},{\"f\":\"BOOLEAN\",\"v\":[true,false]}]},"
+			+ "{\"f\":\"I1\",\"v\":[-1,1]},"
+			+ "{\"f\":\"I2\",\"v\":[-300]},"
+			+ "{\"f\":\"I4\",\"v\":[]},"
+			+ "{\"f\":\"I8\",\"v\":[-9223372036854775808]},"
+			+ "{\"f\":\"U1\",\"v\":[255]},"
+			+ "{\"f\":\"U2\",\"v\":[65535]},"
+			+ "{\"f\":\"U4\",\"v\":[1,4294967295]},"
+			+ "{\"f\":\"U8\",\"v\":[18446744073709551615]},"
+			+ "{\"f\":\"F4\",\"v\":[1.5]},"
+			+ "{\"f\":\"F8\",\"v\":[-0.25,2.0]}]}";
+			
+	private static final byte[] head = new byte[] {
+			(byte)0x80, (byte)0x0A, (byte)0x81, (byte)0x01, (byte)0x00,
+			(byte)0x00, (byte)0x00, (byte)0x00, (byte)0x01, (byte)0x02
+	};
+	
+	public TestSecs2Rendering() {
+		/* Nothing */
+	}
+	
+	public static void main(String[] args) throws Exception {
+		
+		TestAssert.run("SML of every item", TestSecs2Rendering::smlOfEveryItem);
+		TestAssert.run("JSON of every item", TestSecs2Rendering::jsonOfEveryItem);
+		TestAssert.run("empty list and empty body", TestSecs2Rendering::emptyListAndBody);
+		TestAssert.run("lazy view", TestSecs2Rendering::lazyView);
+		TestAssert.run("extended SML items in list", TestSecs2Rendering::extendedItemsInList);
+		TestAssert.run("SECS-I message", TestSecs2Rendering::secs1Message);
+		TestAssert.run("HSMS-SS message", TestSecs2Rendering::hsmsSsMessage);
+		TestAssert.run("appendable throws IOException", TestSecs2Rendering::appendableThrows);
+		
+		System.exit(0);
+	}
+	
+	private static String sml(Secs2 ss) throws IOException {
+		final StringWriter w = new StringWriter();
+		ss.writeSml(w);
+		return w.toString();
+	}
+	
+	private static String json(Secs2 ss) throws IOException {
+		final StringBuilder sb = new StringBuilder();
+		ss.writeJson(sb);
+		return sb.toString();
+	}
+	
+	private static Secs2 lazy(Secs2 ss) throws Exception {
+		return Secs2BytesParser.getInstance().parseLazy(ByteBuffer.wrap(Secs2BytesEncoder.getInstance().encode(ss)));
+	}
+	
+	private static void smlOfEveryItem() throws Exception {
+		
+		TestAssert.assertEquals("writeSml", treeSml, sml(tree));
+		TestAssert.assertEquals("toString", treeSml, tree.toString());
+		
+		/* child is written without indent */
+		TestAssert.assertEquals("child", "<B [3] 0x00 0x7F 0xFF>", sml(tree.get(2, 0)));
+		
+		/* appended after existing content */
+		final StringBuilder sb = new StringBuilder("HEAD:");
+		tree.get(3).writeSml(sb);
+		TestAssert.assertEquals("append", "HEAD:<I1 [2] -1 1>", sb.toString());
+	}
+	
+	private static void jsonOfEveryItem() throws Exception {
+		
+		TestAssert.assertEquals("writeJson", treeJson, json(tree));
+		TestAssert.assertEquals("toJson", treeJson, tree.toJson());
+		TestAssert.assertEquals("child", "{\"f\":\"BOOLEAN\",\"v\":[true,false]}", json(tree.get(2, 1)));
+	}
+	
+	private static void emptyListAndBody() throws Exception {
+		
+		TestAssert.assertEquals("empty list SML", "<L [0]" + BR + ">", sml(Secs2.list()));
+		TestAssert.assertEquals("empty list JSON", "{\"f\":\"L\",\"v\":[]}", json(Secs2.list()));
+		
+		TestAssert.assertEquals("nested empty list", "<L [1]" + BR + "  <L [0]" + BR + "  >" + BR + ">", sml(Secs2.list(Secs2.list())));
+		
+		TestAssert.assertEquals("empty body SML", "", sml(Secs2.empty()));
+		TestAssert.assertEquals("empty body JSON", "{}", json(Secs2.empty()));
+		TestAssert.assertEquals("empty body toString", "", Secs2.empty().toString());
+	}
+	
+	private static void lazyView() throws Exception {
+		
+		final Secs2 root = lazy(tree);
+		
+		TestAssert.assertEquals("lazy SML", treeSml, sml(root));
+		TestAssert.assertEquals("lazy JSON", treeJson, json(root));
+		TestAssert.assertEquals("lazy toString", treeSml, root.toString());
+		
+		/* lazy child keeps own indent level */
+		TestAssert.assertEquals("lazy child", "<L [2]" + BR
+				+ "  <B [3] 0x00 0x7F 0xFF>" + BR
+				+ "  <BOOLEAN [2] TRUE FALSE>" + BR
+				+ ">", sml(root.get(2)));
+	}
+	
+	private static void extendedItemsInList() throws Exception {
+		
+		final Secs2 ss = ExtendSmlDataItemParser.getInstance().parse("<L <U4AUTO [1]> <I8AUTO [2]> <NOW [16]> >");
+		
+		final String expected = "<L [3]" + BR
+				+ "  <U4AUTO [1] >" + BR
+				+ "  <I8AUTO [1] >" + BR
+				+ "  <NOW [16] >" + BR
+				+ ">";
+				
+		TestAssert.assertEquals("writeSml", expected, sml(ss));
+		TestAssert.assertEquals("toString", expected, ss.toString());
+		
+		/* rendering does not advance auto number */
+		TestAssert.assertEquals("still same", expected, sml(ss));
+	}
+	
+	private static void secs1Message() throws Exception {
+		
+		final Secs1Message m = new Secs1Message(head, Secs2.list(Secs2.ascii("X"), Secs2.uint4(7)));
+		
+		final String expected = "[80 0A|81 01|00 00|00 00 01 02]" + BR
+				+ "S1F1 W" + BR
+				+ "<L [2]" + BR
+				+ "  <A [1] \"X\">" + BR
+				+ "  <U4 [1] 7>" + BR
+				+ ">.";
+				
+		TestAssert.assertEquals("writeTo", expected, writeTo(m));
+		TestAssert.assertEquals("toString", expected, m.toString());
+		
+		final String expectedJson = "{\"strm\":1,\"func\":1,\"wbit\":true,\"deviceId\":10,\"systemBytes\":258,"
+				+ "\"secs2\":{\"f\":\"L\",\"v\":[{\"f\":\"A\",\"v\":\"X\"},{\"f\":\"U4\",\"v\":[7]}]}}";
+				
+		TestAssert.assertEquals("writeJson", expectedJson, writeJson(m));
+		TestAssert.assertEquals("toJson", expectedJson, m.toJson());
+		
+		/* empty body */
+		final Secs1Message e = new Secs1Message(head);
+		
+		TestAssert.assertEquals("empty writeTo", "[80 0A|81 01|00 00|00 00 01 02]" + BR + "S1F1 W.", writeTo(e));
+		TestAssert.assertEquals("empty writeJson", "{\"strm\":1,\"func\":1,\"wbit\":true,\"deviceId\":10,\"systemBytes\":258,\"secs2\":{}}", writeJson(e));
+	}
+	
+	private static void hsmsSsMessage() throws Exception {
+		
+		try (
+				HsmsSsCommunicator comm = HsmsSsCommunicator.newInstance(new HsmsSsCommunicatorConfig());
+				) {
+			
+			final HsmsSsMessage d = comm.createHsmsSsMessage(new byte[] {
+					(byte)0x00, (byte)0x0A, (byte)0x06, (byte)0x0B, (byte)0x00,
+					(byte)0x00, (byte)0x00, (byte)0x00, (byte)0x00, (byte)0x05
+			}, Secs2.binary((byte)0x01));
+			
+			final String expected = "[00 0A|06 0B|00 00|00 00 00 05]" + BR + "S6F11" + BR + "<B [1] 0x01>.";
+			
+			TestAssert.assertEquals("data writeTo", expected, writeTo(d));
+			TestAssert.assertEquals("data toString", expected, d.toString());
+			TestAssert.assertEquals("data writeJson",
+					"{\"strm\":6,\"func\":11,\"wbit\":false,\"deviceId\":10,\"systemBytes\":5,\"secs2\":{\"f\":\"B\",\"v\":[1]}}",
+					writeJson(d));
+					
+			/* control message is header only */
+			final HsmsSsMessage s = comm.createHsmsSsMessage(new byte[] {
+					(byte)0xFF, (byte)0xFF, (byte)0x00, (byte)0x00, (byte)0x00,
+					(byte)0x01, (byte)0x00, (byte)0x00, (byte)0x00, (byte)0x06
+			});
+			
+			TestAssert.assertEquals("control writeTo", "[FF FF|00 00|00 01|00 00 00 06]", writeTo(s));
+			TestAssert.assertEquals("control writeJson", "{\"messageType\":1,\"p\":0,\"s\":0,\"systemBytes\":6}", writeJson(s));
+			TestAssert.assertEquals("control toJson", writeJson(s), s.toJson());
+		}
+	}
+	
+	private static String writeTo(AbstractSecsMessage m) throws IOException {
+		final StringBuilder sb = new StringBuilder();
+		m.writeTo(sb);
+		return sb.toString();
+	}
+	
+	private static String writeJson(AbstractSecsMessage m) throws IOException {
+		final StringBuilder sb = new StringBuilder();
+		m.writeJson(sb);
+		return sb.toString();
+	}
+	
+	/**
+	 * Appendable which throws IOException after limit chars.
+	 *
+	 */
+	private static class FailingAppendable implements Appendable {
+		
+		private final StringBuilder sb = new StringBuilder();
+		private final int limit;
+		
+		private FailingAppendable(int limit) {
+			this.limit = limit;
+		}
+		
+		private Appendable check() throws IOException {
+			if ( sb.length() >= limit ) {
+				throw new IOException("failing appendable");
+			}
+			return this;
+		}
+		
+		@Override
+		public Appendable append(CharSequence csq) throws IOException {
+			check();
+			sb.append(csq);
+			return this;
+		}
+		
+		@Override
+		public Appendable append(CharSequence csq, int start, int end) throws IOException {
+			check();
+			sb.append(csq, start, end);
+			return this;
+		}
+		
+		@Override
+		public Appendable append(char c) throws IOException {
+			check();
+			sb.append(c);
+			return this;
+		}
+	}
+	
+	private static void appendableThrows() throws Exception {
+		
+		final Secs2 root = lazy(tree);
+		
+		for ( int limit : new int[] {0, 1, 20, 100} ) {
+			
+			TestAssert.assertThrows("writeSml " + limit, IOException.class, () -> {
+				tree.writeSml(new FailingAppendable(limit));
+			});
+			
+			TestAssert.assertThrows("writeJson " + limit, IOException.class, () -> {
+				tree.writeJson(new FailingAppendable(limit));
+			});
+			
+			TestAssert.assertThrows("lazy writeSml " + limit, IOException.class, () -> {
+				root.writeSml(new FailingAppendable(limit));
+			});
+			
+			TestAssert.assertThrows("message writeTo " + limit, IOException.class, () -> {
+				new Secs1Message(head, tree).writeTo(new FailingAppendable(limit));
+			});
+		}
+		
+		/* toString never meets IOException */
+		TestAssert.assertEquals("toString after failure", treeSml, tree.toString());
+		
+		/* partial output is written before failure */
+		final FailingAppendable fa = new FailingAppendable(10);
+		TestAssert.assertThrows("partial", IOException.class, () -> {
+			tree.writeSml(fa);
+		});
+		TestAssert.assertTrue("partial prefix", treeSml.startsWith(fa.sb.toString()));
+	}
+	
+}
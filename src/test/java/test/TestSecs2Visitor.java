@@ -0,0 +1,307 @@
+package test;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+
+import com.shimizukenta.secs.secs2.Secs2;
+import com.shimizukenta.secs.secs2.Secs2BytesEncoder;
+import com.shimizukenta.secs.secs2.Secs2BytesParseException;
+import com.shimizukenta.secs.secs2.Secs2BytesParser;
+import com.shimizukenta.secs.secs2.Secs2Exception;
+import com.shimizukenta.secs.secs2.Secs2Item;
+import com.shimizukenta.secs.secs2.Secs2VisitItem;
+import com.shimizukenta.secs.secs2.Secs2VisitResult;
+import com.shimizukenta.secs.secs2.Secs2Visitor;
+
+/**
+ * Tests of event-based visiting of SECS-II encoded bytes.
+ * 
+ * @author kenta-shimizu
+ *
+ */
+public class TestSecs2Visitor {
+	
+	private static final Secs2BytesParser parser = Secs2BytesParser.getInstance();
+	
+	private static final Secs2 tree = Secs2.list(
+			Secs2.ascii("MDLN"),
+			Secs2.list(Secs2.uint4(1L, 0xFFFFFFFFL), Secs2.list(Secs2.bool(true))),
+			Secs2.binary((byte)0x80),
+			Secs2.list(),
+			Secs2.float8(2.5D));
+			
+	public TestSecs2Visitor() {
+		/* Nothing */
+	}
+	
+	public static void main(String[] args) throws Exception {
+		
+		TestAssert.run("events in order", TestSecs2Visitor::eventsInOrder);
+		TestAssert.run("item getters", TestSecs2Visitor::itemGetters);
+		TestAssert.run("skip subtree", TestSecs2Visitor::skipSubtree);
+		TestAssert.run("skip siblings", TestSecs2Visitor::skipSiblings);
+		TestAssert.run("terminate", TestSecs2Visitor::terminate);
+		TestAssert.run("visit Secs2 and lazy view", TestSecs2Visitor::visitSecs2);
+		TestAssert.run("broken bytes", TestSecs2Visitor::brokenBytes);
+		
+		System.exit(0);
+	}
+	
+	private static ByteBuffer encoded(Secs2 ss) throws Exception {
+		return ByteBuffer.wrap(Secs2BytesEncoder.getInstance().encode(ss));
+	}
+	
+	/**
+	 * Records events as string.
+	 *
+	 */
+	private static class Recorder implements Secs2Visitor {
+		
+		protected final List<String> events = new ArrayList<>();
+		
+		@Override
+		public Secs2VisitResult startList(int size) {
+			events.add("L" + size);
+			return Secs2VisitResult.CONTINUE;
+		}
+		
+		@Override
+		public Secs2VisitResult endList() {
+			events.add("/L");
+			return Secs2VisitResult.CONTINUE;
+		}
+		
+		@Override
+		public Secs2VisitResult item(Secs2VisitItem item) throws Secs2Exception {
+			events.add(item.toString());
+			return Secs2VisitResult.CONTINUE;
+		}
+	}
+	
+	private static void eventsInOrder() throws Exception {
+		
+		final Recorder r = new Recorder();
+		final ByteBuffer bf = encoded(tree);
+		
+		TestAssert.assertTrue("completed", parser.visit(bf, r));
+		TestAssert.assertEquals("events", "[L5, A [4], L2, U4 [2], L1, BOOLEAN [1], /L, /L, B [1], L0, /L, F8 [1], /L]", r.events.toString());
+		TestAssert.assertEquals("buffer position not changed", 0, bf.position());
+		
+		/* empty body */
+		final Recorder e = new Recorder();
+		TestAssert.assertTrue("empty", parser.visit(ByteBuffer.allocate(0), e));
+		TestAssert.assertTrue("no events", e.events.isEmpty());
+		
+		/* default methods */
+		TestAssert.assertTrue("default visitor", parser.visit(encoded(tree), new Secs2Visitor() {}));
+	}
+	
+	private static void itemGetters() throws Exception {
+		
+		final List<Object> values = new ArrayList<>();
+		
+		parser.visit(encoded(tree), new Secs2Visitor() {
+			
+			@Override
+			public Secs2VisitResult item(Secs2VisitItem item) throws Secs2Exception {
+				
+				switch ( item.secs2Item() ) {
+				case ASCII: {
+					values.add(item.getAscii());
+					values.add(Boolean.valueOf(item.asciiEquals("MDLN")));
+					values.add(Boolean.valueOf(item.asciiEquals("MDL")));
+					break;
+				}
+				case UINT4: {
+					values.add(Long.valueOf(item.getLong(1)));
+					values.add(Integer.valueOf(item.size()));
+					values.add(Integer.valueOf(item.length()));
+					break;
+				}
+				case BOOLEAN: {
+					values.add(Boolean.valueOf(item.getBoolean(0)));
+					break;
+				}
+				case BINARY: {
+					values.add(Byte.valueOf(item.getByte(0)));
+					values.add(Boolean.valueOf(item.body().isReadOnly()));
+					values.add(Integer.valueOf(item.body().remaining()));
+					break;
+				}
+				case FLOAT8: {
+					values.add(Double.valueOf(item.getDouble(0)));
+					break;
+				}
+				default: {
+					/* Nothing */
+				}
+				}
+				
+				return Secs2VisitResult.CONTINUE;
+			}
+		});
+		
+		TestAssert.assertEquals("values", "[MDLN, true, false, 4294967295, 2, 8, true, -128, true, 1, 2.5]", values.toString());
+		
+		/* boolean TRUE is not-zero byte */
+		final List<Boolean> bools = new ArrayList<>();
+		
+		parser.visit(ByteBuffer.wrap(new byte[] {(byte)0x25, (byte)0x02, (byte)0x01, (byte)0x00}), new Secs2Visitor() {
+			
+			@Override
+			public Secs2VisitResult item(Secs2VisitItem item) throws Secs2Exception {
+				
+				bools.add(Boolean.valueOf(item.getBoolean(0)));
+				bools.add(Boolean.valueOf(item.getBoolean(1)));
+				
+				TestAssert.assertThrows("index over", Secs2Exception.class, () -> {
+					item.getBoolean(2);
+				});
+				
+				TestAssert.assertThrows("not ascii", Secs2Exception.class, () -> {
+					item.getAscii();
+				});
+				
+				TestAssert.assertThrows("not number", Secs2Exception.class, () -> {
+					item.getLong(0);
+				});
+				
+				return Secs2VisitResult.CONTINUE;
+			}
+		});
+		
+		TestAssert.assertEquals("bools", "[true, false]", bools.toString());
+		
+		/* U8 above Long.MAX_VALUE */
+		parser.visit(encoded(Secs2.uint8(-1L)), new Secs2Visitor() {
+			
+			@Override
+			public Secs2VisitResult item(Secs2VisitItem item) throws Secs2Exception {
+				TestAssert.assertTrue("U8 double", item.getDouble(0) > 1.8E19D);
+				return Secs2VisitResult.CONTINUE;
+			}
+		});
+	}
+	
+	private static void skipSubtree() throws Exception {
+		
+		final Recorder r = new Recorder() {
+			
+			@Override
+			public Secs2VisitResult startList(int size) {
+				super.startList(size);
+				return size == 2 ? Secs2VisitResult.SKIP_SUBTREE : Secs2VisitResult.CONTINUE;
+			}
+		};
+		
+		TestAssert.assertTrue("completed", parser.visit(encoded(tree), r));
+		
+		/* endList is not called for skipped list */
+		TestAssert.assertEquals("events", "[L5, A [4], L2, B [1], L0, /L, F8 [1], /L]", r.events.toString());
+	}
+	
+	private static void skipSiblings() throws Exception {
+		
+		final Recorder r = new Recorder() {
+			
+			@Override
+			public Secs2VisitResult item(Secs2VisitItem item) throws Secs2Exception {
+				super.item(item);
+				return item.secs2Item() == Secs2Item.UINT4 ? Secs2VisitResult.SKIP_SIBLINGS : Secs2VisitResult.CONTINUE;
+			}
+		};
+		
+		TestAssert.assertTrue("completed", parser.visit(encoded(tree), r));
+		TestAssert.assertEquals("events", "[L5, A [4], L2, U4 [2], /L, B [1], L0, /L, F8 [1], /L]", r.events.toString());
+		
+		/* SKIP_SIBLINGS at startList skips list and siblings */
+		final Recorder s = new Recorder() {
+			
+			@Override
+			public Secs2VisitResult startList(int size) {
+				super.startList(size);
+				return size == 1 ? Secs2VisitResult.SKIP_SIBLINGS : Secs2VisitResult.CONTINUE;
+			}
+		};
+		
+		parser.visit(encoded(Secs2.list(Secs2.list(Secs2.list(Secs2.ascii("X")), Secs2.ascii("Y")), Secs2.ascii("Z"))), s);
+		TestAssert.assertEquals("startList", "[L2, L2, L1, /L, A [1], /L]", s.events.toString());
+	}
+	
+	private static void terminate() throws Exception {
+		
+		final Recorder r = new Recorder() {
+			
+			@Override
+			public Secs2VisitResult item(Secs2VisitItem item) throws Secs2Exception {
+				super.item(item);
+				return item.secs2Item() == Secs2Item.BOOLEAN ? Secs2VisitResult.TERMINATE : Secs2VisitResult.CONTINUE;
+			}
+		};
+		
+		TestAssert.assertFalse("terminated", parser.visit(encoded(tree), r));
+		TestAssert.assertEquals("events", "[L5, A [4], L2, U4 [2], L1, BOOLEAN [1]]", r.events.toString());
+		
+		final Recorder s = new Recorder() {
+			
+			@Override
+			public Secs2VisitResult endList() {
+				super.endList();
+				return Secs2VisitResult.TERMINATE;
+			}
+		};
+		
+		TestAssert.assertFalse("terminated at endList", parser.visit(encoded(tree), s));
+		TestAssert.assertEquals("endList", "[L5, A [4], L2, U4 [2], L1, BOOLEAN [1], /L]", s.events.toString());
+	}
+	
+	private static void visitSecs2() throws Exception {
+		
+		final Recorder a = new Recorder();
+		final Recorder b = new Recorder();
+		final Recorder c = new Recorder();
+		
+		parser.visit(tree, a);
+		parser.visit(parser.parseLazy(encoded(tree)), b);
+		parser.visit(parser.parseLazy(encoded(tree)).get(1), c);
+		
+		TestAssert.assertEquals("lazy", a.events, b.events);
+		TestAssert.assertEquals("lazy child", "[L2, U4 [2], L1, BOOLEAN [1], /L, /L]", c.events.toString());
+		
+		/* empty */
+		final Recorder e = new Recorder();
+		TestAssert.assertTrue("empty", parser.visit(Secs2.empty(), e));
+		TestAssert.assertTrue("no events", e.events.isEmpty());
+	}
+	
+	private static void brokenBytes() throws Exception {
+		
+		TestAssert.assertThrows("list over body", Secs2BytesParseException.class, () -> {
+			parser.visit(ByteBuffer.wrap(new byte[] {(byte)0x01, (byte)0x02, (byte)0x41, (byte)0x00}), new Recorder());
+		});
+		
+		TestAssert.assertThrows("item over body", Secs2BytesParseException.class, () -> {
+			parser.visit(ByteBuffer.wrap(new byte[] {(byte)0x41, (byte)0x05, (byte)'A'}), new Recorder());
+		});
+		
+		TestAssert.assertThrows("length bytes over body", Secs2BytesParseException.class, () -> {
+			parser.visit(ByteBuffer.wrap(new byte[] {(byte)0x43, (byte)0x00}), new Recorder());
+		});
+		
+		TestAssert.assertThrows("not reach end", Secs2BytesParseException.class, () -> {
+			parser.visit(ByteBuffer.wrap(new byte[] {(byte)0x41, (byte)0x00, (byte)0x41}), new Recorder());
+		});
+		
+		TestAssert.assertThrows("skipped list over body", Secs2BytesParseException.class, () -> {
+			parser.visit(ByteBuffer.wrap(new byte[] {(byte)0x01, (byte)0x02, (byte)0x41, (byte)0x00}), new Secs2Visitor() {
+				
+				@Override
+				public Secs2VisitResult startList(int size) {
+					return Secs2VisitResult.SKIP_SUBTREE;
+				}
+			});
+		});
+	}
+	
+}
@@ -0,0 +1,189 @@
+package test;
+
+import java.nio.ByteBuffer;
+
+import com.shimizukenta.secs.SecsMessage;
+import com.shimizukenta.secs.secs2.Secs2;
+import com.shimizukenta.secs.secs2.Secs2BuildException;
+import com.shimizukenta.secs.secs2.Secs2BytesEncoder;
+import com.shimizukenta.secs.secs2.Secs2Writer;
+
+/**
+ * Tests of streaming writer of SECS-II encoded bytes.
+ * 
+ * @author kenta-shimizu
+ *
+ */
+public class TestSecs2Writer {
+	
+	public TestSecs2Writer() {
+		/* Nothing */
+	}
+	
+	public static void main(String[] args) throws Exception {
+		
+		TestAssert.run("same bytes as tree", TestSecs2Writer::sameAsTree);
+		TestAssert.run("boolean TRUE is 0xFF", TestSecs2Writer::booleanTrue);
+		TestAssert.run("grow buffer", TestSecs2Writer::growBuffer);
+		TestAssert.run("write to buffer", TestSecs2Writer::writeToBuffer);
+		TestAssert.run("list counts", TestSecs2Writer::listCounts);
+		TestAssert.run("send written", () -> sendWritten(24801));
+		
+		System.exit(0);
+	}
+	
+	private static void assertSameBytes(String message, Secs2 expected, Secs2Writer w) throws Exception {
+		
+		final Secs2BytesEncoder encoder = Secs2BytesEncoder.getInstance();
+		final Secs2 ss = w.toSecs2();
+		
+		TestAssert.assertArrayEquals(message, encoder.encode(expected), encoder.encode(ss));
+		TestAssert.assertEquals(message + " length", (int)(encoder.encodedLength(expected)), w.length());
+		TestAssert.assertEquals(message + " equals", expected, ss);
+	}
+	
+	private static void sameAsTree() throws Exception {
+		
+		final Secs2Writer w = Secs2Writer.create();
+		
+		w.beginList(6)
+			.ascii("ABC")
+			.beginList(2).uint4(1, 2).int8(-1L)
+			.binary((byte)0x01, (byte)0x02)
+			.bool(true, false)
+			.beginList(0)
+			.beginList(3).float4(1.5F).float8(-2.5D).item(Secs2.list(Secs2.uint1(7)));
+			
+		TestAssert.assertTrue("completed", w.isCompleted());
+		
+		assertSameBytes("tree", Secs2.list(
+				Secs2.ascii("ABC"),
+				Secs2.list(Secs2.uint4(1, 2), Secs2.int8(-1L)),
+				Secs2.binary((byte)0x01, (byte)0x02),
+				Secs2.bool(true, false),
+				Secs2.list(),
+				Secs2.list(Secs2.float4(1.5F), Secs2.float8(-2.5D), Secs2.list(Secs2.uint1(7)))), w);
+				
+		/* each numeric item */
+		assertSameBytes("I1", Secs2.int1(-1, 2), Secs2Writer.create().int1(-1, 2));
+		assertSameBytes("I2", Secs2.int2(-300L), Secs2Writer.create().int2(-300L));
+		assertSameBytes("I4", Secs2.int4(Integer.MIN_VALUE), Secs2Writer.create().int4(Integer.MIN_VALUE));
+		assertSameBytes("I8", Secs2.int8(5), Secs2Writer.create().int8(5));
+		assertSameBytes("U1", Secs2.uint1(255), Secs2Writer.create().uint1(255));
+		assertSameBytes("U2", Secs2.uint2(65535L), Secs2Writer.create().uint2(65535L));
+		assertSameBytes("U4", Secs2.uint4(0xFFFFFFFFL), Secs2Writer.create().uint4(0xFFFFFFFFL));
+		assertSameBytes("U8", Secs2.uint8(-1L), Secs2Writer.create().uint8(-1L));
+		assertSameBytes("empty ascii", Secs2.ascii(""), Secs2Writer.create().ascii(""));
+		assertSameBytes("empty U4", Secs2.uint4(), Secs2Writer.create().uint4(new int[0]));
+		assertSameBytes("binary buffer", Secs2.binary((byte)9), Secs2Writer.create().binary(ByteBuffer.wrap(new byte[] {(byte)9})));
+	}
+	
+	private static void booleanTrue() throws Exception {
+		
+		final Secs2Writer w = Secs2Writer.create().bool(true, false, true);
+		final byte[] bs = Secs2BytesEncoder.getInstance().encode(w.toSecs2());
+		
+		TestAssert.assertArrayEquals("bytes", new byte[] {(byte)0x25, (byte)0x03, (byte)0xFF, (byte)0x00, (byte)0xFF}, bs);
+		TestAssert.assertArrayEquals("same as Secs2.bool", Secs2BytesEncoder.getInstance().encode(Secs2.bool(true, false, true)), bs);
+		TestAssert.assertTrue("getBoolean", w.toSecs2().getBoolean(2));
+	}
+	
+	private static void growBuffer() throws Exception {
+		
+		final Secs2Writer w = Secs2Writer.create(0);
+		final int m = 1000;
+		
+		w.beginList(m);
+		
+		for ( int i = 0; i < m; ++i ) {
+			w.uint4(i);
+		}
+		
+		TestAssert.assertTrue("completed", w.isCompleted());
+		TestAssert.assertEquals("value", 999, w.toSecs2().getInt(999, 0));
+		TestAssert.assertEquals("length", 3 + m * 6, w.length());
+		
+		final Secs2Writer big = Secs2Writer.create(4).binary(new byte[100000]);
+		TestAssert.assertEquals("big", 100000, big.toSecs2().size());
+		
+		TestAssert.assertThrows("negative capacity", IllegalArgumentException.class, () -> {
+			Secs2Writer.create(-1);
+		});
+	}
+	
+	private static void writeToBuffer() throws Exception {
+		
+		final ByteBuffer buffer = ByteBuffer.allocateDirect(64);
+		buffer.position(10);
+		
+		final Secs2Writer w = Secs2Writer.to(buffer);
+		w.beginList(2).ascii("D").uint2(3);
+		
+		TestAssert.assertEquals("buffer position not changed", 10, buffer.position());
+		TestAssert.assertEquals("length", 2 + 3 + 4, w.length());
+		TestAssert.assertEquals("value", Secs2.list(Secs2.ascii("D"), Secs2.uint2(3)), w.toSecs2());
+		TestAssert.assertEquals("written at position", (byte)0x01, buffer.get(10));
+		
+		/* buffer not grown */
+		final Secs2Writer small = Secs2Writer.to(ByteBuffer.allocate(4));
+		
+		TestAssert.assertThrows("overflow", Secs2BuildException.class, () -> {
+			small.binary(new byte[3]);
+		});
+	}
+	
+	private static void listCounts() throws Exception {
+		
+		final Secs2Writer w = Secs2Writer.create().beginList(2).uint1(1);
+		
+		TestAssert.assertFalse("not completed", w.isCompleted());
+		
+		TestAssert.assertThrows("toSecs2 before completed", Secs2BuildException.class, () -> {
+			w.toSecs2();
+		});
+		
+		w.uint1(2);
+		
+		TestAssert.assertTrue("completed", w.isCompleted());
+		
+		TestAssert.assertThrows("root already written", Secs2BuildException.class, () -> {
+			w.uint1(3);
+		});
+		
+		TestAssert.assertFalse("empty not completed", Secs2Writer.create().isCompleted());
+		
+		TestAssert.assertThrows("empty item", Secs2BuildException.class, () -> {
+			Secs2Writer.create().item(Secs2.empty());
+		});
+		
+		/* nested lists closed at once */
+		final Secs2Writer n = Secs2Writer.create().beginList(1).beginList(1).beginList(1).ascii("X");
+		TestAssert.assertTrue("nested completed", n.isCompleted());
+		TestAssert.assertEquals("nested", "X", n.toSecs2().getAscii(0, 0, 0));
+		
+		/* deep list grows counts */
+		final Secs2Writer d = Secs2Writer.create();
+		
+		for ( int i = 0; i < 20; ++i ) {
+			d.beginList(1);
+		}
+		
+		d.bool(true);
+		TestAssert.assertTrue("deep completed", d.isCompleted());
+	}
+	
+	private static void sendWritten(int port) throws Exception {
+		
+		try (
+				HsmsSsLoopback lb = HsmsSsLoopback.open(port, c -> {});
+				) {
+			
+			final Secs2 ss = Secs2Writer.create().beginList(2).bool(true).uint4(1, 2, 3).toSecs2();
+			final SecsMessage r = lb.host.send(6, 11, true, ss).get();
+			
+			TestAssert.assertEquals("echo", Secs2.list(Secs2.bool(true), Secs2.uint4(1, 2, 3)), r.secs2());
+			TestAssert.assertTrue("boolean", r.secs2().getBoolean(0, 0));
+		}
+	}
+	
+}
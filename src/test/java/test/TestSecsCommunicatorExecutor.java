@@ -0,0 +1,182 @@
+package test;
+
+import java.nio.channels.AsynchronousChannelGroup;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import com.shimizukenta.secs.SecsMessage;
+import com.shimizukenta.secs.SecsThreadFactories;
+import com.shimizukenta.secs.secs2.Secs2;
+
+/**
+ * Tests of shared executor, thread-factory and channel-group of communicators.
+ * 
+ * @author kenta-shimizu
+ *
+ */
+public class TestSecsCommunicatorExecutor {
+	
+	public TestSecsCommunicatorExecutor() {
+		/* Nothing */
+	}
+	
+	public static void main(String[] args) throws Exception {
+		
+		TestAssert.run("daemon thread-factory", TestSecsCommunicatorExecutor::daemonFactory);
+		TestAssert.run("virtual or daemon thread-factory", TestSecsCommunicatorExecutor::virtualOrDaemonFactory);
+		TestAssert.run("shared executor and channel-group", TestSecsCommunicatorExecutor::sharedExecutor);
+		TestAssert.run("thread-factory of own executor", TestSecsCommunicatorExecutor::ownThreadFactory);
+		
+		System.exit(0);
+	}
+	
+	private static void daemonFactory() throws Exception {
+		
+		final ThreadFactory f = SecsThreadFactories.daemon("x-");
+		
+		final Thread a = f.newThread(() -> {});
+		final Thread b = f.newThread(() -> {});
+		
+		TestAssert.assertEquals("name", "x-0", a.getName());
+		TestAssert.assertEquals("name", "x-1", b.getName());
+		TestAssert.assertTrue("daemon", a.isDaemon() && b.isDaemon());
+		
+		TestAssert.assertThrows("null prefix", NullPointerException.class, () -> {
+			SecsThreadFactories.daemon(null);
+		});
+	}
+	
+	private static void virtualOrDaemonFactory() throws Exception {
+		
+		final ThreadFactory f = SecsThreadFactories.virtualOrDaemon("y-");
+		final Thread th = f.newThread(() -> {});
+		
+		TestAssert.assertTrue("daemon", th.isDaemon());
+		
+		if ( SecsThreadFactories.isVirtualThreadSupported() ) {
+			
+			TestAssert.assertTrue("virtual", SecsThreadFactories.virtual() != null);
+			
+		} else {
+			
+			TestAssert.assertEquals("fallback to daemon", "y-0", th.getName());
+			
+			TestAssert.assertThrows("virtual not supported", UnsupportedOperationException.class, () -> {
+				SecsThreadFactories.virtual();
+			});
+		}
+	}
+	
+	private static void sharedExecutor() throws Exception {
+		
+		/* communicator runs long-running tasks while opened, use unbounded pool */
+		final ExecutorService exec = Executors.newCachedThreadPool(SecsThreadFactories.daemon("shared-"));
+		final AsynchronousChannelGroup group = AsynchronousChannelGroup.withFixedThreadPool(2, SecsThreadFactories.daemon("group-"));
+		
+		try {
+			
+			final List<HsmsSsLoopback> pairs = new ArrayList<>();
+			
+			try {
+				
+				for ( int i = 0; i < 3; ++i ) {
+					
+					final boolean asyncReading = (i % 2) == 0;
+					
+					pairs.add(HsmsSsLoopback.open(24101 + i, c -> {
+						c.executorService(exec);
+						c.channelGroup(group);
+						c.asyncReading(asyncReading);
+					}));
+				}
+				
+				for ( int n = 0; n < 20; ++n ) {
+					for ( HsmsSsLoopback lb : pairs ) {
+						
+						final Secs2 body = Secs2.uint4(n);
+						final SecsMessage r = lb.host.send(1, 1, true, body).get();
+						
+						TestAssert.assertEquals("function", 2, r.getFunction());
+						TestAssert.assertEquals("echo body", body, r.secs2());
+					}
+				}
+				
+				/* close one, others continue */
+				pairs.remove(0).close();
+				
+				for ( HsmsSsLoopback lb : pairs ) {
+					TestAssert.assertEquals("continue", 2, lb.host.send(1, 1, true, Secs2.empty()).get().getFunction());
+				}
+			}
+			finally {
+				
+				for ( HsmsSsLoopback lb : pairs ) {
+					lb.close();
+				}
+			}
+			
+			/* shared executor and group are not shutdown by close */
+			TestAssert.assertFalse("executor not shutdown", exec.isShutdown());
+			TestAssert.assertFalse("group not shutdown", group.isShutdown());
+			TestAssert.assertEquals("executor accepts tasks", "ok", exec.submit(() -> "ok").get(5L, TimeUnit.SECONDS));
+			
+			/* tasks of closed communicators are cancelled, threads are released */
+			TimeUnit.MILLISECONDS.sleep(500L);
+			TestAssert.assertEquals("no active tasks", 0, ((ThreadPoolExecutor)exec).getActiveCount());
+			
+			/* reopen on same executor and group */
+			try (
+					HsmsSsLoopback lb = HsmsSsLoopback.open(24104, c -> {
+						c.executorService(exec);
+						c.channelGroup(group);
+					});
+					) {
+				
+				TestAssert.assertEquals("reopen", 2, lb.host.send(1, 1, true, Secs2.empty()).get().getFunction());
+			}
+		}
+		finally {
+			exec.shutdownNow();
+			group.shutdownNow();
+		}
+	}
+	
+	private static void ownThreadFactory() throws Exception {
+		
+		final AtomicInteger created = new AtomicInteger();
+		final ThreadFactory base = SecsThreadFactories.daemon("own-");
+		final AtomicReference<Thread> received = new AtomicReference<>();
+		final CountDownLatch latch = new CountDownLatch(1);
+		
+		try (
+				HsmsSsLoopback lb = HsmsSsLoopback.open(24105, c -> {
+					c.threadFactory(r -> {
+						created.incrementAndGet();
+						return base.newThread(r);
+					});
+				});
+				) {
+			
+			lb.host.addSecsMessageReceiveListener(msg -> {
+				received.set(Thread.currentThread());
+				latch.countDown();
+			});
+			
+			lb.equip.send(5, 1, false, Secs2.empty());
+			
+			TestAssert.assertTrue("received", latch.await(5L, TimeUnit.SECONDS));
+			TestAssert.assertTrue("threads created", created.get() > 0);
+			TestAssert.assertTrue("thread name " + received.get().getName(), received.get().getName().startsWith("own-"));
+			TestAssert.assertTrue("daemon", received.get().isDaemon());
+		}
+	}
+	
+}
@@ -0,0 +1,181 @@
+package test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+import com.shimizukenta.secs.SecsTimerWheel;
+
+/**
+ * Tests of shared hashed-wheel timer.
+ * 
+ * @author kenta-shimizu
+ *
+ */
+public class TestSecsTimerWheel {
+	
+	private static final SecsTimerWheel wheel = SecsTimerWheel.getInstance();
+	
+	public TestSecsTimerWheel() {
+		/* Nothing */
+	}
+	
+	public static void main(String[] args) throws Exception {
+		
+		TestAssert.run("expire after delay", TestSecsTimerWheel::expireAfterDelay);
+		TestAssert.run("zero and negative delay", TestSecsTimerWheel::zeroAndNegativeDelay);
+		TestAssert.run("cancel", TestSecsTimerWheel::cancel);
+		TestAssert.run("expire in order", TestSecsTimerWheel::expireInOrder);
+		TestAssert.run("throwing task", TestSecsTimerWheel::throwingTask);
+		TestAssert.run("many timers with cancel", TestSecsTimerWheel::manyTimers);
+		TestAssert.run("longer than one round", TestSecsTimerWheel::longerThanOneRound);
+		
+		System.exit(0);
+	}
+	
+	private static void expireAfterDelay() throws Exception {
+		
+		final CountDownLatch latch = new CountDownLatch(1);
+		final AtomicLong elapsed = new AtomicLong();
+		final AtomicReference<String> threadName = new AtomicReference<>();
+		
+		final long start = System.nanoTime();
+		
+		final SecsTimerWheel.Timer t = wheel.schedule(() -> {
+			elapsed.set(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+			threadName.set(Thread.currentThread().getName());
+			latch.countDown();
+		}, 200L, TimeUnit.MILLISECONDS);
+		
+		TestAssert.assertFalse("not expired yet", t.isExpired());
+		TestAssert.assertTrue("expired", latch.await(5L, TimeUnit.SECONDS));
+		TestAssert.assertTrue("after delay " + elapsed.get(), elapsed.get() >= 190L && elapsed.get() < 1000L);
+		TestAssert.assertTrue("isExpired", t.isExpired());
+		TestAssert.assertFalse("isCancelled", t.isCancelled());
+		TestAssert.assertFalse("cancel after expired", t.cancel());
+		TestAssert.assertEquals("timer thread", "SecsTimerWheel", threadName.get());
+	}
+	
+	private static void zeroAndNegativeDelay() throws Exception {
+		
+		final CountDownLatch latch = new CountDownLatch(2);
+		
+		wheel.schedule(latch::countDown, 0L, TimeUnit.MILLISECONDS);
+		wheel.schedule(latch::countDown, -100L, TimeUnit.MILLISECONDS);
+		
+		TestAssert.assertTrue("expired soon", latch.await(1L, TimeUnit.SECONDS));
+	}
+	
+	private static void cancel() throws Exception {
+		
+		final AtomicInteger count = new AtomicInteger();
+		
+		final SecsTimerWheel.Timer t = wheel.schedule(count::incrementAndGet, 100L, TimeUnit.MILLISECONDS);
+		
+		TestAssert.assertTrue("cancel", t.cancel());
+		TestAssert.assertFalse("cancel twice", t.cancel());
+		TestAssert.assertTrue("isCancelled", t.isCancelled());
+		
+		/* cancel after transferred to wheel */
+		final SecsTimerWheel.Timer u = wheel.schedule(count::incrementAndGet, 300L, TimeUnit.MILLISECONDS);
+		TimeUnit.MILLISECONDS.sleep(100L);
+		TestAssert.assertTrue("cancel in wheel", u.cancel());
+		
+		TimeUnit.MILLISECONDS.sleep(500L);
+		
+		TestAssert.assertEquals("not run", 0, count.get());
+		TestAssert.assertFalse("not expired", t.isExpired() || u.isExpired());
+	}
+	
+	private static void expireInOrder() throws Exception {
+		
+		final int m = 10;
+		final Queue<Integer> fired = new ConcurrentLinkedQueue<>();
+		final CountDownLatch latch = new CountDownLatch(m);
+		
+		/* schedule reverse order, delays are longer than resolution */
+		for ( int i = m - 1; i >= 0; --i ) {
+			
+			final Integer v = Integer.valueOf(i);
+			
+			wheel.schedule(() -> {
+				fired.add(v);
+				latch.countDown();
+			}, 50L + 40L * i, TimeUnit.MILLISECONDS);
+		}
+		
+		TestAssert.assertTrue("all expired", latch.await(5L, TimeUnit.SECONDS));
+		
+		final List<Integer> list = new ArrayList<>(fired);
+		
+		for ( int i = 0; i < m; ++i ) {
+			TestAssert.assertEquals("order", Integer.valueOf(i), list.get(i));
+		}
+	}
+	
+	private static void throwingTask() throws Exception {
+		
+		final CountDownLatch latch = new CountDownLatch(1);
+		
+		wheel.schedule(() -> {
+			throw new IllegalStateException("from test");
+		}, 10L, TimeUnit.MILLISECONDS);
+		
+		wheel.schedule(latch::countDown, 50L, TimeUnit.MILLISECONDS);
+		
+		TestAssert.assertTrue("timer continues", latch.await(2L, TimeUnit.SECONDS));
+	}
+	
+	private static void manyTimers() throws Exception {
+		
+		final int m = 100000;
+		final AtomicInteger count = new AtomicInteger();
+		final List<SecsTimerWheel.Timer> timers = new ArrayList<>(m);
+		
+		for ( int i = 0; i < m; ++i ) {
+			final long delay = ThreadLocalRandom.current().nextLong(500L);
+			timers.add(wheel.schedule(count::incrementAndGet, delay, TimeUnit.MILLISECONDS));
+		}
+		
+		int cancelled = 0;
+		
+		for ( int i = 0; i < m; i += 2 ) {
+			if ( timers.get(i).cancel() ) {
+				++ cancelled;
+			}
+		}
+		
+		TimeUnit.MILLISECONDS.sleep(1500L);
+		
+		TestAssert.assertEquals("expired count", m - cancelled, count.get());
+		
+		for ( SecsTimerWheel.Timer t : timers ) {
+			TestAssert.assertTrue("expired or cancelled", t.isExpired() != t.isCancelled());
+		}
+	}
+	
+	private static void longerThanOneRound() throws Exception {
+		
+		/* one round is 512 ticks of 10 milli-seconds */
+		final CountDownLatch latch = new CountDownLatch(1);
+		final AtomicLong elapsed = new AtomicLong();
+		
+		final long start = System.nanoTime();
+		
+		wheel.schedule(() -> {
+			elapsed.set(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+			latch.countDown();
+		}, 5500L, TimeUnit.MILLISECONDS);
+		
+		TestAssert.assertTrue("expired", latch.await(10L, TimeUnit.SECONDS));
+		TestAssert.assertTrue("not in first round " + elapsed.get(), elapsed.get() >= 5450L);
+	}
+	
+}